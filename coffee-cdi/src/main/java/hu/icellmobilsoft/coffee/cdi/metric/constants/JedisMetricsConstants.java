@@ -41,6 +41,33 @@ public interface JedisMetricsConstants {
          * key for server pool
          */
         String COFFEE_JEDIS_POOL_CONFIG_KEY = "poolConfigKey";
+        /**
+         * key for cache name
+         */
+        String COFFEE_JEDIS_CACHE = "cache";
+        /**
+         * key for cache tier
+         */
+        String COFFEE_JEDIS_CACHE_TIER = "tier";
+        /**
+         * key for redis command
+         */
+        String COFFEE_JEDIS_COMMAND = "command";
+    }
+
+    /**
+     * Values of the {@link Tag#COFFEE_JEDIS_CACHE_TIER} tag
+     */
+    interface CacheTier {
+
+        /**
+         * In-process near cache in front of Redis
+         */
+        String NEAR = "near";
+        /**
+         * Redis
+         */
+        String REDIS = "redis";
     }
 
     /**
@@ -57,6 +84,61 @@ public interface JedisMetricsConstants {
          * Idle jedis pool connections
          */
         String COFFEE_JEDIS_POOL_IDLE_DESCRIPTION = "Idle connection number";
+
+        /**
+         * Cache hits
+         */
+        String COFFEE_JEDIS_CACHE_HIT_DESCRIPTION = "Cache hits per tier";
+
+        /**
+         * Cache misses
+         */
+        String COFFEE_JEDIS_CACHE_MISS_DESCRIPTION = "Cache misses per tier";
+
+        /**
+         * Client-side cache entries
+         */
+        String COFFEE_JEDIS_CLIENT_CACHE_SIZE_DESCRIPTION = "Client-side cache entry number";
+
+        /**
+         * Client-side cache hits
+         */
+        String COFFEE_JEDIS_CLIENT_CACHE_HIT_DESCRIPTION = "Client-side cache hits";
+
+        /**
+         * Client-side cache misses
+         */
+        String COFFEE_JEDIS_CLIENT_CACHE_MISS_DESCRIPTION = "Client-side cache misses";
+
+        /**
+         * Client-side cache evictions
+         */
+        String COFFEE_JEDIS_CLIENT_CACHE_EVICT_DESCRIPTION = "Client-side cache evictions by size";
+
+        /**
+         * Client-side cache invalidations
+         */
+        String COFFEE_JEDIS_CLIENT_CACHE_INVALIDATION_DESCRIPTION = "Client-side cache invalidations by Redis";
+
+        /**
+         * Mean pool borrow wait
+         */
+        String COFFEE_JEDIS_POOL_BORROW_WAIT_MEAN_DESCRIPTION = "Mean wait time of the recent pool borrows in milliseconds";
+
+        /**
+         * Max pool borrow wait
+         */
+        String COFFEE_JEDIS_POOL_BORROW_WAIT_MAX_DESCRIPTION = "Maximum pool borrow wait time in milliseconds";
+
+        /**
+         * Command duration
+         */
+        String COFFEE_JEDIS_COMMAND_DESCRIPTION = "Redis command duration";
+
+        /**
+         * Command errors
+         */
+        String COFFEE_JEDIS_COMMAND_ERROR_DESCRIPTION = "Failed redis commands";
     }
 
     /**
@@ -75,5 +157,76 @@ public interface JedisMetricsConstants {
          */
         String COFFEE_JEDIS_POOL_IDLE = "coffee_jedis_pool_idle";
 
+        /**
+         * Client-side cache entries
+         */
+        String COFFEE_JEDIS_CLIENT_CACHE_SIZE = "coffee_jedis_client_cache_size";
+
+        /**
+         * Mean pool borrow wait
+         */
+        String COFFEE_JEDIS_POOL_BORROW_WAIT_MEAN = "coffee_jedis_pool_borrow_wait_mean";
+
+        /**
+         * Max pool borrow wait
+         */
+        String COFFEE_JEDIS_POOL_BORROW_WAIT_MAX = "coffee_jedis_pool_borrow_wait_max";
+
+    }
+
+    /**
+     * Counter constants
+     *
+     */
+    interface Counter {
+
+        /**
+         * Cache hits
+         */
+        String COFFEE_JEDIS_CACHE_HIT = "coffee_jedis_cache_hit";
+
+        /**
+         * Cache misses
+         */
+        String COFFEE_JEDIS_CACHE_MISS = "coffee_jedis_cache_miss";
+
+        /**
+         * Client-side cache hits
+         */
+        String COFFEE_JEDIS_CLIENT_CACHE_HIT = "coffee_jedis_client_cache_hit";
+
+        /**
+         * Client-side cache misses
+         */
+        String COFFEE_JEDIS_CLIENT_CACHE_MISS = "coffee_jedis_client_cache_miss";
+
+        /**
+         * Client-side cache evictions
+         */
+        String COFFEE_JEDIS_CLIENT_CACHE_EVICT = "coffee_jedis_client_cache_evict";
+
+        /**
+         * Client-side cache invalidations
+         */
+        String COFFEE_JEDIS_CLIENT_CACHE_INVALIDATION = "coffee_jedis_client_cache_invalidation";
+
+        /**
+         * Command errors
+         */
+        String COFFEE_JEDIS_COMMAND_ERROR = "coffee_jedis_command_error";
+
+    }
+
+    /**
+     * Timer constants
+     *
+     */
+    interface Timer {
+
+        /**
+         * Command duration
+         */
+        String COFFEE_JEDIS_COMMAND = "coffee_jedis_command";
+
     }
 }
@@ -0,0 +1,156 @@
+/*-
+ * #%L
+ * Coffee
+ * %%
+ * Copyright (C) 2020 - 2026 i-Cell Mobilsoft Zrt.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package hu.icellmobilsoft.coffee.cdi.metric.constants;
+
+/**
+ * Redis stream metric constants
+ * 
+ * @author agent
+ * @since 2.13.0
+ *
+ */
+public interface RedisStreamMetricsConstants {
+
+    /**
+     * Redis stream metrics tags
+     */
+    interface Tag {
+
+        /**
+         * key for redis stream group
+         */
+        String COFFEE_REDISSTREAM_GROUP = "group";
+
+        /**
+         * key for redis stream key
+         */
+        String COFFEE_REDISSTREAM_STREAM = "stream";
+    }
+
+    /**
+     * Redis stream metrics description
+     */
+    interface Description {
+
+        /**
+         * Reclaimed pending entries
+         */
+        String COFFEE_REDISSTREAM_RECLAIMED_DESCRIPTION = "Pending stream entries reclaimed from idle consumers";
+
+        /**
+         * Consumer group lag
+         */
+        String COFFEE_REDISSTREAM_LAG_DESCRIPTION = "Stream entries not yet delivered to the consumer group (XINFO GROUPS lag)";
+
+        /**
+         * Consumer group pending entries
+         */
+        String COFFEE_REDISSTREAM_PENDING_DESCRIPTION = "Stream entries delivered but not yet ACKed in the consumer group";
+
+        /**
+         * Consumer group entries read
+         */
+        String COFFEE_REDISSTREAM_ENTRIES_READ_DESCRIPTION = "Stream entries delivered to the consumer group (XINFO GROUPS entries-read)";
+
+        /**
+         * ACKed entries
+         */
+        String COFFEE_REDISSTREAM_ACK_DESCRIPTION = "Stream entries ACKed after successful processing";
+
+        /**
+         * Failed processing attempts
+         */
+        String COFFEE_REDISSTREAM_FAILURE_DESCRIPTION = "Failed stream entry processing attempts";
+
+        /**
+         * Retried processing attempts
+         */
+        String COFFEE_REDISSTREAM_RETRY_DESCRIPTION = "Retried stream entry processing attempts";
+
+        /**
+         * Processing time
+         */
+        String COFFEE_REDISSTREAM_PROCESSING_DESCRIPTION = "Stream entry processing time";
+    }
+
+    /**
+     * Gauge constants
+     *
+     */
+    interface Gauge {
+
+        /**
+         * Reclaimed pending entries
+         */
+        String COFFEE_REDISSTREAM_RECLAIMED = "coffee_redisstream_reclaimed";
+
+        /**
+         * Consumer group lag
+         */
+        String COFFEE_REDISSTREAM_LAG = "coffee_redisstream_lag";
+
+        /**
+         * Consumer group pending entries
+         */
+        String COFFEE_REDISSTREAM_PENDING = "coffee_redisstream_pending";
+
+        /**
+         * Consumer group entries read
+         */
+        String COFFEE_REDISSTREAM_ENTRIES_READ = "coffee_redisstream_entries_read";
+
+    }
+
+    /**
+     * Counter constants
+     *
+     */
+    interface Counter {
+
+        /**
+         * ACKed entries
+         */
+        String COFFEE_REDISSTREAM_ACK = "coffee_redisstream_ack";
+
+        /**
+         * Failed processing attempts
+         */
+        String COFFEE_REDISSTREAM_FAILURE = "coffee_redisstream_failure";
+
+        /**
+         * Retried processing attempts
+         */
+        String COFFEE_REDISSTREAM_RETRY = "coffee_redisstream_retry";
+
+    }
+
+    /**
+     * Timer constants
+     *
+     */
+    interface Timer {
+
+        /**
+         * Processing time
+         */
+        String COFFEE_REDISSTREAM_PROCESSING = "coffee_redisstream_processing";
+
+    }
+}
@@ -44,4 +44,98 @@ public interface IJedisMetricsHandler {
      *            method to return idle connection in pool (e.g. jedisPool::getNumIdle)
      */
     void addMetric(String configKey, String poolConfigKey, Supplier<Number> activeConnectionSupplier, Supplier<Number> idleConnectionSupplier);
+
+    /**
+     * Increments the hit counter of a cache tier. Default implementation does nothing.
+     * 
+     * @param configKey
+     *            Redis connection config key
+     * @param cache
+     *            name of the cache (e.g. the cached method)
+     * @param tier
+     *            cache tier, see {@link hu.icellmobilsoft.coffee.cdi.metric.constants.JedisMetricsConstants.CacheTier}
+     * @since 2.13.0
+     */
+    default void incrementCacheHit(String configKey, String cache, String tier) {
+    }
+
+    /**
+     * Increments the miss counter of a cache tier. Default implementation does nothing.
+     * 
+     * @param configKey
+     *            Redis connection config key
+     * @param cache
+     *            name of the cache (e.g. the cached method)
+     * @param tier
+     *            cache tier, see {@link hu.icellmobilsoft.coffee.cdi.metric.constants.JedisMetricsConstants.CacheTier}
+     * @since 2.13.0
+     */
+    default void incrementCacheMiss(String configKey, String cache, String tier) {
+    }
+
+    /**
+     * Provides metrics for the RESP3 client-side cache of the specified Jedis connection pool. Default implementation does nothing.
+     * 
+     * @param configKey
+     *            Redis connection config key
+     * @param poolConfigKey
+     *            Redis connection pool config key
+     * @param sizeSupplier
+     *            method to return the entry count of the cache
+     * @param hitSupplier
+     *            method to return the cumulative hit count
+     * @param missSupplier
+     *            method to return the cumulative miss count
+     * @param evictSupplier
+     *            method to return the cumulative eviction count
+     * @param invalidationSupplier
+     *            method to return the cumulative invalidation count
+     * @since 2.13.0
+     */
+    default void addClientCacheMetric(String configKey, String poolConfigKey, Supplier<Number> sizeSupplier, Supplier<Number> hitSupplier,
+            Supplier<Number> missSupplier, Supplier<Number> evictSupplier, Supplier<Number> invalidationSupplier) {
+    }
+
+    /**
+     * Provides the borrow wait time metrics of the specified Jedis connection pool. Default implementation does nothing.
+     * 
+     * @param configKey
+     *            Redis connection config key
+     * @param poolConfigKey
+     *            Redis connection pool config key
+     * @param meanBorrowWaitSupplier
+     *            method to return the mean wait time of the recent borrows in milliseconds (e.g. pool::getMeanBorrowWaitTimeMillis)
+     * @param maxBorrowWaitSupplier
+     *            method to return the maximum borrow wait time in milliseconds (e.g. pool::getMaxBorrowWaitTimeMillis)
+     * @since 2.13.0
+     */
+    default void addPoolBorrowWaitMetric(String configKey, String poolConfigKey, Supplier<Number> meanBorrowWaitSupplier,
+            Supplier<Number> maxBorrowWaitSupplier) {
+    }
+
+    /**
+     * Records the duration of a Redis command, called on every command, so it has to be cheap. Default implementation does nothing.
+     * 
+     * @param configKey
+     *            Redis connection config key
+     * @param command
+     *            name of the command (function name of the {@code RedisManager} call)
+     * @param durationNanos
+     *            duration of the command in nanoseconds
+     * @since 2.13.0
+     */
+    default void recordCommand(String configKey, String command, long durationNanos) {
+    }
+
+    /**
+     * Increments the error counter of a Redis command. Default implementation does nothing.
+     * 
+     * @param configKey
+     *            Redis connection config key
+     * @param command
+     *            name of the command (function name of the {@code RedisManager} call)
+     * @since 2.13.0
+     */
+    default void incrementCommandError(String configKey, String command) {
+    }
 }
@@ -0,0 +1,104 @@
+/*-
+ * #%L
+ * Coffee
+ * %%
+ * Copyright (C) 2020 - 2026 i-Cell Mobilsoft Zrt.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package hu.icellmobilsoft.coffee.cdi.metric.spi;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Redis stream metric handler interface
+ * 
+ * @author agent
+ * @since 2.13.0
+ *
+ */
+public interface IRedisStreamMetricsHandler {
+
+    /**
+     * Provides the metric of the reclaimed pending entries of the stream group.
+     * 
+     * @param group
+     *            Redis stream group
+     * @param reclaimedEntriesSupplier
+     *            method to return the count of the reclaimed entries since the start of the application
+     */
+    void addReclaimedMetric(String group, Supplier<Number> reclaimedEntriesSupplier);
+
+    /**
+     * Provides the metrics of the consumer group state, sampled periodically from XINFO GROUPS.
+     * 
+     * @param stream
+     *            Redis stream key
+     * @param group
+     *            Redis stream group
+     * @param lagSupplier
+     *            method to return the count of the entries not yet delivered to the group
+     * @param pendingSupplier
+     *            method to return the count of the delivered but not ACKed entries of the group
+     * @param entriesReadSupplier
+     *            method to return the count of the entries delivered to the group
+     */
+    void addGroupInfoMetric(String stream, String group, Supplier<Number> lagSupplier, Supplier<Number> pendingSupplier,
+            Supplier<Number> entriesReadSupplier);
+
+    /**
+     * Increments the counter of the ACKed entries
+     * 
+     * @param stream
+     *            Redis stream key
+     * @param group
+     *            Redis stream group
+     * @param count
+     *            count of the ACKed entries
+     */
+    void incrementAck(String stream, String group, long count);
+
+    /**
+     * Increments the counter of the failed processing attempts
+     * 
+     * @param stream
+     *            Redis stream key
+     * @param group
+     *            Redis stream group
+     */
+    void incrementFailure(String stream, String group);
+
+    /**
+     * Increments the counter of the retried processing attempts
+     * 
+     * @param stream
+     *            Redis stream key
+     * @param group
+     *            Redis stream group
+     */
+    void incrementRetry(String stream, String group);
+
+    /**
+     * Records the processing time of one entry (one attempt)
+     * 
+     * @param stream
+     *            Redis stream key
+     * @param group
+     *            Redis stream group
+     * @param duration
+     *            processing time
+     */
+    void recordProcessingTime(String stream, String group, Duration duration);
+}
@@ -61,6 +61,26 @@ public class MetricsHandlerProducer {
         return new NoopJedisMetricsHandler();
     }
 
+    /**
+     * Producer method to supply the provided metrics implementation
+     * 
+     * @return IRedisStreamMetricsHandler implementation
+     */
+    @Produces
+    @ApplicationScoped
+    public IRedisStreamMetricsHandler produceRedisStreamMetricsHandler() {
+        Instance<IRedisStreamMetricsHandler> metricsHandler = CDI.current()
+                .select(IRedisStreamMetricsHandler.class, new MetricsHandlerQualifier.Literal());
+        if (metricsHandler.isResolvable()) {
+            IRedisStreamMetricsHandler handler = metricsHandler.get();
+            Logger.getLogger(getClass()).trace("Found IRedisStreamMetricsHandler implementation, using [{0}]", handler.toString());
+            return handler;
+        }
+        // default implementation
+        Logger.getLogger(getClass()).trace("Not found IRedisStreamMetricsHandler implementation, using NoopRedisStreamMetricsHandler");
+        return new NoopRedisStreamMetricsHandler();
+    }
+
     /**
      * Producer method to supply the provided metrics implementation
      * 
@@ -0,0 +1,65 @@
+/*-
+ * #%L
+ * Coffee
+ * %%
+ * Copyright (C) 2020 - 2026 i-Cell Mobilsoft Zrt.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package hu.icellmobilsoft.coffee.cdi.metric.spi;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Empty no operation redis stream metrics handler for tests or disabled metric function
+ * 
+ * @author agent
+ * @since 2.13.0
+ */
+public class NoopRedisStreamMetricsHandler implements IRedisStreamMetricsHandler {
+
+    /**
+     * Default constructor, constructs a new object.
+     */
+    public NoopRedisStreamMetricsHandler() {
+        super();
+    }
+
+    @Override
+    public void addReclaimedMetric(String group, Supplier<Number> reclaimedEntriesSupplier) {
+    }
+
+    @Override
+    public void addGroupInfoMetric(String stream, String group, Supplier<Number> lagSupplier, Supplier<Number> pendingSupplier,
+            Supplier<Number> entriesReadSupplier) {
+    }
+
+    @Override
+    public void incrementAck(String stream, String group, long count) {
+    }
+
+    @Override
+    public void incrementFailure(String stream, String group) {
+    }
+
+    @Override
+    public void incrementRetry(String stream, String group) {
+    }
+
+    @Override
+    public void recordProcessingTime(String stream, String group, Duration duration) {
+    }
+
+}
@@ -19,6 +19,8 @@
  */
 package hu.icellmobilsoft.coffee.cdi.metric;
 
+import java.time.Duration;
+
 import jakarta.inject.Inject;
 
 import org.jboss.weld.junit5.EnableWeld;
@@ -32,8 +34,11 @@ import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 
+import hu.icellmobilsoft.coffee.cdi.metric.constants.JedisMetricsConstants;
 import hu.icellmobilsoft.coffee.cdi.metric.spi.IJedisMetricsHandler;
+import hu.icellmobilsoft.coffee.cdi.metric.spi.IRedisStreamMetricsHandler;
 import hu.icellmobilsoft.coffee.cdi.metric.spi.NoopJedisMetricsHandler;
+import hu.icellmobilsoft.coffee.cdi.metric.spi.NoopRedisStreamMetricsHandler;
 
 /**
  * Testing Metrics producer CDI resolver
@@ -50,6 +55,9 @@ class MetricsHandlerTests {
     @Inject
     private IJedisMetricsHandler jedisMetricsHandler;
 
+    @Inject
+    private IRedisStreamMetricsHandler redisStreamMetricsHandler;
+
     @WeldSetup
     public WeldInitiator weld = WeldInitiator.from(WeldInitiator.createWeld()
             // beans.xml scan
@@ -63,6 +71,8 @@ class MetricsHandlerTests {
         Assertions.assertNotNull(jedisMetricsHandler);
 
         jedisMetricsHandler.addMetric("key1", "key2", () -> 1L, () -> 2);
+        jedisMetricsHandler.incrementCacheHit("key1", "cache", JedisMetricsConstants.CacheTier.NEAR);
+        jedisMetricsHandler.incrementCacheMiss("key1", "cache", JedisMetricsConstants.CacheTier.REDIS);
 
         Assertions.assertInstanceOf(WeldClientProxy.class, jedisMetricsHandler);
         Object instance = ((WeldClientProxy) jedisMetricsHandler).getMetadata().getContextualInstance();
@@ -70,4 +80,22 @@ class MetricsHandlerTests {
         Assertions.assertInstanceOf(NoopJedisMetricsHandler.class, instance);
     }
 
+    @Test
+    @DisplayName("no operations redis stream metrics handler test")
+    void noopRedisStreamMetricsHandler() {
+        Assertions.assertNotNull(redisStreamMetricsHandler);
+
+        redisStreamMetricsHandler.addReclaimedMetric("group", () -> 1L);
+        redisStreamMetricsHandler.addGroupInfoMetric("stream", "group", () -> 1L, () -> 1L, () -> 1L);
+        redisStreamMetricsHandler.incrementAck("stream", "group", 1);
+        redisStreamMetricsHandler.incrementFailure("stream", "group");
+        redisStreamMetricsHandler.incrementRetry("stream", "group");
+        redisStreamMetricsHandler.recordProcessingTime("stream", "group", Duration.ofMillis(1));
+
+        Assertions.assertInstanceOf(WeldClientProxy.class, redisStreamMetricsHandler);
+        Object instance = ((WeldClientProxy) redisStreamMetricsHandler).getMetadata().getContextualInstance();
+        // must be NoopRedisStreamMetricsHandler
+        Assertions.assertInstanceOf(NoopRedisStreamMetricsHandler.class, instance);
+    }
+
 }
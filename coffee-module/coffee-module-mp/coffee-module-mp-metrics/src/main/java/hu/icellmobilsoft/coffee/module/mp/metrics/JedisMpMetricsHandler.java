@@ -19,15 +19,20 @@
  */
 package hu.icellmobilsoft.coffee.module.mp.metrics;
 
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Supplier;
 
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 
+import org.eclipse.microprofile.metrics.Counter;
 import org.eclipse.microprofile.metrics.Metadata;
 import org.eclipse.microprofile.metrics.MetricRegistry;
 import org.eclipse.microprofile.metrics.MetricType;
 import org.eclipse.microprofile.metrics.Tag;
+import org.eclipse.microprofile.metrics.Timer;
 
 import hu.icellmobilsoft.coffee.cdi.metric.constants.JedisMetricsConstants;
 import hu.icellmobilsoft.coffee.cdi.metric.spi.IJedisMetricsHandler;
@@ -47,6 +52,16 @@ public class JedisMpMetricsHandler implements IJedisMetricsHandler {
     @Inject
     private MetricRegistry metricRegistry;
 
+    // registry lookup is too expensive on every command, metrics are cached by configKey and command
+    private final Map<String, Timer> commandTimers = new ConcurrentHashMap<>();
+
+    private final Map<String, Counter> commandErrorCounters = new ConcurrentHashMap<>();
+
+    // cache counters are cached by configKey, cache and tier
+    private final Map<String, Counter> cacheHitCounters = new ConcurrentHashMap<>();
+
+    private final Map<String, Counter> cacheMissCounters = new ConcurrentHashMap<>();
+
     /**
      * Default constructor, constructs a new object.
      */
@@ -69,4 +84,98 @@ public class JedisMpMetricsHandler implements IJedisMetricsHandler {
                 .withDescription(JedisMetricsConstants.Description.COFFEE_JEDIS_POOL_IDLE_DESCRIPTION).withType(MetricType.GAUGE).build();
         metricRegistry.gauge(metadataIdle, idleConnectionSupplier, configKeyTag, poolConfigKeyTag);
     }
+
+    @Override
+    public void incrementCacheHit(String configKey, String cache, String tier) {
+        cacheHitCounters.computeIfAbsent(cacheKey(configKey, cache, tier), k -> {
+            Metadata metadata = Metadata.builder().withName(JedisMetricsConstants.Counter.COFFEE_JEDIS_CACHE_HIT)
+                    .withDescription(JedisMetricsConstants.Description.COFFEE_JEDIS_CACHE_HIT_DESCRIPTION).withType(MetricType.COUNTER).build();
+            return metricRegistry.counter(metadata, cacheTags(configKey, cache, tier));
+        }).inc();
+    }
+
+    @Override
+    public void incrementCacheMiss(String configKey, String cache, String tier) {
+        cacheMissCounters.computeIfAbsent(cacheKey(configKey, cache, tier), k -> {
+            Metadata metadata = Metadata.builder().withName(JedisMetricsConstants.Counter.COFFEE_JEDIS_CACHE_MISS)
+                    .withDescription(JedisMetricsConstants.Description.COFFEE_JEDIS_CACHE_MISS_DESCRIPTION).withType(MetricType.COUNTER).build();
+            return metricRegistry.counter(metadata, cacheTags(configKey, cache, tier));
+        }).inc();
+    }
+
+    @Override
+    public void addClientCacheMetric(String configKey, String poolConfigKey, Supplier<Number> sizeSupplier, Supplier<Number> hitSupplier,
+            Supplier<Number> missSupplier, Supplier<Number> evictSupplier, Supplier<Number> invalidationSupplier) {
+        Tag configKeyTag = new Tag(JedisMetricsConstants.Tag.COFFEE_JEDIS_CONFIG_KEY, configKey);
+        Tag poolConfigKeyTag = new Tag(JedisMetricsConstants.Tag.COFFEE_JEDIS_POOL_CONFIG_KEY, poolConfigKey);
+
+        addGauge(JedisMetricsConstants.Gauge.COFFEE_JEDIS_CLIENT_CACHE_SIZE,
+                JedisMetricsConstants.Description.COFFEE_JEDIS_CLIENT_CACHE_SIZE_DESCRIPTION, sizeSupplier, configKeyTag, poolConfigKeyTag);
+        // cumulative counts of jedis, exposed as gauges
+        addGauge(JedisMetricsConstants.Counter.COFFEE_JEDIS_CLIENT_CACHE_HIT,
+                JedisMetricsConstants.Description.COFFEE_JEDIS_CLIENT_CACHE_HIT_DESCRIPTION, hitSupplier, configKeyTag, poolConfigKeyTag);
+        addGauge(JedisMetricsConstants.Counter.COFFEE_JEDIS_CLIENT_CACHE_MISS,
+                JedisMetricsConstants.Description.COFFEE_JEDIS_CLIENT_CACHE_MISS_DESCRIPTION, missSupplier, configKeyTag, poolConfigKeyTag);
+        addGauge(JedisMetricsConstants.Counter.COFFEE_JEDIS_CLIENT_CACHE_EVICT,
+                JedisMetricsConstants.Description.COFFEE_JEDIS_CLIENT_CACHE_EVICT_DESCRIPTION, evictSupplier, configKeyTag, poolConfigKeyTag);
+        addGauge(JedisMetricsConstants.Counter.COFFEE_JEDIS_CLIENT_CACHE_INVALIDATION,
+                JedisMetricsConstants.Description.COFFEE_JEDIS_CLIENT_CACHE_INVALIDATION_DESCRIPTION, invalidationSupplier, configKeyTag,
+                poolConfigKeyTag);
+    }
+
+    @Override
+    public void addPoolBorrowWaitMetric(String configKey, String poolConfigKey, Supplier<Number> meanBorrowWaitSupplier,
+            Supplier<Number> maxBorrowWaitSupplier) {
+        Tag configKeyTag = new Tag(JedisMetricsConstants.Tag.COFFEE_JEDIS_CONFIG_KEY, configKey);
+        Tag poolConfigKeyTag = new Tag(JedisMetricsConstants.Tag.COFFEE_JEDIS_POOL_CONFIG_KEY, poolConfigKey);
+
+        addGauge(JedisMetricsConstants.Gauge.COFFEE_JEDIS_POOL_BORROW_WAIT_MEAN,
+                JedisMetricsConstants.Description.COFFEE_JEDIS_POOL_BORROW_WAIT_MEAN_DESCRIPTION, meanBorrowWaitSupplier, configKeyTag,
+                poolConfigKeyTag);
+        addGauge(JedisMetricsConstants.Gauge.COFFEE_JEDIS_POOL_BORROW_WAIT_MAX,
+                JedisMetricsConstants.Description.COFFEE_JEDIS_POOL_BORROW_WAIT_MAX_DESCRIPTION, maxBorrowWaitSupplier, configKeyTag,
+                poolConfigKeyTag);
+    }
+
+    @Override
+    public void recordCommand(String configKey, String command, long durationNanos) {
+        commandTimers.computeIfAbsent(commandKey(configKey, command), k -> {
+            Metadata metadata = Metadata.builder().withName(JedisMetricsConstants.Timer.COFFEE_JEDIS_COMMAND)
+                    .withDescription(JedisMetricsConstants.Description.COFFEE_JEDIS_COMMAND_DESCRIPTION).withType(MetricType.TIMER).build();
+            return metricRegistry.timer(metadata, commandTags(configKey, command));
+        }).update(Duration.ofNanos(durationNanos));
+    }
+
+    @Override
+    public void incrementCommandError(String configKey, String command) {
+        commandErrorCounters.computeIfAbsent(commandKey(configKey, command), k -> {
+            Metadata metadata = Metadata.builder().withName(JedisMetricsConstants.Counter.COFFEE_JEDIS_COMMAND_ERROR)
+                    .withDescription(JedisMetricsConstants.Description.COFFEE_JEDIS_COMMAND_ERROR_DESCRIPTION).withType(MetricType.COUNTER)
+                    .build();
+            return metricRegistry.counter(metadata, commandTags(configKey, command));
+        }).inc();
+    }
+
+    private void addGauge(String name, String description, Supplier<Number> supplier, Tag... tags) {
+        Metadata metadata = Metadata.builder().withName(name).withDescription(description).withType(MetricType.GAUGE).build();
+        metricRegistry.gauge(metadata, supplier, tags);
+    }
+
+    private String commandKey(String configKey, String command) {
+        return configKey + ':' + command;
+    }
+
+    private String cacheKey(String configKey, String cache, String tier) {
+        return configKey + ':' + cache + ':' + tier;
+    }
+
+    private Tag[] commandTags(String configKey, String command) {
+        return new Tag[] { new Tag(JedisMetricsConstants.Tag.COFFEE_JEDIS_CONFIG_KEY, configKey),
+                new Tag(JedisMetricsConstants.Tag.COFFEE_JEDIS_COMMAND, command) };
+    }
+
+    private Tag[] cacheTags(String configKey, String cache, String tier) {
+        return new Tag[] { new Tag(JedisMetricsConstants.Tag.COFFEE_JEDIS_CONFIG_KEY, configKey),
+                new Tag(JedisMetricsConstants.Tag.COFFEE_JEDIS_CACHE, cache), new Tag(JedisMetricsConstants.Tag.COFFEE_JEDIS_CACHE_TIER, tier) };
+    }
 }
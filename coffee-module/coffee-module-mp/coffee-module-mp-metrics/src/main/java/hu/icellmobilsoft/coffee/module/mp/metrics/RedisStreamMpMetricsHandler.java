@@ -0,0 +1,140 @@
+/*-
+ * #%L
+ * Coffee
+ * %%
+ * Copyright (C) 2020 - 2026 i-Cell Mobilsoft Zrt.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package hu.icellmobilsoft.coffee.module.mp.metrics;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import org.eclipse.microprofile.metrics.Counter;
+import org.eclipse.microprofile.metrics.Metadata;
+import org.eclipse.microprofile.metrics.MetricRegistry;
+import org.eclipse.microprofile.metrics.MetricType;
+import org.eclipse.microprofile.metrics.Tag;
+import org.eclipse.microprofile.metrics.Timer;
+
+import hu.icellmobilsoft.coffee.cdi.metric.constants.RedisStreamMetricsConstants;
+import hu.icellmobilsoft.coffee.cdi.metric.spi.IRedisStreamMetricsHandler;
+import hu.icellmobilsoft.coffee.cdi.metric.spi.MetricsHandlerQualifier;
+
+/**
+ * Provides metrics for Redis stream groups
+ * 
+ * @author agent
+ * @since 2.13.0
+ *
+ */
+@ApplicationScoped
+@MetricsHandlerQualifier
+public class RedisStreamMpMetricsHandler implements IRedisStreamMetricsHandler {
+
+    @Inject
+    private MetricRegistry metricRegistry;
+
+    // registry lookup is too expensive on every message, metrics are cached by stream and group
+    private final Map<String, Counter> ackCounters = new ConcurrentHashMap<>();
+
+    private final Map<String, Counter> failureCounters = new ConcurrentHashMap<>();
+
+    private final Map<String, Counter> retryCounters = new ConcurrentHashMap<>();
+
+    private final Map<String, Timer> processingTimers = new ConcurrentHashMap<>();
+
+    /**
+     * Default constructor, constructs a new object.
+     */
+    public RedisStreamMpMetricsHandler() {
+        super();
+    }
+
+    @Override
+    public void addReclaimedMetric(String group, Supplier<Number> reclaimedEntriesSupplier) {
+        Tag groupTag = new Tag(RedisStreamMetricsConstants.Tag.COFFEE_REDISSTREAM_GROUP, group);
+
+        Metadata metadataReclaimed = Metadata.builder().withName(RedisStreamMetricsConstants.Gauge.COFFEE_REDISSTREAM_RECLAIMED)
+                .withDescription(RedisStreamMetricsConstants.Description.COFFEE_REDISSTREAM_RECLAIMED_DESCRIPTION).withType(MetricType.GAUGE).build();
+        metricRegistry.gauge(metadataReclaimed, reclaimedEntriesSupplier, groupTag);
+    }
+
+    @Override
+    public void addGroupInfoMetric(String stream, String group, Supplier<Number> lagSupplier, Supplier<Number> pendingSupplier,
+            Supplier<Number> entriesReadSupplier) {
+        Tag[] tags = tags(stream, group);
+
+        Metadata metadataLag = Metadata.builder().withName(RedisStreamMetricsConstants.Gauge.COFFEE_REDISSTREAM_LAG)
+                .withDescription(RedisStreamMetricsConstants.Description.COFFEE_REDISSTREAM_LAG_DESCRIPTION).withType(MetricType.GAUGE).build();
+        metricRegistry.gauge(metadataLag, lagSupplier, tags);
+
+        Metadata metadataPending = Metadata.builder().withName(RedisStreamMetricsConstants.Gauge.COFFEE_REDISSTREAM_PENDING)
+                .withDescription(RedisStreamMetricsConstants.Description.COFFEE_REDISSTREAM_PENDING_DESCRIPTION).withType(MetricType.GAUGE).build();
+        metricRegistry.gauge(metadataPending, pendingSupplier, tags);
+
+        Metadata metadataEntriesRead = Metadata.builder().withName(RedisStreamMetricsConstants.Gauge.COFFEE_REDISSTREAM_ENTRIES_READ)
+                .withDescription(RedisStreamMetricsConstants.Description.COFFEE_REDISSTREAM_ENTRIES_READ_DESCRIPTION).withType(MetricType.GAUGE)
+                .build();
+        metricRegistry.gauge(metadataEntriesRead, entriesReadSupplier, tags);
+    }
+
+    @Override
+    public void incrementAck(String stream, String group, long count) {
+        ackCounters.computeIfAbsent(streamGroupKey(stream, group), k -> counter(RedisStreamMetricsConstants.Counter.COFFEE_REDISSTREAM_ACK,
+                RedisStreamMetricsConstants.Description.COFFEE_REDISSTREAM_ACK_DESCRIPTION, stream, group)).inc(count);
+    }
+
+    @Override
+    public void incrementFailure(String stream, String group) {
+        failureCounters.computeIfAbsent(streamGroupKey(stream, group), k -> counter(RedisStreamMetricsConstants.Counter.COFFEE_REDISSTREAM_FAILURE,
+                RedisStreamMetricsConstants.Description.COFFEE_REDISSTREAM_FAILURE_DESCRIPTION, stream, group)).inc();
+    }
+
+    @Override
+    public void incrementRetry(String stream, String group) {
+        retryCounters.computeIfAbsent(streamGroupKey(stream, group), k -> counter(RedisStreamMetricsConstants.Counter.COFFEE_REDISSTREAM_RETRY,
+                RedisStreamMetricsConstants.Description.COFFEE_REDISSTREAM_RETRY_DESCRIPTION, stream, group)).inc();
+    }
+
+    @Override
+    public void recordProcessingTime(String stream, String group, Duration duration) {
+        processingTimers.computeIfAbsent(streamGroupKey(stream, group), k -> {
+            Metadata metadata = Metadata.builder().withName(RedisStreamMetricsConstants.Timer.COFFEE_REDISSTREAM_PROCESSING)
+                    .withDescription(RedisStreamMetricsConstants.Description.COFFEE_REDISSTREAM_PROCESSING_DESCRIPTION).withType(MetricType.TIMER)
+                    .build();
+            return metricRegistry.timer(metadata, tags(stream, group));
+        }).update(duration);
+    }
+
+    private Counter counter(String name, String description, String stream, String group) {
+        Metadata metadata = Metadata.builder().withName(name).withDescription(description).withType(MetricType.COUNTER).build();
+        return metricRegistry.counter(metadata, tags(stream, group));
+    }
+
+    private String streamGroupKey(String stream, String group) {
+        return stream + ':' + group;
+    }
+
+    private Tag[] tags(String stream, String group) {
+        return new Tag[] { new Tag(RedisStreamMetricsConstants.Tag.COFFEE_REDISSTREAM_STREAM, stream),
+                new Tag(RedisStreamMetricsConstants.Tag.COFFEE_REDISSTREAM_GROUP, group) };
+    }
+}
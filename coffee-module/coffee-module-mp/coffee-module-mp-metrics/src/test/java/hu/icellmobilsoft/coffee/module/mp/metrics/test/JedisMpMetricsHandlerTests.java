@@ -65,6 +65,7 @@ class JedisMpMetricsHandlerTests {
         Assertions.assertNotNull(jedisMetricsHandler);
 
         jedisMetricsHandler.addMetric("key1", "key2", () -> 1L, () -> 2);
+        jedisMetricsHandler.addClientCacheMetric("key1", "key2", () -> 1, () -> 2L, () -> 3L, () -> 4L, () -> 5L);
 
         Assertions.assertInstanceOf(WeldClientProxy.class, jedisMetricsHandler);
         Object instance = ((WeldClientProxy) jedisMetricsHandler).getMetadata().getContextualInstance();
@@ -19,6 +19,11 @@
  */
 package hu.icellmobilsoft.coffee.module.mp.micrometer;
 
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
 
 import jakarta.enterprise.context.ApplicationScoped;
@@ -27,8 +32,12 @@ import jakarta.inject.Inject;
 import hu.icellmobilsoft.coffee.cdi.metric.constants.JedisMetricsConstants;
 import hu.icellmobilsoft.coffee.cdi.metric.spi.IJedisMetricsHandler;
 import hu.icellmobilsoft.coffee.cdi.metric.spi.MetricsHandlerQualifier;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
 import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Timer;
 
 /**
  * Provides metrics for Jedis connection pool
@@ -44,6 +53,16 @@ public class JedisMicrometerHandler implements IJedisMetricsHandler {
     @Inject
     private MeterRegistry meterRegistry;
 
+    // registry lookup is too expensive on every command, meters are cached by configKey and command
+    private final Map<String, Timer> commandTimers = new ConcurrentHashMap<>();
+
+    private final Map<String, Counter> commandErrorCounters = new ConcurrentHashMap<>();
+
+    // cache counters are cached by configKey, cache and tier
+    private final Map<String, Counter> cacheHitCounters = new ConcurrentHashMap<>();
+
+    private final Map<String, Counter> cacheMissCounters = new ConcurrentHashMap<>();
+
     /**
      * Default constructor, constructs a new object.
      */
@@ -65,4 +84,91 @@ public class JedisMicrometerHandler implements IJedisMetricsHandler {
                 .tag(JedisMetricsConstants.Tag.COFFEE_JEDIS_CONFIG_KEY, configKey)
                 .tag(JedisMetricsConstants.Tag.COFFEE_JEDIS_POOL_CONFIG_KEY, poolConfigKey).register(meterRegistry);
     }
+
+    @Override
+    public void incrementCacheHit(String configKey, String cache, String tier) {
+        cacheHitCounters.computeIfAbsent(cacheKey(configKey, cache, tier),
+                k -> Counter.builder(JedisMetricsConstants.Counter.COFFEE_JEDIS_CACHE_HIT)
+                        .description(JedisMetricsConstants.Description.COFFEE_JEDIS_CACHE_HIT_DESCRIPTION)
+                        .tags(cacheTags(configKey, cache, tier)).register(meterRegistry))
+                .increment();
+    }
+
+    @Override
+    public void incrementCacheMiss(String configKey, String cache, String tier) {
+        cacheMissCounters.computeIfAbsent(cacheKey(configKey, cache, tier),
+                k -> Counter.builder(JedisMetricsConstants.Counter.COFFEE_JEDIS_CACHE_MISS)
+                        .description(JedisMetricsConstants.Description.COFFEE_JEDIS_CACHE_MISS_DESCRIPTION)
+                        .tags(cacheTags(configKey, cache, tier)).register(meterRegistry))
+                .increment();
+    }
+
+    @Override
+    public void addClientCacheMetric(String configKey, String poolConfigKey, Supplier<Number> sizeSupplier, Supplier<Number> hitSupplier,
+            Supplier<Number> missSupplier, Supplier<Number> evictSupplier, Supplier<Number> invalidationSupplier) {
+        List<Tag> tags = List.of(Tag.of(JedisMetricsConstants.Tag.COFFEE_JEDIS_CONFIG_KEY, configKey),
+                Tag.of(JedisMetricsConstants.Tag.COFFEE_JEDIS_POOL_CONFIG_KEY, poolConfigKey));
+
+        Gauge.builder(JedisMetricsConstants.Gauge.COFFEE_JEDIS_CLIENT_CACHE_SIZE, sizeSupplier)
+                .description(JedisMetricsConstants.Description.COFFEE_JEDIS_CLIENT_CACHE_SIZE_DESCRIPTION).tags(tags).register(meterRegistry);
+        addFunctionCounter(JedisMetricsConstants.Counter.COFFEE_JEDIS_CLIENT_CACHE_HIT,
+                JedisMetricsConstants.Description.COFFEE_JEDIS_CLIENT_CACHE_HIT_DESCRIPTION, hitSupplier, tags);
+        addFunctionCounter(JedisMetricsConstants.Counter.COFFEE_JEDIS_CLIENT_CACHE_MISS,
+                JedisMetricsConstants.Description.COFFEE_JEDIS_CLIENT_CACHE_MISS_DESCRIPTION, missSupplier, tags);
+        addFunctionCounter(JedisMetricsConstants.Counter.COFFEE_JEDIS_CLIENT_CACHE_EVICT,
+                JedisMetricsConstants.Description.COFFEE_JEDIS_CLIENT_CACHE_EVICT_DESCRIPTION, evictSupplier, tags);
+        addFunctionCounter(JedisMetricsConstants.Counter.COFFEE_JEDIS_CLIENT_CACHE_INVALIDATION,
+                JedisMetricsConstants.Description.COFFEE_JEDIS_CLIENT_CACHE_INVALIDATION_DESCRIPTION, invalidationSupplier, tags);
+    }
+
+    @Override
+    public void addPoolBorrowWaitMetric(String configKey, String poolConfigKey, Supplier<Number> meanBorrowWaitSupplier,
+            Supplier<Number> maxBorrowWaitSupplier) {
+        List<Tag> tags = List.of(Tag.of(JedisMetricsConstants.Tag.COFFEE_JEDIS_CONFIG_KEY, configKey),
+                Tag.of(JedisMetricsConstants.Tag.COFFEE_JEDIS_POOL_CONFIG_KEY, poolConfigKey));
+
+        Gauge.builder(JedisMetricsConstants.Gauge.COFFEE_JEDIS_POOL_BORROW_WAIT_MEAN, meanBorrowWaitSupplier)
+                .description(JedisMetricsConstants.Description.COFFEE_JEDIS_POOL_BORROW_WAIT_MEAN_DESCRIPTION).tags(tags).register(meterRegistry);
+        Gauge.builder(JedisMetricsConstants.Gauge.COFFEE_JEDIS_POOL_BORROW_WAIT_MAX, maxBorrowWaitSupplier)
+                .description(JedisMetricsConstants.Description.COFFEE_JEDIS_POOL_BORROW_WAIT_MAX_DESCRIPTION).tags(tags).register(meterRegistry);
+    }
+
+    @Override
+    public void recordCommand(String configKey, String command, long durationNanos) {
+        commandTimers.computeIfAbsent(commandKey(configKey, command), k -> Timer.builder(JedisMetricsConstants.Timer.COFFEE_JEDIS_COMMAND)
+                .description(JedisMetricsConstants.Description.COFFEE_JEDIS_COMMAND_DESCRIPTION).tags(commandTags(configKey, command))
+                .publishPercentileHistogram().minimumExpectedValue(Duration.ofNanos(100_000)).maximumExpectedValue(Duration.ofSeconds(10))
+                .register(meterRegistry)).record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void incrementCommandError(String configKey, String command) {
+        commandErrorCounters.computeIfAbsent(commandKey(configKey, command),
+                k -> Counter.builder(JedisMetricsConstants.Counter.COFFEE_JEDIS_COMMAND_ERROR)
+                        .description(JedisMetricsConstants.Description.COFFEE_JEDIS_COMMAND_ERROR_DESCRIPTION)
+                        .tags(commandTags(configKey, command)).register(meterRegistry))
+                .increment();
+    }
+
+    private void addFunctionCounter(String name, String description, Supplier<Number> supplier, Iterable<Tag> tags) {
+        FunctionCounter.builder(name, supplier, s -> s.get().doubleValue()).description(description).tags(tags).register(meterRegistry);
+    }
+
+    private String commandKey(String configKey, String command) {
+        return configKey + ':' + command;
+    }
+
+    private String cacheKey(String configKey, String cache, String tier) {
+        return configKey + ':' + cache + ':' + tier;
+    }
+
+    private Iterable<Tag> commandTags(String configKey, String command) {
+        return List.of(Tag.of(JedisMetricsConstants.Tag.COFFEE_JEDIS_CONFIG_KEY, configKey),
+                Tag.of(JedisMetricsConstants.Tag.COFFEE_JEDIS_COMMAND, command));
+    }
+
+    private Iterable<Tag> cacheTags(String configKey, String cache, String tier) {
+        return List.of(Tag.of(JedisMetricsConstants.Tag.COFFEE_JEDIS_CONFIG_KEY, configKey),
+                Tag.of(JedisMetricsConstants.Tag.COFFEE_JEDIS_CACHE, cache), Tag.of(JedisMetricsConstants.Tag.COFFEE_JEDIS_CACHE_TIER, tier));
+    }
 }
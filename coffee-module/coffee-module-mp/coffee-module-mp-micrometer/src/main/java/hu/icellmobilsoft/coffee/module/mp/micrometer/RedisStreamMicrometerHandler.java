@@ -0,0 +1,128 @@
+/*-
+ * #%L
+ * Coffee
+ * %%
+ * Copyright (C) 2020 - 2026 i-Cell Mobilsoft Zrt.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package hu.icellmobilsoft.coffee.module.mp.micrometer;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import hu.icellmobilsoft.coffee.cdi.metric.constants.RedisStreamMetricsConstants;
+import hu.icellmobilsoft.coffee.cdi.metric.spi.IRedisStreamMetricsHandler;
+import hu.icellmobilsoft.coffee.cdi.metric.spi.MetricsHandlerQualifier;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Provides metrics for Redis stream groups
+ * 
+ * @author agent
+ * @since 2.13.0
+ *
+ */
+@ApplicationScoped
+@MetricsHandlerQualifier
+public class RedisStreamMicrometerHandler implements IRedisStreamMetricsHandler {
+
+    @Inject
+    private MeterRegistry meterRegistry;
+
+    // registry lookup is too expensive on every message, meters are cached by stream and group
+    private final Map<String, Counter> ackCounters = new ConcurrentHashMap<>();
+
+    private final Map<String, Counter> failureCounters = new ConcurrentHashMap<>();
+
+    private final Map<String, Counter> retryCounters = new ConcurrentHashMap<>();
+
+    private final Map<String, Timer> processingTimers = new ConcurrentHashMap<>();
+
+    /**
+     * Default constructor, constructs a new object.
+     */
+    public RedisStreamMicrometerHandler() {
+        super();
+    }
+
+    @Override
+    public void addReclaimedMetric(String group, Supplier<Number> reclaimedEntriesSupplier) {
+        Gauge.builder(RedisStreamMetricsConstants.Gauge.COFFEE_REDISSTREAM_RECLAIMED, reclaimedEntriesSupplier)
+                .description(RedisStreamMetricsConstants.Description.COFFEE_REDISSTREAM_RECLAIMED_DESCRIPTION)
+                .tag(RedisStreamMetricsConstants.Tag.COFFEE_REDISSTREAM_GROUP, group).register(meterRegistry);
+    }
+
+    @Override
+    public void addGroupInfoMetric(String stream, String group, Supplier<Number> lagSupplier, Supplier<Number> pendingSupplier,
+            Supplier<Number> entriesReadSupplier) {
+        Iterable<Tag> tags = tags(stream, group);
+        Gauge.builder(RedisStreamMetricsConstants.Gauge.COFFEE_REDISSTREAM_LAG, lagSupplier)
+                .description(RedisStreamMetricsConstants.Description.COFFEE_REDISSTREAM_LAG_DESCRIPTION).tags(tags).register(meterRegistry);
+        Gauge.builder(RedisStreamMetricsConstants.Gauge.COFFEE_REDISSTREAM_PENDING, pendingSupplier)
+                .description(RedisStreamMetricsConstants.Description.COFFEE_REDISSTREAM_PENDING_DESCRIPTION).tags(tags).register(meterRegistry);
+        Gauge.builder(RedisStreamMetricsConstants.Gauge.COFFEE_REDISSTREAM_ENTRIES_READ, entriesReadSupplier)
+                .description(RedisStreamMetricsConstants.Description.COFFEE_REDISSTREAM_ENTRIES_READ_DESCRIPTION).tags(tags).register(meterRegistry);
+    }
+
+    @Override
+    public void incrementAck(String stream, String group, long count) {
+        ackCounters.computeIfAbsent(streamGroupKey(stream, group), k -> counter(RedisStreamMetricsConstants.Counter.COFFEE_REDISSTREAM_ACK,
+                RedisStreamMetricsConstants.Description.COFFEE_REDISSTREAM_ACK_DESCRIPTION, stream, group)).increment(count);
+    }
+
+    @Override
+    public void incrementFailure(String stream, String group) {
+        failureCounters.computeIfAbsent(streamGroupKey(stream, group), k -> counter(RedisStreamMetricsConstants.Counter.COFFEE_REDISSTREAM_FAILURE,
+                RedisStreamMetricsConstants.Description.COFFEE_REDISSTREAM_FAILURE_DESCRIPTION, stream, group)).increment();
+    }
+
+    @Override
+    public void incrementRetry(String stream, String group) {
+        retryCounters.computeIfAbsent(streamGroupKey(stream, group), k -> counter(RedisStreamMetricsConstants.Counter.COFFEE_REDISSTREAM_RETRY,
+                RedisStreamMetricsConstants.Description.COFFEE_REDISSTREAM_RETRY_DESCRIPTION, stream, group)).increment();
+    }
+
+    @Override
+    public void recordProcessingTime(String stream, String group, Duration duration) {
+        processingTimers.computeIfAbsent(streamGroupKey(stream, group),
+                k -> Timer.builder(RedisStreamMetricsConstants.Timer.COFFEE_REDISSTREAM_PROCESSING)
+                        .description(RedisStreamMetricsConstants.Description.COFFEE_REDISSTREAM_PROCESSING_DESCRIPTION).tags(tags(stream, group))
+                        .publishPercentileHistogram().register(meterRegistry))
+                .record(duration);
+    }
+
+    private Counter counter(String name, String description, String stream, String group) {
+        return Counter.builder(name).description(description).tags(tags(stream, group)).register(meterRegistry);
+    }
+
+    private String streamGroupKey(String stream, String group) {
+        return stream + ':' + group;
+    }
+
+    private Iterable<Tag> tags(String stream, String group) {
+        return List.of(Tag.of(RedisStreamMetricsConstants.Tag.COFFEE_REDISSTREAM_STREAM, stream),
+                Tag.of(RedisStreamMetricsConstants.Tag.COFFEE_REDISSTREAM_GROUP, group));
+    }
+}
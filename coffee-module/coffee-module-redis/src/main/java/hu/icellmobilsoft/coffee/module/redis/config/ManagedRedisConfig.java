@@ -57,6 +57,9 @@ import redis.clients.jedis.HostAndPort;
  *        cluster:
  *          - sample-sandbox.icellmobilsoft.hu:6379
  *          - sample-sandbox.icellmobilsoft.hu:6380
+ *        clientcache:
+ *          enabled: true # RESP3 client-side caching, since 2.13.0
+ *          maxsize: 10000
  * </pre>
  *
  * The upper configuration is injectable with:
@@ -112,6 +115,18 @@ public class ManagedRedisConfig implements RedisConfig {
      * Constant <code>TIMEOUT="timeout"</code>
      */
     public static final String TIMEOUT = "timeout";
+    /**
+     * Constant <code>CLIENT_CACHE_ENABLED="clientcache.enabled"</code>
+     *
+     * @since 2.13.0
+     */
+    public static final String CLIENT_CACHE_ENABLED = "clientcache.enabled";
+    /**
+     * Constant <code>CLIENT_CACHE_MAXSIZE="clientcache.maxsize"</code>
+     *
+     * @since 2.13.0
+     */
+    public static final String CLIENT_CACHE_MAXSIZE = "clientcache.maxsize";
     /**
      * Constant <code>KEY_DELIMITER="."</code>
      */
@@ -210,6 +225,27 @@ public class ManagedRedisConfig implements RedisConfig {
         return config.getOptionalValue(joinKey(TIMEOUT), Integer.class).orElse(5000);
     }
 
+    /**
+     * Whether the RESP3 server-assisted client-side caching is used. The connections use RESP3 protocol and key tracking, the read results are
+     * cached locally and invalidated by the tracking notifications of Redis. Requires Redis 7.4+.
+     *
+     * @return {@code true} if client-side caching is enabled, default {@code false}
+     * @since 2.13.0
+     */
+    public boolean isClientCacheEnabled() {
+        return config.getOptionalValue(joinKey(CLIENT_CACHE_ENABLED), Boolean.class).orElse(false);
+    }
+
+    /**
+     * Maximum count of the client-side cache entries, the least recently used entry is evicted above it.
+     *
+     * @return maximum count of the entries, default 10000
+     * @since 2.13.0
+     */
+    public int getClientCacheMaxSize() {
+        return config.getOptionalValue(joinKey(CLIENT_CACHE_MAXSIZE), Integer.class).orElse(10000);
+    }
+
     /**
      * Getter for the field {@code configKey}.
      *
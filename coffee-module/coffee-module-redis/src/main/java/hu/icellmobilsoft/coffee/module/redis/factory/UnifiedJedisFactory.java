@@ -27,7 +27,9 @@ import redis.clients.jedis.DefaultJedisClientConfig;
 import redis.clients.jedis.HostAndPort;
 import redis.clients.jedis.RedisClient;
 import redis.clients.jedis.RedisClusterClient;
+import redis.clients.jedis.RedisProtocol;
 import redis.clients.jedis.UnifiedJedis;
+import redis.clients.jedis.csc.CacheConfig;
 
 /**
  * Factory class for creating {@link UnifiedJedis} instances
@@ -67,19 +69,51 @@ public class UnifiedJedisFactory {
         ConnectionPoolConfig poolConfig = createPoolConfig(managedRedisConfig);
         DefaultJedisClientConfig clientConfig = createClientConfig(managedRedisConfig, managedRedisConfig.getDatabase(), timeout);
 
+        CacheConfig cacheConfig = createCacheConfig(managedRedisConfig);
+
         if (clusterHostAndPortList.isEmpty()) {
             return RedisClient.builder()
                     .clientConfig(clientConfig)
                     .poolConfig(poolConfig)
+                    .cacheConfig(cacheConfig)
                     .hostAndPort(managedRedisConfig.getHost(), managedRedisConfig.getPort())
                     .build();
         }
 
-        return RedisClusterClient.builder().clientConfig(clientConfig).poolConfig(poolConfig).nodes(clusterHostAndPortList).maxAttempts(3).build();
+        return RedisClusterClient.builder()
+                .clientConfig(clientConfig)
+                .poolConfig(poolConfig)
+                .cacheConfig(cacheConfig)
+                .nodes(clusterHostAndPortList)
+                .maxAttempts(3)
+                .build();
     }
 
     private static DefaultJedisClientConfig createClientConfig(ManagedRedisConfig managedRedisConfig, int database, int timeout) {
-        return DefaultJedisClientConfig.builder().timeoutMillis(timeout).password(managedRedisConfig.getPassword()).database(database).build();
+        DefaultJedisClientConfig.Builder builder = DefaultJedisClientConfig.builder()
+                .timeoutMillis(timeout)
+                .password(managedRedisConfig.getPassword())
+                .database(database);
+        if (managedRedisConfig.isClientCacheEnabled()) {
+            // key tracking invalidation messages are pushed only on RESP3 connections
+            builder.protocol(RedisProtocol.RESP3);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Creates the client-side cache config if it is enabled. The cache is shared by the connections of the pool, it is fully flushed by jedis when
+     * a connection is disconnected (e.g. broken connection), because the invalidations of the lost connection can not be received.
+     *
+     * @param managedRedisConfig
+     *            Configuration object for redis connection.
+     * @return client-side cache config, {@code null} if disabled
+     */
+    private static CacheConfig createCacheConfig(ManagedRedisConfig managedRedisConfig) {
+        if (!managedRedisConfig.isClientCacheEnabled()) {
+            return null;
+        }
+        return CacheConfig.builder().maxSize(managedRedisConfig.getClientCacheMaxSize()).build();
     }
 
     private static ConnectionPoolConfig createPoolConfig(ManagedRedisConfig managedRedisConfig) {
@@ -0,0 +1,145 @@
+/*-
+ * #%L
+ * Coffee
+ * %%
+ * Copyright (C) 2020 - 2026 i-Cell Mobilsoft Zrt.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package hu.icellmobilsoft.coffee.module.redis.interceptor;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Size and TTL bounded in-process cache region of one {@code @RedisCached} method. The least recently used entry is evicted above the maximum
+ * size. Values are stored in the encoded form stored in Redis, so the callers do not share the returned instances.
+ * <p>
+ * Every removal increments the version of the region, a value read from Redis is stored only if the version is not changed since the read
+ * started, so an invalidation arriving during the read is not overwritten by the stale value.
+ *
+ * @author agent
+ * @since 2.13.0
+ */
+public class NearCacheRegion {
+
+    private final long ttlMillis;
+
+    private final BooleanSupplier writable;
+
+    private final Map<String, Entry> entries;
+
+    private long version;
+
+    /**
+     * Constructs a new region
+     *
+     * @param maxSize
+     *            maximum count of the entries
+     * @param ttlMillis
+     *            expiration time of the entries in milliseconds
+     * @param writable
+     *            returns whether new entries can be stored (the invalidation messages are received)
+     */
+    public NearCacheRegion(int maxSize, long ttlMillis, BooleanSupplier writable) {
+        this.ttlMillis = ttlMillis;
+        this.writable = writable;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * Returns the not expired value of the key
+     *
+     * @param key
+     *            cache key
+     * @return cached value or empty
+     */
+    public synchronized Optional<byte[]> get(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return Optional.empty();
+        }
+        if (entry.expiresAt <= System.currentTimeMillis()) {
+            entries.remove(key);
+            return Optional.empty();
+        }
+        return Optional.of(entry.value);
+    }
+
+    /**
+     * Returns the current version of the region, it has to be read before reading the value from Redis
+     *
+     * @return version of the region
+     */
+    public synchronized long getVersion() {
+        return version;
+    }
+
+    /**
+     * Stores the value if the region is writable and it is not changed since the given version
+     *
+     * @param key
+     *            cache key
+     * @param value
+     *            encoded value
+     * @param readVersion
+     *            version of the region read before reading the value from Redis
+     */
+    public synchronized void put(String key, byte[] value, long readVersion) {
+        if (readVersion != version || !writable.getAsBoolean()) {
+            return;
+        }
+        entries.put(key, new Entry(value, System.currentTimeMillis() + ttlMillis));
+    }
+
+    /**
+     * Removes the key
+     *
+     * @param key
+     *            cache key
+     */
+    public synchronized void remove(String key) {
+        version++;
+        entries.remove(key);
+    }
+
+    /**
+     * Removes all entries
+     */
+    public synchronized void clear() {
+        version++;
+        entries.clear();
+    }
+
+    private static final class Entry {
+
+        private final byte[] value;
+
+        private final long expiresAt;
+
+        private Entry(byte[] value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,232 @@
+/*-
+ * #%L
+ * Coffee
+ * %%
+ * Copyright (C) 2020 - 2026 i-Cell Mobilsoft Zrt.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package hu.icellmobilsoft.coffee.module.redis.interceptor;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import jakarta.enterprise.context.ApplicationScoped;
+
+import hu.icellmobilsoft.coffee.module.redis.manager.RedisManager;
+import hu.icellmobilsoft.coffee.se.api.exception.BaseException;
+import hu.icellmobilsoft.coffee.se.util.string.RandomUtil;
+import redis.clients.jedis.params.SetParams;
+
+/**
+ * Cache stampede protection of the {@code @RedisCached} methods.
+ * <ul>
+ * <li>local single-flight: only one caller of the instance recomputes a key, the others wait for its result</li>
+ * <li>distributed lease: only the instance holding the {@code SET NX PX} lease of the key recomputes it</li>
+ * <li>probabilistic early refresh (XFetch): a hit recomputes the value before expiry with growing probability, weighted by the recompute time of
+ * the method</li>
+ * </ul>
+ *
+ * @author agent
+ * @since 2.13.0
+ */
+@ApplicationScoped
+public class RedisCacheStampedeGuard {
+
+    /**
+     * Suffix of the lease key of a cache key
+     */
+    public static final String LEASE_KEY_SUFFIX = ":lease";
+
+    private static final String RELEASE_LEASE_SCRIPT = "if redis.call('GET', KEYS[1]) == ARGV[1] then return redis.call('DEL', KEYS[1]) "
+            + "else return 0 end";
+
+    private static final int COMPUTE_TIME_WEIGHT = 8;
+
+    private final Map<String, CompletableFuture<byte[]>> flights = new ConcurrentHashMap<>();
+
+    private final Map<String, Long> computeMillis = new ConcurrentHashMap<>();
+
+    /**
+     * Default constructor, constructs a new object.
+     */
+    public RedisCacheStampedeGuard() {
+        super();
+    }
+
+    /**
+     * Begins the local flight of the key. The first caller becomes the leader, it has to {@link Flight#end()} the flight, the others are
+     * followers and can wait for the result of the leader.
+     *
+     * @param flightKey
+     *            redis connection and cache key
+     * @return the flight
+     */
+    public Flight begin(String flightKey) {
+        CompletableFuture<byte[]> own = new CompletableFuture<>();
+        CompletableFuture<byte[]> running = flights.putIfAbsent(flightKey, own);
+        return running == null ? new Flight(flightKey, own, true) : new Flight(flightKey, running, false);
+    }
+
+    /**
+     * Acquires the distributed lease of the cache key with {@code SET NX PX}
+     *
+     * @param redisManager
+     *            redis manager with initialized connection
+     * @param key
+     *            cache key
+     * @param owner
+     *            unique owner of the lease
+     * @param leaseMillis
+     *            lease time in milliseconds
+     * @return {@code true} if the lease is acquired
+     * @throws BaseException
+     *             on redis error
+     */
+    public boolean acquireLease(RedisManager redisManager, String key, String owner, long leaseMillis) throws BaseException {
+        return redisManager.run(jedis -> jedis.set(key + LEASE_KEY_SUFFIX, owner, SetParams.setParams().nx().px(leaseMillis)), "set nx px")
+                .isPresent();
+    }
+
+    /**
+     * Releases the distributed lease of the cache key, if it is still owned by the owner
+     *
+     * @param redisManager
+     *            redis manager with initialized connection
+     * @param key
+     *            cache key
+     * @param owner
+     *            unique owner of the lease
+     * @throws BaseException
+     *             on redis error
+     */
+    public void releaseLease(RedisManager redisManager, String key, String owner) throws BaseException {
+        redisManager.run(jedis -> jedis.eval(RELEASE_LEASE_SCRIPT, List.of(key + LEASE_KEY_SUFFIX), List.of(owner)), "eval release lease");
+    }
+
+    /**
+     * Records the recompute time of the cache, it is averaged with the earlier ones
+     *
+     * @param cache
+     *            name of the cache
+     * @param millis
+     *            recompute time in milliseconds
+     */
+    public void recordComputeTime(String cache, long millis) {
+        computeMillis.merge(cache, millis, (previous, current) -> (previous * (COMPUTE_TIME_WEIGHT - 1) + current) / COMPUTE_TIME_WEIGHT);
+    }
+
+    /**
+     * Returns whether a hit has to be recomputed before expiry (XFetch): {@code -computeTime * beta * ln(random) >= remainingTtl}
+     *
+     * @param cache
+     *            name of the cache
+     * @param remainingTtlMillis
+     *            remaining time to live of the cached value in milliseconds (PTTL)
+     * @param beta
+     *            early refresh factor, {@code 0} turns off, above {@code 1} favors earlier refresh
+     * @return {@code true} if the value has to be recomputed
+     */
+    public boolean isEarlyRefresh(String cache, long remainingTtlMillis, double beta) {
+        Long delta = computeMillis.get(cache);
+        if (beta <= 0 || delta == null || remainingTtlMillis <= 0) {
+            return false;
+        }
+        // 1 - nextDouble() is in (0, 1], the logarithm is finite
+        return -delta * beta * Math.log(1 - ThreadLocalRandom.current().nextDouble()) >= remainingTtlMillis;
+    }
+
+    /**
+     * Local recompute of one key
+     */
+    public final class Flight {
+
+        private final String flightKey;
+
+        private final CompletableFuture<byte[]> result;
+
+        private final boolean leader;
+
+        private final String owner = RandomUtil.generateId();
+
+        private Flight(String flightKey, CompletableFuture<byte[]> result, boolean leader) {
+            this.flightKey = flightKey;
+            this.result = result;
+            this.leader = leader;
+        }
+
+        /**
+         * Returns whether this caller has to recompute the value
+         *
+         * @return {@code true} for the leader
+         */
+        public boolean isLeader() {
+            return leader;
+        }
+
+        /**
+         * Unique owner id of the flight, used as owner of the distributed lease
+         *
+         * @return owner id
+         */
+        public String getOwner() {
+            return owner;
+        }
+
+        /**
+         * Waits for the encoded value of the leader
+         *
+         * @param timeoutMillis
+         *            maximum wait time in milliseconds
+         * @return encoded value, empty if the leader failed or did not finish in time
+         */
+        public Optional<byte[]> await(long timeoutMillis) {
+            try {
+                return Optional.ofNullable(result.get(timeoutMillis, TimeUnit.MILLISECONDS));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return Optional.empty();
+            } catch (ExecutionException | TimeoutException e) {
+                return Optional.empty();
+            }
+        }
+
+        /**
+         * Shares the encoded value with the followers
+         *
+         * @param encoded
+         *            encoded value
+         */
+        public void complete(byte[] encoded) {
+            result.complete(encoded);
+        }
+
+        /**
+         * Ends the flight of the leader, the waiting followers get empty result if the value is not shared
+         */
+        public void end() {
+            if (leader) {
+                flights.remove(flightKey, result);
+                result.complete(null);
+            }
+        }
+    }
+}
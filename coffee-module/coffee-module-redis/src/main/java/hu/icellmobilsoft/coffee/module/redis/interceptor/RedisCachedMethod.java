@@ -0,0 +1,275 @@
+/*-
+ * #%L
+ * Coffee
+ * %%
+ * Copyright (C) 2020 - 2026 i-Cell Mobilsoft Zrt.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package hu.icellmobilsoft.coffee.module.redis.interceptor;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.apache.commons.lang3.ArrayUtils;
+import org.apache.commons.lang3.StringUtils;
+
+import hu.icellmobilsoft.coffee.dto.exception.enums.CoffeeFaultType;
+import hu.icellmobilsoft.coffee.module.redis.annotation.RedisConnection;
+import hu.icellmobilsoft.coffee.module.redis.interceptor.annotation.RedisCached;
+import hu.icellmobilsoft.coffee.se.api.exception.BaseException;
+import hu.icellmobilsoft.coffee.se.api.exception.TechnicalException;
+
+/**
+ * Metadata of a {@code @RedisCached} method, resolved once per method. The cache key of a call is
+ * {@value #KEY_NAMESPACE}{@code <cache name>:<hash>}, where the cache name is the class simple name and method name (at most
+ * {@value #MAX_CACHE_NAME_LENGTH} characters), and the hash is the URL safe Base64 SHA-256 of the full method signature and the string form of
+ * the key parameters ({@link RedisCached#keyParams()}). The string form of a parameter is its class name and {@link String#valueOf(Object)}
+ * (arrays element-wise), so the key parameters need a value based {@code toString()}, as before 2.13.0. So the key length is bounded, and methods of the same name in other packages or overloads do
+ * not collide. In bulk mode ({@link RedisCached#bulkParam()}) every element of the collection parameter has its own key, as if the method was
+ * called with the single element.
+ *
+ * @author agent
+ * @since 2.13.0
+ */
+public final class RedisCachedMethod {
+
+    /**
+     * Namespace of the cache keys
+     */
+    public static final String KEY_NAMESPACE = "coffee:cache:";
+
+    /**
+     * Maximum length of the readable cache name part of the key
+     */
+    public static final int MAX_CACHE_NAME_LENGTH = 64;
+
+    private static final String HASH_ALGORITHM = "SHA-256";
+
+    private final RedisConnection redisConnection;
+
+    private final RedisCached redisCached;
+
+    private final String cacheName;
+
+    private final String keyPrefix;
+
+    private final byte[] signature;
+
+    private final int[] keyParams;
+
+    private final int bulkParam;
+
+    private final Class<?> bulkParamType;
+
+    /**
+     * Resolves the metadata of the method
+     *
+     * @param method
+     *            the {@code @RedisCached} method
+     * @throws BaseException
+     *             if {@code @RedisConnection} is missing or {@link RedisCached#keyParams()} is invalid
+     */
+    public RedisCachedMethod(Method method) throws BaseException {
+        redisConnection = getAnnotation(method, RedisConnection.class);
+        if (redisConnection == null) {
+            throw new BaseException(
+                    CoffeeFaultType.OPERATION_FAILED,
+                    MessageFormat.format(
+                            "@RedisConnection annotation is missing from method: {0}#{1}",
+                            method.getDeclaringClass().getCanonicalName(),
+                            method.getName()));
+        }
+        redisCached = getAnnotation(method, RedisCached.class);
+        cacheName = method.getDeclaringClass().getSimpleName() + "." + method.getName();
+        keyPrefix = KEY_NAMESPACE + StringUtils.left(cacheName, MAX_CACHE_NAME_LENGTH) + ":";
+        signature = (method.getDeclaringClass().getName() + "#" + method.getName()
+                + Arrays.stream(method.getParameterTypes()).map(Class::getName).collect(Collectors.joining(",", "(", ")")))
+                .getBytes(StandardCharsets.UTF_8);
+        keyParams = redisCached.keyParams().length == 0 ? null : redisCached.keyParams().clone();
+        if (keyParams != null) {
+            for (int index : keyParams) {
+                if (index < 0 || index >= method.getParameterCount()) {
+                    throw new TechnicalException(
+                            CoffeeFaultType.INVALID_INPUT,
+                            MessageFormat.format(
+                                    "Invalid @RedisCached keyParams index [{0}] of method: {1}#{2}",
+                                    index,
+                                    method.getDeclaringClass().getCanonicalName(),
+                                    method.getName()));
+                }
+            }
+        }
+        bulkParam = redisCached.bulkParam();
+        bulkParamType = bulkParam < 0 ? null : validateBulkParam(method);
+    }
+
+    private Class<?> validateBulkParam(Method method) throws BaseException {
+        Class<?> type = bulkParam < method.getParameterCount() ? method.getParameterTypes()[bulkParam] : null;
+        boolean collection = type != null && Collection.class.isAssignableFrom(type)
+                && (type.isAssignableFrom(ArrayList.class) || type.isAssignableFrom(LinkedHashSet.class));
+        boolean keyParam = keyParams == null || ArrayUtils.contains(keyParams, bulkParam);
+        if (!collection || !keyParam || !method.getReturnType().isAssignableFrom(LinkedHashMap.class)) {
+            throw new TechnicalException(
+                    CoffeeFaultType.INVALID_INPUT,
+                    MessageFormat.format(
+                            "Invalid @RedisCached bulkParam [{0}] of method: {1}#{2}, it has to be a List, Set or Collection key parameter"
+                                    + " of a method returning Map",
+                            bulkParam,
+                            method.getDeclaringClass().getCanonicalName(),
+                            method.getName()));
+        }
+        return type;
+    }
+
+    /**
+     * Returns the cache key of the call
+     *
+     * @param parameters
+     *            parameters of the call
+     * @return cache key
+     * @throws BaseException
+     *             if the hash algorithm is not available
+     */
+    public String getKey(Object[] parameters) throws BaseException {
+        StringBuilder keyValues = new StringBuilder();
+        if (keyParams == null) {
+            for (Object parameter : parameters) {
+                appendKeyValue(keyValues, parameter);
+            }
+        } else {
+            for (int index : keyParams) {
+                appendKeyValue(keyValues, parameters[index]);
+            }
+        }
+        try {
+            MessageDigest digest = MessageDigest.getInstance(HASH_ALGORITHM);
+            digest.update(signature);
+            digest.update(keyValues.toString().getBytes(StandardCharsets.UTF_8));
+            return keyPrefix + Base64.getUrlEncoder().withoutPadding().encodeToString(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new TechnicalException(CoffeeFaultType.OPERATION_FAILED, "Cache key hash failed: " + e.getLocalizedMessage(), e);
+        }
+    }
+
+    /**
+     * Appends the length prefixed string form of a key parameter, the length prefix keeps the parameter boundaries unambiguous
+     */
+    private static void appendKeyValue(StringBuilder keyValues, Object value) {
+        String string;
+        if (value == null) {
+            string = "null";
+        } else if (value.getClass().isArray()) {
+            // deepToString handles primitive and nested arrays, and self references
+            string = value.getClass().getName() + ":" + Arrays.deepToString(new Object[] { value });
+        } else {
+            string = value.getClass().getName() + ":" + value;
+        }
+        keyValues.append(string.length()).append(':').append(string);
+    }
+
+    /**
+     * Returns the cache keys of the elements of the bulk parameter, in the order of the collection. Duplicated elements have one key.
+     *
+     * @param parameters
+     *            parameters of the call
+     * @return cache key by element
+     * @throws BaseException
+     *             if the hash algorithm is not available
+     */
+    public Map<Object, String> getBulkKeys(Object[] parameters) throws BaseException {
+        Map<Object, String> keys = new LinkedHashMap<>();
+        Object[] elementParameters = parameters.clone();
+        for (Object element : (Collection<?>) parameters[bulkParam]) {
+            if (!keys.containsKey(element)) {
+                elementParameters[bulkParam] = element;
+                keys.put(element, getKey(elementParameters));
+            }
+        }
+        return keys;
+    }
+
+    /**
+     * Creates the value of the bulk parameter from the given elements, matching the declared parameter type
+     *
+     * @param elements
+     *            elements of the collection
+     * @return {@code ArrayList} for {@code List} or {@code Collection} parameters, {@code LinkedHashSet} for {@code Set} parameters
+     */
+    public Collection<Object> createBulkParameter(Collection<Object> elements) {
+        return bulkParamType.isAssignableFrom(ArrayList.class) ? new ArrayList<>(elements) : new LinkedHashSet<>(elements);
+    }
+
+    /**
+     * Returns whether the method is cached in bulk mode
+     *
+     * @return {@code true} if {@link RedisCached#bulkParam()} is set
+     */
+    public boolean isBulk() {
+        return bulkParam >= 0;
+    }
+
+    /**
+     * Returns the index of the bulk parameter
+     *
+     * @return {@link RedisCached#bulkParam()}
+     */
+    public int getBulkParam() {
+        return bulkParam;
+    }
+
+    /**
+     * Returns the {@code @RedisConnection} of the method or its class
+     *
+     * @return redis connection
+     */
+    public RedisConnection getRedisConnection() {
+        return redisConnection;
+    }
+
+    /**
+     * Returns the {@code @RedisCached} of the method or its class
+     *
+     * @return cache settings
+     */
+    public RedisCached getRedisCached() {
+        return redisCached;
+    }
+
+    /**
+     * Returns the name of the cache, used in metrics and near cache
+     *
+     * @return class simple name and method name
+     */
+    public String getCacheName() {
+        return cacheName;
+    }
+
+    private static <A extends Annotation> A getAnnotation(Method method, Class<A> annotationClass) {
+        A annotation = method.getAnnotation(annotationClass);
+        return annotation != null ? annotation : method.getDeclaringClass().getAnnotation(annotationClass);
+    }
+}
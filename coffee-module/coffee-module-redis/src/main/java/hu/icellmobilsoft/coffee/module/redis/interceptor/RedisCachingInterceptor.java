@@ -20,9 +20,16 @@
 package hu.icellmobilsoft.coffee.module.redis.interceptor;
 
 import java.lang.reflect.Method;
-import java.text.MessageFormat;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 import jakarta.enterprise.inject.spi.CDI;
 import jakarta.inject.Inject;
@@ -34,19 +41,25 @@ import org.apache.commons.lang3.StringUtils;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
-import com.google.gson.JsonSyntaxException;
+import com.google.gson.JsonParseException;
 
 import hu.icellmobilsoft.coffee.cdi.logger.AppLogger;
 import hu.icellmobilsoft.coffee.cdi.logger.ThisLogger;
+import hu.icellmobilsoft.coffee.cdi.metric.constants.JedisMetricsConstants;
+import hu.icellmobilsoft.coffee.cdi.metric.spi.IJedisMetricsHandler;
 import hu.icellmobilsoft.coffee.dto.common.Envelope;
-import hu.icellmobilsoft.coffee.dto.exception.enums.CoffeeFaultType;
 import hu.icellmobilsoft.coffee.module.redis.annotation.RedisConnection;
 import hu.icellmobilsoft.coffee.module.redis.interceptor.annotation.RedisCached;
+import hu.icellmobilsoft.coffee.module.redis.interceptor.codec.IRedisCacheCodec;
+import hu.icellmobilsoft.coffee.module.redis.manager.RedisBatch;
 import hu.icellmobilsoft.coffee.module.redis.manager.RedisManager;
 import hu.icellmobilsoft.coffee.module.redis.manager.RedisManagerConnection;
+import hu.icellmobilsoft.coffee.module.redis.producer.UnifiedJedisProducer;
 import hu.icellmobilsoft.coffee.se.api.exception.BaseException;
 import hu.icellmobilsoft.coffee.tool.gson.ClassTypeAdapter;
-import hu.icellmobilsoft.coffee.tool.utils.json.JsonUtil;
+import redis.clients.jedis.AbstractPipeline;
+import redis.clients.jedis.RedisClusterClient;
+import redis.clients.jedis.Response;
 import redis.clients.jedis.UnifiedJedis;
 
 /**
@@ -60,10 +73,36 @@ import redis.clients.jedis.UnifiedJedis;
 @RedisCached
 public class RedisCachingInterceptor {
 
+    private static final long LEASE_POLL_MILLIS = 50;
+
+    private static final Map<Method, RedisCachedMethod> METHODS = new ConcurrentHashMap<>();
+
+    /**
+     * Stored value of an empty result ({@code null} or empty {@link Optional}), it is neither codec encoded value nor legacy JSON
+     */
+    private static final byte[] EMPTY_RESULT_VALUE = { (byte) 0xC0, (byte) 0x00 };
+
+    /**
+     * Decoded {@link #EMPTY_RESULT_VALUE}, it is converted to the empty return value of the method
+     */
+    private static final Object EMPTY_RESULT = new Object();
+
     @Inject
     @ThisLogger
     private AppLogger log;
 
+    @Inject
+    private IJedisMetricsHandler jedisMetricsHandler;
+
+    @Inject
+    private RedisNearCache redisNearCache;
+
+    @Inject
+    private IRedisCacheCodec redisCacheCodec;
+
+    @Inject
+    private RedisCacheStampedeGuard stampedeGuard;
+
     private Gson gson;
 
     /**
@@ -86,88 +125,601 @@ public class RedisCachingInterceptor {
      */
     @AroundInvoke
     public Object perform(final InvocationContext ctx) throws Exception {
-        return getReturnOfCache(ctx);
+        Object objectToReturn = getReturnOfCache(ctx);
+        if (objectToReturn == EMPTY_RESULT) {
+            return Optional.class.equals(ctx.getMethod().getReturnType()) ? Optional.empty() : null;
+        }
+        return objectToReturn;
     }
 
-    @SuppressWarnings({ "unchecked", "rawtypes" })
     private Object getReturnOfCache(final InvocationContext ctx) throws Exception {
-        RedisManager redisManager = getRedisManager(ctx.getMethod());
-        final String key = getKey(ctx.getMethod(), ctx.getParameters());
-
-        try (RedisManagerConnection ignored = redisManager.initConnection()) {
-            Optional<String> json = redisManager.run(UnifiedJedis::get, "get", key);
-
-            if (json.isEmpty()) {
-                log.debug("Data is not cached in Redis, caching key: [{0}]", key);
-                Object objectToReturn = ctx.proceed();
+        RedisCachedMethod cachedMethod = METHODS.get(ctx.getMethod());
+        if (cachedMethod == null) {
+            cachedMethod = new RedisCachedMethod(ctx.getMethod());
+            METHODS.putIfAbsent(ctx.getMethod(), cachedMethod);
+        }
+        if (cachedMethod.isBulk()) {
+            return getReturnOfBulkCache(ctx, cachedMethod);
+        }
+        String key;
+        try {
+            key = cachedMethod.getKey(ctx.getParameters());
+        } catch (BaseException | RuntimeException e) {
+            log.warn("Cache key of method [{0}] can not be created, calling without cache: [{1}]", cachedMethod.getCacheName(),
+                    e.getLocalizedMessage());
+            return ctx.proceed();
+        }
+        CacheCall call = new CacheCall(ctx, cachedMethod, key);
+        String configKey = call.redisConnection.configKey();
 
-                long timeToExpire = getTime(ctx.getMethod());
-                Envelope envelope = new Envelope(gson.toJson(objectToReturn), objectToReturn.getClass());
+        long nearCacheVersion = 0;
+        if (call.redisCached.nearCache()) {
+            call.nearCacheRegion = redisNearCache.getRegion(configKey, call.redisConnection.poolConfigKey(), call.cache,
+                    call.redisCached.nearCacheMaxSize(),
+                    TimeUnit.SECONDS.toMillis(Math.min(call.redisCached.nearCacheExpireInSeconds(), call.redisCached.expireInSeconds())));
+            Optional<byte[]> nearValue = call.nearCacheRegion.get(call.key);
+            Object nearObject = nearValue.isPresent() ? decodeNearCached(nearValue.get()) : null;
+            if (nearObject != null) {
+                jedisMetricsHandler.incrementCacheHit(configKey, call.cache, JedisMetricsConstants.CacheTier.NEAR);
+                log.debug("Data from near cache: [{0}]", nearObject);
+                return nearObject;
+            }
+            jedisMetricsHandler.incrementCacheMiss(configKey, call.cache, JedisMetricsConstants.CacheTier.NEAR);
+            if (nearValue.isPresent()) {
+                call.nearCacheRegion.remove(call.key);
+            }
+            nearCacheVersion = call.nearCacheRegion.getVersion();
+        }
 
-                Optional<String> statusCode = redisManager.run(UnifiedJedis::setex, "setex", key, timeToExpire, JsonUtil.toJson(envelope));
+        RedisManager redisManager = getRedisManager(call.redisConnection);
+        try (RedisManagerConnection ignored = redisManager.initConnection()) {
+            call.redisManager = redisManager;
+            CachedValue cached = read(call);
 
-                if (statusCode.isPresent() && !StringUtils.equals(statusCode.get(), "OK")) {
-                    log.warn("Problems in recording cache - status code [{0}]", statusCode);
-                }
-                return objectToReturn;
+            if (cached.value == null) {
+                jedisMetricsHandler.incrementCacheMiss(configKey, call.cache, JedisMetricsConstants.CacheTier.REDIS);
+                log.debug("Data is not cached in Redis, caching key: [{0}]", call.key);
+                return load(call, null);
             } else {
-                Envelope envelope = gson.fromJson(json.get(), Envelope.class);
-                Class type = envelope.getTypeOfJson();
-
-                Object objectToReturn = gson.fromJson(envelope.getJson(), type);
+                Object objectToReturn;
+                try {
+                    objectToReturn = decode(cached.value);
+                } catch (BaseException | JsonParseException e) {
+                    log.error("Cached value can not be decoded, removing the key!", e);
+                    redisManager.run(UnifiedJedis::del, "del", call.key);
+                    if (call.nearCacheRegion != null) {
+                        invalidateNearCache(call);
+                    }
+                    return proceed(ctx);
+                }
 
                 if (objectToReturn == null) {
-                    log.warn("Problems with the object type - Type Envelop [{0}]", type);
-                    return ctx.proceed();
+                    jedisMetricsHandler.incrementCacheMiss(configKey, call.cache, JedisMetricsConstants.CacheTier.REDIS);
+                    return proceed(ctx);
                 } else {
+                    jedisMetricsHandler.incrementCacheHit(configKey, call.cache, JedisMetricsConstants.CacheTier.REDIS);
                     log.debug("Data from Redis: [{0}]", objectToReturn);
+                    if (stampedeGuard.isEarlyRefresh(call.cache, cached.remainingTtlMillis, call.redisCached.earlyRefreshBeta())) {
+                        log.debug("Early refresh of key: [{0}]", call.key);
+                        return load(call, objectToReturn);
+                    }
+                    if (call.nearCacheRegion != null && objectToReturn != EMPTY_RESULT) {
+                        call.nearCacheRegion.put(call.key, cached.value, nearCacheVersion);
+                    }
                     return objectToReturn;
                 }
             }
-        } catch (JsonSyntaxException e) {
-            log.error("Syntax problem, removing the key!", e);
-            redisManager.run(UnifiedJedis::del, "del", key);
-            return ctx.proceed();
+        } catch (MethodInvocationException e) {
+            // the method failed, it is not called again without cache
+            throw e.getMethodException();
         } catch (Exception e) {
             log.error("Exception on Redis [{0}]", e.getMessage(), e);
             return ctx.proceed();
         } finally {
-            CDI.current().destroy(redisManager);
+            destroyRedisManager(redisManager);
+        }
+    }
+
+    /**
+     * Calls the intercepted method. Its exception is wrapped, so it is not handled as Redis or codec error, which would call the method again
+     * without cache.
+     *
+     * @param ctx
+     *            context
+     * @return return value of the method
+     * @throws MethodInvocationException
+     *             wrapping the exception of the method
+     */
+    private Object proceed(InvocationContext ctx) throws MethodInvocationException {
+        try {
+            return ctx.proceed();
+        } catch (Exception e) {
+            throw new MethodInvocationException(e);
         }
     }
 
-    private RedisManager getRedisManager(Method method) throws BaseException {
-        RedisConnection redisConnection = method.getAnnotation(RedisConnection.class);
-        if (redisConnection == null) {
-            redisConnection = method.getDeclaringClass().getAnnotation(RedisConnection.class);
+    /**
+     * Serves a bulk cached method: the entries of the elements are read by one {@code MGET}, the method is called with the missing elements only,
+     * and its results are written back in one pipeline. The returned map follows the order of the collection parameter.
+     *
+     * @param ctx
+     *            context
+     * @param cachedMethod
+     *            metadata of the method
+     * @return map of the cached and loaded values by element
+     * @throws Exception
+     *             if the method fails
+     */
+    private Object getReturnOfBulkCache(InvocationContext ctx, RedisCachedMethod cachedMethod) throws Exception {
+        Collection<?> elements = (Collection<?>) ctx.getParameters()[cachedMethod.getBulkParam()];
+        if (elements == null || elements.isEmpty()) {
+            return ctx.proceed();
+        }
+        Map<Object, String> keys;
+        try {
+            keys = cachedMethod.getBulkKeys(ctx.getParameters());
+        } catch (BaseException | RuntimeException e) {
+            log.warn("Cache keys of method [{0}] can not be created, calling without cache: [{1}]", cachedMethod.getCacheName(),
+                    e.getLocalizedMessage());
+            return ctx.proceed();
         }
+        String configKey = cachedMethod.getRedisConnection().configKey();
+        String cache = cachedMethod.getCacheName();
+
+        RedisManager redisManager = getRedisManager(cachedMethod.getRedisConnection());
+        try (RedisManagerConnection ignored = redisManager.initConnection()) {
+            List<byte[]> values;
+            try {
+                values = mget(redisManager, keys.values());
+            } catch (BaseException e) {
+                log.error("Exception on Redis [{0}]", e.getMessage(), e);
+                return ctx.proceed();
+            }
+
+            Map<Object, Object> cached = new LinkedHashMap<>();
+            List<Object> misses = new ArrayList<>();
+            int index = 0;
+            for (Object element : keys.keySet()) {
+                byte[] value = values.get(index++);
+                Object object = value == null ? null : decodeBulk(value);
+                if (object == null) {
+                    jedisMetricsHandler.incrementCacheMiss(configKey, cache, JedisMetricsConstants.CacheTier.REDIS);
+                    misses.add(element);
+                } else {
+                    jedisMetricsHandler.incrementCacheHit(configKey, cache, JedisMetricsConstants.CacheTier.REDIS);
+                    cached.put(element, object);
+                }
+            }
+
+            Map<?, ?> loaded = Map.of();
+            if (!misses.isEmpty()) {
+                log.debug("[{0}] of [{1}] elements are not cached in Redis, loading them", misses.size(), keys.size());
+                Object[] parameters = ctx.getParameters().clone();
+                parameters[cachedMethod.getBulkParam()] = cachedMethod.createBulkParameter(misses);
+                ctx.setParameters(parameters);
+                Map<?, ?> returned = (Map<?, ?>) ctx.proceed();
+                if (returned != null) {
+                    loaded = returned;
+                }
+                storeBulk(redisManager, cachedMethod.getRedisCached(), keys, misses, loaded);
+            }
 
-        if (redisConnection != null) {
-            String configKey = redisConnection.configKey();
-            String poolConfigKey = redisConnection.poolConfigKey();
-            return CDI.current().select(RedisManager.class, new RedisConnection.Literal(configKey, poolConfigKey)).get();
-        } else {
-            throw new BaseException(
-                    CoffeeFaultType.OPERATION_FAILED,
-                    MessageFormat.format(
-                            "@RedisConnection annotation is missing from method: {0}#{1}",
-                    method.getDeclaringClass().getCanonicalName(), method.getName()));
+            Map<Object, Object> objectToReturn = new LinkedHashMap<>();
+            for (Object element : keys.keySet()) {
+                Object object = cached.get(element);
+                if (object != null && object != EMPTY_RESULT) {
+                    objectToReturn.put(element, object);
+                } else if (loaded.containsKey(element)) {
+                    objectToReturn.put(element, loaded.get(element));
+                }
+            }
+            return objectToReturn;
+        } finally {
+            destroyRedisManager(redisManager);
         }
     }
 
-    private long getTime(Method method) {
-        RedisCached enableCaching = method.getAnnotation(RedisCached.class);
+    /**
+     * Reads the values of the keys in one round trip. Cluster keys are in different slots which one {@code MGET} can not span, so they are read
+     * by a cluster pipeline of {@code GET} commands.
+     *
+     * @param redisManager
+     *            redis manager with initialized connection
+     * @param keys
+     *            cache keys
+     * @return values in the order of the keys, {@code null} for missing keys
+     * @throws BaseException
+     *             on redis error
+     */
+    private List<byte[]> mget(RedisManager redisManager, Collection<String> keys) throws BaseException {
+        byte[][] keyBytes = keys.stream().map(key -> key.getBytes(StandardCharsets.UTF_8)).toArray(byte[][]::new);
+        return redisManager.run(jedis -> {
+            if (!(jedis instanceof RedisClusterClient)) {
+                return jedis.mget(keyBytes);
+            }
+            try (AbstractPipeline pipeline = jedis.pipelined()) {
+                List<Response<byte[]>> responses = Arrays.stream(keyBytes).map(pipeline::get).toList();
+                pipeline.sync();
+                return responses.stream().map(Response::get).toList();
+            }
+        }, "mget").orElseThrow();
+    }
 
-        if (enableCaching == null) {
-            enableCaching = method.getDeclaringClass().getAnnotation(RedisCached.class);
+    /**
+     * Writes back the loaded values of the missing elements in one pipeline. Elements missing from the loaded map are empty results, cached only
+     * if {@link RedisCached#cacheNull()} is set. Write failures are logged only, the values are cached on a later call.
+     *
+     * @param redisManager
+     *            redis manager with initialized connection
+     * @param redisCached
+     *            cache settings
+     * @param keys
+     *            cache key by element
+     * @param misses
+     *            elements passed to the method
+     * @param loaded
+     *            return value of the method
+     */
+    private void storeBulk(RedisManager redisManager, RedisCached redisCached, Map<Object, String> keys, List<Object> misses, Map<?, ?> loaded) {
+        try {
+            RedisBatch batch = redisManager.batch();
+            for (Object element : misses) {
+                Object object = loaded.get(element);
+                boolean emptyResult = object == null || Optional.empty().equals(object);
+                if (emptyResult && !redisCached.cacheNull()) {
+                    continue;
+                }
+                byte[] key = keys.get(element).getBytes(StandardCharsets.UTF_8);
+                byte[] encoded = emptyResult ? EMPTY_RESULT_VALUE : redisCacheCodec.encode(object);
+                long timeToExpire = emptyResult ? redisCached.nullExpireInSeconds() : redisCached.expireInSeconds();
+                batch.add(pipeline -> pipeline.setex(key, timeToExpire, encoded), "setex");
+            }
+            if (batch.size() > 0) {
+                batch.execute();
+            }
+        } catch (BaseException e) {
+            log.warn("Problems in recording bulk cache of [{0}] elements: [{1}]", misses.size(), e.getLocalizedMessage());
+        }
+    }
+
+    private Object decodeBulk(byte[] value) {
+        try {
+            return decode(value);
+        } catch (BaseException | JsonParseException e) {
+            // overwritten if the method returns the element
+            log.warn("Cached value can not be decoded, loading it again: [{0}]", e.getLocalizedMessage());
+            return null;
         }
+    }
 
-        return enableCaching.expireInSeconds();
+    /**
+     * Reads the cached value, and its remaining time to live in the same round trip if early refresh is used
+     *
+     * @param call
+     *            the cached method call
+     * @return cached value
+     * @throws BaseException
+     *             on redis error
+     */
+    private CachedValue read(CacheCall call) throws BaseException {
+        if (call.redisCached.earlyRefreshBeta() <= 0) {
+            return new CachedValue(call.redisManager.run(UnifiedJedis::get, "get", call.keyBytes).orElse(null), -1);
+        }
+        return call.redisManager.run(jedis -> {
+            try (AbstractPipeline pipeline = jedis.pipelined()) {
+                Response<byte[]> value = pipeline.get(call.keyBytes);
+                Response<Long> remainingTtl = pipeline.pttl(call.keyBytes);
+                pipeline.sync();
+                return new CachedValue(value.get(), remainingTtl.get());
+            }
+        }, "get pttl").orElseThrow();
     }
 
-    private String getKey(Method method, Object[] parameters) {
-        final String parametersInLineCustom = Arrays.toString(parameters).replace(" ", "").replace("null", "");
+    /**
+     * Recomputes the value of a missing or early refreshed key, with the stampede protection of the method. If the value is recomputed by other
+     * caller, the followers get the cached value if it exists, otherwise they wait for the result at most {@link RedisCached#lockWaitMillis()}.
+     *
+     * @param call
+     *            the cached method call
+     * @param cachedObject
+     *            the still valid cached value on early refresh, {@code null} on miss
+     * @return the value
+     * @throws Exception
+     *             if the method or redis fails
+     */
+    private Object load(CacheCall call, Object cachedObject) throws Exception {
+        if (!call.redisCached.singleFlight() && !call.redisCached.distributedLock()) {
+            return compute(call, null);
+        }
+        RedisCacheStampedeGuard.Flight flight = stampedeGuard.begin(call.redisConnection.configKey() + UnifiedJedisProducer.DELIMITER + call.key);
+        if (!flight.isLeader()) {
+            if (cachedObject != null) {
+                return cachedObject;
+            }
+            Optional<Object> shared = decodeShared(flight.await(call.redisCached.lockWaitMillis()));
+            if (shared.isPresent()) {
+                return shared.get();
+            }
+            log.debug("Value of key [{0}] is not recomputed by other caller in time", call.key);
+            return compute(call, null);
+        }
 
-        return method.getDeclaringClass().getSimpleName() + method.getName() + parametersInLineCustom;
+        boolean leased = false;
+        try {
+            if (call.redisCached.distributedLock()) {
+                leased = stampedeGuard.acquireLease(call.redisManager, call.key, flight.getOwner(), call.redisCached.lockLeaseMillis());
+                if (!leased) {
+                    if (cachedObject != null) {
+                        return cachedObject;
+                    }
+                    Optional<byte[]> stored = waitForValue(call);
+                    Optional<Object> shared = decodeShared(stored);
+                    if (shared.isPresent()) {
+                        flight.complete(stored.get());
+                        return shared.get();
+                    }
+                    log.debug("Value of key [{0}] is not recomputed by other instance in time", call.key);
+                }
+            }
+            return compute(call, flight);
+        } finally {
+            if (leased) {
+                releaseLease(call, flight);
+            }
+            flight.end();
+        }
+    }
+
+    /**
+     * Calls the method and caches its return value. Caching failures are logged only, the method is not called again.
+     *
+     * @param call
+     *            the cached method call
+     * @param flight
+     *            local flight of the key to share the value with, nullable
+     * @return return value of the method
+     * @throws MethodInvocationException
+     *             if the method fails
+     */
+    private Object compute(CacheCall call, RedisCacheStampedeGuard.Flight flight) throws MethodInvocationException {
+        long start = System.currentTimeMillis();
+        Object objectToReturn = proceed(call.ctx);
+        stampedeGuard.recordComputeTime(call.cache, System.currentTimeMillis() - start);
+        try {
+            store(call, flight, objectToReturn);
+        } catch (BaseException | RuntimeException e) {
+            log.warn("Problems in recording cache of key [{0}]: [{1}]", call.key, e.getLocalizedMessage());
+        }
+        return objectToReturn;
+    }
+
+    /**
+     * Caches the return value of the method, and shares it with the local followers of the key
+     *
+     * @param call
+     *            the cached method call
+     * @param flight
+     *            local flight of the key to share the value with, nullable
+     * @param objectToReturn
+     *            return value of the method
+     * @throws BaseException
+     *             if the codec or redis fails
+     */
+    private void store(CacheCall call, RedisCacheStampedeGuard.Flight flight, Object objectToReturn) throws BaseException {
+        boolean emptyResult = objectToReturn == null || Optional.empty().equals(objectToReturn);
+        byte[] encoded = emptyResult ? EMPTY_RESULT_VALUE : redisCacheCodec.encode(objectToReturn);
+        if (flight != null) {
+            flight.complete(encoded);
+        }
+        if (emptyResult && !call.redisCached.cacheNull()) {
+            log.debug("Empty result of key [{0}] is not cached", call.key);
+            return;
+        }
+
+        long timeToExpire = emptyResult ? call.redisCached.nullExpireInSeconds() : call.redisCached.expireInSeconds();
+        Optional<String> statusCode = call.redisManager.run(UnifiedJedis::setex, "setex", call.keyBytes, timeToExpire, encoded);
+
+        if (statusCode.isPresent() && !StringUtils.equals(statusCode.get(), "OK")) {
+            log.warn("Problems in recording cache - status code [{0}]", statusCode);
+        }
+        // empty results are not near cached, the near cache region expiration can be longer than nullExpireInSeconds
+        if (call.nearCacheRegion != null && invalidateNearCache(call) && !emptyResult) {
+            // own invalidation changed the version of the region
+            call.nearCacheRegion.put(call.key, encoded, call.nearCacheRegion.getVersion());
+        }
+    }
+
+    /**
+     * Polls the value of the key recomputed by other instance, at most {@link RedisCached#lockWaitMillis()}
+     *
+     * @param call
+     *            the cached method call
+     * @return the stored value, empty if it is not stored in time
+     * @throws BaseException
+     *             on redis error
+     */
+    private Optional<byte[]> waitForValue(CacheCall call) throws BaseException {
+        long deadline = System.currentTimeMillis() + call.redisCached.lockWaitMillis();
+        while (System.currentTimeMillis() < deadline) {
+            try {
+                TimeUnit.MILLISECONDS.sleep(Math.min(LEASE_POLL_MILLIS, Math.max(1, deadline - System.currentTimeMillis())));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return Optional.empty();
+            }
+            Optional<byte[]> value = call.redisManager.run(UnifiedJedis::get, "get", call.keyBytes);
+            if (value.isPresent()) {
+                return value;
+            }
+        }
+        return Optional.empty();
+    }
+
+    private Optional<Object> decodeShared(Optional<byte[]> value) {
+        try {
+            return value.isPresent() ? Optional.ofNullable(decode(value.get())) : Optional.empty();
+        } catch (BaseException | JsonParseException e) {
+            log.warn("Shared value can not be decoded: [{0}]", e.getLocalizedMessage());
+            return Optional.empty();
+        }
+    }
+
+    private void releaseLease(CacheCall call, RedisCacheStampedeGuard.Flight flight) {
+        try {
+            stampedeGuard.releaseLease(call.redisManager, call.key, flight.getOwner());
+        } catch (BaseException e) {
+            log.warn("Lease of key [{0}] release failed, it expires in [{1}] ms: [{2}]", call.key, call.redisCached.lockLeaseMillis(),
+                    e.getLocalizedMessage());
+        }
+    }
+
+    /**
+     * Publishes the near cache invalidation of the key. If the publish fails, the other instances drop their near cache entry only on its
+     * expiration.
+     *
+     * @param call
+     *            the cached method call
+     * @return {@code true} if the invalidation is published
+     */
+    private boolean invalidateNearCache(CacheCall call) {
+        try {
+            redisNearCache.invalidate(call.redisManager, call.redisConnection.configKey(), call.redisConnection.poolConfigKey(), call.key);
+            return true;
+        } catch (BaseException e) {
+            log.warn("Near cache invalidation of key [{0}] failed: [{1}]", call.key, e.getLocalizedMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Decodes the value stored in Redis by the {@link IRedisCacheCodec}, or as legacy {@link Envelope} JSON if it is not encoded by the codec
+     *
+     * @param value
+     *            value stored in Redis
+     * @return cached object, {@link #EMPTY_RESULT} for a cached empty result, {@code null} if the type of a legacy envelope does not match
+     * @throws BaseException
+     *             if the codec fails
+     */
+    private Object decode(byte[] value) throws BaseException {
+        if (Arrays.equals(EMPTY_RESULT_VALUE, value)) {
+            return EMPTY_RESULT;
+        }
+        if (redisCacheCodec.isEncoded(value)) {
+            return redisCacheCodec.decode(value);
+        }
+        // legacy entry, written before 2.13.0
+        return fromJson(new String(value, StandardCharsets.UTF_8));
+    }
+
+    private Object decodeNearCached(byte[] value) {
+        try {
+            return decode(value);
+        } catch (BaseException | JsonParseException e) {
+            log.warn("Near cached value can not be decoded: [{0}]", e.getLocalizedMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Deserializes the legacy cached envelope JSON
+     *
+     * @param json
+     *            envelope JSON
+     * @return deserialized object, {@code null} if the type of the envelope does not match
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private Object fromJson(String json) {
+        Envelope envelope = gson.fromJson(json, Envelope.class);
+        Class type = envelope.getTypeOfJson();
+
+        Object object = gson.fromJson(envelope.getJson(), type);
+        if (object == null) {
+            log.warn("Problems with the object type - Type Envelop [{0}]", type);
+        }
+        return object;
+    }
+
+    /**
+     * Returns a new redis manager of the connection, it has to be destroyed by {@link #destroyRedisManager(RedisManager)}
+     *
+     * @param redisConnection
+     *            connection of the cached method
+     * @return redis manager
+     */
+    RedisManager getRedisManager(RedisConnection redisConnection) {
+        return CDI.current().select(RedisManager.class, new RedisConnection.Literal(redisConnection.configKey(), redisConnection.poolConfigKey()))
+                .get();
+    }
+
+    /**
+     * Destroys the redis manager got by {@link #getRedisManager(RedisConnection)}
+     *
+     * @param redisManager
+     *            redis manager
+     */
+    void destroyRedisManager(RedisManager redisManager) {
+        CDI.current().destroy(redisManager);
+    }
+
+    /**
+     * State of one cached method call
+     */
+    private final class CacheCall {
+
+        private final InvocationContext ctx;
+
+        private final RedisConnection redisConnection;
+
+        private final RedisCached redisCached;
+
+        private final String key;
+
+        private final byte[] keyBytes;
+
+        private final String cache;
+
+        private NearCacheRegion nearCacheRegion;
+
+        private RedisManager redisManager;
+
+        private CacheCall(InvocationContext ctx, RedisCachedMethod cachedMethod, String key) {
+            this.ctx = ctx;
+            this.redisConnection = cachedMethod.getRedisConnection();
+            this.redisCached = cachedMethod.getRedisCached();
+            this.key = key;
+            this.keyBytes = key.getBytes(StandardCharsets.UTF_8);
+            this.cache = cachedMethod.getCacheName();
+        }
+    }
+
+    /**
+     * Exception of the intercepted method, thrown to the caller as it is
+     */
+    private static final class MethodInvocationException extends Exception {
+
+        private static final long serialVersionUID = 1L;
+
+        private MethodInvocationException(Exception cause) {
+            super(cause);
+        }
+
+        private Exception getMethodException() {
+            return (Exception) getCause();
+        }
+    }
+
+    /**
+     * Value read from Redis
+     */
+    private static final class CachedValue {
+
+        private final byte[] value;
+
+        private final long remainingTtlMillis;
+
+        private CachedValue(byte[] value, long remainingTtlMillis) {
+            this.value = value;
+            this.remainingTtlMillis = remainingTtlMillis;
+        }
     }
 }
@@ -0,0 +1,226 @@
+/*-
+ * #%L
+ * Coffee
+ * %%
+ * Copyright (C) 2020 - 2026 i-Cell Mobilsoft Zrt.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package hu.icellmobilsoft.coffee.module.redis.interceptor;
+
+import java.text.MessageFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.annotation.Resource;
+import jakarta.enterprise.concurrent.ManagedExecutorService;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.spi.CDI;
+import jakarta.inject.Inject;
+
+import hu.icellmobilsoft.coffee.module.redis.annotation.RedisConnection;
+import hu.icellmobilsoft.coffee.module.redis.manager.RedisManager;
+import hu.icellmobilsoft.coffee.module.redis.producer.UnifiedJedisProducer;
+import hu.icellmobilsoft.coffee.se.api.exception.BaseException;
+import hu.icellmobilsoft.coffee.se.logging.Logger;
+import hu.icellmobilsoft.coffee.se.util.string.RandomUtil;
+import redis.clients.jedis.JedisPubSub;
+import redis.clients.jedis.UnifiedJedis;
+
+/**
+ * In-process near cache of the {@code @RedisCached} methods, in front of Redis. The regions of one Redis connection are invalidated across the
+ * instances by the messages of the {@link #INVALIDATION_CHANNEL} pub/sub channel, a message contains the sender instance and the written or
+ * removed key.
+ * <p>
+ * One subscriber task is started per Redis connection on the first use, it holds one connection of the pool. Entries are stored only while the
+ * subscription is alive, on connection loss the regions of the connection are cleared, because invalidation messages could be lost.
+ *
+ * @author agent
+ * @since 2.13.0
+ */
+@ApplicationScoped
+public class RedisNearCache {
+
+    /**
+     * Redis pub/sub channel of the near cache invalidation messages
+     */
+    public static final String INVALIDATION_CHANNEL = "coffee:redis:nearcache:invalidate";
+
+    private static final char MESSAGE_DELIMITER = '|';
+
+    private static final long RESUBSCRIBE_WAIT_MILLIS = 1000;
+
+    @Inject
+    private Logger log;
+
+    @Resource
+    private ManagedExecutorService managedExecutorService;
+
+    private final String instanceId = RandomUtil.generateId();
+
+    private final Map<String, Subscription> subscriptions = new ConcurrentHashMap<>();
+
+    private volatile boolean closed;
+
+    /**
+     * Default constructor, constructs a new object.
+     */
+    public RedisNearCache() {
+        super();
+    }
+
+    /**
+     * Returns the region of the cache, creates it on the first call. The invalidation subscriber of the Redis connection is started with the first
+     * region of the connection.
+     *
+     * @param configKey
+     *            Redis connection config key
+     * @param poolConfigKey
+     *            Redis connection pool config key
+     * @param cache
+     *            name of the cache
+     * @param maxSize
+     *            maximum count of the entries
+     * @param ttlMillis
+     *            expiration time of the entries in milliseconds
+     * @return cache region
+     */
+    public NearCacheRegion getRegion(String configKey, String poolConfigKey, String cache, int maxSize, long ttlMillis) {
+        Subscription subscription = subscriptions.computeIfAbsent(configKey + UnifiedJedisProducer.DELIMITER + poolConfigKey,
+                k -> subscribe(configKey, poolConfigKey));
+        return subscription.regions.computeIfAbsent(cache, k -> new NearCacheRegion(maxSize, ttlMillis, subscription::isActive));
+    }
+
+    /**
+     * Removes the key from the local regions of the connection and publishes the invalidation to the other instances
+     *
+     * @param redisManager
+     *            redis manager with initialized connection
+     * @param configKey
+     *            Redis connection config key
+     * @param poolConfigKey
+     *            Redis connection pool config key
+     * @param key
+     *            the written or removed key
+     * @throws BaseException
+     *             if publish fails
+     */
+    public void invalidate(RedisManager redisManager, String configKey, String poolConfigKey, String key) throws BaseException {
+        Subscription subscription = subscriptions.get(configKey + UnifiedJedisProducer.DELIMITER + poolConfigKey);
+        if (subscription != null) {
+            subscription.evict(key);
+        }
+        redisManager.run(UnifiedJedis::publish, "publish", INVALIDATION_CHANNEL, instanceId + MESSAGE_DELIMITER + key);
+    }
+
+    /**
+     * Stops the invalidation subscribers
+     */
+    @PreDestroy
+    public void close() {
+        closed = true;
+        for (Subscription subscription : subscriptions.values()) {
+            if (subscription.isSubscribed()) {
+                subscription.unsubscribe();
+            }
+            subscription.clear();
+        }
+    }
+
+    private Subscription subscribe(String configKey, String poolConfigKey) {
+        Subscription subscription = new Subscription(configKey, poolConfigKey);
+        managedExecutorService.submit(subscription);
+        return subscription;
+    }
+
+    /**
+     * Invalidation subscriber of one Redis connection, subscribes again on connection loss
+     */
+    private final class Subscription extends JedisPubSub implements Runnable {
+
+        private final String configKey;
+
+        private final String poolConfigKey;
+
+        private final Map<String, NearCacheRegion> regions = new ConcurrentHashMap<>();
+
+        private volatile boolean active;
+
+        private Subscription(String configKey, String poolConfigKey) {
+            this.configKey = configKey;
+            this.poolConfigKey = poolConfigKey;
+        }
+
+        @Override
+        public void run() {
+            while (!closed) {
+                try {
+                    UnifiedJedis jedis = CDI.current().select(UnifiedJedis.class, new RedisConnection.Literal(configKey, poolConfigKey)).get();
+                    // blocks until unsubscribe or connection loss
+                    jedis.subscribe(this, INVALIDATION_CHANNEL);
+                } catch (Exception e) {
+                    log.warn(MessageFormat.format("Near cache invalidation subscription of redis [{0}] failed: [{1}]", configKey,
+                            e.getLocalizedMessage()), e);
+                }
+                active = false;
+                clear();
+                if (!closed && !waitResubscribe()) {
+                    return;
+                }
+            }
+        }
+
+        @Override
+        public void onSubscribe(String channel, int subscribedChannels) {
+            log.info("Near cache invalidation of redis [{0}] subscribed to channel [{1}]", configKey, channel);
+            clear();
+            active = true;
+        }
+
+        @Override
+        public void onMessage(String channel, String message) {
+            int index = message.indexOf(MESSAGE_DELIMITER);
+            if (index < 0 || instanceId.equals(message.substring(0, index))) {
+                // own invalidation is applied on sending
+                return;
+            }
+            evict(message.substring(index + 1));
+        }
+
+        private boolean isActive() {
+            return active;
+        }
+
+        private void evict(String key) {
+            regions.values().forEach(region -> region.remove(key));
+        }
+
+        private void clear() {
+            regions.values().forEach(NearCacheRegion::clear);
+        }
+
+        private boolean waitResubscribe() {
+            try {
+                TimeUnit.MILLISECONDS.sleep(RESUBSCRIBE_WAIT_MILLIS);
+                return true;
+            } catch (InterruptedException e) {
+                log.warn("Interrupted near cache resubscribe wait.", e);
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+    }
+}
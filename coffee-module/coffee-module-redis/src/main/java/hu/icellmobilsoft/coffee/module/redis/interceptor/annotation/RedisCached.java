@@ -48,4 +48,122 @@ public @interface RedisCached {
      */
     @Nonbinding
     int expireInSeconds() default 60;
+
+    /**
+     * Returns whether the cached values are kept in an in-process near cache in front of Redis too. The near cache entries are invalidated across
+     * the instances by Redis pub/sub messages.
+     * 
+     * @return {@code true} if the near cache is used
+     * @since 2.13.0
+     */
+    @Nonbinding
+    boolean nearCache() default false;
+
+    /**
+     * Returns the maximum count of the near cache entries of the method, the least recently used entry is evicted above it
+     * 
+     * @return the maximum count of the near cache entries
+     * @since 2.13.0
+     */
+    @Nonbinding
+    int nearCacheMaxSize() default 1000;
+
+    /**
+     * Returns the near cache expiration time in seconds, at most {@link #expireInSeconds()} is used
+     * 
+     * @return the near cache expiration time in seconds
+     * @since 2.13.0
+     */
+    @Nonbinding
+    int nearCacheExpireInSeconds() default 10;
+
+    /**
+     * Returns whether only one caller of the instance recomputes a missing key, the other callers wait at most {@link #lockWaitMillis()} for its
+     * result
+     * 
+     * @return {@code true} if local single-flight is used
+     * @since 2.13.0
+     */
+    @Nonbinding
+    boolean singleFlight() default false;
+
+    /**
+     * Returns whether only the instance holding the distributed lease ({@code SET NX PX}) of the key recomputes a missing key, the other instances
+     * poll Redis at most {@link #lockWaitMillis()} for the value
+     * 
+     * @return {@code true} if distributed lease is used
+     * @since 2.13.0
+     */
+    @Nonbinding
+    boolean distributedLock() default false;
+
+    /**
+     * Returns the maximum wait time of the callers not recomputing the value, after it they recompute the value themselves
+     * 
+     * @return maximum wait time in milliseconds
+     * @since 2.13.0
+     */
+    @Nonbinding
+    int lockWaitMillis() default 2000;
+
+    /**
+     * Returns the time of the distributed lease, it has to be longer than the recompute time
+     * 
+     * @return lease time in milliseconds
+     * @since 2.13.0
+     */
+    @Nonbinding
+    int lockLeaseMillis() default 10000;
+
+    /**
+     * Returns the probabilistic early refresh (XFetch) factor. A hit is recomputed before expiry if
+     * {@code -recomputeTime * beta * ln(random) >= remainingTtl}, meanwhile the other callers get the cached value. {@code 0} turns off, {@code 1}
+     * is the usual value, above it favors earlier refresh.
+     * 
+     * @return early refresh factor
+     * @since 2.13.0
+     */
+    @Nonbinding
+    double earlyRefreshBeta() default 0;
+
+    /**
+     * Returns whether {@code null} and empty {@link java.util.Optional} return values are cached too (negative caching), for
+     * {@link #nullExpireInSeconds()}
+     * 
+     * @return {@code true} if the empty results are cached
+     * @since 2.13.0
+     */
+    @Nonbinding
+    boolean cacheNull() default false;
+
+    /**
+     * Returns the redis cache expiration time of the empty results in seconds, used if {@link #cacheNull()} is set
+     * 
+     * @return the expiration time of the empty results in seconds
+     * @since 2.13.0
+     */
+    @Nonbinding
+    int nullExpireInSeconds() default 10;
+
+    /**
+     * Returns the indexes of the method parameters taking part in the cache key, all parameters are used if empty. The string form of the selected
+     * parameters (class name and {@code toString()}) is hashed into the key.
+     * 
+     * @return indexes of the key parameters
+     * @since 2.13.0
+     */
+    @Nonbinding
+    int[] keyParams() default {};
+
+    /**
+     * Returns the index of the collection parameter of a bulk cached method, {@code -1} turns off. The method has to return a {@link java.util.Map}
+     * keyed by the elements of the collection. Every element is cached as a separate entry, the entries are read by one {@code MGET}, only the
+     * missing elements are passed to the method, and its results are written back in one pipeline. Elements missing from the returned map are
+     * treated as empty results. Near cache and stampede protection are not used in bulk mode.
+     * 
+     * @return index of the collection parameter
+     * @since 2.13.0
+     */
+    @Nonbinding
+    int bulkParam() default -1;
 }
@@ -0,0 +1,149 @@
+/*-
+ * #%L
+ * Coffee
+ * %%
+ * Copyright (C) 2020 - 2026 i-Cell Mobilsoft Zrt.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package hu.icellmobilsoft.coffee.module.redis.interceptor.codec;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import org.eclipse.microprofile.config.Config;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+
+import hu.icellmobilsoft.coffee.dto.exception.enums.CoffeeFaultType;
+import hu.icellmobilsoft.coffee.se.api.exception.BaseException;
+import hu.icellmobilsoft.coffee.se.api.exception.TechnicalException;
+import hu.icellmobilsoft.coffee.tool.gson.ClassTypeAdapter;
+import hu.icellmobilsoft.coffee.tool.utils.compress.GZIPUtil;
+
+/**
+ * Default value codec of the {@code @RedisCached} interceptor. Layout of the encoded value:
+ * <ul>
+ * <li>2 bytes magic header ({@code 0xC0 0xFE}), it can not be the first byte of a JSON document</li>
+ * <li>1 byte format version</li>
+ * <li>1 byte flags, {@link #FLAG_GZIP} if the body is compressed</li>
+ * <li>body: the class name of the value as type tag (modified UTF-8 with 2 bytes length), followed by the Gson JSON of the value in UTF-8</li>
+ * </ul>
+ * The body is GZIP compressed if its size reaches the {@value #COMPRESS_THRESHOLD_BYTES} config and the compressed body is smaller.
+ *
+ * <pre>
+ * coffee:
+ *   redis:
+ *     cache:
+ *       codec:
+ *         compressThresholdBytes: 1024 # not compressed by default
+ * </pre>
+ *
+ * @author agent
+ * @since 2.13.0
+ */
+@ApplicationScoped
+public class BinaryRedisCacheCodec implements IRedisCacheCodec {
+
+    /**
+     * Minimum body size in bytes to compress. If not set, the body is not compressed.
+     */
+    public static final String COMPRESS_THRESHOLD_BYTES = "coffee.redis.cache.codec.compressThresholdBytes";
+
+    /**
+     * Flag of the compressed body
+     */
+    public static final byte FLAG_GZIP = 0x01;
+
+    private static final byte[] MAGIC = { (byte) 0xC0, (byte) 0xFE };
+
+    private static final byte VERSION = 1;
+
+    private static final int HEADER_LENGTH = MAGIC.length + 2;
+
+    @Inject
+    private Config config;
+
+    private final Gson gson = new GsonBuilder().registerTypeAdapter(Class.class, new ClassTypeAdapter()).create();
+
+    /**
+     * Default constructor, constructs a new object.
+     */
+    public BinaryRedisCacheCodec() {
+        super();
+    }
+
+    @Override
+    public byte[] encode(Object value) throws BaseException {
+        byte[] body = createBody(value);
+        byte flags = 0;
+        Integer threshold = config.getOptionalValue(COMPRESS_THRESHOLD_BYTES, Integer.class).orElse(null);
+        if (threshold != null && body.length >= threshold) {
+            byte[] compressed = GZIPUtil.compress(body);
+            if (compressed.length < body.length) {
+                body = compressed;
+                flags |= FLAG_GZIP;
+            }
+        }
+        byte[] encoded = new byte[HEADER_LENGTH + body.length];
+        System.arraycopy(MAGIC, 0, encoded, 0, MAGIC.length);
+        encoded[MAGIC.length] = VERSION;
+        encoded[MAGIC.length + 1] = flags;
+        System.arraycopy(body, 0, encoded, HEADER_LENGTH, body.length);
+        return encoded;
+    }
+
+    @Override
+    public boolean isEncoded(byte[] encoded) {
+        return encoded != null && encoded.length >= HEADER_LENGTH && encoded[0] == MAGIC[0] && encoded[1] == MAGIC[1];
+    }
+
+    @Override
+    public Object decode(byte[] encoded) throws BaseException {
+        if (!isEncoded(encoded) || encoded[MAGIC.length] != VERSION) {
+            throw new TechnicalException(CoffeeFaultType.OPERATION_FAILED, "Unknown redis cache value format");
+        }
+        byte[] body = Arrays.copyOfRange(encoded, HEADER_LENGTH, encoded.length);
+        if ((encoded[MAGIC.length + 1] & FLAG_GZIP) != 0) {
+            body = GZIPUtil.decompress(body);
+        }
+        try (DataInputStream input = new DataInputStream(new ByteArrayInputStream(body))) {
+            Class<?> type = Class.forName(input.readUTF());
+            return gson.fromJson(new String(input.readAllBytes(), StandardCharsets.UTF_8), type);
+        } catch (IOException | ClassNotFoundException | JsonParseException e) {
+            throw new TechnicalException(CoffeeFaultType.OPERATION_FAILED, "Redis cache value decode failed: " + e.getLocalizedMessage(), e);
+        }
+    }
+
+    private byte[] createBody(Object value) throws BaseException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        try (DataOutputStream output = new DataOutputStream(body)) {
+            output.writeUTF(value.getClass().getName());
+            output.write(gson.toJson(value).getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new TechnicalException(CoffeeFaultType.OPERATION_FAILED, "Redis cache value encode failed: " + e.getLocalizedMessage(), e);
+        }
+        return body.toByteArray();
+    }
+}
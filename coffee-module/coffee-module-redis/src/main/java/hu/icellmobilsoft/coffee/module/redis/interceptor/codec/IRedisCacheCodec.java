@@ -0,0 +1,64 @@
+/*-
+ * #%L
+ * Coffee
+ * %%
+ * Copyright (C) 2020 - 2026 i-Cell Mobilsoft Zrt.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package hu.icellmobilsoft.coffee.module.redis.interceptor.codec;
+
+import hu.icellmobilsoft.coffee.se.api.exception.BaseException;
+
+/**
+ * Value codec of the {@code @RedisCached} interceptor. The default implementation is {@link BinaryRedisCacheCodec}, it can be replaced by an
+ * {@code @Alternative} CDI bean. Values not recognized by {@link #isEncoded(byte[])} are read as legacy {@code Envelope} JSON entries, written
+ * before 2.13.0.
+ *
+ * @author agent
+ * @since 2.13.0
+ */
+public interface IRedisCacheCodec {
+
+    /**
+     * Encodes the return value of the cached method
+     *
+     * @param value
+     *            return value
+     * @return encoded bytes stored in Redis
+     * @throws BaseException
+     *             on encoding error
+     */
+    byte[] encode(Object value) throws BaseException;
+
+    /**
+     * Returns whether the stored bytes are encoded by this codec
+     *
+     * @param encoded
+     *            bytes stored in Redis
+     * @return {@code true} if {@link #decode(byte[])} can be called
+     */
+    boolean isEncoded(byte[] encoded);
+
+    /**
+     * Decodes the stored bytes
+     *
+     * @param encoded
+     *            bytes stored in Redis
+     * @return the cached value
+     * @throws BaseException
+     *             on decoding error
+     */
+    Object decode(byte[] encoded) throws BaseException;
+}
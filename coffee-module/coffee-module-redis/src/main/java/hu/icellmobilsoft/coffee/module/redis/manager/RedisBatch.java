@@ -0,0 +1,159 @@
+/*-
+ * #%L
+ * Coffee
+ * %%
+ * Copyright (C) 2020 - 2026 i-Cell Mobilsoft Zrt.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package hu.icellmobilsoft.coffee.module.redis.manager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import hu.icellmobilsoft.coffee.dto.exception.enums.CoffeeFaultType;
+import hu.icellmobilsoft.coffee.se.api.exception.BaseException;
+import hu.icellmobilsoft.coffee.se.api.exception.TechnicalException;
+import hu.icellmobilsoft.coffee.se.function.BaseExceptionFunction;
+import redis.clients.jedis.AbstractPipeline;
+import redis.clients.jedis.AbstractTransaction;
+import redis.clients.jedis.PipeliningBase;
+import redis.clients.jedis.Response;
+import redis.clients.jedis.UnifiedJedis;
+
+/**
+ * Batch of redis commands created by {@link RedisManager#batch()}, executed in one round trip as pipeline ({@link #execute()}) or as
+ * {@code MULTI/EXEC} transaction ({@link #executeInTransaction()}). The results of the commands are available after the execution, the error of
+ * a command is thrown only by its own {@link RedisBatchResult#get()}.
+ *
+ * <pre>
+ * try (RedisManagerConnection ignored = redisManager.initConnection()) {
+ *     RedisBatch batch = redisManager.batch();
+ *     RedisBatchResult&lt;String&gt; value = batch.add(p -&gt; p.get("key"), "get");
+ *     RedisBatchResult&lt;Long&gt; expire = batch.add(p -&gt; p.expire("other", 60), "expire");
+ *     batch.execute();
+ *     Optional&lt;String&gt; result = value.get();
+ * }
+ * </pre>
+ *
+ * @author agent
+ * @since 2.13.0
+ */
+public class RedisBatch {
+
+    private final RedisManager redisManager;
+
+    private final List<RedisBatchResult<?>> results = new ArrayList<>();
+
+    private boolean executed;
+
+    /**
+     * Creates the batch of the redis manager
+     *
+     * @param redisManager
+     *            redis connection, operation manager object
+     */
+    RedisBatch(RedisManager redisManager) {
+        this.redisManager = redisManager;
+    }
+
+    /**
+     * Adds a command to the batch
+     *
+     * @param <R>
+     *            result type of the command
+     * @param command
+     *            queues the command on the pipeline or transaction, e.g. {@code p -> p.hset(key, field, value)}
+     * @param functionName
+     *            the function name, used in logging and error messages
+     * @return result of the command, available after the execution
+     */
+    public <R> RedisBatchResult<R> add(BaseExceptionFunction<PipeliningBase, Response<R>> command, String functionName) {
+        if (executed) {
+            throw new IllegalStateException("Redis batch is already executed");
+        }
+        RedisBatchResult<R> result = new RedisBatchResult<>(command, functionName);
+        results.add(result);
+        return result;
+    }
+
+    /**
+     * Executes the commands as pipeline, in one round trip. The commands are not atomic, a failing command does not stop the others.
+     *
+     * @throws BaseException
+     *             if the pipeline can not be executed
+     */
+    public void execute() throws BaseException {
+        redisManager.runBatch(this, false);
+    }
+
+    /**
+     * Executes the commands as {@code MULTI/EXEC} transaction, in one round trip. In cluster mode the keys of the commands have to be in the same
+     * hash slot.
+     *
+     * @throws BaseException
+     *             if the transaction can not be executed
+     */
+    public void executeInTransaction() throws BaseException {
+        redisManager.runBatch(this, true);
+    }
+
+    /**
+     * Returns the count of the commands
+     *
+     * @return count of the commands
+     */
+    public int size() {
+        return results.size();
+    }
+
+    /**
+     * Queues and executes the commands
+     *
+     * @param jedis
+     *            initialized jedis
+     * @param transaction
+     *            {@code true} for {@code MULTI/EXEC}, {@code false} for pipeline
+     * @throws BaseException
+     *             if a command can not be queued or the transaction is aborted
+     */
+    void run(UnifiedJedis jedis, boolean transaction) throws BaseException {
+        if (executed) {
+            throw new TechnicalException(CoffeeFaultType.REDIS_OPERATION_FAILED, "Redis batch is already executed");
+        }
+        if (transaction) {
+            try (AbstractTransaction multi = jedis.multi()) {
+                queue(multi);
+                if (multi.exec() == null) {
+                    throw new TechnicalException(CoffeeFaultType.REDIS_OPERATION_FAILED, "Redis transaction is aborted");
+                }
+            }
+        } else {
+            try (AbstractPipeline pipeline = jedis.pipelined()) {
+                queue(pipeline);
+                pipeline.sync();
+            }
+        }
+        executed = true;
+        for (RedisBatchResult<?> result : results) {
+            result.setExecuted();
+        }
+    }
+
+    private void queue(PipeliningBase pipeliningBase) throws BaseException {
+        for (RedisBatchResult<?> result : results) {
+            result.queue(pipeliningBase);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+/*-
+ * #%L
+ * Coffee
+ * %%
+ * Copyright (C) 2020 - 2026 i-Cell Mobilsoft Zrt.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package hu.icellmobilsoft.coffee.module.redis.manager;
+
+import java.util.Optional;
+
+import hu.icellmobilsoft.coffee.dto.exception.enums.CoffeeFaultType;
+import hu.icellmobilsoft.coffee.se.api.exception.BaseException;
+import hu.icellmobilsoft.coffee.se.api.exception.TechnicalException;
+import hu.icellmobilsoft.coffee.se.function.BaseExceptionFunction;
+import redis.clients.jedis.PipeliningBase;
+import redis.clients.jedis.Response;
+
+/**
+ * Typed result of a command of a {@link RedisBatch}
+ *
+ * @param <R>
+ *            result type of the command
+ * @author agent
+ * @since 2.13.0
+ */
+public class RedisBatchResult<R> {
+
+    private final BaseExceptionFunction<PipeliningBase, Response<R>> command;
+
+    private final String functionName;
+
+    private Response<R> response;
+
+    private boolean executed;
+
+    /**
+     * Creates the result of the command
+     *
+     * @param command
+     *            queues the command
+     * @param functionName
+     *            the function name
+     */
+    RedisBatchResult(BaseExceptionFunction<PipeliningBase, Response<R>> command, String functionName) {
+        this.command = command;
+        this.functionName = functionName;
+    }
+
+    /**
+     * Returns the result of the command
+     *
+     * @return what the command returns
+     * @throws BaseException
+     *             if the batch is not executed or the command failed
+     */
+    public Optional<R> get() throws BaseException {
+        if (!executed) {
+            throw new TechnicalException(CoffeeFaultType.REDIS_OPERATION_FAILED, "Redis batch of operation " + functionName + " is not executed");
+        }
+        try {
+            return Optional.ofNullable(response.get());
+        } catch (RuntimeException e) {
+            String message = "Error occurred when calling redis operation " + functionName + " : [" + e.getLocalizedMessage() + "]";
+            throw new TechnicalException(CoffeeFaultType.REDIS_OPERATION_FAILED, message, e);
+        }
+    }
+
+    /**
+     * Returns the function name of the command
+     *
+     * @return the function name
+     */
+    public String getFunctionName() {
+        return functionName;
+    }
+
+    void queue(PipeliningBase pipeliningBase) throws BaseException {
+        response = command.apply(pipeliningBase);
+    }
+
+    void setExecuted() {
+        executed = true;
+    }
+}
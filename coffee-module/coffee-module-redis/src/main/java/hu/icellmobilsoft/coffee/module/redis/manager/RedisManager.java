@@ -28,6 +28,7 @@ import jakarta.inject.Inject;
 
 import org.apache.commons.lang3.StringUtils;
 
+import hu.icellmobilsoft.coffee.cdi.metric.spi.IJedisMetricsHandler;
 import hu.icellmobilsoft.coffee.cdi.trace.annotation.Traced;
 import hu.icellmobilsoft.coffee.cdi.trace.constants.SpanAttribute;
 import hu.icellmobilsoft.coffee.dto.exception.InvalidParameterException;
@@ -58,6 +59,9 @@ public class RedisManager {
     @Inject
     private Logger log;
 
+    @Inject
+    private IJedisMetricsHandler jedisMetricsHandler;
+
     private String configKey;
     private String poolConfigKey;
     private Instance<UnifiedJedis> jedisInstance;
@@ -159,11 +163,14 @@ public class RedisManager {
             throw new TechnicalException(CoffeeFaultType.REDIS_OPERATION_FAILED, JEDIS_NOT_INITIALIZED_MSG);
         }
         logEnter(functionName);
+        long start = System.nanoTime();
         try {
             R response = function.apply(jedis);
+            recordCommand(functionName, start, false);
             logReturn(functionName);
             return Optional.ofNullable(response);
         } catch (Exception e) {
+            recordCommand(functionName, start, true);
             throw repositoryFailed(e, functionName);
         }
     }
@@ -194,11 +201,14 @@ public class RedisManager {
         if (isNullOrBlankAnyParameter(p1)) {
             throw newInvalidParameterException(functionName);
         }
+        long start = System.nanoTime();
         try {
             R response = function.apply(jedis, p1);
+            recordCommand(functionName, start, false);
             logReturn(functionName, p1);
             return Optional.ofNullable(response);
         } catch (Exception e) {
+            recordCommand(functionName, start, true);
             throw repositoryFailed(e, functionName);
         }
     }
@@ -233,11 +243,14 @@ public class RedisManager {
         if (isNullOrBlankAnyParameter(p1, p2)) {
             throw newInvalidParameterException(functionName);
         }
+        long start = System.nanoTime();
         try {
             R response = function.apply(jedis, p1, p2);
+            recordCommand(functionName, start, false);
             logReturn(functionName, p1, p2);
             return Optional.ofNullable(response);
         } catch (Exception e) {
+            recordCommand(functionName, start, true);
             throw repositoryFailed(e, functionName);
         }
     }
@@ -277,11 +290,14 @@ public class RedisManager {
         if (isNullOrBlankAnyParameter(p1, p2, p3)) {
             throw newInvalidParameterException(functionName);
         }
+        long start = System.nanoTime();
         try {
             R response = function.apply(jedis, p1, p2, p3);
+            recordCommand(functionName, start, false);
             logReturn(functionName, p1, p2, p3);
             return Optional.ofNullable(response);
         } catch (Exception e) {
+            recordCommand(functionName, start, true);
             throw repositoryFailed(e, functionName);
         }
     }
@@ -325,11 +341,14 @@ public class RedisManager {
         if (isNullOrBlankAnyParameter(p1, p2, p3, p4)) {
             throw newInvalidParameterException(functionName);
         }
+        long start = System.nanoTime();
         try {
             R response = function.apply(jedis, p1, p2, p3, p4);
+            recordCommand(functionName, start, false);
             logReturn(functionName, p1, p2, p3, p4);
             return Optional.ofNullable(response);
         } catch (Exception e) {
+            recordCommand(functionName, start, true);
             throw repositoryFailed(e, functionName);
         }
     }
@@ -481,6 +500,48 @@ public class RedisManager {
         }
     }
 
+    /**
+     * Creates a batch of commands, executed in one round trip as pipeline or {@code MULTI/EXEC} transaction. The connection has to be initialized
+     * by {@link #initConnection()} before the execution.
+     *
+     * @return new empty batch
+     */
+    public RedisBatch batch() {
+        return new RedisBatch(this);
+    }
+
+    /**
+     * Executes the batch in order to handle common logging and exception handling once per batch.
+     *
+     * @param batch
+     *            the batch of commands
+     * @param transaction
+     *            {@code true} for {@code MULTI/EXEC}, {@code false} for pipeline
+     * @throws BaseException
+     *             in case of any exception caught inside, the errors of the commands are thrown by {@link RedisBatchResult#get()}
+     */
+    @Traced(component = SpanAttribute.Redis.Jedis.COMPONENT, kind = SpanAttribute.Redis.Jedis.KIND, dbType = SpanAttribute.Redis.DB_TYPE)
+    protected void runBatch(RedisBatch batch, boolean transaction) throws BaseException {
+        if (jedis == null) {
+            throw new TechnicalException(CoffeeFaultType.REDIS_OPERATION_FAILED, JEDIS_NOT_INITIALIZED_MSG);
+        }
+        String command = transaction ? "multi" : "pipeline";
+        String functionName = command + "[" + batch.size() + "]";
+        logEnter(functionName);
+        long start = System.nanoTime();
+        try {
+            batch.run(jedis, transaction);
+            recordCommand(command, start, false);
+            logReturn(functionName);
+        } catch (BaseException e) {
+            recordCommand(command, start, true);
+            throw e;
+        } catch (Exception e) {
+            recordCommand(command, start, true);
+            throw repositoryFailed(e, functionName);
+        }
+    }
+
     /**
      * Initialize jedis
      *
@@ -526,6 +587,23 @@ public class RedisManager {
         this.poolConfigKey = poolConfigKey;
     }
 
+    /**
+     * Records the duration of the command, and the error if it failed
+     *
+     * @param command
+     *            the function name, used as command tag of the metrics
+     * @param startNanos
+     *            start of the command by {@link System#nanoTime()}
+     * @param error
+     *            whether the command failed
+     */
+    private void recordCommand(String command, long startNanos, boolean error) {
+        jedisMetricsHandler.recordCommand(configKey, command, System.nanoTime() - startNanos);
+        if (error) {
+            jedisMetricsHandler.incrementCommandError(configKey, command);
+        }
+    }
+
     private BaseException newInvalidParameterException(String functionName) {
         return new InvalidParameterException("At least one incoming parameter in " + functionName + " is null or blank!");
     }
@@ -20,10 +20,10 @@
 package hu.icellmobilsoft.coffee.module.redis.producer;
 
 import java.text.MessageFormat;
-import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Supplier;
 
 import jakarta.annotation.PreDestroy;
@@ -47,6 +47,7 @@ import redis.clients.jedis.HostAndPort;
 import redis.clients.jedis.RedisClient;
 import redis.clients.jedis.RedisClusterClient;
 import redis.clients.jedis.UnifiedJedis;
+import redis.clients.jedis.csc.Cache;
 
 /**
  * Producer for creating or obtaining UnifiedJedis
@@ -70,7 +71,7 @@ public class UnifiedJedisProducer {
     @Inject
     private IJedisMetricsHandler jedisMetricsHandler;
 
-    private final Map<String, UnifiedJedis> unifiedJedisInstances = new HashMap<>();
+    private final Map<String, UnifiedJedis> unifiedJedisInstances = new ConcurrentHashMap<>();
 
     /**
      * Default constructor, constructs a new object.
@@ -94,10 +95,7 @@ public class UnifiedJedisProducer {
         String configKey = annotation.map(RedisConnection::configKey).orElse(null);
         String poolConfigKey = annotation.map(RedisConnection::poolConfigKey).orElse(RedisConfig.POOL_CONFIG_KEY_DEFAULT_VALUE);
 
-        UnifiedJedis unifiedJedis = getInstance(configKey, poolConfigKey);
-
-        jedisMetricsHandler.addMetric(configKey, poolConfigKey, getNumActiveSupplier(unifiedJedis), getNumIdleSupplier(unifiedJedis));
-        return unifiedJedis;
+        return getInstance(configKey, poolConfigKey);
     }
 
     private Supplier<Number> getNumActiveSupplier(UnifiedJedis unifiedJedis) {
@@ -124,9 +122,34 @@ public class UnifiedJedisProducer {
         throw new IllegalArgumentException(MessageFormat.format(NOT_SUPPORTED_UNIFIED_JEDIS, unifiedJedis.getClass()));
     }
 
+    private Supplier<Number> getMeanBorrowWaitSupplier(UnifiedJedis unifiedJedis) {
+        if (unifiedJedis instanceof RedisClient jedisPooled) {
+            return jedisPooled.getPool()::getMeanBorrowWaitTimeMillis;
+        }
+
+        if (unifiedJedis instanceof RedisClusterClient jedisCluster) {
+            return () -> jedisCluster.getClusterNodes().values().stream().mapToLong(ConnectionPool::getMeanBorrowWaitTimeMillis).max().orElse(0);
+        }
+
+        throw new IllegalArgumentException(MessageFormat.format(NOT_SUPPORTED_UNIFIED_JEDIS, unifiedJedis.getClass()));
+    }
+
+    private Supplier<Number> getMaxBorrowWaitSupplier(UnifiedJedis unifiedJedis) {
+        if (unifiedJedis instanceof RedisClient jedisPooled) {
+            return jedisPooled.getPool()::getMaxBorrowWaitTimeMillis;
+        }
+
+        if (unifiedJedis instanceof RedisClusterClient jedisCluster) {
+            return () -> jedisCluster.getClusterNodes().values().stream().mapToLong(ConnectionPool::getMaxBorrowWaitTimeMillis).max().orElse(0);
+        }
+
+        throw new IllegalArgumentException(MessageFormat.format(NOT_SUPPORTED_UNIFIED_JEDIS, unifiedJedis.getClass()));
+    }
+
     /**
      * Returns the jedisPooled for the given configKey and poolConfigKey. Returned pools are cached by the configKey + poolConfigKey. In case
-     * poolConfigKey is null, default value will be used. Synchronized in order to prevent creating multiple pools for the same connection.
+     * poolConfigKey is null, default value will be used. The cached pools are returned without locking, a missing pool is created and its
+     * metrics are registered only once by {@link ConcurrentHashMap#computeIfAbsent(Object, java.util.function.Function)}.
      *
      *
      * @param configKey
@@ -135,13 +158,48 @@ public class UnifiedJedisProducer {
      *            config key for jedis pool
      * @return {@link RedisClient}
      */
-    private synchronized UnifiedJedis getInstance(String configKey, String poolConfigKey) {
-        return unifiedJedisInstances.computeIfAbsent(configKey + DELIMITER + poolConfigKey, v -> createUnifiedJedis(configKey, poolConfigKey));
+    private UnifiedJedis getInstance(String configKey, String poolConfigKey) {
+        String key = configKey + DELIMITER + poolConfigKey;
+        UnifiedJedis unifiedJedis = unifiedJedisInstances.get(key);
+        if (unifiedJedis != null) {
+            return unifiedJedis;
+        }
+        return unifiedJedisInstances.computeIfAbsent(key, k -> {
+            UnifiedJedis created = createUnifiedJedis(configKey, poolConfigKey);
+            if (created != null) {
+                addMetric(configKey, poolConfigKey, created);
+            }
+            return created;
+        });
     }
 
+    private void addMetric(String configKey, String poolConfigKey, UnifiedJedis unifiedJedis) {
+        try {
+            jedisMetricsHandler.addMetric(configKey, poolConfigKey, getNumActiveSupplier(unifiedJedis), getNumIdleSupplier(unifiedJedis));
+            jedisMetricsHandler.addPoolBorrowWaitMetric(configKey, poolConfigKey, getMeanBorrowWaitSupplier(unifiedJedis),
+                    getMaxBorrowWaitSupplier(unifiedJedis));
+            Cache cache = unifiedJedis.getCache();
+            if (cache != null) {
+                jedisMetricsHandler.addClientCacheMetric(configKey, poolConfigKey, cache::getSize, () -> cache.getStats().getHitCount(),
+                        () -> cache.getStats().getMissCount(), () -> cache.getStats().getEvictCount(), () -> cache.getStats().getInvalidationCount());
+            }
+        } catch (RuntimeException e) {
+            log.warn("Metric registration of configKey [{0}], poolConfigKey [{1}] failed: [{2}]", configKey, poolConfigKey, e.getLocalizedMessage());
+        }
+    }
+
+    /**
+     * Creates the {@link UnifiedJedis} of the connection
+     *
+     * @param configKey
+     *            config key
+     * @param poolConfigKey
+     *            config key for jedis pool
+     * @return created {@code UnifiedJedis}, {@code null} on error
+     */
     private UnifiedJedis createUnifiedJedis(String configKey, String poolConfigKey) {
         log.info("Creating JedisPooled for configKey:[{0}]", configKey);
-        Instance<ManagedRedisConfig> instance = CDI.current().select(ManagedRedisConfig.class, new RedisConnection.Literal(configKey, poolConfigKey));
+        Instance<ManagedRedisConfig> instance = selectRedisConfig(configKey, poolConfigKey);
         ManagedRedisConfig managedRedisConfig = instance.get();
         try {
             String host = managedRedisConfig.getHost();
@@ -170,6 +228,19 @@ public class UnifiedJedisProducer {
         }
     }
 
+    /**
+     * Selects the {@link ManagedRedisConfig} of the connection
+     *
+     * @param configKey
+     *            config key
+     * @param poolConfigKey
+     *            config key for jedis pool
+     * @return {@code ManagedRedisConfig} instance
+     */
+    Instance<ManagedRedisConfig> selectRedisConfig(String configKey, String poolConfigKey) {
+        return CDI.current().select(ManagedRedisConfig.class, new RedisConnection.Literal(configKey, poolConfigKey));
+    }
+
     /**
      * Destroys created unifiedJedisInstances
      */
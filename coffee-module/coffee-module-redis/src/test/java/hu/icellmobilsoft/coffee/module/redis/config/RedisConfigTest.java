@@ -82,6 +82,8 @@ class RedisConfigTest {
         Assertions.assertEquals(64, redisConfig.getPoolMaxTotal());
         Assertions.assertEquals(6380, redisConfig.getPort());
         Assertions.assertEquals(5000, redisConfig.getTimeout());
+        Assertions.assertFalse(redisConfig.isClientCacheEnabled());
+        Assertions.assertEquals(10000, redisConfig.getClientCacheMaxSize());
     }
 
     @Test
@@ -96,6 +98,8 @@ class RedisConfigTest {
         Assertions.assertEquals(1, ymlDefaultPoolRedisConfig.getPoolMaxTotal());
         Assertions.assertEquals(6381, ymlDefaultPoolRedisConfig.getPort());
         Assertions.assertEquals(6000, ymlDefaultPoolRedisConfig.getTimeout());
+        Assertions.assertTrue(ymlDefaultPoolRedisConfig.isClientCacheEnabled());
+        Assertions.assertEquals(500, ymlDefaultPoolRedisConfig.getClientCacheMaxSize());
     }
 
     @Test
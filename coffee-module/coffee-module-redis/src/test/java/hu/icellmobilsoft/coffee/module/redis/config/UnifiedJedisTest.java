@@ -84,6 +84,7 @@ class UnifiedJedisTest {
         Assertions.assertEquals(RedisClient.class, jedisPool.getClass());
         Assertions.assertEquals(16, getPool(jedisPool).getMaxIdle());
         Assertions.assertEquals(64, getPool(jedisPool).getMaxTotal());
+        Assertions.assertNull(jedisPool.getCache());
     }
 
     @Test
@@ -92,6 +93,7 @@ class UnifiedJedisTest {
         Assertions.assertEquals(RedisClient.class, ymlDefaultJedisPool.getClass());
         Assertions.assertEquals(2, getPool(ymlDefaultJedisPool).getMaxIdle());
         Assertions.assertEquals(1, getPool(ymlDefaultJedisPool).getMaxTotal());
+        Assertions.assertEquals(500, ymlDefaultJedisPool.getCache().getMaxSize());
     }
 
     @Test
@@ -0,0 +1,80 @@
+/*-
+ * #%L
+ * Coffee
+ * %%
+ * Copyright (C) 2020 - 2026 i-Cell Mobilsoft Zrt.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package hu.icellmobilsoft.coffee.module.redis.interceptor;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for near cache region
+ *
+ * @author agent
+ * @since 2.13.0
+ */
+@DisplayName("Near cache region tests")
+class NearCacheRegionTest {
+
+    @Test
+    @DisplayName("least recently used entry is evicted above max size")
+    void evictLeastRecentlyUsed() {
+        NearCacheRegion region = new NearCacheRegion(2, 60_000, () -> true);
+        region.put("a", "1".getBytes(StandardCharsets.UTF_8), region.getVersion());
+        region.put("b", "2".getBytes(StandardCharsets.UTF_8), region.getVersion());
+        region.get("a");
+        region.put("c", "3".getBytes(StandardCharsets.UTF_8), region.getVersion());
+
+        Assertions.assertEquals(Optional.of("1"), region.get("a").map(String::new));
+        Assertions.assertTrue(region.get("b").isEmpty());
+        Assertions.assertEquals(Optional.of("3"), region.get("c").map(String::new));
+    }
+
+    @Test
+    @DisplayName("expired entry is not returned")
+    void expired() {
+        NearCacheRegion region = new NearCacheRegion(10, 0, () -> true);
+        region.put("a", "1".getBytes(StandardCharsets.UTF_8), region.getVersion());
+
+        Assertions.assertTrue(region.get("a").isEmpty());
+    }
+
+    @Test
+    @DisplayName("value read before an invalidation is not stored")
+    void staleAfterInvalidation() {
+        NearCacheRegion region = new NearCacheRegion(10, 60_000, () -> true);
+        long version = region.getVersion();
+        region.remove("a");
+        region.put("a", "stale".getBytes(StandardCharsets.UTF_8), version);
+
+        Assertions.assertTrue(region.get("a").isEmpty());
+    }
+
+    @Test
+    @DisplayName("nothing is stored while the region is not writable")
+    void notWritable() {
+        NearCacheRegion region = new NearCacheRegion(10, 60_000, () -> false);
+        region.put("a", "1".getBytes(StandardCharsets.UTF_8), region.getVersion());
+
+        Assertions.assertTrue(region.get("a").isEmpty());
+    }
+}
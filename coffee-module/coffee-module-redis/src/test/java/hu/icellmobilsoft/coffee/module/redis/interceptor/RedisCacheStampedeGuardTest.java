@@ -0,0 +1,76 @@
+/*-
+ * #%L
+ * Coffee
+ * %%
+ * Copyright (C) 2020 - 2026 i-Cell Mobilsoft Zrt.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package hu.icellmobilsoft.coffee.module.redis.interceptor;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for cache stampede guard
+ *
+ * @author agent
+ * @since 2.13.0
+ */
+@DisplayName("Cache stampede guard tests")
+class RedisCacheStampedeGuardTest {
+
+    @Test
+    @DisplayName("follower gets the value of the leader")
+    void followerGetsLeaderValue() {
+        RedisCacheStampedeGuard guard = new RedisCacheStampedeGuard();
+        RedisCacheStampedeGuard.Flight leader = guard.begin("key");
+        RedisCacheStampedeGuard.Flight follower = guard.begin("key");
+
+        Assertions.assertTrue(leader.isLeader());
+        Assertions.assertFalse(follower.isLeader());
+        leader.complete("value".getBytes(StandardCharsets.UTF_8));
+        leader.end();
+
+        Assertions.assertEquals(Optional.of("value"), follower.await(0).map(String::new));
+        Assertions.assertTrue(guard.begin("key").isLeader());
+    }
+
+    @Test
+    @DisplayName("follower gets empty result if the leader ends without value")
+    void leaderEndsWithoutValue() {
+        RedisCacheStampedeGuard guard = new RedisCacheStampedeGuard();
+        RedisCacheStampedeGuard.Flight leader = guard.begin("key");
+        RedisCacheStampedeGuard.Flight follower = guard.begin("key");
+        leader.end();
+
+        Assertions.assertTrue(follower.await(1000).isEmpty());
+    }
+
+    @Test
+    @DisplayName("early refresh only with recorded compute time and enabled beta")
+    void earlyRefresh() {
+        RedisCacheStampedeGuard guard = new RedisCacheStampedeGuard();
+        Assertions.assertFalse(guard.isEarlyRefresh("cache", 1, 1));
+
+        guard.recordComputeTime("cache", 1_000_000);
+        Assertions.assertFalse(guard.isEarlyRefresh("cache", 1, 0));
+        Assertions.assertFalse(guard.isEarlyRefresh("cache", 0, 1));
+        Assertions.assertFalse(guard.isEarlyRefresh("cache", Long.MAX_VALUE, 1));
+    }
+}
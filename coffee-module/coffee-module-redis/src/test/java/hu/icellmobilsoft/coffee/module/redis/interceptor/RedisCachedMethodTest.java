@@ -0,0 +1,176 @@
+/*-
+ * #%L
+ * Coffee
+ * %%
+ * Copyright (C) 2020 - 2026 i-Cell Mobilsoft Zrt.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package hu.icellmobilsoft.coffee.module.redis.interceptor;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import hu.icellmobilsoft.coffee.module.redis.annotation.RedisConnection;
+import hu.icellmobilsoft.coffee.module.redis.interceptor.annotation.RedisCached;
+import hu.icellmobilsoft.coffee.se.api.exception.BaseException;
+
+/**
+ * Test for cached method metadata and cache key
+ *
+ * @author agent
+ * @since 2.13.0
+ */
+@DisplayName("Cached method key tests")
+class RedisCachedMethodTest {
+
+    @Test
+    @DisplayName("key is namespaced, hashed and differs for overloads")
+    void keyOfOverloads() throws Exception {
+        RedisCachedMethod byString = new RedisCachedMethod(CachedService.class.getMethod("find", String.class));
+        RedisCachedMethod byLong = new RedisCachedMethod(CachedService.class.getMethod("find", Long.class));
+
+        String key = byString.getKey(new Object[] { "1" });
+        Assertions.assertTrue(key.startsWith(RedisCachedMethod.KEY_NAMESPACE + "CachedService.find:"));
+        Assertions.assertEquals(key, byString.getKey(new Object[] { "1" }));
+        Assertions.assertNotEquals(key, byString.getKey(new Object[] { "2" }));
+        Assertions.assertNotEquals(key, byLong.getKey(new Object[] { 1L }));
+    }
+
+    @Test
+    @DisplayName("only the key parameters take part in the key")
+    void keyParams() throws Exception {
+        RedisCachedMethod method = new RedisCachedMethod(CachedService.class.getMethod("search", String.class, String.class));
+
+        Assertions.assertEquals(method.getKey(new Object[] { "a", "trace-1" }), method.getKey(new Object[] { "a", "trace-2" }));
+        Assertions.assertNotEquals(method.getKey(new Object[] { "a", "trace-1" }), method.getKey(new Object[] { "b", "trace-1" }));
+    }
+
+    @Test
+    @DisplayName("invalid key parameter index is rejected")
+    void invalidKeyParams() {
+        Assertions.assertThrows(BaseException.class, () -> new RedisCachedMethod(CachedService.class.getMethod("invalid", String.class)));
+    }
+
+    @Test
+    @DisplayName("java.time and self referencing parameters have a stable key")
+    void keyOfJdkTypes() throws Exception {
+        RedisCachedMethod method = new RedisCachedMethod(CachedService.class.getMethod("findByDate", LocalDate.class, OffsetDateTime.class));
+        OffsetDateTime time = OffsetDateTime.of(2024, 1, 2, 3, 4, 5, 0, ZoneOffset.UTC);
+
+        String key = method.getKey(new Object[] { LocalDate.of(2024, 1, 2), time });
+        Assertions.assertEquals(key, method.getKey(new Object[] { LocalDate.of(2024, 1, 2), OffsetDateTime.parse(time.toString()) }));
+        Assertions.assertNotEquals(key, method.getKey(new Object[] { LocalDate.of(2024, 1, 3), time }));
+
+        RedisCachedMethod byValue = new RedisCachedMethod(CachedService.class.getMethod("findByValue", Object.class));
+        List<Object> cyclic = new ArrayList<>();
+        cyclic.add(cyclic);
+        Object[] cyclicArray = new Object[1];
+        cyclicArray[0] = cyclicArray;
+        Assertions.assertNotNull(byValue.getKey(new Object[] { cyclic }));
+        Assertions.assertNotNull(byValue.getKey(new Object[] { cyclicArray }));
+        Assertions.assertNotEquals(byValue.getKey(new Object[] { new int[] { 1, 2 } }), byValue.getKey(new Object[] { new int[] { 1, 3 } }));
+    }
+
+    @Test
+    @DisplayName("bulk elements have the key of the single element call")
+    void bulkKeys() throws Exception {
+        RedisCachedMethod single = new RedisCachedMethod(CachedService.class.getMethod("search", String.class, String.class));
+        RedisCachedMethod bulk = new RedisCachedMethod(CachedService.class.getMethod("findAll", List.class, String.class));
+
+        Map<Object, String> keys = bulk.getBulkKeys(new Object[] { List.of("b", "a", "b"), "trace" });
+
+        Assertions.assertTrue(bulk.isBulk());
+        Assertions.assertEquals(List.of("b", "a"), List.copyOf(keys.keySet()));
+        Assertions.assertNotEquals(keys.get("a"), keys.get("b"));
+        Assertions.assertEquals(bulk.getKey(new Object[] { "a", "other" }), keys.get("a"));
+        Assertions.assertNotEquals(single.getKey(new Object[] { "a", "trace" }), keys.get("a"));
+        Assertions.assertInstanceOf(List.class, bulk.createBulkParameter(List.of("a")));
+        Assertions.assertInstanceOf(LinkedHashSet.class,
+                new RedisCachedMethod(CachedService.class.getMethod("findSet", Set.class)).createBulkParameter(List.of("a")));
+    }
+
+    @Test
+    @DisplayName("invalid bulk parameter is rejected")
+    void invalidBulkParam() {
+        Assertions.assertThrows(BaseException.class, () -> new RedisCachedMethod(CachedService.class.getMethod("invalidBulk", String.class)));
+        Assertions.assertThrows(BaseException.class,
+                () -> new RedisCachedMethod(CachedService.class.getMethod("invalidBulkReturn", Collection.class)));
+    }
+
+    @RedisConnection(configKey = "test")
+    static class CachedService {
+
+        @RedisCached
+        public String find(String id) {
+            return id;
+        }
+
+        @RedisCached
+        public String find(Long id) {
+            return String.valueOf(id);
+        }
+
+        @RedisCached(keyParams = 0)
+        public String search(String query, String traceId) {
+            return query;
+        }
+
+        @RedisCached(keyParams = 1)
+        public String invalid(String query) {
+            return query;
+        }
+
+        @RedisCached
+        public String findByDate(LocalDate date, OffsetDateTime time) {
+            return String.valueOf(date);
+        }
+
+        @RedisCached
+        public String findByValue(Object values) {
+            return String.valueOf(values);
+        }
+
+        @RedisCached(keyParams = 0, bulkParam = 0)
+        public Map<String, String> findAll(List<String> ids, String traceId) {
+            return Map.of();
+        }
+
+        @RedisCached(bulkParam = 0)
+        public Map<String, String> findSet(Set<String> ids) {
+            return Map.of();
+        }
+
+        @RedisCached(bulkParam = 0)
+        public Map<String, String> invalidBulk(String id) {
+            return Map.of();
+        }
+
+        @RedisCached(bulkParam = 0)
+        public List<String> invalidBulkReturn(Collection<String> ids) {
+            return List.of();
+        }
+    }
+}
@@ -0,0 +1,376 @@
+/*-
+ * #%L
+ * Coffee
+ * %%
+ * Copyright (C) 2020 - 2026 i-Cell Mobilsoft Zrt.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package hu.icellmobilsoft.coffee.module.redis.interceptor;
+
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+import jakarta.enterprise.inject.Instance;
+import jakarta.interceptor.InvocationContext;
+
+import org.apache.commons.lang3.reflect.FieldUtils;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import hu.icellmobilsoft.coffee.cdi.logger.AppLogger;
+import hu.icellmobilsoft.coffee.cdi.metric.spi.IJedisMetricsHandler;
+import hu.icellmobilsoft.coffee.dto.exception.enums.CoffeeFaultType;
+import hu.icellmobilsoft.coffee.module.redis.annotation.RedisConnection;
+import hu.icellmobilsoft.coffee.module.redis.interceptor.annotation.RedisCached;
+import hu.icellmobilsoft.coffee.module.redis.interceptor.codec.IRedisCacheCodec;
+import hu.icellmobilsoft.coffee.module.redis.manager.RedisManager;
+import hu.icellmobilsoft.coffee.se.api.exception.BaseException;
+import hu.icellmobilsoft.coffee.se.api.exception.BusinessException;
+import hu.icellmobilsoft.coffee.se.logging.Logger;
+import redis.clients.jedis.AbstractPipeline;
+import redis.clients.jedis.BuilderFactory;
+import redis.clients.jedis.Response;
+import redis.clients.jedis.UnifiedJedis;
+import redis.clients.jedis.exceptions.JedisConnectionException;
+
+/**
+ * Test for {@link RedisCachingInterceptor}, on a redis manager backed by an in-memory jedis mock
+ *
+ * @author agent
+ * @since 2.13.0
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+@DisplayName("Redis caching interceptor tests")
+class RedisCachingInterceptorTest {
+
+    private static final String ENCODED_PREFIX = "encoded:";
+
+    private static final byte[] EMPTY_RESULT_VALUE = { (byte) 0xC0, (byte) 0x00 };
+
+    @Mock
+    private AppLogger log;
+
+    @Mock
+    private IJedisMetricsHandler jedisMetricsHandler;
+
+    @Mock
+    private RedisNearCache redisNearCache;
+
+    @Mock
+    private IRedisCacheCodec redisCacheCodec;
+
+    @Spy
+    private RedisCacheStampedeGuard stampedeGuard = new RedisCacheStampedeGuard();
+
+    @InjectMocks
+    private TestRedisCachingInterceptor underTest;
+
+    @Mock
+    private UnifiedJedis jedis;
+
+    @Mock
+    private AbstractPipeline pipeline;
+
+    @Mock
+    private InvocationContext ctx;
+
+    private final Map<String, byte[]> stored = new HashMap<>();
+
+    private final Map<String, Long> expires = new HashMap<>();
+
+    private final AtomicReference<Object[]> parameters = new AtomicReference<>();
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void init() throws Exception {
+        Mockito.when(redisCacheCodec.encode(ArgumentMatchers.any()))
+                .thenAnswer(invocation -> (ENCODED_PREFIX + invocation.getArgument(0)).getBytes(StandardCharsets.UTF_8));
+        Mockito.when(redisCacheCodec.isEncoded(ArgumentMatchers.any()))
+                .thenAnswer(invocation -> string(invocation.getArgument(0)).startsWith(ENCODED_PREFIX));
+        Mockito.when(redisCacheCodec.decode(ArgumentMatchers.any()))
+                .thenAnswer(invocation -> string(invocation.getArgument(0)).substring(ENCODED_PREFIX.length()));
+
+        Mockito.when(jedis.get(ArgumentMatchers.any(byte[].class))).thenAnswer(invocation -> stored.get(string(invocation.getArgument(0))));
+        Mockito.when(jedis.setex(ArgumentMatchers.any(byte[].class), ArgumentMatchers.anyLong(), ArgumentMatchers.any(byte[].class)))
+                .thenAnswer(invocation -> {
+                    store(invocation.getArgument(0), invocation.getArgument(1), invocation.getArgument(2));
+                    return "OK";
+                });
+        Mockito.when(jedis.mget(ArgumentMatchers.<byte[]> any()))
+                .thenAnswer(invocation -> Arrays.stream(invocation.getArguments()).map(key -> stored.get(string((byte[]) key))).toList());
+        Mockito.when(jedis.pipelined()).thenReturn(pipeline);
+        Mockito.when(pipeline.setex(ArgumentMatchers.any(byte[].class), ArgumentMatchers.anyLong(), ArgumentMatchers.any(byte[].class)))
+                .thenAnswer(invocation -> {
+                    store(invocation.getArgument(0), invocation.getArgument(1), invocation.getArgument(2));
+                    return new Response<>(BuilderFactory.STRING);
+                });
+
+        Instance<UnifiedJedis> jedisInstance = Mockito.mock(Instance.class);
+        Mockito.when(jedisInstance.get()).thenReturn(jedis);
+        RedisManager redisManager = new RedisManager();
+        FieldUtils.writeField(redisManager, "log", Mockito.mock(Logger.class), true);
+        FieldUtils.writeField(redisManager, "jedisMetricsHandler", jedisMetricsHandler, true);
+        FieldUtils.writeField(redisManager, "jedisInstance", jedisInstance, true);
+        underTest.redisManager = redisManager;
+
+        Mockito.when(ctx.getParameters()).thenAnswer(invocation -> parameters.get());
+        Mockito.doAnswer(invocation -> {
+            parameters.set(invocation.getArgument(0));
+            return null;
+        }).when(ctx).setParameters(ArgumentMatchers.any());
+    }
+
+    @Test
+    @DisplayName("missing value is loaded and cached")
+    void miss() throws Exception {
+        call("find", "1");
+        Mockito.when(ctx.proceed()).thenReturn("value");
+
+        Assertions.assertEquals("value", underTest.perform(ctx));
+
+        Assertions.assertEquals(1, stored.size());
+        Assertions.assertEquals(ENCODED_PREFIX + "value", string(stored.values().iterator().next()));
+        Assertions.assertEquals(60L, expires.values().iterator().next());
+        Assertions.assertEquals("value", underTest.perform(ctx));
+        Mockito.verify(ctx).proceed();
+    }
+
+    @Test
+    @DisplayName("exception of the method is thrown without calling it again")
+    void methodFailure() throws Exception {
+        call("find", "1");
+        BusinessException failure = new BusinessException(CoffeeFaultType.OPERATION_FAILED, "method failed");
+        Mockito.when(ctx.proceed()).thenThrow(failure);
+
+        Exception exception = Assertions.assertThrows(Exception.class, () -> underTest.perform(ctx));
+
+        Assertions.assertSame(failure, exception);
+        Mockito.verify(ctx).proceed();
+        Assertions.assertTrue(stored.isEmpty());
+    }
+
+    @Test
+    @DisplayName("method is called without cache on redis read error")
+    void redisReadFailure() throws Exception {
+        call("find", "1");
+        Mockito.when(jedis.get(ArgumentMatchers.any(byte[].class))).thenThrow(new JedisConnectionException("redis down"));
+        Mockito.when(ctx.proceed()).thenReturn("value");
+
+        Assertions.assertEquals("value", underTest.perform(ctx));
+
+        Mockito.verify(ctx).proceed();
+        Assertions.assertTrue(stored.isEmpty());
+    }
+
+    @Test
+    @DisplayName("value of the method is returned without calling it again on redis write error")
+    void redisWriteFailure() throws Exception {
+        call("find", "1");
+        Mockito.when(jedis.setex(ArgumentMatchers.any(byte[].class), ArgumentMatchers.anyLong(), ArgumentMatchers.any(byte[].class)))
+                .thenThrow(new JedisConnectionException("redis down"));
+        Mockito.when(ctx.proceed()).thenReturn("value");
+
+        Assertions.assertEquals("value", underTest.perform(ctx));
+
+        Mockito.verify(ctx).proceed();
+    }
+
+    @Test
+    @DisplayName("null result is cached with the null expiration and returned as null")
+    void nullResultCached() throws Exception {
+        call("findNullable", "1");
+        Mockito.when(ctx.proceed()).thenReturn(null);
+
+        Assertions.assertNull(underTest.perform(ctx));
+
+        Assertions.assertEquals(1, stored.size());
+        Assertions.assertArrayEquals(EMPTY_RESULT_VALUE, stored.values().iterator().next());
+        Assertions.assertEquals(5L, expires.values().iterator().next());
+        Assertions.assertNull(underTest.perform(ctx));
+        Mockito.verify(ctx).proceed();
+    }
+
+    @Test
+    @DisplayName("empty optional result is cached with the null expiration and returned as empty optional")
+    void emptyOptionalCached() throws Exception {
+        call("findOptional", "1");
+        Mockito.when(ctx.proceed()).thenReturn(Optional.empty());
+
+        Assertions.assertEquals(Optional.empty(), underTest.perform(ctx));
+
+        Assertions.assertEquals(1, stored.size());
+        Assertions.assertArrayEquals(EMPTY_RESULT_VALUE, stored.values().iterator().next());
+        Assertions.assertEquals(5L, expires.values().iterator().next());
+        Assertions.assertEquals(Optional.empty(), underTest.perform(ctx));
+        Mockito.verify(ctx).proceed();
+    }
+
+    @Test
+    @DisplayName("empty result is not cached without cacheNull")
+    void emptyResultNotCached() throws Exception {
+        call("find", "1");
+        Mockito.when(ctx.proceed()).thenReturn(null);
+
+        Assertions.assertNull(underTest.perform(ctx));
+        Assertions.assertNull(underTest.perform(ctx));
+
+        Assertions.assertTrue(stored.isEmpty());
+        Mockito.verify(ctx, Mockito.times(2)).proceed();
+    }
+
+    @Test
+    @DisplayName("bulk call reads by one MGET, loads the misses only, writes back in one pipeline and keeps the input order")
+    void bulk() throws Exception {
+        Map<Object, String> keys = bulkKeys("c", "a", "b");
+        stored.put(keys.get("a"), (ENCODED_PREFIX + "cached-a").getBytes(StandardCharsets.UTF_8));
+        call("findAll", List.of("c", "a", "b"));
+        AtomicReference<Object> loadedElements = new AtomicReference<>();
+        Mockito.when(ctx.proceed()).thenAnswer(invocation -> {
+            loadedElements.set(parameters.get()[0]);
+            return Map.of("b", "loaded-b", "c", "loaded-c");
+        });
+
+        Map<?, ?> result = (Map<?, ?>) underTest.perform(ctx);
+
+        Assertions.assertEquals(List.of("c", "a", "b"), List.copyOf(result.keySet()));
+        Assertions.assertEquals(Map.of("a", "cached-a", "b", "loaded-b", "c", "loaded-c"), result);
+        Assertions.assertEquals(List.of("c", "b"), loadedElements.get());
+        Mockito.verify(jedis).mget(ArgumentMatchers.<byte[]> any());
+        Mockito.verify(jedis, Mockito.never()).get(ArgumentMatchers.any(byte[].class));
+        Mockito.verify(jedis).pipelined();
+        Mockito.verify(pipeline).sync();
+        Assertions.assertEquals(ENCODED_PREFIX + "loaded-b", string(stored.get(keys.get("b"))));
+        Assertions.assertEquals(ENCODED_PREFIX + "loaded-c", string(stored.get(keys.get("c"))));
+        Assertions.assertEquals(60L, expires.get(keys.get("b")));
+        Mockito.verify(ctx).proceed();
+    }
+
+    @Test
+    @DisplayName("bulk call skips the cached empty results and caches the elements missing from the partial return")
+    void bulkEmptyResults() throws Exception {
+        Map<Object, String> keys = bulkKeys("a", "b", "c");
+        stored.put(keys.get("a"), EMPTY_RESULT_VALUE);
+        call("findAll", List.of("a", "b", "c"));
+        AtomicReference<Object> loadedElements = new AtomicReference<>();
+        Mockito.when(ctx.proceed()).thenAnswer(invocation -> {
+            loadedElements.set(parameters.get()[0]);
+            return Map.of("b", "loaded-b");
+        });
+
+        Map<?, ?> result = (Map<?, ?>) underTest.perform(ctx);
+
+        Assertions.assertEquals(Map.of("b", "loaded-b"), result);
+        Assertions.assertEquals(List.of("b", "c"), loadedElements.get());
+        Assertions.assertArrayEquals(EMPTY_RESULT_VALUE, stored.get(keys.get("c")));
+        Assertions.assertEquals(5L, expires.get(keys.get("c")));
+        Assertions.assertFalse(expires.containsKey(keys.get("a")));
+    }
+
+    @Test
+    @DisplayName("fully cached bulk call does not call the method")
+    void bulkHit() throws Exception {
+        Map<Object, String> keys = bulkKeys("a", "b");
+        stored.put(keys.get("a"), (ENCODED_PREFIX + "cached-a").getBytes(StandardCharsets.UTF_8));
+        stored.put(keys.get("b"), EMPTY_RESULT_VALUE);
+        call("findAll", List.of("b", "a"));
+
+        Assertions.assertEquals(Map.of("a", "cached-a"), underTest.perform(ctx));
+
+        Mockito.verify(ctx, Mockito.never()).proceed();
+        Mockito.verify(jedis, Mockito.never()).pipelined();
+    }
+
+    private Map<Object, String> bulkKeys(String... elements) throws BaseException {
+        return new RedisCachedMethod(method("findAll")).getBulkKeys(new Object[] { List.of(elements) });
+    }
+
+    private void call(String methodName, Object... arguments) {
+        Mockito.when(ctx.getMethod()).thenReturn(method(methodName));
+        parameters.set(arguments);
+    }
+
+    private static Method method(String methodName) {
+        return Arrays.stream(CachedService.class.getMethods()).filter(m -> m.getName().equals(methodName)).findFirst().orElseThrow();
+    }
+
+    private void store(byte[] key, long seconds, byte[] value) {
+        stored.put(string(key), value);
+        expires.put(string(key), seconds);
+    }
+
+    private static String string(byte[] value) {
+        return new String(value, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Interceptor on the redis manager of the test
+     */
+    static class TestRedisCachingInterceptor extends RedisCachingInterceptor {
+
+        private RedisManager redisManager;
+
+        @Override
+        RedisManager getRedisManager(RedisConnection redisConnection) {
+            return redisManager;
+        }
+
+        @Override
+        void destroyRedisManager(RedisManager redisManager) {
+            // not a CDI bean in the test
+        }
+    }
+
+    @RedisConnection(configKey = "test")
+    static class CachedService {
+
+        @RedisCached
+        public String find(String id) {
+            return id;
+        }
+
+        @RedisCached(cacheNull = true, nullExpireInSeconds = 5)
+        public String findNullable(String id) {
+            return null;
+        }
+
+        @RedisCached(cacheNull = true, nullExpireInSeconds = 5)
+        public Optional<String> findOptional(String id) {
+            return Optional.empty();
+        }
+
+        @RedisCached(bulkParam = 0, cacheNull = true, nullExpireInSeconds = 5)
+        public Map<String, String> findAll(List<String> ids) {
+            return Map.of();
+        }
+    }
+}
@@ -0,0 +1,163 @@
+/*-
+ * #%L
+ * Coffee
+ * %%
+ * Copyright (C) 2020 - 2026 i-Cell Mobilsoft Zrt.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package hu.icellmobilsoft.coffee.module.redis.interceptor;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+
+import jakarta.enterprise.concurrent.ManagedExecutorService;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import hu.icellmobilsoft.coffee.module.redis.manager.RedisManager;
+import hu.icellmobilsoft.coffee.se.logging.Logger;
+import redis.clients.jedis.JedisPubSub;
+
+/**
+ * Test for the invalidation subscription of {@link RedisNearCache}
+ *
+ * @author agent
+ * @since 2.13.0
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Redis near cache tests")
+class RedisNearCacheTest {
+
+    private static final String CONFIG_KEY = "test";
+
+    private static final String POOL_CONFIG_KEY = "default";
+
+    @Mock
+    private Logger log;
+
+    @Mock
+    private ManagedExecutorService managedExecutorService;
+
+    @InjectMocks
+    private RedisNearCache redisNearCache;
+
+    private NearCacheRegion region;
+
+    private NearCacheRegion otherRegion;
+
+    private JedisPubSub subscription;
+
+    @BeforeEach
+    void init() {
+        region = redisNearCache.getRegion(CONFIG_KEY, POOL_CONFIG_KEY, "cache", 10, 60_000);
+        otherRegion = redisNearCache.getRegion(CONFIG_KEY, POOL_CONFIG_KEY, "otherCache", 10, 60_000);
+        ArgumentCaptor<Runnable> task = ArgumentCaptor.forClass(Runnable.class);
+        Mockito.verify(managedExecutorService).submit(task.capture());
+        subscription = (JedisPubSub) task.getValue();
+    }
+
+    @Test
+    @DisplayName("one subscriber is started per connection")
+    void oneSubscriberPerConnection() {
+        Assertions.assertSame(region, redisNearCache.getRegion(CONFIG_KEY, POOL_CONFIG_KEY, "cache", 10, 60_000));
+        Mockito.verifyNoMoreInteractions(managedExecutorService);
+    }
+
+    @Test
+    @DisplayName("own invalidation message is skipped")
+    void ownMessageSkipped() throws Exception {
+        subscription.onSubscribe(RedisNearCache.INVALIDATION_CHANNEL, 1);
+        RedisManager redisManager = Mockito.mock(RedisManager.class);
+        redisNearCache.invalidate(redisManager, CONFIG_KEY, POOL_CONFIG_KEY, "key");
+        ArgumentCaptor<String> message = ArgumentCaptor.forClass(String.class);
+        Mockito.verify(redisManager)
+                .run(ArgumentMatchers.any(), ArgumentMatchers.eq("publish"), ArgumentMatchers.eq(RedisNearCache.INVALIDATION_CHANNEL),
+                        message.capture());
+        put(region, "key", "value");
+
+        subscription.onMessage(RedisNearCache.INVALIDATION_CHANNEL, message.getValue());
+
+        Assertions.assertEquals(Optional.of("value"), get(region, "key"));
+    }
+
+    @Test
+    @DisplayName("invalidation message of other instance evicts the key from the regions")
+    void remoteMessageEvicts() {
+        subscription.onSubscribe(RedisNearCache.INVALIDATION_CHANNEL, 1);
+        put(region, "key", "value");
+        put(otherRegion, "key", "other");
+        put(region, "kept", "value");
+
+        subscription.onMessage(RedisNearCache.INVALIDATION_CHANNEL, "otherInstance|key");
+
+        Assertions.assertTrue(region.get("key").isEmpty());
+        Assertions.assertTrue(otherRegion.get("key").isEmpty());
+        Assertions.assertEquals(Optional.of("value"), get(region, "kept"));
+    }
+
+    @Test
+    @DisplayName("regions are cleared and refuse writes while unsubscribed")
+    void unsubscribed() {
+        put(region, "key", "value");
+        Assertions.assertTrue(region.get("key").isEmpty());
+
+        subscription.onSubscribe(RedisNearCache.INVALIDATION_CHANNEL, 1);
+        put(region, "key", "value");
+        put(otherRegion, "key", "other");
+        Assertions.assertEquals(Optional.of("value"), get(region, "key"));
+
+        // the subscription fails without CDI container, the interrupt stops the resubscribe wait
+        Thread.currentThread().interrupt();
+        try {
+            ((Runnable) subscription).run();
+        } finally {
+            Thread.interrupted();
+        }
+
+        Assertions.assertTrue(region.get("key").isEmpty());
+        Assertions.assertTrue(otherRegion.get("key").isEmpty());
+        put(region, "key", "value");
+        Assertions.assertTrue(region.get("key").isEmpty());
+    }
+
+    @Test
+    @DisplayName("regions are cleared on close")
+    void close() {
+        subscription.onSubscribe(RedisNearCache.INVALIDATION_CHANNEL, 1);
+        put(region, "key", "value");
+
+        redisNearCache.close();
+
+        Assertions.assertTrue(region.get("key").isEmpty());
+    }
+
+    private static void put(NearCacheRegion region, String key, String value) {
+        region.put(key, value.getBytes(StandardCharsets.UTF_8), region.getVersion());
+    }
+
+    private static Optional<String> get(NearCacheRegion region, String key) {
+        return region.get(key).map(value -> new String(value, StandardCharsets.UTF_8));
+    }
+}
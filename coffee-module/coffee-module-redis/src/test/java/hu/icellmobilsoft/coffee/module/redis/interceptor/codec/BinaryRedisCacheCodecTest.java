@@ -0,0 +1,84 @@
+/*-
+ * #%L
+ * Coffee
+ * %%
+ * Copyright (C) 2020 - 2026 i-Cell Mobilsoft Zrt.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package hu.icellmobilsoft.coffee.module.redis.interceptor.codec;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+
+import org.apache.commons.lang3.StringUtils;
+import org.eclipse.microprofile.config.Config;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+/**
+ * Test for the default redis cache codec
+ *
+ * @author agent
+ * @since 2.13.0
+ */
+@DisplayName("Binary redis cache codec tests")
+@ExtendWith(MockitoExtension.class)
+class BinaryRedisCacheCodecTest {
+
+    @Mock
+    private Config config;
+
+    @InjectMocks
+    private BinaryRedisCacheCodec underTest;
+
+    @Test
+    @DisplayName("value is decoded with its type")
+    void roundTrip() throws Exception {
+        Mockito.when(config.getOptionalValue(BinaryRedisCacheCodec.COMPRESS_THRESHOLD_BYTES, Integer.class)).thenReturn(Optional.empty());
+
+        byte[] encoded = underTest.encode(42L);
+
+        Assertions.assertTrue(underTest.isEncoded(encoded));
+        Assertions.assertEquals(0, encoded[3] & BinaryRedisCacheCodec.FLAG_GZIP);
+        Assertions.assertEquals(42L, underTest.decode(encoded));
+    }
+
+    @Test
+    @DisplayName("value is compressed above threshold")
+    void compressed() throws Exception {
+        Mockito.when(config.getOptionalValue(BinaryRedisCacheCodec.COMPRESS_THRESHOLD_BYTES, Integer.class)).thenReturn(Optional.of(100));
+        String value = StringUtils.repeat("coffee", 100);
+
+        byte[] encoded = underTest.encode(value);
+
+        Assertions.assertEquals(BinaryRedisCacheCodec.FLAG_GZIP, encoded[3] & BinaryRedisCacheCodec.FLAG_GZIP);
+        Assertions.assertTrue(encoded.length < value.length());
+        Assertions.assertEquals(value, underTest.decode(encoded));
+    }
+
+    @Test
+    @DisplayName("legacy envelope JSON is not recognized as encoded")
+    void legacyEnvelope() {
+        byte[] legacy = "{\"json\":\"42\",\"typeOfJson\":\"java.lang.Long\"}".getBytes(StandardCharsets.UTF_8);
+
+        Assertions.assertFalse(underTest.isEncoded(legacy));
+    }
+}
@@ -0,0 +1,137 @@
+/*-
+ * #%L
+ * Coffee
+ * %%
+ * Copyright (C) 2020 - 2026 i-Cell Mobilsoft Zrt.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package hu.icellmobilsoft.coffee.module.redis.manager;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+
+import org.apache.commons.lang3.reflect.FieldUtils;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import hu.icellmobilsoft.coffee.cdi.metric.spi.IJedisMetricsHandler;
+import hu.icellmobilsoft.coffee.se.api.exception.BaseException;
+import hu.icellmobilsoft.coffee.se.logging.Logger;
+import redis.clients.jedis.AbstractPipeline;
+import redis.clients.jedis.AbstractTransaction;
+import redis.clients.jedis.BuilderFactory;
+import redis.clients.jedis.Response;
+import redis.clients.jedis.UnifiedJedis;
+import redis.clients.jedis.exceptions.JedisDataException;
+
+/**
+ * Test for {@link RedisBatch}
+ *
+ * @author agent
+ * @since 2.13.0
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Redis batch tests")
+class RedisBatchTest {
+
+    @Mock
+    private Logger log;
+
+    @Mock
+    private UnifiedJedis jedis;
+
+    @Mock
+    private IJedisMetricsHandler jedisMetricsHandler;
+
+    @InjectMocks
+    private RedisManager redisManager;
+
+    @BeforeEach
+    void init() throws Exception {
+        FieldUtils.writeField(redisManager, "jedis", jedis, true);
+    }
+
+    @Test
+    @DisplayName("pipeline returns typed results and maps errors per command")
+    void pipeline() throws Exception {
+        AbstractPipeline pipeline = Mockito.mock(AbstractPipeline.class);
+        Mockito.when(jedis.pipelined()).thenReturn(pipeline);
+        Response<String> value = new Response<>(BuilderFactory.STRING);
+        Response<Long> expire = new Response<>(BuilderFactory.LONG);
+        Mockito.when(pipeline.get("key")).thenReturn(value);
+        Mockito.when(pipeline.expire("other", 60)).thenReturn(expire);
+        Mockito.doAnswer(invocation -> {
+            value.set("value".getBytes(StandardCharsets.UTF_8));
+            expire.set(new JedisDataException("WRONGTYPE"));
+            return null;
+        }).when(pipeline).sync();
+
+        RedisBatch batch = redisManager.batch();
+        RedisBatchResult<String> valueResult = batch.add(p -> p.get("key"), "get");
+        RedisBatchResult<Long> expireResult = batch.add(p -> p.expire("other", 60), "expire");
+        Assertions.assertThrows(BaseException.class, valueResult::get);
+        batch.execute();
+
+        Assertions.assertEquals(Optional.of("value"), valueResult.get());
+        BaseException exception = Assertions.assertThrows(BaseException.class, expireResult::get);
+        Assertions.assertTrue(exception.getMessage().contains("expire"));
+        Mockito.verify(jedis).pipelined();
+        Mockito.verify(pipeline).close();
+        Mockito.verify(jedisMetricsHandler).recordCommand(Mockito.any(), Mockito.eq("pipeline"), Mockito.anyLong());
+        Mockito.verify(jedisMetricsHandler, Mockito.never()).incrementCommandError(Mockito.any(), Mockito.any());
+    }
+
+    @Test
+    @DisplayName("aborted transaction fails the batch")
+    void abortedTransaction() {
+        AbstractTransaction multi = Mockito.mock(AbstractTransaction.class);
+        Mockito.when(jedis.multi()).thenReturn(multi);
+        Mockito.when(multi.exec()).thenReturn(null);
+
+        RedisBatch batch = redisManager.batch();
+        batch.add(p -> p.incr("counter"), "incr");
+
+        Assertions.assertThrows(BaseException.class, batch::executeInTransaction);
+        Mockito.verify(multi).close();
+        Mockito.verify(jedisMetricsHandler).incrementCommandError(Mockito.any(), Mockito.eq("multi"));
+    }
+
+    @Test
+    @DisplayName("transaction executes the commands with exec")
+    void transaction() throws Exception {
+        AbstractTransaction multi = Mockito.mock(AbstractTransaction.class);
+        Mockito.when(jedis.multi()).thenReturn(multi);
+        Response<Long> incr = new Response<>(BuilderFactory.LONG);
+        Mockito.when(multi.incr("counter")).thenReturn(incr);
+        Mockito.when(multi.exec()).thenAnswer(invocation -> {
+            incr.set(1L);
+            return List.of(1L);
+        });
+
+        RedisBatch batch = redisManager.batch();
+        RedisBatchResult<Long> result = batch.add(p -> p.incr("counter"), "incr");
+        batch.executeInTransaction();
+
+        Assertions.assertEquals(Optional.of(1L), result.get());
+    }
+}
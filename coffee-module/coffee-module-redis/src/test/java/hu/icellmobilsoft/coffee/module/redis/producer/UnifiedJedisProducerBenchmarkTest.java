@@ -0,0 +1,185 @@
+/*-
+ * #%L
+ * Coffee
+ * %%
+ * Copyright (C) 2020 - 2026 i-Cell Mobilsoft Zrt.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package hu.icellmobilsoft.coffee.module.redis.producer;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Member;
+import java.lang.reflect.Type;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import jakarta.enterprise.inject.Instance;
+import jakarta.enterprise.inject.spi.Annotated;
+import jakarta.enterprise.inject.spi.Bean;
+import jakarta.enterprise.inject.spi.InjectionPoint;
+
+import org.apache.commons.lang3.reflect.FieldUtils;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import hu.icellmobilsoft.coffee.cdi.metric.spi.NoopJedisMetricsHandler;
+import hu.icellmobilsoft.coffee.module.redis.annotation.RedisConnection;
+import hu.icellmobilsoft.coffee.module.redis.config.ManagedRedisConfig;
+import hu.icellmobilsoft.coffee.se.logging.Logger;
+import redis.clients.jedis.UnifiedJedis;
+
+/**
+ * Contention benchmark of the cached {@link UnifiedJedis} lookup of {@link UnifiedJedisProducer}, compared with the former {@code synchronized}
+ * lookup
+ *
+ * @author agent
+ * @since 2.13.0
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Threads(16)
+@Fork(1)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+public class UnifiedJedisProducerBenchmarkTest {
+
+    private final InjectionPoint injectionPoint = new BenchmarkInjectionPoint();
+
+    private UnifiedJedisProducer lockFree;
+
+    private UnifiedJedisProducer synchronizedLookup;
+
+    public static void main(String[] args) throws Exception {
+        Options opt = new OptionsBuilder() //
+                .include(UnifiedJedisProducerBenchmarkTest.class.getSimpleName())
+                .build();
+        new Runner(opt).run();
+    }
+
+    @Setup
+    public void setup() throws Exception {
+        lockFree = init(new LocalProducer());
+        synchronizedLookup = init(new SynchronizedProducer());
+    }
+
+    @Benchmark
+    public UnifiedJedis testLockFree() {
+        return lockFree.getUnifiedJedis(injectionPoint);
+    }
+
+    @Benchmark
+    public UnifiedJedis testSynchronized() {
+        return synchronizedLookup.getUnifiedJedis(injectionPoint);
+    }
+
+    @TearDown
+    public void tearDown() {
+        lockFree.clear();
+        synchronizedLookup.clear();
+    }
+
+    private UnifiedJedisProducer init(UnifiedJedisProducer producer) throws Exception {
+        FieldUtils.writeField(producer, "log", Logger.getLogger(UnifiedJedisProducer.class), true);
+        FieldUtils.writeField(producer, "jedisMetricsHandler", new NoopJedisMetricsHandler(), true);
+        producer.getUnifiedJedis(injectionPoint);
+        return producer;
+    }
+
+    static class LocalProducer extends UnifiedJedisProducer {
+
+        @Override
+        @SuppressWarnings("unchecked")
+        Instance<ManagedRedisConfig> selectRedisConfig(String configKey, String poolConfigKey) {
+            // the pool does not connect until the first command
+            ManagedRedisConfig config = Mockito.mock(ManagedRedisConfig.class);
+            Mockito.when(config.getHost()).thenReturn("localhost");
+            Mockito.when(config.getPort()).thenReturn(6379);
+            Mockito.when(config.getPoolMaxTotal()).thenReturn(8);
+            Mockito.when(config.getPoolMaxIdle()).thenReturn(8);
+            Instance<ManagedRedisConfig> instance = Mockito.mock(Instance.class);
+            Mockito.when(instance.get()).thenReturn(config);
+            return instance;
+        }
+    }
+
+    /**
+     * Lookup before 2.13.0, every injection locks the producer
+     */
+    static class SynchronizedProducer extends LocalProducer {
+
+        @Override
+        public synchronized UnifiedJedis getUnifiedJedis(InjectionPoint injectionPoint) {
+            return super.getUnifiedJedis(injectionPoint);
+        }
+    }
+
+    /**
+     * Injection point of a {@code @RedisConnection(configKey = "benchmark")} field, a mock would dominate the measured lookup
+     */
+    static class BenchmarkInjectionPoint implements InjectionPoint {
+
+        private final Set<Annotation> qualifiers = Set.of(new RedisConnection.Literal("benchmark", "default"));
+
+        @Override
+        public Type getType() {
+            return UnifiedJedis.class;
+        }
+
+        @Override
+        public Set<Annotation> getQualifiers() {
+            return qualifiers;
+        }
+
+        @Override
+        public Bean<?> getBean() {
+            return null;
+        }
+
+        @Override
+        public Member getMember() {
+            return null;
+        }
+
+        @Override
+        public Annotated getAnnotated() {
+            return null;
+        }
+
+        @Override
+        public boolean isDelegate() {
+            return false;
+        }
+
+        @Override
+        public boolean isTransient() {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,147 @@
+/*-
+ * #%L
+ * Coffee
+ * %%
+ * Copyright (C) 2020 - 2026 i-Cell Mobilsoft Zrt.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package hu.icellmobilsoft.coffee.module.redis.producer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import jakarta.enterprise.inject.Instance;
+import jakarta.enterprise.inject.spi.InjectionPoint;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import hu.icellmobilsoft.coffee.cdi.metric.spi.IJedisMetricsHandler;
+import hu.icellmobilsoft.coffee.module.redis.annotation.RedisConnection;
+import hu.icellmobilsoft.coffee.module.redis.config.ManagedRedisConfig;
+import hu.icellmobilsoft.coffee.se.logging.Logger;
+import redis.clients.jedis.UnifiedJedis;
+
+/**
+ * Test for {@link UnifiedJedisProducer} instance caching
+ *
+ * @author agent
+ * @since 2.13.0
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("UnifiedJedis producer tests")
+class UnifiedJedisProducerTest {
+
+    private static final int THREADS = 16;
+
+    @Mock
+    private Logger log;
+
+    @Mock
+    private IJedisMetricsHandler jedisMetricsHandler;
+
+    @Mock
+    private InjectionPoint injectionPoint;
+
+    @InjectMocks
+    private CountingProducer producer;
+
+    @BeforeEach
+    void init() {
+        Mockito.when(injectionPoint.getQualifiers()).thenReturn(Set.of(new RedisConnection.Literal("test", "default")));
+    }
+
+    @Test
+    @DisplayName("pool is created and its metrics registered once on concurrent calls")
+    void createdOnce() throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Callable<UnifiedJedis>> calls = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            calls.add(() -> {
+                start.await();
+                return producer.getUnifiedJedis(injectionPoint);
+            });
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<UnifiedJedis>> futures = new ArrayList<>();
+            for (Callable<UnifiedJedis> call : calls) {
+                futures.add(executor.submit(call));
+            }
+            start.countDown();
+            UnifiedJedis first = futures.get(0).get();
+            for (Future<UnifiedJedis> future : futures) {
+                Assertions.assertSame(first, future.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        Assertions.assertEquals(1, producer.created.get());
+        producer.clear();
+        Mockito.verify(jedisMetricsHandler).addMetric(Mockito.eq("test"), Mockito.eq("default"), Mockito.any(), Mockito.any());
+    }
+
+    @Test
+    @DisplayName("failed creation is retried on the next call")
+    void retryAfterFailure() {
+        producer.fail = true;
+        Assertions.assertNull(producer.getUnifiedJedis(injectionPoint));
+        producer.fail = false;
+        Assertions.assertNotNull(producer.getUnifiedJedis(injectionPoint));
+        Assertions.assertEquals(2, producer.created.get());
+        producer.clear();
+    }
+
+    static class CountingProducer extends UnifiedJedisProducer {
+
+        private final AtomicInteger created = new AtomicInteger();
+
+        private volatile boolean fail;
+
+        @Override
+        @SuppressWarnings("unchecked")
+        Instance<ManagedRedisConfig> selectRedisConfig(String configKey, String poolConfigKey) {
+            created.incrementAndGet();
+            ManagedRedisConfig config = Mockito.mock(ManagedRedisConfig.class);
+            if (fail) {
+                Mockito.when(config.getHost()).thenThrow(new IllegalStateException("missing host"));
+            } else {
+                // the pool does not connect until the first command
+                Mockito.when(config.getHost()).thenReturn("localhost");
+                Mockito.when(config.getPort()).thenReturn(6379);
+                Mockito.when(config.getPoolMaxTotal()).thenReturn(8);
+                Mockito.when(config.getPoolMaxIdle()).thenReturn(8);
+            }
+            Instance<ManagedRedisConfig> instance = Mockito.mock(Instance.class);
+            Mockito.when(instance.get()).thenReturn(config);
+            return instance;
+        }
+    }
+}
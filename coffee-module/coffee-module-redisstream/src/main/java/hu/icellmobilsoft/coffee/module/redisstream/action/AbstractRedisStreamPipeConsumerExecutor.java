@@ -21,6 +21,7 @@ package hu.icellmobilsoft.coffee.module.redisstream.action;
 
 import java.text.MessageFormat;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
@@ -91,6 +92,30 @@ public abstract class AbstractRedisStreamPipeConsumerExecutor extends RedisStrea
         }
     }
 
+    /**
+     * The serializable (FIFO, LIFO) processing keeps the single entry semantic in batch mode too, every read entry is consumed and ACKed one by one
+     */
+    @Override
+    protected void consumeStreamEntries(List<StreamEntry> streamEntries, RedisManager redisManager) throws BaseException {
+        for (StreamEntry streamEntry : streamEntries) {
+            handleMDC(streamEntry);
+            try {
+                consumeStreamEntry(streamEntry, redisManager);
+            } catch (BaseException e) {
+                handleException(null, streamEntry.getFields(), e);
+            }
+        }
+    }
+
+    /**
+     * The elements of the serializable (FIFO, LIFO) lists are removed after processing, they can not be delivered again, so these are always
+     * retried immediately
+     */
+    @Override
+    protected boolean isDelayedRetry() {
+        return false;
+    }
+
     /**
      * returns the TTL value
      * 
@@ -118,8 +143,10 @@ public abstract class AbstractRedisStreamPipeConsumerExecutor extends RedisStrea
 
     private void xExecuteOnStream(StreamEntry streamEntry, BaseExceptionFunction2<RedisManager, String, Optional<String>> function)
             throws BaseException {
+        // the list key can be encoded by payload codec, the list elements are not
+        StreamEntry decodedStreamEntry = decode(streamEntry);
         // kikeresni a listat
-        String listKey = streamEntry.getFields().get(IRedisStreamConstant.Common.DATA_KEY_MESSAGE);
+        String listKey = decodedStreamEntry.getFields().get(IRedisStreamConstant.Common.DATA_KEY_MESSAGE);
 
         RedisManager redisManager = CDI.current().select(RedisManager.class, new RedisConnection.Literal(pipeRedisServiceConfigKey())).get();
 
@@ -135,7 +162,7 @@ public abstract class AbstractRedisStreamPipeConsumerExecutor extends RedisStrea
                     break;
                 }
 
-                xExecuteOnStreamMessage(streamEntry, listKey, redisManager, message.get());
+                xExecuteOnStreamMessage(decodedStreamEntry, listKey, redisManager, message.get());
             }
         }
     }
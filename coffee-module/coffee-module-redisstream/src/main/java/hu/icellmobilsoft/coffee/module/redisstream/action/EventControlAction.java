@@ -22,6 +22,7 @@ package hu.icellmobilsoft.coffee.module.redisstream.action;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
@@ -41,9 +42,8 @@ import hu.icellmobilsoft.coffee.module.redisstream.publisher.RedisStreamPublishe
 import hu.icellmobilsoft.coffee.se.api.exception.BaseException;
 import hu.icellmobilsoft.coffee.se.util.string.RandomUtil;
 import hu.icellmobilsoft.coffee.tool.utils.json.JsonUtil;
-import redis.clients.jedis.AbstractPipeline;
 import redis.clients.jedis.UnifiedJedis;
-import redis.clients.jedis.args.ExpiryOption;
+import redis.clients.jedis.exceptions.JedisNoScriptException;
 
 /**
  *
@@ -58,6 +58,27 @@ import redis.clients.jedis.args.ExpiryOption;
  */
 public abstract class EventControlAction<T> {
 
+    /**
+     * Server side script of the FIFO list insert. Pushes the item to the list (KEYS[1]) and sets the expiration of the list and of the pipe
+     * identifier key (KEYS[2]) in one round trip. Errors of the expiration commands are ignored, same as in a pipeline. Returns the size of the
+     * list after the push.
+     */
+    private static final String SERIAL_EVENT_SCRIPT = """
+            local size = redis.call('RPUSH', KEYS[1], ARGV[1])
+            if size > 1 then
+                redis.pcall('EXPIRE', KEYS[2], ARGV[2])
+            else
+                redis.pcall('SETEX', KEYS[2], ARGV[2], ARGV[3])
+            end
+            redis.pcall('EXPIRE', KEYS[1], ARGV[2], 'NX')
+            return size
+            """;
+
+    /**
+     * SHA1 of the {@link #SERIAL_EVENT_SCRIPT} loaded to the server
+     */
+    private static volatile String serialEventScriptSha;
+
     @Inject
     @ThisLogger
     private AppLogger log;
@@ -118,25 +139,19 @@ public abstract class EventControlAction<T> {
         try {
             redisManager.initConnection();
 
-            Optional<Long> size = redisManager.run(UnifiedJedis::rpush, "rpush", key, JsonUtil.toJson(eventMessage));
+            // The list and the pipe identifier key are in the same hash slot (see IRedisStreamConstant.Pipe), so they can be handled by one script
+            List<String> keys = List.of(key, createPipeIdKey(key));
+            List<String> args = List.of(JsonUtil.toJson(eventMessage), String.valueOf(secondsToExpire), RandomUtil.generateToken());
+            Optional<Long> size = redisManager.run(jedis -> evalSerialEventScript(jedis, keys, args), "evalsha serialStreamEvent");
             log.trace("<< rpush to [{0}]: [{1}]", key, size);
             if (size.isPresent() && size.get() > 1) {
-                // If we are not going to publish, we increase the TTL of the pipe identifier key,
-                // so we know there are no new list items that
-                AbstractPipeline pipeline = redisManager.run(UnifiedJedis::pipelined, "pipelined serialStreamEvent expire").orElseThrow();
-                pipeline.expire(createPipeIdKey(key), secondsToExpire);
-                pipeline.expire(key, secondsToExpire, ExpiryOption.NX);
-                pipeline.sync();
+                // If we are not going to publish, the TTL of the pipe identifier key is increased by the script,
+                // so the pipe consumer knows there are new list items
                 return false;
             }
-
-            // If the list has exactly one element after the rpush operation, we create or update the unique key used by the pipe consumer.
+            // If the list has exactly one element after the push, the script has created or updated the unique key used by the pipe consumer.
             // This identifier ensures that the pipe consumer can decide whether to continue the processing loop or stop,
             // as a new event is expected to arrive.
-            AbstractPipeline pipeline = redisManager.run(UnifiedJedis::pipelined, "pipelined serialStreamEvent setex").orElseThrow();
-            pipeline.setex(createPipeIdKey(key), secondsToExpire, RandomUtil.generateToken());
-            pipeline.expire(key, secondsToExpire, ExpiryOption.NX);
-            pipeline.sync();
         } finally {
             redisManager.closeConnection();
         }
@@ -194,6 +209,32 @@ public abstract class EventControlAction<T> {
         return getRedisStreamPublisher().getStreamGroupConfig().getProducerTTL().orElse(-1L);
     }
 
+    /**
+     * Runs the {@link #SERIAL_EVENT_SCRIPT} by its SHA1. The script is loaded to the server on the first call, and again if the server does not
+     * know it (e.g. after restart, failover or SCRIPT FLUSH).
+     *
+     * @param jedis
+     *            jedis client
+     * @param keys
+     *            the FIFO list key and the pipe identifier key
+     * @param args
+     *            the list item, the expiration in seconds and the pipe identifier
+     * @return size of the list after the push
+     */
+    private Long evalSerialEventScript(UnifiedJedis jedis, List<String> keys, List<String> args) {
+        String sha = serialEventScriptSha;
+        if (sha != null) {
+            try {
+                return (Long) jedis.evalsha(sha, keys, args);
+            } catch (JedisNoScriptException e) {
+                log.debug("Serial event script [{0}] is not loaded on the server, loading it: [{1}]", sha, e.getLocalizedMessage());
+            }
+        }
+        sha = jedis.scriptLoad(SERIAL_EVENT_SCRIPT, keys.get(0));
+        serialEventScriptSha = sha;
+        return (Long) jedis.evalsha(sha, keys, args);
+    }
+
     private String createPipeIdKey(String key) {
         return IRedisStreamConstant.Pipe.ID_PRE + key + IRedisStreamConstant.Pipe.ID_POST;
     }
@@ -84,10 +84,20 @@ public @interface RedisStreamConsumer {
     @Nonbinding
     int retryCount() default 1;
 
+    /**
+     * How many stream entries to read with one XREADGROUP call. Values greater than 1 activate the batch mode, where the read entries are
+     * processed one by one and the successful ones are ACKed together with one multi-ID XACK call.
+     * 
+     * @return max entries count per read
+     * @since 2.13.0
+     */
+    @Nonbinding
+    int batchSize() default 1;
+
     /**
      * Default empty literal
      */
-    AnnotationLiteral<RedisStreamConsumer> LITERAL = new Literal("", "", 0, 0);
+    AnnotationLiteral<RedisStreamConsumer> LITERAL = new Literal("", "", 0, 0, 1);
 
     /**
      * AnnotationLiteral for RedisStreamConsumer annotation
@@ -115,6 +125,10 @@ public @interface RedisStreamConsumer {
          * retry count
          */
         final int retryCount;
+        /**
+         * batch size
+         */
+        final int batchSize;
 
         /**
          * Instantiates the literal with configKey, redis stream group, consumer thread count, and retry count
@@ -129,11 +143,31 @@ public @interface RedisStreamConsumer {
          *            retry count
          */
         public Literal(String configKey, String group, int consumerThreadsCount, int retryCount) {
+            this(configKey, group, consumerThreadsCount, retryCount, 1);
+        }
+
+        /**
+         * Instantiates the literal with configKey, redis stream group, consumer thread count, retry count and batch size
+         * 
+         * @param configKey
+         *            config key
+         * @param group
+         *            redis stream group
+         * @param consumerThreadsCount
+         *            consumer thread count
+         * @param retryCount
+         *            retry count
+         * @param batchSize
+         *            max entries count per read
+         * @since 2.13.0
+         */
+        public Literal(String configKey, String group, int consumerThreadsCount, int retryCount, int batchSize) {
             super();
             this.configKey = configKey;
             this.group = group;
             this.consumerThreadsCount = consumerThreadsCount;
             this.retryCount = retryCount;
+            this.batchSize = batchSize;
         }
 
         @Nonbinding
@@ -159,5 +193,11 @@ public @interface RedisStreamConsumer {
         public int retryCount() {
             return retryCount;
         }
+
+        @Nonbinding
+        @Override
+        public int batchSize() {
+            return batchSize;
+        }
     }
 }
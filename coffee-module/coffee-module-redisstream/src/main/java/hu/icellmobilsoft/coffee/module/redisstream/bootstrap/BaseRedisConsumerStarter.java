@@ -20,7 +20,10 @@
 package hu.icellmobilsoft.coffee.module.redisstream.bootstrap;
 
 import java.text.MessageFormat;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
@@ -29,7 +32,6 @@ import java.util.stream.Collectors;
 import jakarta.annotation.Resource;
 import jakarta.enterprise.concurrent.ManagedExecutorService;
 import jakarta.enterprise.event.Event;
-import jakarta.enterprise.inject.Instance;
 import jakarta.enterprise.inject.spi.Bean;
 import jakarta.enterprise.inject.spi.BeanManager;
 import jakarta.enterprise.inject.spi.CDI;
@@ -39,10 +41,12 @@ import org.eclipse.microprofile.config.Config;
 
 import hu.icellmobilsoft.coffee.module.redis.config.ManagedRedisConfig;
 import hu.icellmobilsoft.coffee.module.redisstream.annotation.RedisStreamConsumer;
+import hu.icellmobilsoft.coffee.module.redisstream.common.VirtualThreadUtil;
 import hu.icellmobilsoft.coffee.module.redisstream.config.StreamGroupConfig;
 import hu.icellmobilsoft.coffee.module.redisstream.consumer.IRedisStreamBaseConsumer;
 import hu.icellmobilsoft.coffee.module.redisstream.consumer.IRedisStreamConsumerExecutor;
 import hu.icellmobilsoft.coffee.module.redisstream.consumer.RedisStreamConsumerExecutor;
+import hu.icellmobilsoft.coffee.module.redisstream.consumer.RedisStreamReclaimExecutor;
 import hu.icellmobilsoft.coffee.se.logging.Logger;
 import hu.icellmobilsoft.coffee.tool.utils.annotation.AnnotationUtil;
 
@@ -106,10 +110,17 @@ public class BaseRedisConsumerStarter {
      */
     private static final String CONFIG_KEY_THREAD_SAFETY_BUFFER = "threadSafetyBuffer";
 
+    /**
+     * The config key for the max count of consumer virtual threads, default: {@value #DEFAULT_VIRTUAL_THREAD_CONCURRENCY_LIMIT}
+     */
+    private static final String CONFIG_KEY_VIRTUAL_THREAD_CONCURRENCY_LIMIT = "virtualThreadConcurrencyLimit";
+
     private static final String REDIS_PREFIX = "coffee.redis";
     private static final String DEFAULT_MANAGED_EXECUTOR_SERVICE_CORE_THREADS_VARIABLE = "MANAGED_EXECUTOR_SERVICE_CORE_THREADS";
     private static final int DEFAULT_SAFETY_BUFFER = 10;
     private static final int DEFAULT_MAX_THREAD_COUNT = 16;
+    private static final int DEFAULT_VIRTUAL_THREAD_CONCURRENCY_LIMIT = 1000;
+    private static final String VIRTUAL_THREAD_NAME_PREFIX = "redisstream-";
 
     /**
      * pool default max total value ({@value #POOL_DEFAULT_MAX_TOTAL})
@@ -145,13 +156,16 @@ public class BaseRedisConsumerStarter {
     }
 
     /**
-     * Start Redis consumers in separate long-running managed threads
+     * Start Redis consumers in separate long-running managed threads, or virtual threads if it is configured for the stream group (see
+     * {@link StreamGroupConfig#isVirtualThreads()})
      */
-    public void start() {
+    public synchronized void start() {
         // get every class implementing IRedisStreamConsumer
         Set<Bean<?>> beans = getRedisStreamConsumerBeans();
 
         validateConfig(beans);
+        // the limit is checked on start up by the configuration and enforced on every virtual thread start, e.g. autoscaling, dispatch lanes
+        VirtualThreadUtil.setConcurrencyLimit(getVirtualThreadConcurrencyLimit());
 
         beans.forEach(this::handleConsumerBean);
 
@@ -176,17 +190,156 @@ public class BaseRedisConsumerStarter {
     protected void handleConsumerBean(Bean<?> bean) {
         log.info("Found consumer: [{0}]", bean.getBeanClass());
         RedisStreamConsumer redisStreamConsumerAnnotation = AnnotationUtil.getAnnotation(bean.getBeanClass(), RedisStreamConsumer.class);
-        // We need the settings for coffee.redisstream, where group is the key.
-        streamGroupConfig.setConfigKey(redisStreamConsumerAnnotation.group());
-        int threads = streamGroupConfig.getConsumerThreadsCount().orElse(redisStreamConsumerAnnotation.consumerThreadsCount());
+        int threads = getInitialConsumerThreadCount(redisStreamConsumerAnnotation);
         // We create as many independent instances (dependent scoped) as specified in the configuration.
-        Instance<RedisStreamConsumerExecutor> consumerExecutor = CDI.current().select(RedisStreamConsumerExecutor.class);
+        List<IRedisStreamConsumerExecutor> executors = new ArrayList<>();
         for (int i = 0; i < threads; i++) {
-            IRedisStreamConsumerExecutor executor = consumerExecutor.get();
+            executors.add(startConsumer(redisStreamConsumerAnnotation, bean, i));
+        }
+        if (isReclaimEnabled(redisStreamConsumerAnnotation)) {
+            // one reclaimer per stream group takes over the stuck pending entries
+            startThread(CDI.current().select(RedisStreamReclaimExecutor.class).get(), redisStreamConsumerAnnotation, bean);
+        }
+        if (isAutoscaleEnabled(redisStreamConsumerAnnotation)) {
+            startAutoscaler(redisStreamConsumerAnnotation, bean, executors);
+        }
+        if (isTrimEnabled(redisStreamConsumerAnnotation)) {
+            startTrimmer(redisStreamConsumerAnnotation);
+        }
+    }
+
+    /**
+     * Starts one redis stream consumer thread of the stream group. Called on start up and by the {@link RedisStreamConsumerAutoscaler}, so it is
+     * synchronized with the start up.
+     *
+     * @param redisStreamConsumerAnnotation
+     *            the redis stream consumer annotation with configuration data
+     * @param bean
+     *            the redis stream consumer callback bean
+     * @param index
+     *            index of the consumer thread in the group, from 0
+     * @return the started consumer executor
+     * @throws IllegalStateException
+     *             if the consumer has to run on virtual thread and the virtual thread concurrency limit is reached
+     */
+    protected synchronized IRedisStreamConsumerExecutor startConsumer(RedisStreamConsumer redisStreamConsumerAnnotation, Bean<?> bean, int index) {
+        // We need the settings for coffee.redisstream, where group is the key.
+        streamGroupConfig.setConfigKey(redisStreamConsumerAnnotation.group());
+        int partitions = streamGroupConfig.getStreamPartitions();
+        IRedisStreamConsumerExecutor executor = CDI.current().select(RedisStreamConsumerExecutor.class).get();
+        if (partitions > 1) {
+            // threads are spread evenly across the partitions
+            executor.setPartition(index % partitions);
+        }
 
-            // We start the infinite listener loop in a separate independent thread.
+        // We start the infinite listener loop in a separate independent thread.
+        try {
             startThread(executor, redisStreamConsumerAnnotation, bean);
+        } catch (RuntimeException e) {
+            // the not started dependent instance is not referenced by anyone
+            CDI.current().destroy(executor);
+            throw e;
         }
+        return executor;
+    }
+
+    /**
+     * Starts the consumer autoscaler thread of the stream group, on the same kind of thread as the consumers
+     *
+     * @param redisStreamConsumerAnnotation
+     *            the redis stream consumer annotation with configuration data
+     * @param bean
+     *            the redis stream consumer callback bean
+     * @param executors
+     *            the started consumer executors of the group
+     */
+    protected void startAutoscaler(RedisStreamConsumer redisStreamConsumerAnnotation, Bean<?> bean, List<IRedisStreamConsumerExecutor> executors) {
+        RedisStreamConsumerAutoscaler autoscaler = CDI.current().select(RedisStreamConsumerAutoscaler.class).get();
+        autoscaler.init(
+                redisStreamConsumerAnnotation.group(),
+                getMinConsumerThreadCount(redisStreamConsumerAnnotation),
+                getMaxConsumerThreadCount(redisStreamConsumerAnnotation),
+                executors,
+                index -> startConsumer(redisStreamConsumerAnnotation, bean, index));
+        startGroupTask(redisStreamConsumerAnnotation, autoscaler);
+    }
+
+    /**
+     * Starts the background stream trimmer thread of the stream group (see {@link StreamGroupConfig#getStreamTrimIntervalMillis()}), on the same
+     * kind of thread as the consumers
+     *
+     * @param redisStreamConsumerAnnotation
+     *            the redis stream consumer annotation with configuration data
+     */
+    protected void startTrimmer(RedisStreamConsumer redisStreamConsumerAnnotation) {
+        RedisStreamTrimmer trimmer = CDI.current().select(RedisStreamTrimmer.class).get();
+        trimmer.init(redisStreamConsumerAnnotation.configKey(), redisStreamConsumerAnnotation.group());
+        startGroupTask(redisStreamConsumerAnnotation, trimmer);
+    }
+
+    /**
+     * Returns whether the streams of the group are trimmed in the background (see {@link StreamGroupConfig#getStreamTrimIntervalMillis()})
+     *
+     * @param redisStreamConsumerAnnotation
+     *            the redis stream consumer annotation with configuration data
+     * @return {@code true} if trimmer has to be started
+     */
+    protected boolean isTrimEnabled(RedisStreamConsumer redisStreamConsumerAnnotation) {
+        streamGroupConfig.setConfigKey(redisStreamConsumerAnnotation.group());
+        return streamGroupConfig.getStreamTrimIntervalMillis().isPresent();
+    }
+
+    private void startGroupTask(RedisStreamConsumer redisStreamConsumerAnnotation, Runnable task) {
+        if (isVirtualThreadGroup(redisStreamConsumerAnnotation)) {
+            startVirtualThread(redisStreamConsumerAnnotation, task);
+            return;
+        }
+        managedExecutorService.submit(task);
+    }
+
+    private void startVirtualThread(RedisStreamConsumer redisStreamConsumerAnnotation, Runnable task) {
+        if (VirtualThreadUtil.start(VIRTUAL_THREAD_NAME_PREFIX + redisStreamConsumerAnnotation.group(), task).isEmpty()) {
+            throw new IllegalStateException(
+                    MessageFormat.format(
+                            "Virtual thread concurrency limit [{0}] is reached, thread of stream group [{1}] is not started",
+                            getVirtualThreadConcurrencyLimit(),
+                            redisStreamConsumerAnnotation.group()));
+        }
+    }
+
+    /**
+     * Returns whether the consumer threads of the stream group are scaled by the lag (see {@link StreamGroupConfig#getAutoscaleMaxThreads()})
+     *
+     * @param redisStreamConsumerAnnotation
+     *            the redis stream consumer annotation with configuration data
+     * @return {@code true} if autoscaler has to be started
+     */
+    protected boolean isAutoscaleEnabled(RedisStreamConsumer redisStreamConsumerAnnotation) {
+        streamGroupConfig.setConfigKey(redisStreamConsumerAnnotation.group());
+        return streamGroupConfig.getAutoscaleMaxThreads().isPresent();
+    }
+
+    /**
+     * Returns whether a reclaimer thread has to be started for the stream group (see {@link StreamGroupConfig#getReclaimIdleMillis()} and
+     * {@link StreamGroupConfig#getRetryBackoffInitialMillis()}). The reclaimer needs {@link StreamGroupConfig#isManualAck()}, without it the read
+     * entries are not added to the pending list.
+     *
+     * @param redisStreamConsumerAnnotation
+     *            the redis stream consumer annotation with configuration data
+     * @return {@code true} if reclaimer has to be started
+     */
+    protected boolean isReclaimEnabled(RedisStreamConsumer redisStreamConsumerAnnotation) {
+        streamGroupConfig.setConfigKey(redisStreamConsumerAnnotation.group());
+        if (streamGroupConfig.getReclaimIdleMillis().isEmpty() && streamGroupConfig.getRetryBackoffInitialMillis().isEmpty()) {
+            return false;
+        }
+        if (!streamGroupConfig.isManualAck()) {
+            log.warn(
+                    "Reclaim or delayed retry is configured for stream group [{0}] without manualAck, reclaimer is not started",
+                    redisStreamConsumerAnnotation.group());
+            return false;
+        }
+        return true;
     }
 
     /**
@@ -198,6 +351,8 @@ public class BaseRedisConsumerStarter {
      *            the redis stream consumer annotation with configuration data
      * @param bean
      *            the redis stream consumer callback bean
+     * @throws IllegalStateException
+     *             if the consumer has to run on virtual thread and the virtual thread concurrency limit is reached
      */
     @SuppressWarnings("unchecked")
     protected void startThread(IRedisStreamConsumerExecutor executor, RedisStreamConsumer redisStreamConsumerAnnotation, Bean<?> bean) {
@@ -211,19 +366,91 @@ public class BaseRedisConsumerStarter {
                 redisStreamConsumerAnnotation.configKey(),
                 redisStreamConsumerAnnotation.group());
 
+        if (isVirtualThreadGroup(redisStreamConsumerAnnotation)) {
+            startVirtualThread(redisStreamConsumerAnnotation, executor);
+            log.info("consumer class [{0}] started on virtual thread.", bean.getBeanClass());
+            return;
+        }
         managedExecutorService.submit(executor);
         log.info("consumer class [{0}] started.", bean.getBeanClass());
     }
 
+    /**
+     * Returns whether the consumers of the stream group run on virtual threads. Virtual threads are used if it is enabled for the stream group
+     * and the running JVM supports them.
+     *
+     * @param redisStreamConsumerAnnotation
+     *            the redis stream consumer annotation with configuration data
+     * @return {@code true} if the consumers of the stream group have to be started on virtual threads
+     */
+    protected boolean isVirtualThreadGroup(RedisStreamConsumer redisStreamConsumerAnnotation) {
+        streamGroupConfig.setConfigKey(redisStreamConsumerAnnotation.group());
+        return streamGroupConfig.isVirtualThreads() && VirtualThreadUtil.isSupported();
+    }
+
     private void validateConfig(Collection<Bean<?>> consumerBeans) {
         Integer maxThreadCount = getMaxThreadCount();
         Map<String, Integer> consumerThreadCountByStream = getConsumerThreadCountByStream(consumerBeans);
 
         registerMetrics(consumerThreadCountByStream);
 
-        validateThreadCount(consumerThreadCountByStream, maxThreadCount);
+        Set<String> virtualThreadGroups = getVirtualThreadGroups(consumerBeans);
+        Map<String, Integer> usedThreadCountByStream = getUsedThreadCountByStream(consumerBeans);
+        validateThreadCount(filterGroups(usedThreadCountByStream, virtualThreadGroups, false), maxThreadCount);
+        logDispatchLaneThreads(consumerBeans, virtualThreadGroups);
+        validateVirtualThreadCount(filterGroups(usedThreadCountByStream, virtualThreadGroups, true));
 
         validateConsumerPoolSize(consumerBeans);
+        validatePartitions(consumerBeans);
+        validateAutoscale(consumerBeans);
+    }
+
+    private void validateAutoscale(Collection<Bean<?>> consumerBeans) {
+        for (Bean<?> bean : consumerBeans) {
+            RedisStreamConsumer redisStreamConsumerAnnotation = getRedisStreamConsumerAnnotation(bean);
+            if (!isAutoscaleEnabled(redisStreamConsumerAnnotation)) {
+                continue;
+            }
+            int minThreads = getMinConsumerThreadCount(redisStreamConsumerAnnotation);
+            int maxThreads = getMaxConsumerThreadCount(redisStreamConsumerAnnotation);
+            if (minThreads < 1 || maxThreads < minThreads) {
+                throw new IllegalStateException(
+                        MessageFormat.format(
+                                "Invalid autoscale thread count range [{0}] - [{1}] of stream group [{2}]",
+                                minThreads,
+                                maxThreads,
+                                redisStreamConsumerAnnotation.group()));
+            }
+        }
+    }
+
+    private void validatePartitions(Collection<Bean<?>> consumerBeans) {
+        for (Bean<?> bean : consumerBeans) {
+            RedisStreamConsumer redisStreamConsumerAnnotation = getRedisStreamConsumerAnnotation(bean);
+            int threads = getMinConsumerThreadCount(redisStreamConsumerAnnotation);
+            int maxThreads = getMaxConsumerThreadCount(redisStreamConsumerAnnotation);
+            streamGroupConfig.setConfigKey(redisStreamConsumerAnnotation.group());
+            int partitions = streamGroupConfig.getStreamPartitions();
+            if (partitions <= 1) {
+                continue;
+            }
+            if (threads < partitions) {
+                throw new IllegalStateException(
+                        MessageFormat.format(
+                                "Consumer thread count [{0}] of stream group [{1}] is less than partition count [{2}], some partitions would not be consumed",
+                                threads,
+                                redisStreamConsumerAnnotation.group(),
+                                partitions));
+            }
+            int configuredMaxThreads = getConfiguredMaxConsumerThreadCount(redisStreamConsumerAnnotation);
+            if (configuredMaxThreads > maxThreads) {
+                log.warn(
+                        "Consumer threads [{1}] of stream group [{0}] are capped at partition count [{2}] to keep the order of the same partition key",
+                        redisStreamConsumerAnnotation.group(),
+                        configuredMaxThreads,
+                        partitions);
+            }
+        }
     }
 
     private void validateThreadCount(Map<String, Integer> consumerThreadCountByStream, Integer maxThreadCount) {
@@ -241,11 +468,68 @@ public class BaseRedisConsumerStarter {
         }
     }
 
+    private void logDispatchLaneThreads(Collection<Bean<?>> consumerBeans, Set<String> virtualThreadGroups) {
+        for (Bean<?> bean : consumerBeans) {
+            RedisStreamConsumer redisStreamConsumerAnnotation = getRedisStreamConsumerAnnotation(bean);
+            int laneThreads = getDispatchWorkerThreadCount(redisStreamConsumerAnnotation);
+            if (laneThreads > 0 && !virtualThreadGroups.contains(redisStreamConsumerAnnotation.group())) {
+                log.info("Stream group [{0}] uses at most [{1}] dedicated dispatch lane threads", redisStreamConsumerAnnotation.group(), laneThreads);
+            }
+        }
+    }
+
+    private void validateVirtualThreadCount(Map<String, Integer> virtualThreadCountByStream) {
+        if (virtualThreadCountByStream.isEmpty()) {
+            return;
+        }
+        int virtualThreadCount = virtualThreadCountByStream.values().stream().reduce(0, Integer::sum);
+        int concurrencyLimit = getVirtualThreadConcurrencyLimit();
+        log.info("Starting redis consumers using [{0}] virtual threads of limit [{1}]", virtualThreadCount, concurrencyLimit);
+
+        if (concurrencyLimit < virtualThreadCount) {
+            throw new IllegalStateException(
+                    MessageFormat.format(
+                            "Virtual thread concurrency limit [{0}] is less than redis consumer virtual thread count [{1}]",
+                            concurrencyLimit,
+                            virtualThreadCount));
+        }
+    }
+
+    private Set<String> getVirtualThreadGroups(Collection<Bean<?>> consumerBeans) {
+        Set<String> virtualThreadGroups = new HashSet<>();
+        for (Bean<?> bean : consumerBeans) {
+            RedisStreamConsumer redisStreamConsumerAnnotation = getRedisStreamConsumerAnnotation(bean);
+            streamGroupConfig.setConfigKey(redisStreamConsumerAnnotation.group());
+            if (!streamGroupConfig.isVirtualThreads()) {
+                continue;
+            }
+            if (VirtualThreadUtil.isSupported()) {
+                virtualThreadGroups.add(redisStreamConsumerAnnotation.group());
+            } else {
+                log.warn(
+                        "Virtual threads are configured for stream group [{0}], but not supported by the JVM, managed executor service is used",
+                        redisStreamConsumerAnnotation.group());
+            }
+        }
+        return virtualThreadGroups;
+    }
+
+    private Map<String, Integer> filterGroups(Map<String, Integer> consumerThreadCountByStream, Set<String> groups, boolean contained) {
+        return consumerThreadCountByStream.entrySet()
+                .stream()
+                .filter(entry -> groups.contains(entry.getKey()) == contained)
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+    }
+
     private void validateConsumerPoolSize(Collection<Bean<?>> consumerBeans) {
         Map<String, Integer> consumerPoolSizeByConfigKey = getConsumerPoolSizeByConfigKey(consumerBeans);
         for (Map.Entry<String, Integer> entry : consumerPoolSizeByConfigKey.entrySet()) {
             int poolMaxSize = getRedisConsumerPoolSize(entry.getKey());
-            log.info("Redis Consumer Pool [{0}] Max Size: [{1}], currently used: [{2}]", entry.getKey(), poolMaxSize, entry.getValue());
+            log.info(
+                    "Redis Consumer Pool [{0}] Max Size: [{1}], used by stream threads: [{2}]",
+                    entry.getKey(),
+                    poolMaxSize,
+                    entry.getValue());
             int safetyBuffer = getThreadSafetyBuffer();
             if (poolMaxSize < entry.getValue() + safetyBuffer) {
                 throw new IllegalStateException(
@@ -273,13 +557,19 @@ public class BaseRedisConsumerStarter {
     private Map<String, Integer> getConsumerThreadCountByStream(Collection<Bean<?>> consumerBeans) {
         return consumerBeans.stream()
                 .map(this::getRedisStreamConsumerAnnotation)
-                .collect(Collectors.toMap(RedisStreamConsumer::group, this::getRedisConsumerThreadCount));
+                .collect(Collectors.toMap(RedisStreamConsumer::group, this::getInitialConsumerThreadCount));
+    }
+
+    private Map<String, Integer> getUsedThreadCountByStream(Collection<Bean<?>> consumerBeans) {
+        return consumerBeans.stream()
+                .map(this::getRedisStreamConsumerAnnotation)
+                .collect(Collectors.toMap(RedisStreamConsumer::group, this::getRedisStreamThreadCount));
     }
 
     private Map<String, Integer> getConsumerPoolSizeByConfigKey(Collection<Bean<?>> consumerBeans) {
         return consumerBeans.stream()
                 .map(this::getRedisStreamConsumerAnnotation)
-                .collect(Collectors.toMap(RedisStreamConsumer::configKey, this::getRedisConsumerThreadCount, Integer::sum));
+                .collect(Collectors.toMap(RedisStreamConsumer::configKey, this::getRedisConsumerConnectionCount, Integer::sum));
     }
 
     private Integer getMaxThreadCount() {
@@ -299,6 +589,99 @@ public class BaseRedisConsumerStarter {
         return count;
     }
 
+    /**
+     * Minimum consumer thread count of the stream group, {@link StreamGroupConfig#getAutoscaleMinThreads()} in case of autoscaling, otherwise the
+     * fixed thread count, capped at the partition count (see {@link #capToPartitions(RedisStreamConsumer, int)})
+     */
+    private int getMinConsumerThreadCount(RedisStreamConsumer redisStreamConsumerAnnotation) {
+        int threads = getRedisConsumerThreadCount(redisStreamConsumerAnnotation);
+        if (!isAutoscaleEnabled(redisStreamConsumerAnnotation)) {
+            return capToPartitions(redisStreamConsumerAnnotation, threads);
+        }
+        return capToPartitions(redisStreamConsumerAnnotation, streamGroupConfig.getAutoscaleMinThreads().orElse(threads));
+    }
+
+    /**
+     * Maximum consumer thread count of the stream group, {@link StreamGroupConfig#getAutoscaleMaxThreads()} in case of autoscaling, otherwise the
+     * fixed thread count, capped at the partition count (see {@link #capToPartitions(RedisStreamConsumer, int)})
+     */
+    private int getMaxConsumerThreadCount(RedisStreamConsumer redisStreamConsumerAnnotation) {
+        return capToPartitions(redisStreamConsumerAnnotation, getConfiguredMaxConsumerThreadCount(redisStreamConsumerAnnotation));
+    }
+
+    private int getConfiguredMaxConsumerThreadCount(RedisStreamConsumer redisStreamConsumerAnnotation) {
+        int threads = getRedisConsumerThreadCount(redisStreamConsumerAnnotation);
+        streamGroupConfig.setConfigKey(redisStreamConsumerAnnotation.group());
+        return streamGroupConfig.getAutoscaleMaxThreads().orElse(threads);
+    }
+
+    /**
+     * Caps the consumer thread count of a partitioned stream group at the partition count: every partition is read by one thread, so the messages
+     * with the same partition key are processed in order. More threads would read the same partition with XREADGROUP concurrently. The
+     * throughput of a partitioned group is scaled by the partition count, not by the thread count.
+     */
+    private int capToPartitions(RedisStreamConsumer redisStreamConsumerAnnotation, int threads) {
+        streamGroupConfig.setConfigKey(redisStreamConsumerAnnotation.group());
+        int partitions = streamGroupConfig.getStreamPartitions();
+        return partitions > 1 ? Math.min(threads, partitions) : threads;
+    }
+
+    /**
+     * Consumer thread count of the stream group on start up, the configured thread count limited by the autoscale range
+     */
+    private int getInitialConsumerThreadCount(RedisStreamConsumer redisStreamConsumerAnnotation) {
+        int threads = getRedisConsumerThreadCount(redisStreamConsumerAnnotation);
+        int maxThreads = getMaxConsumerThreadCount(redisStreamConsumerAnnotation);
+        return Math.max(getMinConsumerThreadCount(redisStreamConsumerAnnotation), Math.min(threads, maxThreads));
+    }
+
+    private int getRedisStreamThreadCount(RedisStreamConsumer redisStreamConsumerAnnotation) {
+        int autoscalerCount = isAutoscaleEnabled(redisStreamConsumerAnnotation) ? 1 : 0;
+        int trimmerCount = isTrimEnabled(redisStreamConsumerAnnotation) ? 1 : 0;
+        // the lanes of the platform thread groups run on the dedicated lane pools of the consumers, not on the managed executor service
+        int dispatchCount = isVirtualThreadGroup(redisStreamConsumerAnnotation) ? getDispatchWorkerThreadCount(redisStreamConsumerAnnotation) : 0;
+        return getRedisStreamConnectionThreadCount(redisStreamConsumerAnnotation) + autoscalerCount + trimmerCount + dispatchCount;
+    }
+
+    /**
+     * Threads used by the parallel dispatch lanes ({@link StreamGroupConfig#getDispatchWorkers()}) of the consumers and the reclaimer, the first
+     * lane runs on the reading thread
+     */
+    private int getDispatchWorkerThreadCount(RedisStreamConsumer redisStreamConsumerAnnotation) {
+        int readerThreads = getMaxConsumerThreadCount(redisStreamConsumerAnnotation) + (isReclaimEnabled(redisStreamConsumerAnnotation) ? 1 : 0);
+        streamGroupConfig.setConfigKey(redisStreamConsumerAnnotation.group());
+        int batchSize = streamGroupConfig.getBatchSize().orElse(redisStreamConsumerAnnotation.batchSize());
+        int workers = streamGroupConfig.getDispatchWorkers();
+        if (batchSize <= 1 || workers <= 1) {
+            return 0;
+        }
+        return readerThreads * (workers - 1);
+    }
+
+    private int getRedisStreamConnectionThreadCount(RedisStreamConsumer redisStreamConsumerAnnotation) {
+        int reclaimerCount = isReclaimEnabled(redisStreamConsumerAnnotation) ? 1 : 0;
+        return getMaxConsumerThreadCount(redisStreamConsumerAnnotation) + reclaimerCount;
+    }
+
+    /**
+     * Returns how many connections of the redis pool are used by the stream group, with the maximum thread count in case of autoscaling:
+     * <ul>
+     * <li>one per consumer and reclaimer thread, the same count as before the connection pinning: the thread holds one pooled connection at a
+     * time, only for longer</li>
+     * <li>one for the trimmer, it holds the connection only while trimming, but the pool has to serve it beside the pinned ones</li>
+     * </ul>
+     * The dispatch lanes and the autoscaler do not use redis connections of the group, the redis calls of the business processing are not
+     * counted.
+     *
+     * @param redisStreamConsumerAnnotation
+     *            the redis stream consumer annotation with configuration data
+     * @return connection count used from the pool
+     */
+    protected int getRedisConsumerConnectionCount(RedisStreamConsumer redisStreamConsumerAnnotation) {
+        int trimmerCount = isTrimEnabled(redisStreamConsumerAnnotation) ? 1 : 0;
+        return getRedisStreamConnectionThreadCount(redisStreamConsumerAnnotation) + trimmerCount;
+    }
+
     private Integer getRedisConsumerPoolSize(String configKey) {
         String poolMaxTotalConfigKey = String.join(StreamGroupConfig.KEY_DELIMITER, REDIS_PREFIX, configKey, POOL_DEFAULT_MAX_TOTAL);
         return config.getOptionalValue(poolMaxTotalConfigKey, Integer.class).orElse(managedRedisConfig.getPoolMaxTotal());
@@ -309,6 +692,11 @@ public class BaseRedisConsumerStarter {
         return config.getOptionalValue(variableName, String.class).orElse(DEFAULT_MANAGED_EXECUTOR_SERVICE_CORE_THREADS_VARIABLE);
     }
 
+    private int getVirtualThreadConcurrencyLimit() {
+        String concurrencyLimitConfigKey = String.join(StreamGroupConfig.KEY_DELIMITER, REDIS_PREFIX, CONFIG_KEY_VIRTUAL_THREAD_CONCURRENCY_LIMIT);
+        return config.getOptionalValue(concurrencyLimitConfigKey, Integer.class).orElse(DEFAULT_VIRTUAL_THREAD_CONCURRENCY_LIMIT);
+    }
+
     private int getThreadSafetyBuffer() {
         String threadSafetyBufferConfigKey = String.join(StreamGroupConfig.KEY_DELIMITER, REDIS_PREFIX, CONFIG_KEY_THREAD_SAFETY_BUFFER);
         return config.getOptionalValue(threadSafetyBufferConfigKey, Integer.class).orElse(DEFAULT_SAFETY_BUFFER);
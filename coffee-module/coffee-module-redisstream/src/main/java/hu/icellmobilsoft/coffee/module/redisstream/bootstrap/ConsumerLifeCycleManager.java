@@ -45,9 +45,10 @@ public class ConsumerLifeCycleManager {
     }
 
     /**
-     * Boolean variable indicating the end condition for consumer loop
+     * Boolean variable indicating the end condition for consumer loop. Volatile, because it is read by the consumer threads (platform or
+     * virtual) while blocked on stream read.
      */
-    public static boolean ENDLOOP;
+    public static volatile boolean ENDLOOP;
     /**
      * Variable indicating the running consumer count
      */
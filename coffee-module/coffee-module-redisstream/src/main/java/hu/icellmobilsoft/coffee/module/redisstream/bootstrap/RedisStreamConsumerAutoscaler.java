@@ -0,0 +1,232 @@
+/*-
+ * #%L
+ * Coffee
+ * %%
+ * Copyright (C) 2020 - 2026 i-Cell Mobilsoft Zrt.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package hu.icellmobilsoft.coffee.module.redisstream.bootstrap;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+import jakarta.enterprise.context.Dependent;
+import jakarta.enterprise.event.Event;
+import jakarta.inject.Inject;
+
+import hu.icellmobilsoft.coffee.module.redisstream.common.RedisStreamUtil;
+import hu.icellmobilsoft.coffee.module.redisstream.config.StreamGroupConfig;
+import hu.icellmobilsoft.coffee.module.redisstream.consumer.IRedisStreamConsumerExecutor;
+import hu.icellmobilsoft.coffee.module.redisstream.consumer.StreamGroupInfoSample;
+import hu.icellmobilsoft.coffee.se.logging.Logger;
+
+/**
+ * Scales the consumer threads of a stream group between {@link StreamGroupConfig#getAutoscaleMinThreads()} and
+ * {@link StreamGroupConfig#getAutoscaleMaxThreads()} by the lag and pending count of the group. The group state is not queried by the scaler, it
+ * uses the samples of the consumer threads ({@link StreamGroupInfoSample}), so it is evaluated by
+ * {@link StreamGroupConfig#getMetricsSampleIntervalMillis()}.
+ * <ul>
+ * <li>if the lag + pending count per running thread is above {@link StreamGroupConfig#getAutoscaleScaleUpLag()}, one consumer thread is
+ * started</li>
+ * <li>if it is below {@link StreamGroupConfig#getAutoscaleScaleDownLag()}, the last started consumer thread is requested to stop (see
+ * {@link IRedisStreamConsumerExecutor#requestStop()}), it finishes the processing of the read entries before it stops</li>
+ * <li>after a scaling, there is no other scaling until {@link StreamGroupConfig#getAutoscaleCooldownMillis()}</li>
+ * <li>if a consumer thread can not be started (e.g. the virtual thread concurrency limit is reached), the max threads is lowered to the running
+ * threads, so it is not tried again on every evaluation</li>
+ * </ul>
+ * The scaler stops on shut down ({@link ConsumerLifeCycleManager#ENDLOOP}), the running consumers are drained by
+ * {@link ConsumerLifeCycleManager}. The scaler is registered in {@link ConsumerLifeCycleManager#CONSUMER_COUNTER} like the consumers, so no
+ * consumer is started by a running scaling after the shut down has finished waiting.
+ *
+ * @author agent
+ * @since 2.13.0
+ */
+@Dependent
+public class RedisStreamConsumerAutoscaler implements Runnable {
+
+    private static final long WAIT_STEP_MILLIS = 1000;
+
+    @Inject
+    private Logger log;
+
+    @Inject
+    private StreamGroupConfig streamGroupConfig;
+
+    @Inject
+    private Event<RedisStreamMetricEventMessage> metricsEvent;
+
+    private final Deque<IRedisStreamConsumerExecutor> executors = new ArrayDeque<>();
+
+    private String group;
+
+    private List<String> streamKeys;
+
+    private int minThreads;
+
+    private int maxThreads;
+
+    private long scaleUpLag;
+
+    private long scaleDownLag;
+
+    private long cooldownMillis;
+
+    private long intervalMillis;
+
+    private long lastScaleMillis;
+
+    private IntFunction<IRedisStreamConsumerExecutor> consumerStarter;
+
+    /**
+     * Default constructor, constructs a new object.
+     */
+    public RedisStreamConsumerAutoscaler() {
+        super();
+    }
+
+    /**
+     * Initializes the scaler of the stream group
+     *
+     * @param group
+     *            stream group
+     * @param minThreads
+     *            minimum count of the consumer threads
+     * @param maxThreads
+     *            maximum count of the consumer threads
+     * @param startedExecutors
+     *            the already started consumer executors of the group
+     * @param consumerStarter
+     *            starts a new consumer thread with the given index, returns its executor
+     */
+    public void init(String group, int minThreads, int maxThreads, Collection<IRedisStreamConsumerExecutor> startedExecutors,
+            IntFunction<IRedisStreamConsumerExecutor> consumerStarter) {
+        this.group = group;
+        this.minThreads = minThreads;
+        this.maxThreads = maxThreads;
+        this.consumerStarter = consumerStarter;
+        executors.addAll(startedExecutors);
+        streamGroupConfig.setConfigKey(group);
+        scaleUpLag = streamGroupConfig.getAutoscaleScaleUpLag();
+        scaleDownLag = streamGroupConfig.getAutoscaleScaleDownLag();
+        cooldownMillis = streamGroupConfig.getAutoscaleCooldownMillis();
+        intervalMillis = streamGroupConfig.getMetricsSampleIntervalMillis();
+        streamKeys = RedisStreamUtil.streamKeys(group, streamGroupConfig.getStreamPartitions());
+    }
+
+    @Override
+    public void run() {
+        ConsumerLifeCycleManager.CONSUMER_COUNTER.getAndIncrement();
+        log.info("Consumer autoscaler of stream group [{0}] started, threads [{1}] - [{2}]", group, minThreads, maxThreads);
+        lastScaleMillis = System.currentTimeMillis();
+        try {
+            while (!ConsumerLifeCycleManager.ENDLOOP && !Thread.currentThread().isInterrupted()) {
+                waitInterval();
+                if (ConsumerLifeCycleManager.ENDLOOP) {
+                    break;
+                }
+                try {
+                    scale();
+                } catch (Exception e) {
+                    log.warn("Exception on scaling consumers of stream group [{0}]: [{1}]", group, e.getLocalizedMessage());
+                }
+            }
+        } finally {
+            log.info("Consumer autoscaler of stream group [{0}] stopped", group);
+            // the shut down waits for the background threads too, the last finishing one releases the lock
+            if (ConsumerLifeCycleManager.CONSUMER_COUNTER.decrementAndGet() == 0) {
+                ConsumerLifeCycleManager.SEMAPHORE.release();
+            }
+        }
+    }
+
+    /**
+     * Starts or stops one consumer thread if needed, by the last sampled lag and pending count of the group
+     */
+    protected void scale() {
+        if (System.currentTimeMillis() - lastScaleMillis < cooldownMillis) {
+            return;
+        }
+        OptionalLong backlog = getBacklog();
+        if (backlog.isEmpty()) {
+            return;
+        }
+        int running = executors.size();
+        if (backlog.getAsLong() > scaleUpLag * running && running < maxThreads) {
+            try {
+                executors.addLast(consumerStarter.apply(running));
+            } catch (IllegalStateException | RejectedExecutionException e) {
+                maxThreads = running;
+                log.warn("Consumer thread of stream group [{0}] can not be started, max threads is lowered to [{1}]: [{2}]", group, maxThreads,
+                        e.getLocalizedMessage());
+                return;
+            }
+        } else if (backlog.getAsLong() < scaleDownLag * running && running > minThreads) {
+            executors.removeLast().requestStop();
+        } else {
+            return;
+        }
+        lastScaleMillis = System.currentTimeMillis();
+        log.info("Scaled consumers of stream group [{0}] from [{1}] to [{2}] threads, lag + pending: [{3}]", group, running, executors.size(),
+                backlog.getAsLong());
+        RedisStreamMetricEventMessage message = new RedisStreamMetricEventMessage();
+        message.setGroup(group);
+        message.setCount(executors.size());
+        metricsEvent.fireAsync(message);
+    }
+
+    /**
+     * Returns the sum of the lag and pending count of the partitions of the group. Lag is not known before Redis 7, then only the pending count
+     * is used.
+     *
+     * @return lag + pending count, empty if the group is not sampled yet
+     */
+    protected OptionalLong getBacklog() {
+        long backlog = 0;
+        boolean sampled = false;
+        for (String streamKey : streamKeys) {
+            Optional<StreamGroupInfoSample> sample = StreamGroupInfoSample.find(streamKey, group);
+            if (sample.isEmpty()) {
+                continue;
+            }
+            for (Number value : List.of(sample.get().getLag(), sample.get().getPending())) {
+                if (!Double.isNaN(value.doubleValue())) {
+                    backlog += value.longValue();
+                    sampled = true;
+                }
+            }
+        }
+        return sampled ? OptionalLong.of(backlog) : OptionalLong.empty();
+    }
+
+    private void waitInterval() {
+        long deadline = System.currentTimeMillis() + intervalMillis;
+        try {
+            // sleeping in steps, so the shut down is not delayed by the interval
+            while (!ConsumerLifeCycleManager.ENDLOOP && System.currentTimeMillis() < deadline) {
+                TimeUnit.MILLISECONDS.sleep(Math.min(WAIT_STEP_MILLIS, Math.max(1, deadline - System.currentTimeMillis())));
+            }
+        } catch (InterruptedException e) {
+            log.warn("Interrupted autoscaler wait.", e);
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,151 @@
+/*-
+ * #%L
+ * Coffee
+ * %%
+ * Copyright (C) 2020 - 2026 i-Cell Mobilsoft Zrt.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package hu.icellmobilsoft.coffee.module.redisstream.bootstrap;
+
+import java.text.MessageFormat;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import jakarta.enterprise.context.Dependent;
+import jakarta.enterprise.inject.Instance;
+import jakarta.enterprise.inject.spi.CDI;
+import jakarta.inject.Inject;
+
+import hu.icellmobilsoft.coffee.module.redis.annotation.RedisConnection;
+import hu.icellmobilsoft.coffee.module.redis.manager.RedisManager;
+import hu.icellmobilsoft.coffee.module.redis.manager.RedisManagerConnection;
+import hu.icellmobilsoft.coffee.module.redisstream.config.StreamGroupConfig;
+import hu.icellmobilsoft.coffee.module.redisstream.service.RedisStreamService;
+import hu.icellmobilsoft.coffee.se.logging.Logger;
+import hu.icellmobilsoft.coffee.se.util.string.RandomUtil;
+
+/**
+ * Background trimmer of a stream group. Trims all partition streams of the group every {@link StreamGroupConfig#getStreamTrimIntervalMillis()}
+ * with approximate XTRIM, by {@link StreamGroupConfig#getProducerMaxLen()} or {@link StreamGroupConfig#getProducerTTL()} (see
+ * {@link RedisStreamService#trimInCurrentConnection()}). Every instance of the application runs a trimmer for the group, but only the one
+ * acquiring the trim lock of the interval trims, the others skip the round.
+ * <p>
+ * The connection is taken from the pool only for the trimming, it is not pinned to the thread, but it is counted in the pool size validation of
+ * the stream group. The trimmer stops on shut down ({@link ConsumerLifeCycleManager#ENDLOOP}) and it is registered in
+ * {@link ConsumerLifeCycleManager#CONSUMER_COUNTER} like the consumers, so the shut down waits for the running trim.
+ *
+ * @author agent
+ * @since 2.13.0
+ */
+@Dependent
+public class RedisStreamTrimmer implements Runnable {
+
+    private static final long WAIT_STEP_MILLIS = 1000;
+
+    @Inject
+    private Logger log;
+
+    @Inject
+    private RedisStreamService redisStreamService;
+
+    @Inject
+    private StreamGroupConfig streamGroupConfig;
+
+    private String redisConfigKey;
+
+    private long intervalMillis;
+
+    private final String owner = RandomUtil.generateId();
+
+    /**
+     * Default constructor, constructs a new object.
+     */
+    public RedisStreamTrimmer() {
+        super();
+    }
+
+    /**
+     * Initializes the trimmer of the stream group
+     *
+     * @param redisConfigKey
+     *            A key that targets the Redis configuration, used in `@RedisConnection`
+     * @param group
+     *            stream group
+     */
+    public void init(String redisConfigKey, String group) {
+        this.redisConfigKey = redisConfigKey;
+        redisStreamService.setGroup(group);
+        streamGroupConfig.setConfigKey(group);
+        intervalMillis = streamGroupConfig.getStreamTrimIntervalMillis().orElseThrow();
+    }
+
+    @Override
+    public void run() {
+        ConsumerLifeCycleManager.CONSUMER_COUNTER.getAndIncrement();
+        log.info("Stream trimmer of group [{0}] started, interval [{1}] ms", redisStreamService.getGroup(), intervalMillis);
+        Instance<RedisManager> redisManagerInstance = CDI.current().select(RedisManager.class, new RedisConnection.Literal(redisConfigKey));
+        RedisManager redisManager = redisManagerInstance.get();
+        redisStreamService.setRedisManager(redisManager);
+        try {
+            while (!ConsumerLifeCycleManager.ENDLOOP && !Thread.currentThread().isInterrupted()) {
+                waitInterval();
+                if (ConsumerLifeCycleManager.ENDLOOP) {
+                    break;
+                }
+                trim(redisManager);
+            }
+        } finally {
+            redisManagerInstance.destroy(redisManager);
+            log.info("Stream trimmer of group [{0}] stopped", redisStreamService.getGroup());
+            // the shut down waits for the background threads too, the last finishing one releases the lock
+            if (ConsumerLifeCycleManager.CONSUMER_COUNTER.decrementAndGet() == 0) {
+                ConsumerLifeCycleManager.SEMAPHORE.release();
+            }
+        }
+    }
+
+    /**
+     * Trims the streams of the group if this instance acquires the trim lock of the interval
+     *
+     * @param redisManager
+     *            redis connection, operation manager object
+     */
+    protected void trim(RedisManager redisManager) {
+        try (RedisManagerConnection ignored = redisManager.initConnection()) {
+            if (!redisStreamService.acquireTrimLockInCurrentConnection(owner, Duration.ofMillis(intervalMillis))) {
+                log.trace("Stream group [{0}] is trimmed by other instance", redisStreamService.getGroup());
+                return;
+            }
+            long trimmed = redisStreamService.trimInCurrentConnection();
+            log.debug("Trimmed [{0}] entries of stream group [{1}]", trimmed, redisStreamService.getGroup());
+        } catch (Exception e) {
+            log.warn(MessageFormat.format("Exception on trimming stream group [{0}]: [{1}]", redisStreamService.getGroup(), e.getLocalizedMessage()),
+                    e);
+        }
+    }
+
+    private void waitInterval() {
+        long deadline = System.currentTimeMillis() + intervalMillis;
+        try {
+            // sleeping in steps, so the shut down is not delayed by the interval
+            while (!ConsumerLifeCycleManager.ENDLOOP && System.currentTimeMillis() < deadline) {
+                TimeUnit.MILLISECONDS.sleep(Math.min(WAIT_STEP_MILLIS, Math.max(1, deadline - System.currentTimeMillis())));
+            }
+        } catch (InterruptedException e) {
+            log.warn("Interrupted trimmer wait.", e);
+            Thread.currentThread().interrupt();
+        }
+    }
+}
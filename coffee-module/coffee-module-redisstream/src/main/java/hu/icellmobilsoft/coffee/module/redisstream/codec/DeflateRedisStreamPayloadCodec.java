@@ -0,0 +1,79 @@
+/*-
+ * #%L
+ * Coffee
+ * %%
+ * Copyright (C) 2020 - 2026 i-Cell Mobilsoft Zrt.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package hu.icellmobilsoft.coffee.module.redisstream.codec;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+import jakarta.enterprise.context.ApplicationScoped;
+
+import hu.icellmobilsoft.coffee.dto.exception.enums.CoffeeFaultType;
+import hu.icellmobilsoft.coffee.se.api.exception.BaseException;
+import hu.icellmobilsoft.coffee.se.api.exception.TechnicalException;
+
+/**
+ * Deflate (zlib) compression payload codec. Smaller header than {@link GzipRedisStreamPayloadCodec}, which counts on small payloads.
+ *
+ * @author agent
+ * @since 2.13.0
+ */
+@ApplicationScoped
+public class DeflateRedisStreamPayloadCodec implements IRedisStreamPayloadCodec {
+
+    /**
+     * Name of the codec
+     */
+    public static final String NAME = "deflate";
+
+    /**
+     * Default constructor, constructs a new object.
+     */
+    public DeflateRedisStreamPayloadCodec() {
+        super();
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public byte[] encode(byte[] payload) throws BaseException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(payload.length / 2 + 16);
+        try (DeflaterOutputStream deflater = new DeflaterOutputStream(out)) {
+            deflater.write(payload);
+        } catch (IOException e) {
+            throw new TechnicalException(CoffeeFaultType.OPERATION_FAILED, "Deflate compression failed: " + e.getLocalizedMessage(), e);
+        }
+        return out.toByteArray();
+    }
+
+    @Override
+    public byte[] decode(byte[] encoded) throws BaseException {
+        try (InflaterInputStream inflater = new InflaterInputStream(new ByteArrayInputStream(encoded))) {
+            return inflater.readAllBytes();
+        } catch (IOException e) {
+            throw new TechnicalException(CoffeeFaultType.OPERATION_FAILED, "Deflate decompression failed: " + e.getLocalizedMessage(), e);
+        }
+    }
+}
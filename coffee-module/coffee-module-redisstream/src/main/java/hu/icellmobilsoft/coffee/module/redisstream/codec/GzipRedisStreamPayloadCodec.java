@@ -0,0 +1,62 @@
+/*-
+ * #%L
+ * Coffee
+ * %%
+ * Copyright (C) 2020 - 2026 i-Cell Mobilsoft Zrt.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package hu.icellmobilsoft.coffee.module.redisstream.codec;
+
+import jakarta.enterprise.context.ApplicationScoped;
+
+import hu.icellmobilsoft.coffee.se.api.exception.BaseException;
+import hu.icellmobilsoft.coffee.tool.utils.compress.GZIPUtil;
+
+/**
+ * GZIP compression payload codec
+ *
+ * @author agent
+ * @since 2.13.0
+ */
+@ApplicationScoped
+public class GzipRedisStreamPayloadCodec implements IRedisStreamPayloadCodec {
+
+    /**
+     * Name of the codec
+     */
+    public static final String NAME = "gzip";
+
+    /**
+     * Default constructor, constructs a new object.
+     */
+    public GzipRedisStreamPayloadCodec() {
+        super();
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public byte[] encode(byte[] payload) throws BaseException {
+        return GZIPUtil.compress(payload);
+    }
+
+    @Override
+    public byte[] decode(byte[] encoded) throws BaseException {
+        return GZIPUtil.decompress(encoded);
+    }
+}
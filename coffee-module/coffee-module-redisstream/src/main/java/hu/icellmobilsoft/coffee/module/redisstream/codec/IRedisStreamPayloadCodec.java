@@ -0,0 +1,62 @@
+/*-
+ * #%L
+ * Coffee
+ * %%
+ * Copyright (C) 2020 - 2026 i-Cell Mobilsoft Zrt.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package hu.icellmobilsoft.coffee.module.redisstream.codec;
+
+import hu.icellmobilsoft.coffee.se.api.exception.BaseException;
+
+/**
+ * Redis stream message payload codec. The implementations are CDI beans, selected by {@link #getName()} on the producer side by the
+ * {@code coffee.redisstream.<group>.producer.codec} config, and on the consumer side by the codec header field of the message
+ * ({@code IRedisStreamConstant.Common#DATA_KEY_CODEC}). The encoded bytes are stored as raw bytes in the stream.
+ *
+ * @author agent
+ * @since 2.13.0
+ */
+public interface IRedisStreamPayloadCodec {
+
+    /**
+     * Unique name of the codec, stored in the codec header field of the encoded messages
+     *
+     * @return codec name
+     */
+    String getName();
+
+    /**
+     * Encodes the payload
+     *
+     * @param payload
+     *            UTF-8 bytes of the message
+     * @return encoded bytes
+     * @throws BaseException
+     *             on encoding error
+     */
+    byte[] encode(byte[] payload) throws BaseException;
+
+    /**
+     * Decodes the payload
+     *
+     * @param encoded
+     *            encoded bytes
+     * @return UTF-8 bytes of the message
+     * @throws BaseException
+     *             on decoding error
+     */
+    byte[] decode(byte[] encoded) throws BaseException;
+}
@@ -0,0 +1,145 @@
+/*-
+ * #%L
+ * Coffee
+ * %%
+ * Copyright (C) 2020 - 2026 i-Cell Mobilsoft Zrt.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package hu.icellmobilsoft.coffee.module.redisstream.codec;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.Any;
+import jakarta.enterprise.inject.Instance;
+import jakarta.inject.Inject;
+
+import org.apache.commons.lang3.StringUtils;
+
+import hu.icellmobilsoft.coffee.dto.exception.enums.CoffeeFaultType;
+import hu.icellmobilsoft.coffee.module.redisstream.common.RedisStreamBinaryUtil;
+import hu.icellmobilsoft.coffee.module.redisstream.config.IRedisStreamConstant;
+import hu.icellmobilsoft.coffee.se.api.exception.BaseException;
+import hu.icellmobilsoft.coffee.se.api.exception.TechnicalException;
+import redis.clients.jedis.resps.StreamEntry;
+
+/**
+ * Encodes and decodes the {@value IRedisStreamConstant.Common#DATA_KEY_MESSAGE} field of the redis stream messages with the
+ * {@link IRedisStreamPayloadCodec} implementations. The codec name is stored in the {@value IRedisStreamConstant.Common#DATA_KEY_CODEC} field,
+ * messages without this field are plain, so the messages of old and new producers can be consumed together. The encoded bytes are held as
+ * {@link RedisStreamBinaryUtil#RAW_CHARSET} string and written into the stream as raw bytes, see {@link RedisStreamBinaryUtil}.
+ *
+ * @author agent
+ * @since 2.13.0
+ */
+@ApplicationScoped
+public class RedisStreamPayloadCodecService {
+
+    @Inject
+    @Any
+    private Instance<IRedisStreamPayloadCodec> codecInstances;
+
+    private final Map<String, IRedisStreamPayloadCodec> codecs = new ConcurrentHashMap<>();
+
+    /**
+     * Default constructor, constructs a new object.
+     */
+    public RedisStreamPayloadCodecService() {
+        super();
+    }
+
+    /**
+     * Encodes the message field by the codec, if its size reaches the threshold and the encoded value is shorter than the original
+     *
+     * @param jedisMessage
+     *            redis stream message structure, ready to publish
+     * @param codecName
+     *            name of the codec, see {@link IRedisStreamPayloadCodec#getName()}
+     * @param thresholdBytes
+     *            minimum size of the message in bytes to encode
+     * @return the encoded message structure, or the original if it is not encoded
+     * @throws BaseException
+     *             if the codec is not found or encoding failed
+     */
+    public Map<String, String> encode(Map<String, String> jedisMessage, String codecName, int thresholdBytes) throws BaseException {
+        String message = jedisMessage.get(IRedisStreamConstant.Common.DATA_KEY_MESSAGE);
+        if (message == null || jedisMessage.containsKey(IRedisStreamConstant.Common.DATA_KEY_CODEC)) {
+            return jedisMessage;
+        }
+        byte[] payload = message.getBytes(StandardCharsets.UTF_8);
+        if (payload.length < thresholdBytes) {
+            return jedisMessage;
+        }
+        byte[] encoded = getCodec(codecName).encode(payload);
+        if (encoded.length >= payload.length) {
+            // not compressible, plain message is smaller
+            return jedisMessage;
+        }
+        Map<String, String> encodedMessage = new HashMap<>(jedisMessage);
+        encodedMessage.put(IRedisStreamConstant.Common.DATA_KEY_MESSAGE, new String(encoded, RedisStreamBinaryUtil.RAW_CHARSET));
+        encodedMessage.put(IRedisStreamConstant.Common.DATA_KEY_CODEC, codecName);
+        return encodedMessage;
+    }
+
+    /**
+     * Decodes the message field of the stream entry, if it has codec field
+     *
+     * @param streamEntry
+     *            read stream entry
+     * @return stream entry with the decoded message and without codec field, or the original entry if it is plain
+     * @throws BaseException
+     *             if the codec is not found or decoding failed
+     */
+    public StreamEntry decode(StreamEntry streamEntry) throws BaseException {
+        String codecName = streamEntry.getFields().get(IRedisStreamConstant.Common.DATA_KEY_CODEC);
+        if (codecName == null) {
+            return streamEntry;
+        }
+        Map<String, String> fields = new HashMap<>(streamEntry.getFields());
+        fields.remove(IRedisStreamConstant.Common.DATA_KEY_CODEC);
+        String message = fields.get(IRedisStreamConstant.Common.DATA_KEY_MESSAGE);
+        if (message != null) {
+            byte[] payload = getCodec(codecName).decode(message.getBytes(RedisStreamBinaryUtil.RAW_CHARSET));
+            fields.put(IRedisStreamConstant.Common.DATA_KEY_MESSAGE, new String(payload, StandardCharsets.UTF_8));
+        }
+        return new StreamEntry(streamEntry.getID(), fields);
+    }
+
+    /**
+     * Returns the codec by name
+     *
+     * @param codecName
+     *            name of the codec
+     * @return codec
+     * @throws BaseException
+     *             if no codec found with the name
+     */
+    public IRedisStreamPayloadCodec getCodec(String codecName) throws BaseException {
+        IRedisStreamPayloadCodec codec = codecs.computeIfAbsent(codecName, this::findCodec);
+        if (codec == null) {
+            throw new TechnicalException(CoffeeFaultType.OPERATION_FAILED, "Redis stream payload codec [" + codecName + "] not found");
+        }
+        return codec;
+    }
+
+    private IRedisStreamPayloadCodec findCodec(String codecName) {
+        Optional<IRedisStreamPayloadCodec> codec = codecInstances.stream().filter(c -> StringUtils.equals(codecName, c.getName())).findFirst();
+        return codec.orElse(null);
+    }
+}
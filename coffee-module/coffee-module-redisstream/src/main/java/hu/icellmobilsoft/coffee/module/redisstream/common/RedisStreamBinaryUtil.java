@@ -0,0 +1,166 @@
+/*-
+ * #%L
+ * Coffee
+ * %%
+ * Copyright (C) 2020 - 2026 i-Cell Mobilsoft Zrt.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package hu.icellmobilsoft.coffee.module.redisstream.common;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import hu.icellmobilsoft.coffee.module.redisstream.config.IRedisStreamConstant;
+import redis.clients.jedis.BuilderFactory;
+import redis.clients.jedis.CommandArguments;
+import redis.clients.jedis.CommandObject;
+import redis.clients.jedis.Protocol;
+import redis.clients.jedis.StreamEntryID;
+import redis.clients.jedis.params.XAddParams;
+import redis.clients.jedis.resps.StreamEntry;
+import redis.clients.jedis.resps.StreamEntryBinary;
+
+/**
+ * Util class for the binary redis stream commands. The payload codec ({@code IRedisStreamPayloadCodec}) writes raw bytes into the
+ * {@value IRedisStreamConstant.Common#DATA_KEY_MESSAGE} field, which can not be transferred as UTF-8 string. Inside the module the entries are
+ * handled as {@link StreamEntry} anyway: the fields are UTF-8 strings, except the message field of the entries having
+ * {@value IRedisStreamConstant.Common#DATA_KEY_CODEC} field, which holds the raw bytes as {@link #RAW_CHARSET} string (one char per byte,
+ * lossless).
+ *
+ * @author agent
+ * @since 2.13.0
+ */
+public class RedisStreamBinaryUtil {
+
+    /**
+     * Charset of the raw bytes of the encoded message field, every byte is mapped to exactly one char
+     */
+    public static final Charset RAW_CHARSET = StandardCharsets.ISO_8859_1;
+
+    /**
+     * Default constructor, constructs a new object.
+     */
+    public RedisStreamBinaryUtil() {
+        super();
+    }
+
+    /**
+     * Returns whether the message field of the entry is encoded by a payload codec, see {@value IRedisStreamConstant.Common#DATA_KEY_CODEC}
+     *
+     * @param fields
+     *            fields of the stream entry
+     * @return true if the message field holds raw bytes
+     */
+    public static boolean isEncoded(Map<String, String> fields) {
+        return fields != null && fields.containsKey(IRedisStreamConstant.Common.DATA_KEY_CODEC);
+    }
+
+    /**
+     * Converts the fields to the binary form to write into the stream
+     *
+     * @param fields
+     *            fields of the stream entry
+     * @return binary fields, the message field of the encoded entry is converted by {@link #RAW_CHARSET}, every other by UTF-8
+     */
+    public static Map<byte[], byte[]> toBinaryFields(Map<String, String> fields) {
+        boolean encoded = isEncoded(fields);
+        Map<byte[], byte[]> binaryFields = new LinkedHashMap<>();
+        fields.forEach((key, value) -> binaryFields.put(key.getBytes(StandardCharsets.UTF_8), value.getBytes(charset(encoded, key))));
+        return binaryFields;
+    }
+
+    /**
+     * Converts the binary stream entry read from the stream, see {@link #toBinaryFields(Map)}
+     *
+     * @param binaryEntry
+     *            binary stream entry
+     * @return stream entry, or null if the entry is null or has no fields (deleted from the stream meanwhile)
+     */
+    public static StreamEntry toStreamEntry(StreamEntryBinary binaryEntry) {
+        if (binaryEntry == null || binaryEntry.getFields() == null) {
+            return null;
+        }
+        Map<String, byte[]> binaryFields = new LinkedHashMap<>();
+        binaryEntry.getFields().forEach((key, value) -> binaryFields.put(new String(key, StandardCharsets.UTF_8), value));
+        boolean encoded = binaryFields.containsKey(IRedisStreamConstant.Common.DATA_KEY_CODEC);
+        Map<String, String> fields = new HashMap<>();
+        binaryFields.forEach((key, value) -> fields.put(key, value == null ? null : new String(value, charset(encoded, key))));
+        return new StreamEntry(binaryEntry.getID(), fields);
+    }
+
+    /**
+     * Converts the binary stream entries read from the stream, see {@link #toStreamEntry(StreamEntryBinary)}
+     *
+     * @param binaryEntries
+     *            binary stream entries, can be null
+     * @return stream entries in the original order, without the null and deleted entries
+     */
+    public static List<StreamEntry> toStreamEntries(Collection<StreamEntryBinary> binaryEntries) {
+        List<StreamEntry> entries = new ArrayList<>();
+        if (binaryEntries == null) {
+            return entries;
+        }
+        for (StreamEntryBinary binaryEntry : binaryEntries) {
+            StreamEntry entry = toStreamEntry(binaryEntry);
+            if (entry != null) {
+                entries.add(entry);
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Parses the raw entry list reply of the binary stream commands (XRANGE, XCLAIM, XAUTOCLAIM), see {@link #toStreamEntries(Collection)}
+     *
+     * @param reply
+     *            raw reply
+     * @return stream entries in the original order, without the deleted entries
+     */
+    public static List<StreamEntry> parseStreamEntries(Object reply) {
+        return toStreamEntries(BuilderFactory.STREAM_ENTRY_BINARY_LIST.build(reply));
+    }
+
+    /**
+     * Creates the XADD command writing the fields in binary form (see {@link #toBinaryFields(Map)}), which can be executed by
+     * {@code UnifiedJedis#executeCommand} or {@code AbstractPipeline#executeCommand}. This is equivalent to redis console:
+     *
+     * <pre>
+     * XADD streamKey * key1 value1 key2 value2...
+     * </pre>
+     *
+     * @param streamKey
+     *            redis stream key
+     * @param params
+     *            XADD parameters
+     * @param fields
+     *            fields of the stream entry
+     * @return XADD command returning the generated ID
+     */
+    public static CommandObject<StreamEntryID> xadd(String streamKey, XAddParams params, Map<String, String> fields) {
+        CommandArguments args = new CommandArguments(Protocol.Command.XADD).key(streamKey).addParams(params);
+        toBinaryFields(fields).forEach((key, value) -> args.add(key).add(value));
+        return new CommandObject<>(args, BuilderFactory.STREAM_ENTRY_ID);
+    }
+
+    private static Charset charset(boolean encoded, String key) {
+        return encoded && IRedisStreamConstant.Common.DATA_KEY_MESSAGE.equals(key) ? RAW_CHARSET : StandardCharsets.UTF_8;
+    }
+}
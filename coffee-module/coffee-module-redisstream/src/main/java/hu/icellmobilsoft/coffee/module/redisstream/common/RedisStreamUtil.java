@@ -19,6 +19,10 @@
  */
 package hu.icellmobilsoft.coffee.module.redisstream.common;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
 /**
  * Util class for the common redis stream functions
  * 
@@ -27,6 +31,13 @@ package hu.icellmobilsoft.coffee.module.redisstream.common;
  */
 public class RedisStreamUtil {
 
+    /**
+     * Delimiter between the stream key and the partition index
+     */
+    public static final String PARTITION_DELIMITER = ":";
+
+    private static final AtomicInteger ROUND_ROBIN_COUNTER = new AtomicInteger();
+
     /**
      * Default constructor, constructs a new object.
      */
@@ -44,4 +55,119 @@ public class RedisStreamUtil {
     public static String streamKey(String streamGroup) {
         return streamGroup + "Stream";
     }
+
+    /**
+     * Returns the redis stream keys of all partitions of the stream group, see {@link #streamKey(String, int)}
+     * 
+     * @param streamGroup
+     *            the redis stream group
+     * @param partitions
+     *            count of the partitions of the stream group
+     * @return the redis stream keys, one key if the group is not partitioned
+     * @since 2.13.0
+     */
+    public static List<String> streamKeys(String streamGroup, int partitions) {
+        if (partitions <= 1) {
+            return List.of(streamKey(streamGroup));
+        }
+        List<String> streamKeys = new ArrayList<>(partitions);
+        for (int i = 0; i < partitions; i++) {
+            streamKeys.add(streamKey(streamGroup, i));
+        }
+        return streamKeys;
+    }
+
+    /**
+     * Returns the redis key of the background trimming leader lock of the stream group
+     * 
+     * @param streamGroup
+     *            the redis stream group
+     * @return the redis key of the trim lock
+     * @since 2.13.0
+     */
+    public static String trimLockKey(String streamGroup) {
+        return streamGroup + "TrimLock";
+    }
+
+    /**
+     * Returns the redis key of the delayed retry schedule of a stream: a sorted set of the failed entry ids scored by their retry due time
+     * 
+     * @param streamKey
+     *            the redis stream key (of the partition)
+     * @return the redis key of the retry schedule
+     * @since 2.13.0
+     */
+    public static String retryKey(String streamKey) {
+        return streamKey + "Retry";
+    }
+
+    /**
+     * Returns the redis key of the processed state of a message, see {@code IStreamGroupConfig#getIdempotencyTtlMillis()}
+     * 
+     * @param streamGroup
+     *            the redis stream group
+     * @param idempotencyKey
+     *            idempotency key of the message
+     * @return the redis key of the processed state
+     * @since 2.13.0
+     */
+    public static String idempotencyKey(String streamGroup, String idempotencyKey) {
+        return streamGroup + "Processed:" + idempotencyKey;
+    }
+
+    /**
+     * Returns the redis stream key of the given partition of the stream group. The key has no hash tag, so in cluster mode the partitions of a
+     * group are spread across the slots.
+     * 
+     * @param streamGroup
+     *            the redis stream group
+     * @param partition
+     *            partition index, from 0
+     * @return the redis stream key of the partition
+     * @since 2.13.0
+     */
+    public static String streamKey(String streamGroup, int partition) {
+        return streamKey(streamGroup) + PARTITION_DELIMITER + partition;
+    }
+
+    /**
+     * Returns the redis stream key where the message has to be published. If the group has only one partition, the key is the same as
+     * {@link #streamKey(String)}, otherwise the partition is selected by {@link #partition(String, int)}.
+     * 
+     * @param streamGroup
+     *            the redis stream group
+     * @param partitionKey
+     *            partition key of the message, can be null
+     * @param partitions
+     *            count of the partitions of the stream group
+     * @return the redis stream key
+     * @since 2.13.0
+     */
+    public static String streamKey(String streamGroup, String partitionKey, int partitions) {
+        if (partitions <= 1) {
+            return streamKey(streamGroup);
+        }
+        return streamKey(streamGroup, partition(partitionKey, partitions));
+    }
+
+    /**
+     * Selects the partition. Messages with the same partition key always go to the same partition (so their order is kept), messages without
+     * partition key are spread round-robin.
+     * 
+     * @param partitionKey
+     *            partition key of the message, can be null
+     * @param partitions
+     *            count of the partitions, at least 1
+     * @return partition index, from 0
+     * @since 2.13.0
+     */
+    public static int partition(String partitionKey, int partitions) {
+        if (partitions <= 1) {
+            return 0;
+        }
+        if (partitionKey == null) {
+            return Math.floorMod(ROUND_ROBIN_COUNTER.getAndIncrement(), partitions);
+        }
+        return Math.floorMod(partitionKey.hashCode(), partitions);
+    }
 }
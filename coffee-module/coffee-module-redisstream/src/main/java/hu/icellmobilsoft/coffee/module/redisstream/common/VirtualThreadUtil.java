@@ -0,0 +1,156 @@
+/*-
+ * #%L
+ * Coffee
+ * %%
+ * Copyright (C) 2020 - 2026 i-Cell Mobilsoft Zrt.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package hu.icellmobilsoft.coffee.module.redisstream.common;
+
+import java.lang.reflect.Method;
+import java.util.Optional;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Util class for starting virtual threads. The module is compiled to Java 17 bytecode, so the JDK 21 {@code Thread.ofVirtual()} API is accessed
+ * reflectively, and the methods return empty result if the running JVM does not support virtual threads.
+ * <p>
+ * The count of the running virtual threads started by this class can be limited by {@link #setConcurrencyLimit(int)}, the start of a thread
+ * above the limit is refused.
+ *
+ * @author agent
+ * @since 2.13.0
+ */
+public class VirtualThreadUtil {
+
+    private static final Method OF_VIRTUAL;
+    private static final Method BUILDER_NAME;
+    private static final Method BUILDER_START;
+
+    private static final LimitSemaphore PERMITS = new LimitSemaphore();
+
+    private static int concurrencyLimit = Integer.MAX_VALUE;
+
+    static {
+        Method ofVirtual = null;
+        Method builderName = null;
+        Method builderStart = null;
+        try {
+            ofVirtual = Thread.class.getMethod("ofVirtual");
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            builderName = builderClass.getMethod("name", String.class);
+            builderStart = builderClass.getMethod("start", Runnable.class);
+        } catch (ReflectiveOperationException e) {
+            // JVM is older than 21, virtual threads are not supported
+            ofVirtual = null;
+        }
+        OF_VIRTUAL = ofVirtual;
+        BUILDER_NAME = builderName;
+        BUILDER_START = builderStart;
+    }
+
+    /**
+     * Default constructor, constructs a new object.
+     */
+    public VirtualThreadUtil() {
+        super();
+    }
+
+    /**
+     * Returns whether the running JVM supports virtual threads
+     *
+     * @return {@code true} if virtual threads can be started
+     */
+    public static boolean isSupported() {
+        return OF_VIRTUAL != null;
+    }
+
+    /**
+     * Sets the maximum count of the concurrently running virtual threads started by {@link #start(String, Runnable)}. The already running threads
+     * are counted into the new limit. Default is unlimited.
+     *
+     * @param limit
+     *            max count of the running virtual threads
+     */
+    public static synchronized void setConcurrencyLimit(int limit) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("Virtual thread concurrency limit must not be negative: " + limit);
+        }
+        int diff = limit - concurrencyLimit;
+        if (diff > 0) {
+            PERMITS.release(diff);
+        } else if (diff < 0) {
+            PERMITS.reducePermits(-diff);
+        }
+        concurrencyLimit = limit;
+    }
+
+    /**
+     * Returns how many virtual threads can be started yet under the concurrency limit
+     *
+     * @return available count, can be negative if the limit was decreased below the running count
+     */
+    public static int getAvailableCount() {
+        return PERMITS.availablePermits();
+    }
+
+    /**
+     * Starts the task on a new virtual thread, if the concurrency limit is not reached (see {@link #setConcurrencyLimit(int)}). The thread is
+     * counted into the limit until the task is finished.
+     *
+     * @param name
+     *            name of the thread
+     * @param task
+     *            task to run
+     * @return the started virtual thread, or empty if the JVM does not support virtual threads or the concurrency limit is reached
+     */
+    public static Optional<Thread> start(String name, Runnable task) {
+        if (!isSupported() || !PERMITS.tryAcquire()) {
+            return Optional.empty();
+        }
+        Runnable limitedTask = () -> {
+            try {
+                task.run();
+            } finally {
+                PERMITS.release();
+            }
+        };
+        try {
+            Object builder = OF_VIRTUAL.invoke(null);
+            BUILDER_NAME.invoke(builder, name);
+            return Optional.of((Thread) BUILDER_START.invoke(builder, limitedTask));
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            PERMITS.release();
+            throw new IllegalStateException("Could not start virtual thread [" + name + "]", e);
+        }
+    }
+
+    /**
+     * Semaphore of the concurrency limit, the permits can be reduced on limit change
+     */
+    private static class LimitSemaphore extends Semaphore {
+
+        private static final long serialVersionUID = 1L;
+
+        LimitSemaphore() {
+            super(Integer.MAX_VALUE);
+        }
+
+        @Override
+        protected void reducePermits(int reduction) {
+            super.reducePermits(reduction);
+        }
+    }
+}
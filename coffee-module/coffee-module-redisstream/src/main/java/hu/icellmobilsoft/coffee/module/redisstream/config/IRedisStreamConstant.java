@@ -41,6 +41,11 @@ public interface IRedisStreamConstant {
          * Key for redis stream retry counter
          */
         String RETRY_COUNTER = "retryCounter";
+
+        /**
+         * Key for redis stream delivery count of the reclaimed entries
+         */
+        String DELIVERY_COUNT = "deliveryCount";
     }
 
     /**
@@ -66,12 +71,48 @@ public interface IRedisStreamConstant {
          * {@code #DATA_KEY_FLOW_ID} message extension for logging searching
          */
         String FLOW_ID_EXTENSION = "flowIdExtension";
+        /**
+         * Key for redis stream message partition key, see {@code StreamMessageParameter#PARTITION_KEY}
+         */
+        String DATA_KEY_PARTITION_KEY = "partitionKey";
+        /**
+         * Key for redis stream message payload codec name, the message is plain if it is missing. See {@code IRedisStreamPayloadCodec}
+         */
+        String DATA_KEY_CODEC = "codec";
+        /**
+         * Key for redis stream message idempotency (business) key, see {@code StreamMessageParameter#IDEMPOTENCY_KEY}
+         */
+        String DATA_KEY_IDEMPOTENCY_KEY = "idempotencyKey";
         /**
          * Key for redis stream message data
          */
         String DATA_MESSAGE_TYPE = "messageType";
     }
 
+    /**
+     * Dead-letter stream entry values, added to the original fields of the failed entry
+     *
+     * @since 2.13.0
+     */
+    interface DeadLetter {
+        /**
+         * Key for the ID of the failed entry in the original stream
+         */
+        String DATA_KEY_ORIGINAL_ID = "deadLetterOriginalId";
+        /**
+         * Key for the original stream group of the failed entry
+         */
+        String DATA_KEY_ORIGINAL_GROUP = "deadLetterOriginalGroup";
+        /**
+         * Key for the failure cause
+         */
+        String DATA_KEY_CAUSE = "deadLetterCause";
+        /**
+         * Key for the count of the processing attempts
+         */
+        String DATA_KEY_ATTEMPTS = "deadLetterAttempts";
+    }
+
     /**
      * Project PIPE stream values
      */
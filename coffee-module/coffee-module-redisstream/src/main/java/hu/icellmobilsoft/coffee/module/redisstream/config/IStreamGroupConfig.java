@@ -41,6 +41,28 @@ public interface IStreamGroupConfig {
      */
     Long getStreamReadTimeoutMillis() throws BaseException;
 
+    /**
+     * Count of the partition streams of the group. If greater than 1, the messages are published into {@code <group>Stream:<index>} keys (routed by
+     * the {@link StreamMessageParameter#PARTITION_KEY} or round-robin) and the consumer threads are spread across the partitions. In cluster mode
+     * the partition keys are placed on different slots.
+     *
+     * @return partitions count, default 1
+     * @throws BaseException
+     *             Exception on read properties
+     */
+    Integer getStreamPartitions() throws BaseException;
+
+    /**
+     * Interval in millis of the background trimming of the group streams (all partitions) by {@link #getProducerMaxLen()} or
+     * {@link #getProducerTTL()}, with approximate XTRIM. Only one instance of the application trims the group in an interval (leader lock). The
+     * trimmer runs next to the consumers of the group.
+     *
+     * @return trim interval in millis, empty if background trimming is disabled
+     * @throws BaseException
+     *             Exception on read properties
+     */
+    Optional<Long> getStreamTrimIntervalMillis() throws BaseException;
+
     /**
      * Max elements in stream, oldest will be removed. See https://redis.io/commands/xadd MAXLEN parameter. <br>
      * <br>
@@ -65,6 +87,36 @@ public interface IStreamGroupConfig {
      */
     Optional<Long> getProducerTTL() throws BaseException;
 
+    /**
+     * Whether the producer trims the stream on every publish by {@link #getProducerMaxLen()} or {@link #getProducerTTL()} (XADD MAXLEN/MINID
+     * parameter). Can be turned off if the stream is trimmed in the background, see {@link #getStreamTrimIntervalMillis()}.
+     *
+     * @return {@code true} if the producer trims the stream, default true
+     * @throws BaseException
+     *             Exception on read properties
+     */
+    boolean isProducerInlineTrim() throws BaseException;
+
+    /**
+     * Payload codec of the published messages, for example {@code gzip} or {@code deflate} (see {@code IRedisStreamPayloadCodec#getName()}). The
+     * messages reaching {@link #getProducerCodecThresholdBytes()} are encoded and marked with the codec header field. The consumers decode the
+     * marked messages whatever this config is, so it has to be set only after all consumers of the group are able to decode.
+     *
+     * @return codec name, empty if the messages are published plain (default)
+     * @throws BaseException
+     *             Exception on read properties
+     */
+    Optional<String> getProducerCodec() throws BaseException;
+
+    /**
+     * Minimum size in bytes of the message to be encoded by {@link #getProducerCodec()}, smaller messages are published plain
+     *
+     * @return threshold in bytes
+     * @throws BaseException
+     *             Exception on read properties
+     */
+    Integer getProducerCodecThresholdBytes() throws BaseException;
+
     /**
      * How many threads start to listening on stream group. This value override {@link RedisStreamConsumer#consumerThreadsCount()}
      *
@@ -99,4 +151,190 @@ public interface IStreamGroupConfig {
      */
     boolean isManualAck();
 
+    /**
+     * How many stream entries to read with one XREADGROUP call. This value override {@link RedisStreamConsumer#batchSize()}
+     *
+     * @return max entries count per read
+     * @throws BaseException
+     *             Exception on read properties
+     */
+    Optional<Integer> getBatchSize() throws BaseException;
+
+    /**
+     * Maximum time in millis while the successfully processed entries of a batch are collected before the multi-ID XACK is sent. If the batch
+     * processing takes longer, the collected entries are ACKed and the collecting starts again, so the ACK latency remains bounded.
+     *
+     * @return max wait in millis before ACK of the processed batch entries
+     * @throws BaseException
+     *             Exception on read properties
+     */
+    Long getBatchMaxWaitMillis() throws BaseException;
+
+    /**
+     * Run the consumer loops of the stream group on virtual threads instead of the threads of the managed executor service. Requires JDK 21+
+     * runtime, otherwise the consumers are started on the managed executor service.
+     *
+     * @return {@code true} if the consumer threads are virtual threads, default false
+     */
+    boolean isVirtualThreads();
+
+    /**
+     * Minimum time in millis between two samples of the consumer group state (XINFO GROUPS lag, entries-read, pending) for the metrics. The
+     * sampling is done by the consumer threads between two reads, so the real interval can be longer, up to
+     * {@link #getStreamReadTimeoutMillis()} on an idle stream.
+     *
+     * @return sample interval in millis
+     * @throws BaseException
+     *             Exception on read properties
+     */
+    Long getMetricsSampleIntervalMillis() throws BaseException;
+
+    /**
+     * Minimum count of the consumer threads of the group in case of autoscaling (see {@link #getAutoscaleMaxThreads()}), the consumers are never
+     * scaled down below this count. If not set, {@link #getConsumerThreadsCount()} is the minimum.
+     *
+     * @return minimum consumer thread count
+     * @throws BaseException
+     *             Exception on read properties
+     */
+    Optional<Integer> getAutoscaleMinThreads() throws BaseException;
+
+    /**
+     * Maximum count of the consumer threads of the group. If set, the consumer threads are scaled between {@link #getAutoscaleMinThreads()} and
+     * this count by the lag and pending count of the group, sampled by {@link #getMetricsSampleIntervalMillis()}.
+     *
+     * @return maximum consumer thread count, empty if autoscaling is disabled
+     * @throws BaseException
+     *             Exception on read properties
+     */
+    Optional<Integer> getAutoscaleMaxThreads() throws BaseException;
+
+    /**
+     * Lag and pending count of the group per running consumer thread, above which one consumer thread is started
+     *
+     * @return entries per thread
+     * @throws BaseException
+     *             Exception on read properties
+     */
+    Long getAutoscaleScaleUpLag() throws BaseException;
+
+    /**
+     * Lag and pending count of the group per running consumer thread, below which one consumer thread is stopped
+     *
+     * @return entries per thread
+     * @throws BaseException
+     *             Exception on read properties
+     */
+    Long getAutoscaleScaleDownLag() throws BaseException;
+
+    /**
+     * Minimum time in millis between two scaling of the consumer threads, damps the oscillation of the thread count
+     *
+     * @return cooldown in millis
+     * @throws BaseException
+     *             Exception on read properties
+     */
+    Long getAutoscaleCooldownMillis() throws BaseException;
+
+    /**
+     * Time in millis while the processed messages are remembered by the consumers of the group. If set, the consumer skips (and ACKs) the
+     * messages already processed, identified by the {@link StreamMessageParameter#IDEMPOTENCY_KEY} of the message or by the stream entry ID. The
+     * processed state is recorded with {@code SET NX PX} in the same pipeline as the XACK.
+     *
+     * @return ttl in millis, empty if idempotency check is disabled
+     * @throws BaseException
+     *             Exception on read properties
+     */
+    Optional<Long> getIdempotencyTtlMillis() throws BaseException;
+
+    /**
+     * Count of the parallel workers of one consumer thread in batch mode ({@link #getBatchSize()} &gt; 1). The read batch is split into lanes by
+     * the hash of the {@link #getDispatchKeyField()} field of the messages: the messages with the same key are processed in stream order by one
+     * worker, the lanes run in parallel, and the processed entries are ACKed together after all lanes are finished. 1 means no parallel dispatch.
+     *
+     * @return worker count
+     * @throws BaseException
+     *             Exception on read properties
+     */
+    Integer getDispatchWorkers() throws BaseException;
+
+    /**
+     * Message field used as ordering key by the parallel dispatch ({@link #getDispatchWorkers()}), by default the partition key of the message.
+     * Messages without this field have no ordering, they are spread by the stream entry ID.
+     *
+     * @return message field name
+     * @throws BaseException
+     *             Exception on read properties
+     */
+    String getDispatchKeyField() throws BaseException;
+
+    /**
+     * Minimum idle time in millis of the pending entries to reclaim. If set, a reclaimer thread is started for the stream group, which takes
+     * over (XAUTOCLAIM) the pending entries idle longer than this value from the crashed or stuck consumers and processes them.
+     *
+     * @return min idle time of the reclaimed entries in millis, empty if the reclaimer is disabled (default)
+     * @throws BaseException
+     *             Exception on read properties
+     */
+    Optional<Long> getReclaimIdleMillis() throws BaseException;
+
+    /**
+     * Wait time in millis between two reclaim runs
+     *
+     * @return reclaim interval in millis
+     * @throws BaseException
+     *             Exception on read properties
+     */
+    Long getReclaimIntervalMillis() throws BaseException;
+
+    /**
+     * Backoff time in millis before the first delayed retry of a failed entry. If set (and {@link #isManualAck()} is true), the failed entries are
+     * not retried immediately in the consumer thread, they stay in the pending list and are delivered again by the reclaimer after the backoff
+     * time. The backoff of the next retries grows by {@link #getRetryBackoffMultiplier()} up to {@link #getRetryBackoffMaxMillis()}. The
+     * processing attempts are limited by {@link #getRetryCount()}.
+     *
+     * @return backoff in millis before the first retry, empty if delayed retry is disabled (default)
+     * @throws BaseException
+     *             Exception on read properties
+     */
+    Optional<Long> getRetryBackoffInitialMillis() throws BaseException;
+
+    /**
+     * Growth factor of the delayed retry backoff time between the attempts
+     *
+     * @return backoff multiplier
+     * @throws BaseException
+     *             Exception on read properties
+     */
+    Double getRetryBackoffMultiplier() throws BaseException;
+
+    /**
+     * Maximum backoff time in millis of the delayed retry
+     *
+     * @return max backoff in millis
+     * @throws BaseException
+     *             Exception on read properties
+     */
+    Long getRetryBackoffMaxMillis() throws BaseException;
+
+    /**
+     * Random jitter ratio of the delayed retry backoff time, for example 0.2 means +/- 20%. It spreads the retries of entries failed at the same
+     * time.
+     *
+     * @return jitter ratio between 0 and 1
+     * @throws BaseException
+     *             Exception on read properties
+     */
+    Double getRetryBackoffJitter() throws BaseException;
+
+    /**
+     * Dead-letter stream group. If set, the entries failed after all processing attempts ({@link #getRetryCount()}) are added to the stream of
+     * this group with the failure cause, the attempt count and the original ID, and ACKed in the same pipeline.
+     *
+     * @return dead-letter stream group, empty if disabled (default)
+     * @throws BaseException
+     *             Exception on read properties
+     */
+    Optional<String> getDeadLetterGroup() throws BaseException;
+
 }
@@ -39,9 +39,42 @@ import org.eclipse.microprofile.config.Config;
  *         maxlen: 10
  *         read:
  *           timeoutmillis: 60000
+ *         partitions: 4
+ *         trim:
+ *           intervalMillis: 60000
+ *       producer:
+ *         inlineTrim: false
+ *         codec: gzip
+ *         codecThresholdBytes: 1024
  *       consumer:
  *         threadsCount: 2
  *         manualAck: true
+ *         batchSize: 100
+ *         batchMaxWaitMillis: 1000
+ *         virtualThreads: true
+ *         metricsSampleIntervalMillis: 10000
+ *         autoscale:
+ *           minThreads: 2
+ *           maxThreads: 8
+ *           scaleUpLag: 100
+ *           scaleDownLag: 10
+ *           cooldownMillis: 60000
+ *         idempotency:
+ *           ttlMillis: 86400000
+ *         dispatch:
+ *           workers: 4
+ *           keyField: partitionKey
+ *         retry:
+ *           backoff:
+ *             initialMillis: 1000
+ *             multiplier: 2
+ *             maxMillis: 600000
+ *             jitter: 0.2
+ *         deadLetter:
+ *           group: sampleGroupDeadLetter
+ *         reclaim:
+ *           idleMillis: 300000
+ *           intervalMillis: 60000
  * </pre>
  * 
  * @author imre.scheffer
@@ -71,11 +104,36 @@ public class StreamGroupConfig implements IStreamGroupConfig {
      */
     public static final String PRODUCER_TTL = "producer.ttl";
 
+    /**
+     * Default none, messages are not encoded {@link #getProducerCodec()}
+     */
+    public static final String PRODUCER_CODEC = "producer.codec";
+
+    /**
+     * Default true {@link #isProducerInlineTrim()}
+     */
+    public static final String PRODUCER_INLINE_TRIM = "producer.inlineTrim";
+
+    /**
+     * Default 1024 bytes {@link #getProducerCodecThresholdBytes()}
+     */
+    public static final String PRODUCER_CODEC_THRESHOLD_BYTES = "producer.codecThresholdBytes";
+
     /**
      * Default 1 minute {@link #getStreamReadTimeoutMillis()}}
      */
     public static final String STREAM_READ_TIMEOUTMILLIS = "stream.read.timeoutmillis";
 
+    /**
+     * Default 1 partition {@link #getStreamPartitions()}
+     */
+    public static final String STREAM_PARTITIONS = "stream.partitions";
+
+    /**
+     * Default none, background trimming is disabled {@link #getStreamTrimIntervalMillis()}
+     */
+    public static final String STREAM_TRIM_INTERVAL_MILLIS = "stream.trim.intervalMillis";
+
     /**
      * Default 1 thread {@link #getConsumerThreadsCount()}}
      */
@@ -91,6 +149,101 @@ public class StreamGroupConfig implements IStreamGroupConfig {
      */
     public static final String MANUAL_ACK = "consumer.manualAck";
 
+    /**
+     * Default 1 {@link #getBatchSize()}
+     */
+    public static final String BATCH_SIZE = "consumer.batchSize";
+
+    /**
+     * Default 1 second {@link #getBatchMaxWaitMillis()}
+     */
+    public static final String BATCH_MAX_WAIT_MILLIS = "consumer.batchMaxWaitMillis";
+
+    /**
+     * Default false {@link #isVirtualThreads()}
+     */
+    public static final String VIRTUAL_THREADS = "consumer.virtualThreads";
+
+    /**
+     * Default 10 seconds {@link #getMetricsSampleIntervalMillis()}
+     */
+    public static final String METRICS_SAMPLE_INTERVAL_MILLIS = "consumer.metricsSampleIntervalMillis";
+
+    /**
+     * Default {@link #getConsumerThreadsCount()} {@link #getAutoscaleMinThreads()}
+     */
+    public static final String AUTOSCALE_MIN_THREADS = "consumer.autoscale.minThreads";
+
+    /**
+     * Default none, autoscaling is disabled {@link #getAutoscaleMaxThreads()}
+     */
+    public static final String AUTOSCALE_MAX_THREADS = "consumer.autoscale.maxThreads";
+
+    /**
+     * Default 100 entries per thread {@link #getAutoscaleScaleUpLag()}
+     */
+    public static final String AUTOSCALE_SCALE_UP_LAG = "consumer.autoscale.scaleUpLag";
+
+    /**
+     * Default 10 entries per thread {@link #getAutoscaleScaleDownLag()}
+     */
+    public static final String AUTOSCALE_SCALE_DOWN_LAG = "consumer.autoscale.scaleDownLag";
+
+    /**
+     * Default 1 minute {@link #getAutoscaleCooldownMillis()}
+     */
+    public static final String AUTOSCALE_COOLDOWN_MILLIS = "consumer.autoscale.cooldownMillis";
+
+    /**
+     * Default none, idempotency check is disabled {@link #getIdempotencyTtlMillis()}
+     */
+    public static final String IDEMPOTENCY_TTL_MILLIS = "consumer.idempotency.ttlMillis";
+
+    /**
+     * Default 1, entries are processed by the reader thread {@link #getDispatchWorkers()}
+     */
+    public static final String DISPATCH_WORKERS = "consumer.dispatch.workers";
+
+    /**
+     * Default {@value IRedisStreamConstant.Common#DATA_KEY_PARTITION_KEY} {@link #getDispatchKeyField()}
+     */
+    public static final String DISPATCH_KEY_FIELD = "consumer.dispatch.keyField";
+
+    /**
+     * Default none, reclaimer is disabled {@link #getReclaimIdleMillis()}
+     */
+    public static final String RECLAIM_IDLE_MILLIS = "consumer.reclaim.idleMillis";
+
+    /**
+     * Default 1 minute {@link #getReclaimIntervalMillis()}
+     */
+    public static final String RECLAIM_INTERVAL_MILLIS = "consumer.reclaim.intervalMillis";
+
+    /**
+     * Default none, delayed retry is disabled {@link #getRetryBackoffInitialMillis()}
+     */
+    public static final String RETRY_BACKOFF_INITIAL_MILLIS = "consumer.retry.backoff.initialMillis";
+
+    /**
+     * Default 2 {@link #getRetryBackoffMultiplier()}
+     */
+    public static final String RETRY_BACKOFF_MULTIPLIER = "consumer.retry.backoff.multiplier";
+
+    /**
+     * Default 10 minutes {@link #getRetryBackoffMaxMillis()}
+     */
+    public static final String RETRY_BACKOFF_MAX_MILLIS = "consumer.retry.backoff.maxMillis";
+
+    /**
+     * Default 0.2 {@link #getRetryBackoffJitter()}
+     */
+    public static final String RETRY_BACKOFF_JITTER = "consumer.retry.backoff.jitter";
+
+    /**
+     * Default none, dead-letter is disabled {@link #getDeadLetterGroup()}
+     */
+    public static final String DEAD_LETTER_GROUP = "consumer.deadLetter.group";
+
     /**
      * Default true {@link #isEnabled()}}
      */
@@ -118,11 +271,36 @@ public class StreamGroupConfig implements IStreamGroupConfig {
         return config.getOptionalValue(joinKey(PRODUCER_TTL), Long.class);
     }
 
+    @Override
+    public boolean isProducerInlineTrim() {
+        return config.getOptionalValue(joinKey(PRODUCER_INLINE_TRIM), Boolean.class).orElse(true);
+    }
+
+    @Override
+    public Optional<String> getProducerCodec() {
+        return config.getOptionalValue(joinKey(PRODUCER_CODEC), String.class);
+    }
+
+    @Override
+    public Integer getProducerCodecThresholdBytes() {
+        return config.getOptionalValue(joinKey(PRODUCER_CODEC_THRESHOLD_BYTES), Integer.class).orElse(1024);
+    }
+
     @Override
     public Long getStreamReadTimeoutMillis() {
         return config.getOptionalValue(joinKey(STREAM_READ_TIMEOUTMILLIS), Long.class).orElse(Duration.ofMinutes(1).toMillis());
     }
 
+    @Override
+    public Integer getStreamPartitions() {
+        return config.getOptionalValue(joinKey(STREAM_PARTITIONS), Integer.class).orElse(1);
+    }
+
+    @Override
+    public Optional<Long> getStreamTrimIntervalMillis() {
+        return config.getOptionalValue(joinKey(STREAM_TRIM_INTERVAL_MILLIS), Long.class);
+    }
+
     @Override
     public Optional<Integer> getConsumerThreadsCount() {
         return config.getOptionalValue(joinKey(CONSUMER_THREADS_COUNT), Integer.class);
@@ -143,6 +321,101 @@ public class StreamGroupConfig implements IStreamGroupConfig {
         return config.getOptionalValue(joinKey(MANUAL_ACK), Boolean.class).orElse(false);
     }
 
+    @Override
+    public Optional<Integer> getBatchSize() {
+        return config.getOptionalValue(joinKey(BATCH_SIZE), Integer.class);
+    }
+
+    @Override
+    public Long getBatchMaxWaitMillis() {
+        return config.getOptionalValue(joinKey(BATCH_MAX_WAIT_MILLIS), Long.class).orElse(Duration.ofSeconds(1).toMillis());
+    }
+
+    @Override
+    public boolean isVirtualThreads() {
+        return config.getOptionalValue(joinKey(VIRTUAL_THREADS), Boolean.class).orElse(false);
+    }
+
+    @Override
+    public Long getMetricsSampleIntervalMillis() {
+        return config.getOptionalValue(joinKey(METRICS_SAMPLE_INTERVAL_MILLIS), Long.class).orElse(Duration.ofSeconds(10).toMillis());
+    }
+
+    @Override
+    public Optional<Integer> getAutoscaleMinThreads() {
+        return config.getOptionalValue(joinKey(AUTOSCALE_MIN_THREADS), Integer.class);
+    }
+
+    @Override
+    public Optional<Integer> getAutoscaleMaxThreads() {
+        return config.getOptionalValue(joinKey(AUTOSCALE_MAX_THREADS), Integer.class);
+    }
+
+    @Override
+    public Long getAutoscaleScaleUpLag() {
+        return config.getOptionalValue(joinKey(AUTOSCALE_SCALE_UP_LAG), Long.class).orElse(100L);
+    }
+
+    @Override
+    public Long getAutoscaleScaleDownLag() {
+        return config.getOptionalValue(joinKey(AUTOSCALE_SCALE_DOWN_LAG), Long.class).orElse(10L);
+    }
+
+    @Override
+    public Long getAutoscaleCooldownMillis() {
+        return config.getOptionalValue(joinKey(AUTOSCALE_COOLDOWN_MILLIS), Long.class).orElse(Duration.ofMinutes(1).toMillis());
+    }
+
+    @Override
+    public Optional<Long> getIdempotencyTtlMillis() {
+        return config.getOptionalValue(joinKey(IDEMPOTENCY_TTL_MILLIS), Long.class);
+    }
+
+    @Override
+    public Integer getDispatchWorkers() {
+        return config.getOptionalValue(joinKey(DISPATCH_WORKERS), Integer.class).orElse(1);
+    }
+
+    @Override
+    public String getDispatchKeyField() {
+        return config.getOptionalValue(joinKey(DISPATCH_KEY_FIELD), String.class).orElse(IRedisStreamConstant.Common.DATA_KEY_PARTITION_KEY);
+    }
+
+    @Override
+    public Optional<Long> getReclaimIdleMillis() {
+        return config.getOptionalValue(joinKey(RECLAIM_IDLE_MILLIS), Long.class);
+    }
+
+    @Override
+    public Long getReclaimIntervalMillis() {
+        return config.getOptionalValue(joinKey(RECLAIM_INTERVAL_MILLIS), Long.class).orElse(Duration.ofMinutes(1).toMillis());
+    }
+
+    @Override
+    public Optional<Long> getRetryBackoffInitialMillis() {
+        return config.getOptionalValue(joinKey(RETRY_BACKOFF_INITIAL_MILLIS), Long.class);
+    }
+
+    @Override
+    public Double getRetryBackoffMultiplier() {
+        return config.getOptionalValue(joinKey(RETRY_BACKOFF_MULTIPLIER), Double.class).orElse(2D);
+    }
+
+    @Override
+    public Long getRetryBackoffMaxMillis() {
+        return config.getOptionalValue(joinKey(RETRY_BACKOFF_MAX_MILLIS), Long.class).orElse(Duration.ofMinutes(10).toMillis());
+    }
+
+    @Override
+    public Double getRetryBackoffJitter() {
+        return config.getOptionalValue(joinKey(RETRY_BACKOFF_JITTER), Double.class).orElse(0.2D);
+    }
+
+    @Override
+    public Optional<String> getDeadLetterGroup() {
+        return config.getOptionalValue(joinKey(DEAD_LETTER_GROUP), String.class);
+    }
+
     /**
      * Getter for the field {@code configKey}.
      *
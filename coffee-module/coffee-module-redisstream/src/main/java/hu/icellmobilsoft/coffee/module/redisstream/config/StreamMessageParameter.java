@@ -32,7 +32,17 @@ public enum StreamMessageParameter {
     /**
      * Logging {@code IRedisStreamConstant.Common#DATA_KEY_FLOW_ID} message extension
      */
-    FLOW_ID_EXTENSION(IRedisStreamConstant.Common.FLOW_ID_EXTENSION);
+    FLOW_ID_EXTENSION(IRedisStreamConstant.Common.FLOW_ID_EXTENSION),
+    /**
+     * Partition key of the message, messages with the same key are published into the same partition stream of the group. Only used if
+     * {@code IStreamGroupConfig#getStreamPartitions()} is greater than 1
+     */
+    PARTITION_KEY(IRedisStreamConstant.Common.DATA_KEY_PARTITION_KEY),
+    /**
+     * Idempotency (business) key of the message, the consumer processes only one message with the same key within
+     * {@code IStreamGroupConfig#getIdempotencyTtlMillis()}. Without it the stream entry ID is the idempotency key.
+     */
+    IDEMPOTENCY_KEY(IRedisStreamConstant.Common.DATA_KEY_IDEMPOTENCY_KEY);
 
     String messageKey;
 
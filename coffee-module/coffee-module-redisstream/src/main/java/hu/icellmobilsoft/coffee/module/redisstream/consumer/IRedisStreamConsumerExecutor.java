@@ -42,4 +42,26 @@ public interface IRedisStreamConsumerExecutor extends Runnable {
      */
     void init(String redisConfigKey, String group, Bean<? super IRedisStreamBaseConsumer> consumerBean);
 
+    /**
+     * Binds the executor to one partition stream of the group, if the group has more partitions
+     * ({@code IStreamGroupConfig#getStreamPartitions()}). Default implementation does nothing, the executor reads the not partitioned stream.
+     * 
+     * @param partition
+     *            partition index, from 0
+     * @since 2.13.0
+     */
+    default void setPartition(int partition) {
+        // not partitioned executor
+    }
+
+    /**
+     * Requests the executor to stop its loop, for example on scaling down the consumers of the group. The executor finishes the processing of the
+     * already read entries before it stops. Default implementation does nothing, the executor stops only on shut down.
+     * 
+     * @since 2.13.0
+     */
+    default void requestStop() {
+        // stops only on shut down
+    }
+
 }
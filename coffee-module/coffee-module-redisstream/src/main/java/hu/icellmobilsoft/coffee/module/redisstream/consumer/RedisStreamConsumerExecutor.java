@@ -20,12 +20,29 @@
 package hu.icellmobilsoft.coffee.module.redisstream.consumer;
 
 import java.text.MessageFormat;
+import java.time.Duration;
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 
+import jakarta.annotation.Resource;
+import jakarta.enterprise.concurrent.ManagedThreadFactory;
 import jakarta.enterprise.context.Dependent;
 import jakarta.enterprise.inject.Instance;
 import jakarta.enterprise.inject.spi.Bean;
@@ -36,21 +53,25 @@ import jakarta.inject.Inject;
 import org.apache.commons.lang3.StringUtils;
 import org.jboss.weld.context.bound.BoundRequestContext;
 
+import hu.icellmobilsoft.coffee.cdi.metric.spi.IRedisStreamMetricsHandler;
 import hu.icellmobilsoft.coffee.dto.common.LogConstants;
 import hu.icellmobilsoft.coffee.module.redis.annotation.RedisConnection;
 import hu.icellmobilsoft.coffee.module.redis.manager.RedisManager;
-import hu.icellmobilsoft.coffee.module.redis.manager.RedisManagerConnection;
 import hu.icellmobilsoft.coffee.module.redisstream.annotation.RedisStreamConsumer;
 import hu.icellmobilsoft.coffee.module.redisstream.bootstrap.ConsumerLifeCycleManager;
+import hu.icellmobilsoft.coffee.module.redisstream.codec.RedisStreamPayloadCodecService;
+import hu.icellmobilsoft.coffee.module.redisstream.common.VirtualThreadUtil;
 import hu.icellmobilsoft.coffee.module.redisstream.config.IRedisStreamConstant;
 import hu.icellmobilsoft.coffee.module.redisstream.config.StreamGroupConfig;
 import hu.icellmobilsoft.coffee.module.redisstream.service.RedisStreamService;
 import hu.icellmobilsoft.coffee.se.api.exception.BaseException;
+import hu.icellmobilsoft.coffee.se.function.BaseExceptionSupplier;
 import hu.icellmobilsoft.coffee.se.logging.Logger;
 import hu.icellmobilsoft.coffee.se.logging.mdc.MDC;
 import hu.icellmobilsoft.coffee.se.util.string.RandomUtil;
 import hu.icellmobilsoft.coffee.tool.utils.annotation.AnnotationUtil;
 import redis.clients.jedis.StreamEntryID;
+import redis.clients.jedis.exceptions.JedisConnectionException;
 import redis.clients.jedis.exceptions.JedisDataException;
 import redis.clients.jedis.resps.StreamEntry;
 
@@ -69,6 +90,12 @@ public class RedisStreamConsumerExecutor implements IRedisStreamConsumerExecutor
      */
     private static final String NOGROUP_PREFIX = "NOGROUP";
 
+    private static final String DISPATCH_THREAD_NAME_PREFIX = "redisstream-dispatch-";
+
+    private static final long RECONNECT_BACKOFF_INITIAL_MILLIS = 100;
+
+    private static final long RECONNECT_BACKOFF_MAX_MILLIS = 5000;
+
     @Inject
     private Logger log;
 
@@ -84,12 +111,60 @@ public class RedisStreamConsumerExecutor implements IRedisStreamConsumerExecutor
     @Inject
     private StreamGroupConfig streamGroupConfig;
 
+    @Inject
+    private IRedisStreamMetricsHandler redisStreamMetricsHandler;
+
+    @Inject
+    private RedisStreamPayloadCodecService payloadCodecService;
+
+    @Resource
+    private ManagedThreadFactory managedThreadFactory;
+
+    /**
+     * Dedicated bounded pool of the parallel dispatch lanes, created on the first use, shut down at the end of the loop
+     */
+    private ExecutorService laneExecutorService;
+
     private String consumerIdentifier;
 
     private String redisConfigKey;
 
     private Bean<? super IRedisStreamBaseConsumer> consumerBean;
 
+    private int batchSize = 1;
+
+    private int retryCount = 1;
+
+    private boolean delayedRetry;
+
+    private RedisStreamRetryBackoff retryBackoff;
+
+    private String deadLetterGroup;
+
+    /**
+     * Processing attempts of the current entry, per thread because of the parallel dispatch lanes
+     */
+    private final ThreadLocal<Integer> attempts = ThreadLocal.withInitial(() -> 0);
+
+    private int dispatchWorkers = 1;
+
+    private String dispatchKeyField;
+
+    private boolean skipFailedKeys;
+
+    private long metricsSampleIntervalMillis;
+
+    private volatile boolean stopRequested;
+
+    private Duration idempotencyTtl;
+
+    /**
+     * The pinned connection of the consumer failed on its own stream call (read, ACK), it is re-established on the next iteration
+     */
+    private boolean connectionLost;
+
+    private int reconnectAttempts;
+
     /**
      * Default constructor, constructs a new object.
      */
@@ -103,10 +178,53 @@ public class RedisStreamConsumerExecutor implements IRedisStreamConsumerExecutor
         this.consumerBean = consumerBean;
         redisStreamService.setGroup(group);
         streamGroupConfig.setConfigKey(group);
+        RedisStreamConsumer redisStreamConsumerAnnotation = AnnotationUtil.getAnnotation(consumerBean.getBeanClass(), RedisStreamConsumer.class);
+        if (redisStreamConsumerAnnotation != null) {
+            batchSize = Math.max(1, streamGroupConfig.getBatchSize().orElse(redisStreamConsumerAnnotation.batchSize()));
+            retryCount = streamGroupConfig.getRetryCount().orElse(redisStreamConsumerAnnotation.retryCount());
+        } else {
+            retryCount = streamGroupConfig.getRetryCount().orElse(1);
+        }
+        delayedRetry = streamGroupConfig.isManualAck() && streamGroupConfig.getRetryBackoffInitialMillis().isPresent();
+        if (delayedRetry) {
+            retryBackoff = new RedisStreamRetryBackoff(streamGroupConfig.getRetryBackoffInitialMillis().get(),
+                    streamGroupConfig.getRetryBackoffMultiplier(), streamGroupConfig.getRetryBackoffMaxMillis(),
+                    streamGroupConfig.getRetryBackoffJitter());
+        }
+        deadLetterGroup = streamGroupConfig.getDeadLetterGroup().orElse(null);
+        metricsSampleIntervalMillis = streamGroupConfig.getMetricsSampleIntervalMillis();
+        idempotencyTtl = streamGroupConfig.getIdempotencyTtlMillis().map(Duration::ofMillis).orElse(null);
+        dispatchKeyField = streamGroupConfig.getDispatchKeyField();
+        dispatchWorkers = Math.max(1, streamGroupConfig.getDispatchWorkers());
+        // the skipped entries of a failed dispatch key can be delivered again only from the pending list by the reclaimer
+        skipFailedKeys = delayedRetry || streamGroupConfig.isManualAck() && streamGroupConfig.getReclaimIdleMillis().isPresent();
+        if (dispatchWorkers > 1 && batchSize <= 1) {
+            log.warn("Parallel dispatch of stream group [{0}] needs batchSize greater than 1, entries are processed by the reader thread", group);
+        }
+    }
+
+    /**
+     * Binds the consumer to the given partition stream of the group, all stream operations (read, ACK, dead-letter) are executed on the
+     * partition
+     */
+    @Override
+    public void setPartition(int partition) {
+        redisStreamService.setPartition(partition);
     }
 
     /**
-     * Vegtelen ciklus inditasa, ami a streamet olvassa
+     * The loop stops after the current iteration, the entries already read are processed and ACKed
+     */
+    @Override
+    public void requestStop() {
+        stopRequested = true;
+    }
+
+    /**
+     * Vegtelen ciklus inditasa, ami a streamet olvassa. The {@link RedisManager} is pinned to the consumer thread for the whole lifetime of the
+     * loop. If the own stream calls of the consumer (connection init, read, ACK) fail on connection error, the connection is released and
+     * re-established on the next iteration after a short backoff (100 ms doubled up to 5 s). Connection errors of the business processing (other
+     * redis connections) are handled as any other processing failure, they do not affect the pinned connection.
      */
     public void startLoop() {
         // register consumer as a counter
@@ -114,83 +232,179 @@ public class RedisStreamConsumerExecutor implements IRedisStreamConsumerExecutor
         consumerIdentifier = RandomUtil.generateId();
         // Careful execution, checking the existence of the stream and group.
         boolean prudentRun = true;
-        while (!ConsumerLifeCycleManager.ENDLOOP) {
-            Optional<StreamEntry> streamEntry = Optional.empty();
-            Instance<RedisManager> redisManagerInstance = CDI.current().select(RedisManager.class, new RedisConnection.Literal(redisConfigKey));
-            RedisManager redisManager = redisManagerInstance.get();
-            try (RedisManagerConnection ignore = redisManager.initConnection()) {
-                redisStreamService.setRedisManager(redisManager);
-
-                if (prudentRun) {
-                    // It's possible that the group does not exist.
-                    redisStreamService.handleGroup();
-                    prudentRun = false;
-                }
+        Instance<RedisManager> redisManagerInstance = CDI.current().select(RedisManager.class, new RedisConnection.Literal(redisConfigKey));
+        RedisManager redisManager = redisManagerInstance.get();
+        redisStreamService.setRedisManager(redisManager);
+        try {
+            while (!ConsumerLifeCycleManager.ENDLOOP && !stopRequested) {
+                Optional<StreamEntry> streamEntry = Optional.empty();
+                try {
+                    if (connectionLost) {
+                        // the own stream call of the previous iteration failed on connection error
+                        reconnect(redisManager);
+                    }
+                    // does nothing if the connection is alive, otherwise (first run, after connection error) initialize it again
+                    initConnection(redisManager);
 
-                streamEntry = redisStreamService.consumeOne(consumerIdentifier);
+                    if (prudentRun) {
+                        // It's possible that the group does not exist.
+                        redisStreamService.handleGroup();
+                        prudentRun = false;
+                    }
+                    sampleGroupInfo();
 
-                // if a SIGTERM arrives while the xreadGroup blocking operation is in progress, we do not process the read message completely because
-                // it may run out of time.
-                if (ConsumerLifeCycleManager.ENDLOOP == true) {
-                    log.info("Skipping message processing because of shut down event.");
-                    continue;
-                }
+                    if (batchSize > 1) {
+                        List<StreamEntry> streamEntries = onStreamConnection(() -> read(batchSize));
+                        if (ConsumerLifeCycleManager.ENDLOOP == true) {
+                            log.info("Skipping batch processing of [{0}] messages because of shut down event.", streamEntries.size());
+                            continue;
+                        }
+                        if (!streamEntries.isEmpty()) {
+                            consumeStreamEntries(streamEntries, redisManager);
+                        }
+                        continue;
+                    }
 
-                if (streamEntry.isPresent()) {
-                    var entry = streamEntry.get();
-                    handleMDC(entry);
-                    consumeStreamEntry(entry, redisManager);
-                }
-            } catch (BaseException e) {
-                log.error(MessageFormat.format("Exception on consume streamEntry [{0}]: [{1}]", streamEntry, e.getLocalizedMessage()), e);
-                var cause = e.getCause();
-                if (!(cause instanceof JedisDataException)) {
-                    continue;
-                }
-                String message = cause.getLocalizedMessage();
-                // JedisDataException: NOGROUP No such key 'xyStream' or consumer group 'xy' in XREADGROUP with GROUP option
-                // If Redis crashes, we need to be able to restore the stream and the group.
-                if (StringUtils.startsWith(message, NOGROUP_PREFIX)) {
-                    log.error(
-                            "Detected problem on redisConfigKey [{0}] with stream group [{1}] and activating prudentRun on next cycle. Exception: [{2}]",
-                            redisConfigKey,
-                            redisStreamService.getGroup(),
-                            message);
-                    prudentRun = true;
-                } else {
+                    streamEntry = onStreamConnection(() -> read(1)).stream().findFirst();
+
+                    // if a SIGTERM arrives while the xreadGroup blocking operation is in progress, we do not process the read message completely
+                    // because it may run out of time.
+                    if (ConsumerLifeCycleManager.ENDLOOP == true) {
+                        log.info("Skipping message processing because of shut down event.");
+                        continue;
+                    }
+
+                    if (streamEntry.isPresent()) {
+                        var entry = streamEntry.get();
+                        handleMDC(entry);
+                        consumeStreamEntry(entry, redisManager);
+                    }
+                } catch (BaseException e) {
+                    log.error(MessageFormat.format("Exception on consume streamEntry [{0}]: [{1}]", streamEntry, e.getLocalizedMessage()), e);
+                    var cause = e.getCause();
+                    if (connectionLost) {
+                        continue;
+                    }
+                    if (!(cause instanceof JedisDataException)) {
+                        continue;
+                    }
+                    String message = cause.getLocalizedMessage();
+                    // JedisDataException: NOGROUP No such key 'xyStream' or consumer group 'xy' in XREADGROUP with GROUP option
+                    // If Redis crashes, we need to be able to restore the stream and the group.
+                    if (StringUtils.startsWith(message, NOGROUP_PREFIX)) {
+                        log.error(
+                                "Detected problem on redisConfigKey [{0}] with stream group [{1}] and activating prudentRun on next cycle. Exception: [{2}]",
+                                redisConfigKey,
+                                redisStreamService.getGroup(),
+                                message);
+                        prudentRun = true;
+                    } else {
+                        log.error(
+                                MessageFormat.format(
+                                        "Exception on redisConfigKey [{0}] with stream group [{1}]: [{2}]",
+                                        redisConfigKey,
+                                        redisStreamService.getGroup(),
+                                        message),
+                                cause);
+                    }
+                    redisManager.closeConnection();
+                    sleep();
+                } catch (Throwable e) {
+                    if (connectionLost) {
+                        continue;
+                    }
                     log.error(
                             MessageFormat.format(
-                                    "Exception on redisConfigKey [{0}] with stream group [{1}]: [{2}]",
+                                    "Exception during consume on redisConfigKey [{0}] with stream group [{1}]: [{2}]",
                                     redisConfigKey,
                                     redisStreamService.getGroup(),
-                                    message),
-                            cause);
+                                    e.getLocalizedMessage()),
+                            e);
+                    redisManager.closeConnection();
+                    sleep();
+                } finally {
+                    MDC.clear();
                 }
-                redisManager.closeConnection();
-                sleep();
-            } catch (Throwable e) {
-                log.error(
-                        MessageFormat.format(
-                                "Exception during consume on redisConfigKey [{0}] with stream group [{1}]: [{2}]",
-                                redisConfigKey,
-                                redisStreamService.getGroup(),
-                                e.getLocalizedMessage()),
-                        e);
-                redisManager.closeConnection();
-                sleep();
-            } finally {
-                cleanup(redisManagerInstance, redisManager);
             }
+        } finally {
+            cleanup(redisManagerInstance, redisManager);
+        }
+    }
+
+    private void initConnection(RedisManager redisManager) {
+        try {
+            redisManager.initConnection();
+        } catch (JedisConnectionException e) {
+            connectionLost = true;
+            throw e;
+        }
+    }
+
+    /**
+     * Runs an own stream call of the consumer on the pinned connection, and marks the connection lost if it fails on connection error
+     */
+    private <T> T onStreamConnection(BaseExceptionSupplier<T> call) throws BaseException {
+        T result;
+        try {
+            result = call.get();
+        } catch (BaseException e) {
+            if (e.getCause() instanceof JedisConnectionException) {
+                connectionLost = true;
+            }
+            throw e;
+        }
+        reconnectAttempts = 0;
+        return result;
+    }
+
+    private void reconnect(RedisManager redisManager) {
+        long delayMillis = reconnectDelayMillis(reconnectAttempts++);
+        log.error("Connection problem on redisConfigKey [{0}] with stream group [{1}], reconnecting in [{2}] ms", redisConfigKey,
+                redisStreamService.getGroup(), delayMillis);
+        // the broken connection is not returned to the pool for reuse, the next iteration borrows a new one
+        redisManager.closeConnection();
+        connectionLost = false;
+        try {
+            TimeUnit.MILLISECONDS.sleep(delayMillis);
+        } catch (InterruptedException e) {
+            log.warn("Interrupted reconnect wait.", e);
+            Thread.currentThread().interrupt();
         }
     }
 
+    /**
+     * Wait before the reconnection, doubled by the failed attempts in a row
+     *
+     * @param attempts
+     *            failed reconnection attempts in a row
+     * @return wait in milliseconds, at most 5 s
+     */
+    static long reconnectDelayMillis(int attempts) {
+        // 100 ms * 2^6 is above the max already
+        return Math.min(RECONNECT_BACKOFF_MAX_MILLIS, RECONNECT_BACKOFF_INITIAL_MILLIS << Math.min(attempts, 6));
+    }
+
+    /**
+     * Returns whether the pinned connection failed on an own stream call and it is re-established on the next iteration
+     *
+     * @return {@code true} if the connection is lost
+     */
+    boolean isConnectionLost() {
+        return connectionLost;
+    }
+
     private void cleanup(Instance<RedisManager> redisManagerInstance, RedisManager redisManager) {
+        if (laneExecutorService != null) {
+            // the lanes of the last batch are already finished, the reader waits for them
+            laneExecutorService.shutdown();
+            laneExecutorService = null;
+        }
         try {
             if (redisManager != null) {
                 // The connection needs to be released.
+                redisManager.closeConnection();
                 redisManagerInstance.destroy(redisManager);
             }
-            MDC.clear();
         } catch (Throwable e) {
             log.error(
                     MessageFormat.format(
@@ -202,6 +416,21 @@ public class RedisStreamConsumerExecutor implements IRedisStreamConsumerExecutor
         }
     }
 
+    /**
+     * Reads the next stream entries for processing, one iteration of the loop. By default it reads the new entries of the stream with
+     * {@link RedisStreamService#consume(String, int)}.
+     *
+     * @param count
+     *            maximum count of the returned entries
+     * @return stream entries in stream order, empty list if there are no entries to process
+     * @throws BaseException
+     *             exception on stream read
+     * @since 2.13.0
+     */
+    protected List<StreamEntry> read(int count) throws BaseException {
+        return redisStreamService.consume(consumerIdentifier, count);
+    }
+
     /**
      * It represents one iteration on one stream (even empty). If the process exists and runs successfully, it sends the ACK
      *
@@ -213,16 +442,560 @@ public class RedisStreamConsumerExecutor implements IRedisStreamConsumerExecutor
      *             Technical exception
      */
     protected void consumeStreamEntry(StreamEntry streamEntry, RedisManager redisManager) throws BaseException {
-        Optional<Map<String, Object>> result = executeOnStream(streamEntry, 1);
+        if (!claimIdempotency(List.of(streamEntry)).isEmpty()) {
+            skipDuplicates(List.of(streamEntry.getID()));
+            return;
+        }
+        Optional<Map<String, Object>> result;
+        try {
+            result = executeOnStream(streamEntry, 1);
+        } catch (BaseException | RuntimeException e) {
+            releaseIdempotency(List.of(streamEntry));
+            if (handleFailure(streamEntry, e, attempts.get())) {
+                return;
+            }
+            throw e;
+        }
 
+        if (isIdempotent()) {
+            ackProcessed(List.of(streamEntry));
+        } else if (streamGroupConfig.isManualAck()) {
+            ack(streamEntry.getID());
+        }
         if (!streamGroupConfig.isManualAck()) {
             return;
         }
-        // ack
-        ack(streamEntry.getID());
         afterAckInRequestScope(streamEntry, result.orElse(Collections.emptyMap()));
     }
 
+    /**
+     * Processes the stream entries read in batch mode. Every entry is processed in its own request scope with the retry logic of
+     * {@link #executeOnStream(StreamEntry, int)}, a failing entry does not affect the others, it is logged and left un-ACKed. The successfully
+     * processed entries are ACKed with one multi-ID XACK call at the end of the batch, or earlier if the processing takes longer than
+     * {@link StreamGroupConfig#getBatchMaxWaitMillis()}.
+     *
+     * @param streamEntries
+     *            Stream event elements in stream order
+     * @param redisManager
+     *            redis connection, operation manager object
+     * @throws BaseException
+     *             Technical exception on ACK
+     */
+    protected void consumeStreamEntries(List<StreamEntry> streamEntries, RedisManager redisManager) throws BaseException {
+        long maxWaitMillis = streamGroupConfig.getBatchMaxWaitMillis();
+        long ackDeadline = System.currentTimeMillis() + maxWaitMillis;
+        List<Entry<StreamEntry, Map<String, Object>>> processedEntries = new ArrayList<>(streamEntries.size());
+        Set<StreamEntryID> duplicates = claimIdempotency(streamEntries);
+        skipDuplicates(duplicates);
+        if (dispatchWorkers > 1) {
+            consumeStreamEntriesInLanes(streamEntries.stream().filter(e -> !duplicates.contains(e.getID())).toList());
+            return;
+        }
+        for (StreamEntry streamEntry : streamEntries) {
+            if (duplicates.contains(streamEntry.getID())) {
+                continue;
+            }
+            if (ConsumerLifeCycleManager.ENDLOOP) {
+                // the remaining entries stay in the pending list (or lost on NOACK), as in case of single read
+                log.info("Skipping remaining batch messages because of shut down event.");
+                break;
+            }
+            handleMDC(streamEntry);
+            try {
+                Optional<Map<String, Object>> result = executeOnStream(streamEntry, 1);
+                processedEntries.add(new SimpleImmutableEntry<>(streamEntry, result.orElse(Collections.emptyMap())));
+            } catch (Exception e) {
+                log.error(
+                        MessageFormat.format(
+                                "Exception on consume streamEntry [{0}] in batch of group [{1}]: [{2}]",
+                                streamEntry.getID(),
+                                redisStreamService.getGroup(),
+                                e.getLocalizedMessage()),
+                        e);
+                releaseIdempotency(List.of(streamEntry));
+                handleFailure(streamEntry, e, attempts.get());
+            }
+            if (System.currentTimeMillis() >= ackDeadline) {
+                ackBatch(processedEntries);
+                processedEntries.clear();
+                ackDeadline = System.currentTimeMillis() + maxWaitMillis;
+            }
+        }
+        ackBatch(processedEntries);
+    }
+
+    /**
+     * Processes the batch entries in parallel lanes (see {@link StreamGroupConfig#getDispatchWorkers()}). The entries are split into lanes by the
+     * hash of the dispatch key, so the entries with the same key are processed in stream order by one worker. The first lane runs on the reader
+     * thread, the others on the dedicated lane pool of the consumer (dispatch workers - 1 threads, not shared with the consumers and other
+     * executor service tasks), or on virtual threads, if the group runs on virtual threads. Redis is used only by the reader thread: after all
+     * lanes are finished, the failed entries are moved to the dead-letter stream and the processed entries are ACKed with one call.
+     * <p>
+     * The lanes are a barrier per batch: the next batch is read only after the slowest lane is finished, so a slow key delays the other keys of
+     * the next batch (not of the current one). This keeps the per key order across the batches and the ACK of the batch in one call without
+     * per key queues living between the reads. If the processing time of the keys differs a lot, a smaller batch size shortens the barrier.
+     * <p>
+     * If an entry fails and the pending entries are delivered again (delayed retry or {@link StreamGroupConfig#getReclaimIdleMillis()}), the
+     * later entries of its dispatch key in the batch are skipped: they are not ACKed, they stay in the pending list for the reclaimer. In case of
+     * delayed retry they are scheduled after the max backoff time, so not before the failed entry of their key.
+     *
+     * @param streamEntries
+     *            Stream event elements in stream order
+     * @throws BaseException
+     *             Technical exception on ACK
+     * @since 2.13.0
+     */
+    protected void consumeStreamEntriesInLanes(List<StreamEntry> streamEntries) throws BaseException {
+        List<Lane> lanes = splitToLanes(streamEntries);
+        List<Future<?>> futures = new ArrayList<>();
+        List<Thread> threads = new ArrayList<>();
+        for (Lane lane : lanes.subList(1, lanes.size())) {
+            if (isVirtualThreadDispatch()) {
+                // above the virtual thread concurrency limit the lane runs on the reader thread
+                VirtualThreadUtil.start(DISPATCH_THREAD_NAME_PREFIX + redisStreamService.getGroup(), lane).ifPresentOrElse(threads::add, lane);
+            } else {
+                futures.add(getLaneExecutorService().submit(lane));
+            }
+        }
+        lanes.get(0).run();
+        if (!awaitLanes(futures, threads)) {
+            return;
+        }
+
+        List<Entry<StreamEntry, Map<String, Object>>> processedEntries = new ArrayList<>(streamEntries.size());
+        List<FailedEntry> failedEntries = new ArrayList<>();
+        List<StreamEntry> skippedEntries = new ArrayList<>();
+        for (Lane lane : lanes) {
+            processedEntries.addAll(lane.processedEntries);
+            failedEntries.addAll(lane.failedEntries);
+            skippedEntries.addAll(lane.skippedEntries);
+        }
+        List<StreamEntry> unprocessedEntries = new ArrayList<>(skippedEntries);
+        failedEntries.forEach(f -> unprocessedEntries.add(f.streamEntry));
+        releaseIdempotency(unprocessedEntries);
+        for (FailedEntry failedEntry : failedEntries) {
+            handleFailure(failedEntry.streamEntry, failedEntry.exception, failedEntry.attempts);
+        }
+        retrySkipped(skippedEntries);
+        ackBatch(processedEntries);
+    }
+
+    private void retrySkipped(List<StreamEntry> skippedEntries) {
+        if (skippedEntries.isEmpty()) {
+            return;
+        }
+        log.info("[{0}] entries of group [{1}] are left in the pending list after a failed entry of their dispatch key", skippedEntries.size(),
+                redisStreamService.getGroup());
+        if (!delayedRetry) {
+            return;
+        }
+        long dueTime = System.currentTimeMillis() + retryBackoff.maxDelayMillis();
+        for (StreamEntry streamEntry : skippedEntries) {
+            try {
+                redisStreamService.scheduleRetryInCurrentConnection(streamEntry.getID(), dueTime);
+            } catch (Exception e) {
+                // the entry stays in the pending list, only the reclaim by idle time (reclaim.idleMillis) can deliver it again
+                log.error(
+                        MessageFormat.format(
+                                "Exception on scheduling skipped streamEntry [{0}] of group [{1}]: [{2}]",
+                                streamEntry.getID(),
+                                redisStreamService.getGroup(),
+                                e.getLocalizedMessage()),
+                        e);
+            }
+        }
+    }
+
+    private List<Lane> splitToLanes(List<StreamEntry> streamEntries) {
+        List<Lane> lanes = new ArrayList<>(dispatchWorkers);
+        for (List<StreamEntry> laneEntries : splitToLanes(streamEntries, dispatchKeyField, dispatchWorkers)) {
+            Lane lane = new Lane();
+            lane.streamEntries.addAll(laneEntries);
+            lanes.add(lane);
+        }
+        return lanes;
+    }
+
+    /**
+     * Splits the entries into lanes by the hash of the dispatch key, the entries with the same key get into the same lane in stream order
+     *
+     * @param streamEntries
+     *            stream entries in stream order
+     * @param keyField
+     *            field of the dispatch key, entries without it are distributed by their ID
+     * @param workers
+     *            count of the lanes
+     * @return entries of the lanes, always {@code workers} lanes, some can be empty
+     */
+    static List<List<StreamEntry>> splitToLanes(List<StreamEntry> streamEntries, String keyField, int workers) {
+        List<List<StreamEntry>> lanes = new ArrayList<>(workers);
+        for (int i = 0; i < workers; i++) {
+            lanes.add(new ArrayList<>());
+        }
+        for (StreamEntry streamEntry : streamEntries) {
+            String key = streamEntry.getFields().get(keyField);
+            // entries without key have no ordering
+            int hash = key == null ? streamEntry.getID().hashCode() : key.hashCode();
+            lanes.get(Math.floorMod(hash, workers)).add(streamEntry);
+        }
+        return lanes;
+    }
+
+    private ExecutorService getLaneExecutorService() {
+        if (laneExecutorService == null) {
+            int laneThreads = dispatchWorkers - 1;
+            ThreadFactory threadFactory = managedThreadFactory != null ? managedThreadFactory : Executors.defaultThreadFactory();
+            // the reader waits for the lanes of the batch, so there are never more tasks than threads; a rejected lane runs on the reader thread
+            laneExecutorService = new ThreadPoolExecutor(laneThreads, laneThreads, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(laneThreads),
+                    threadFactory, new ThreadPoolExecutor.CallerRunsPolicy());
+        }
+        return laneExecutorService;
+    }
+
+    private boolean awaitLanes(List<Future<?>> futures, List<Thread> threads) {
+        try {
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    // the entries processed before the failure are still valid
+                    log.error(
+                            MessageFormat.format("Exception in dispatch lane of group [{0}]: [{1}]", redisStreamService.getGroup(), e.getLocalizedMessage()),
+                            e);
+                }
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            return true;
+        } catch (InterruptedException e) {
+            log.warn("Interrupted waiting for dispatch lanes, entries are left un-ACKed.", e);
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private boolean isVirtualThreadDispatch() {
+        return streamGroupConfig.isVirtualThreads() && VirtualThreadUtil.isSupported();
+    }
+
+    /**
+     * Entries of the batch with the same dispatch key, processed in order by one worker
+     */
+    private class Lane implements Runnable {
+
+        private final List<StreamEntry> streamEntries = new ArrayList<>();
+
+        private final List<Entry<StreamEntry, Map<String, Object>>> processedEntries = new ArrayList<>();
+
+        private final List<FailedEntry> failedEntries = new ArrayList<>();
+
+        private final List<StreamEntry> skippedEntries = new ArrayList<>();
+
+        private final Set<String> failedKeys = new HashSet<>();
+
+        @Override
+        public void run() {
+            try {
+                for (StreamEntry streamEntry : streamEntries) {
+                    if (ConsumerLifeCycleManager.ENDLOOP) {
+                        // the remaining entries stay in the pending list (or lost on NOACK), as in case of single read
+                        log.info("Skipping remaining lane messages because of shut down event.");
+                        break;
+                    }
+                    String key = streamEntry.getFields().get(dispatchKeyField);
+                    if (key != null && failedKeys.contains(key)) {
+                        // the entries of the key are processed in stream order, not before the failed one
+                        skippedEntries.add(streamEntry);
+                        continue;
+                    }
+                    handleMDC(streamEntry);
+                    try {
+                        Optional<Map<String, Object>> result = executeOnStream(streamEntry, 1);
+                        processedEntries.add(new SimpleImmutableEntry<>(streamEntry, result.orElse(Collections.emptyMap())));
+                    } catch (Exception e) {
+                        log.error(
+                                MessageFormat.format(
+                                        "Exception on consume streamEntry [{0}] in lane of group [{1}]: [{2}]",
+                                        streamEntry.getID(),
+                                        redisStreamService.getGroup(),
+                                        e.getLocalizedMessage()),
+                                e);
+                        failedEntries.add(new FailedEntry(streamEntry, e, attempts.get()));
+                        if (key != null && skipFailedKeys) {
+                            failedKeys.add(key);
+                        }
+                    } finally {
+                        MDC.clear();
+                    }
+                }
+            } finally {
+                attempts.remove();
+            }
+        }
+    }
+
+    /**
+     * Failed entry of a lane, moved to the dead-letter stream by the reader thread
+     */
+    private static class FailedEntry {
+
+        private final StreamEntry streamEntry;
+
+        private final Exception exception;
+
+        private final int attempts;
+
+        FailedEntry(StreamEntry streamEntry, Exception exception, int attempts) {
+            this.streamEntry = streamEntry;
+            this.exception = exception;
+            this.attempts = attempts;
+        }
+    }
+
+    /**
+     * ACK the successfully processed batch entries with one call, then runs the {@code IRedisStreamPipeConsumer#afterAck(StreamEntry, Map)} for
+     * every entry
+     *
+     * @param processedEntries
+     *            processed stream entries with the result of processing
+     * @throws BaseException
+     *             Technical exception on ACK
+     */
+    protected void ackBatch(List<Entry<StreamEntry, Map<String, Object>>> processedEntries) throws BaseException {
+        if (processedEntries.isEmpty()) {
+            return;
+        }
+        if (isIdempotent()) {
+            ackProcessed(processedEntries.stream().map(Entry::getKey).toList());
+        }
+        if (!streamGroupConfig.isManualAck()) {
+            return;
+        }
+        if (!isIdempotent()) {
+            List<StreamEntryID> ids = processedEntries.stream().map(Entry::getKey).map(StreamEntry::getID).toList();
+            onStreamConnection(() -> redisStreamService.ackInCurrentConnection(ids));
+            redisStreamMetricsHandler.incrementAck(redisStreamService.streamKey(), redisStreamService.getGroup(), processedEntries.size());
+        }
+        for (Entry<StreamEntry, Map<String, Object>> processedEntry : processedEntries) {
+            try {
+                afterAckInRequestScope(processedEntry.getKey(), processedEntry.getValue());
+            } catch (Exception e) {
+                log.error(
+                        MessageFormat.format(
+                                "Exception on afterAck of streamEntry [{0}]: [{1}]",
+                                processedEntry.getKey().getID(),
+                                e.getLocalizedMessage()),
+                        e);
+            }
+        }
+    }
+
+    /**
+     * Handles a failed entry after its processing attempts of this delivery. Without delayed retry the entry is moved to the dead-letter stream if
+     * it is configured. In case of delayed retry:
+     * <ul>
+     * <li>if the entry has deliveries left ({@link #getDeliveryCount(StreamEntry)} &lt; retry count), its retry is scheduled by the backoff time
+     * (see {@link RedisStreamService#scheduleRetryInCurrentConnection(StreamEntryID, long)}), it stays in the pending list until the reclaimer
+     * claims it</li>
+     * <li>otherwise it is moved to the dead-letter stream, or ACKed if there is no dead-letter group, so exhausted entries do not stay in the
+     * pending list</li>
+     * </ul>
+     *
+     * @param streamEntry
+     *            failed stream entry
+     * @param exception
+     *            failure cause
+     * @param processAttempts
+     *            processing attempts of the entry in this delivery
+     * @return {@code true} if the entry is finished (dead-lettered or ACKed), {@code false} if it stays in the pending list
+     * @since 2.13.0
+     */
+    protected boolean handleFailure(StreamEntry streamEntry, Exception exception, int processAttempts) {
+        if (!isDelayedRetry()) {
+            return deadLetter(streamEntry, exception, processAttempts);
+        }
+        long deliveryCount = getDeliveryCount(streamEntry);
+        try {
+            if (deliveryCount < retryCount) {
+                long dueTime = System.currentTimeMillis() + retryBackoff.delayMillis(streamEntry.getID(), deliveryCount);
+                redisStreamService.scheduleRetryInCurrentConnection(streamEntry.getID(), dueTime);
+                return false;
+            }
+            if (deadLetterGroup != null) {
+                return deadLetter(streamEntry, exception, processAttempts);
+            }
+            log.error(
+                    "Stream entry [{0}] of group [{1}] failed after [{2}] deliveries, no dead-letter group is configured, it is ACKed and dropped",
+                    streamEntry.getID(),
+                    redisStreamService.getGroup(),
+                    deliveryCount);
+            ack(streamEntry.getID());
+            return true;
+        } catch (Exception e) {
+            // the entry stays in the pending list, only the reclaim by idle time (reclaim.idleMillis) can deliver it again
+            log.error(
+                    MessageFormat.format(
+                            "Exception on handling failed streamEntry [{0}] of group [{1}]: [{2}]",
+                            streamEntry.getID(),
+                            redisStreamService.getGroup(),
+                            e.getLocalizedMessage()),
+                    e);
+            return false;
+        }
+    }
+
+    /**
+     * Moves the failed entry to the dead-letter stream ({@link StreamGroupConfig#getDeadLetterGroup()}) with XADD and ACKs it in the same
+     * pipeline, if all processing attempts are exhausted. In case of delayed retry the entry is moved only after the last delivery, before that it
+     * stays in the pending list for the next retry.
+     *
+     * @param streamEntry
+     *            failed stream entry
+     * @param exception
+     *            failure cause
+     * @return {@code true} if the entry is moved to the dead-letter stream
+     * @since 2.13.0
+     */
+    protected boolean deadLetter(StreamEntry streamEntry, Exception exception) {
+        return deadLetter(streamEntry, exception, attempts.get());
+    }
+
+    /**
+     * Moves the failed entry to the dead-letter stream, see {@link #deadLetter(StreamEntry, Exception)}
+     *
+     * @param streamEntry
+     *            failed stream entry
+     * @param exception
+     *            failure cause
+     * @param processAttempts
+     *            processing attempts of the entry in this delivery
+     * @return {@code true} if the entry is moved to the dead-letter stream
+     * @since 2.13.0
+     */
+    protected boolean deadLetter(StreamEntry streamEntry, Exception exception, int processAttempts) {
+        if (deadLetterGroup == null) {
+            return false;
+        }
+        int entryAttempts = isDelayedRetry() ? (int) getDeliveryCount(streamEntry) : processAttempts;
+        if (isDelayedRetry() && entryAttempts < retryCount) {
+            return false;
+        }
+        try {
+            redisStreamService.deadLetterInCurrentConnection(streamEntry, exception, entryAttempts);
+            return true;
+        } catch (Exception e) {
+            log.error(
+                    MessageFormat.format(
+                            "Exception on moving streamEntry [{0}] to dead-letter group [{1}]: [{2}]",
+                            streamEntry.getID(),
+                            deadLetterGroup,
+                            e.getLocalizedMessage()),
+                    e);
+            return false;
+        }
+    }
+
+    /**
+     * Returns how many times the stream entry was delivered to consumers, including the current delivery. The entries read by
+     * {@link #read(int)} are delivered first.
+     *
+     * @param streamEntry
+     *            stream entry under processing
+     * @return delivery count
+     * @since 2.13.0
+     */
+    protected long getDeliveryCount(StreamEntry streamEntry) {
+        return 1;
+    }
+
+    /**
+     * Returns whether the consumer skips the already processed entries, see {@link StreamGroupConfig#getIdempotencyTtlMillis()}
+     *
+     * @return {@code true} if idempotency check is enabled
+     * @since 2.13.0
+     */
+    protected boolean isIdempotent() {
+        return idempotencyTtl != null;
+    }
+
+    /**
+     * Claims the idempotency keys of the entries before processing (see
+     * {@link RedisStreamService#claimIdempotencyInCurrentConnection(Collection, Duration)}), so the entries sharing an idempotency key are not
+     * processed concurrently. Only the entries which can be duplicates are claimed (with one pipelined call): the entries with idempotency key,
+     * and the redelivered entries ({@link #getDeliveryCount(StreamEntry)} &gt; 1). An entry without idempotency key on its first delivery is new
+     * for sure, it is not claimed.
+     *
+     * @param streamEntries
+     *            read stream entries
+     * @return IDs of the entries to skip (already processed, or claimed by other entry), empty if idempotency check is disabled
+     * @throws BaseException
+     *             Technical exception
+     * @since 2.13.0
+     */
+    protected Set<StreamEntryID> claimIdempotency(List<StreamEntry> streamEntries) throws BaseException {
+        if (!isIdempotent()) {
+            return Set.of();
+        }
+        return redisStreamService.claimIdempotencyInCurrentConnection(streamEntries.stream().filter(this::isDuplicateCandidate).toList(),
+                idempotencyTtl);
+    }
+
+    /**
+     * Releases the idempotency claim of the failed entries (see {@link #claimIdempotency(List)}), so their next delivery can be processed. On
+     * release error the claim expires by the idempotency ttl, until that the next delivery of the same entry takes over its own claim.
+     *
+     * @param streamEntries
+     *            failed stream entries
+     * @since 2.13.0
+     */
+    protected void releaseIdempotency(List<StreamEntry> streamEntries) {
+        if (!isIdempotent()) {
+            return;
+        }
+        List<StreamEntry> claimed = streamEntries.stream().filter(this::isDuplicateCandidate).toList();
+        try {
+            redisStreamService.releaseIdempotencyInCurrentConnection(claimed);
+        } catch (Exception e) {
+            log.error(
+                    MessageFormat.format(
+                            "Exception on releasing idempotency claim of stream entries of group [{0}]: [{1}]",
+                            redisStreamService.getGroup(),
+                            e.getLocalizedMessage()),
+                    e);
+        }
+    }
+
+    private boolean isDuplicateCandidate(StreamEntry streamEntry) {
+        return streamEntry.getFields().containsKey(IRedisStreamConstant.Common.DATA_KEY_IDEMPOTENCY_KEY) || getDeliveryCount(streamEntry) > 1;
+    }
+
+    private void skipDuplicates(Collection<StreamEntryID> duplicates) throws BaseException {
+        if (duplicates.isEmpty()) {
+            return;
+        }
+        log.info("Skipping already processed or claimed stream entries [{0}] of group [{1}]", duplicates, redisStreamService.getGroup());
+        if (streamGroupConfig.isManualAck()) {
+            onStreamConnection(() -> redisStreamService.ackInCurrentConnection(duplicates));
+        }
+    }
+
+    /**
+     * Records the processed state of the entries and ACKs them (if {@link StreamGroupConfig#isManualAck()}) in one pipeline
+     *
+     * @param streamEntries
+     *            successfully processed stream entries
+     * @throws BaseException
+     *             Technical exception
+     * @since 2.13.0
+     */
+    protected void ackProcessed(List<StreamEntry> streamEntries) throws BaseException {
+        onStreamConnection(() -> redisStreamService.ackProcessedInCurrentConnection(streamEntries, idempotencyTtl));
+        if (streamGroupConfig.isManualAck()) {
+            redisStreamMetricsHandler.incrementAck(redisStreamService.streamKey(), redisStreamService.getGroup(), streamEntries.size());
+        }
+    }
+
     /**
      * Stream entry ACK
      *
@@ -232,12 +1005,35 @@ public class RedisStreamConsumerExecutor implements IRedisStreamConsumerExecutor
      *             Technical exception
      */
     protected void ack(StreamEntryID streamEntryID) throws BaseException {
-        redisStreamService.ackInCurrentConnection(streamEntryID);
+        onStreamConnection(() -> redisStreamService.ackInCurrentConnection(streamEntryID));
+        redisStreamMetricsHandler.incrementAck(redisStreamService.streamKey(), redisStreamService.getGroup(), 1);
+    }
+
+    /**
+     * Samples the consumer group state (XINFO GROUPS lag, entries-read, pending) for the metrics, at most once per
+     * {@link StreamGroupConfig#getMetricsSampleIntervalMillis()} for the stream group, whatever the thread count is. Sampling errors are only
+     * logged, they do not affect the consumption.
+     */
+    protected void sampleGroupInfo() {
+        String stream = redisStreamService.streamKey();
+        String group = redisStreamService.getGroup();
+        StreamGroupInfoSample sample = StreamGroupInfoSample.of(stream, group,
+                created -> redisStreamMetricsHandler.addGroupInfoMetric(stream, group, created::getLag, created::getPending, created::getEntriesRead));
+        if (!sample.tryStartSample(metricsSampleIntervalMillis)) {
+            return;
+        }
+        try {
+            redisStreamService.groupInfoInCurrentConnection().ifPresent(sample::update);
+        } catch (Exception e) {
+            log.warn("Could not sample consumer group info of stream [{0}], group [{1}]: [{2}]", stream, group, e.getLocalizedMessage());
+        }
     }
 
     /**
      * Process execution with retry count. If retry {@code RedisStreamConsumer#retryCount()} &gt; count then on processing exception trying run again
-     * and again
+     * and again. In case of delayed retry (see {@link #isDelayedRetry()}) the exception is thrown immediately, the entry stays un-ACKed in the
+     * pending list, {@link #handleFailure(StreamEntry, Exception, int)} schedules its retry and {@link RedisStreamReclaimExecutor} delivers it
+     * again after the backoff time.
      *
      * @param streamEntry
      *            Redis stream input entry
@@ -248,12 +1044,21 @@ public class RedisStreamConsumerExecutor implements IRedisStreamConsumerExecutor
      *             exception is error
      */
     protected Optional<Map<String, Object>> executeOnStream(StreamEntry streamEntry, int counter) throws BaseException {
+        attempts.set(counter);
+        if (counter > 1 || getDeliveryCount(streamEntry) > 1) {
+            redisStreamMetricsHandler.incrementRetry(redisStreamService.streamKey(), redisStreamService.getGroup());
+        }
         try {
-            return onStreamInRequestScope(streamEntry);
+            return onStreamWithMetrics(streamEntry);
         } catch (BaseException e) {
-            RedisStreamConsumer redisStreamConsumerAnnotation = AnnotationUtil.getAnnotation(consumerBean.getBeanClass(), RedisStreamConsumer.class);
-            streamGroupConfig.setConfigKey(redisStreamConsumerAnnotation.group());
-            int retryCount = streamGroupConfig.getRetryCount().orElse(redisStreamConsumerAnnotation.retryCount());
+            if (isDelayedRetry()) {
+                log.info(
+                        "Exception occured on running class [{0}] on entry [{1}], left in pending list for delayed retry: [{2}]",
+                        consumerBean.getBeanClass(),
+                        streamEntry.getID(),
+                        e.getLocalizedMessage());
+                throw e;
+            }
             if (counter < retryCount) {
                 String msg = MessageFormat.format(
                         "Exception occured on running class [{0}], trying again [{1}]/[{2}]",
@@ -278,6 +1083,34 @@ public class RedisStreamConsumerExecutor implements IRedisStreamConsumerExecutor
         }
     }
 
+    private Optional<Map<String, Object>> onStreamWithMetrics(StreamEntry streamEntry) throws BaseException {
+        long start = System.nanoTime();
+        try {
+            return onStreamInRequestScope(streamEntry);
+        } catch (BaseException | RuntimeException e) {
+            redisStreamMetricsHandler.incrementFailure(redisStreamService.streamKey(), redisStreamService.getGroup());
+            throw e;
+        } finally {
+            redisStreamMetricsHandler.recordProcessingTime(redisStreamService.streamKey(), redisStreamService.getGroup(),
+                    Duration.ofNanos(System.nanoTime() - start));
+        }
+    }
+
+    /**
+     * Decodes the message of the stream entry if it was encoded by a payload codec on the producer side (see
+     * {@link StreamGroupConfig#getProducerCodec()}). Plain messages are returned unchanged.
+     *
+     * @param streamEntry
+     *            read stream entry
+     * @return stream entry with decoded message
+     * @throws BaseException
+     *             if the codec is not found or decoding failed
+     * @since 2.13.0
+     */
+    protected StreamEntry decode(StreamEntry streamEntry) throws BaseException {
+        return payloadCodecService.decode(streamEntry);
+    }
+
     /**
      * Process execution wrapper. Running process in self started request scope
      *
@@ -291,14 +1124,15 @@ public class RedisStreamConsumerExecutor implements IRedisStreamConsumerExecutor
         // get reference for the consumerBean
         Object consumer = beanManager.getReference(consumerBean, consumerBean.getBeanClass(), beanManager.createCreationalContext(consumerBean));
 
+        StreamEntry decodedStreamEntry = decode(streamEntry);
         Map<String, Object> requestScopeStore = null;
         try {
             requestScopeStore = new ConcurrentHashMap<>();
             startRequestScope(requestScopeStore);
             if (consumer instanceof IRedisStreamConsumer) {
-                ((IRedisStreamConsumer) consumer).onStream(streamEntry);
+                ((IRedisStreamConsumer) consumer).onStream(decodedStreamEntry);
             } else if (consumer instanceof IRedisStreamPipeConsumer) {
-                Map<String, Object> result = ((IRedisStreamPipeConsumer) consumer).onStream(streamEntry);
+                Map<String, Object> result = ((IRedisStreamPipeConsumer) consumer).onStream(decodedStreamEntry);
                 return Optional.of(result);
             }
             return Optional.empty();
@@ -329,7 +1163,7 @@ public class RedisStreamConsumerExecutor implements IRedisStreamConsumerExecutor
             requestScopeStore = new ConcurrentHashMap<>();
             startRequestScope(requestScopeStore);
             if (consumer instanceof IRedisStreamPipeConsumer) {
-                ((IRedisStreamPipeConsumer) consumer).afterAck(streamEntry, onStreamResult);
+                ((IRedisStreamPipeConsumer) consumer).afterAck(decode(streamEntry), onStreamResult);
             }
         } finally {
             endRequestScope(requestScopeStore);
@@ -414,6 +1248,47 @@ public class RedisStreamConsumerExecutor implements IRedisStreamConsumerExecutor
         return consumerBean;
     }
 
+    /**
+     * Returns the backoff calculation of the delayed retry
+     *
+     * @return the backoff calculation, {@code null} if delayed retry is not active
+     * @since 2.13.0
+     */
+    protected RedisStreamRetryBackoff getRetryBackoff() {
+        return retryBackoff;
+    }
+
+    /**
+     * Returns the max processing attempts of a stream entry, {@link StreamGroupConfig#getRetryCount()} or {@link RedisStreamConsumer#retryCount()}
+     *
+     * @return max processing attempts
+     * @since 2.13.0
+     */
+    protected int getRetryCount() {
+        return retryCount;
+    }
+
+    /**
+     * Returns whether the failed entries are retried with delay instead of immediately. Delayed retry is active if
+     * {@link StreamGroupConfig#getRetryBackoffInitialMillis()} is set and {@link StreamGroupConfig#isManualAck()} is true.
+     *
+     * @return {@code true} if delayed retry is active
+     * @since 2.13.0
+     */
+    protected boolean isDelayedRetry() {
+        return delayedRetry;
+    }
+
+    /**
+     * Returns the stream service of the consumer
+     *
+     * @return the stream service, group is already set
+     * @since 2.13.0
+     */
+    protected RedisStreamService getRedisStreamService() {
+        return redisStreamService;
+    }
+
     /**
      * returns the stream group config
      * 
@@ -0,0 +1,250 @@
+/*-
+ * #%L
+ * Coffee
+ * %%
+ * Copyright (C) 2020 - 2026 i-Cell Mobilsoft Zrt.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package hu.icellmobilsoft.coffee.module.redisstream.consumer;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import jakarta.enterprise.context.Dependent;
+import jakarta.enterprise.inject.spi.Bean;
+import jakarta.inject.Inject;
+
+import hu.icellmobilsoft.coffee.cdi.metric.spi.IRedisStreamMetricsHandler;
+import hu.icellmobilsoft.coffee.module.redisstream.bootstrap.ConsumerLifeCycleManager;
+import hu.icellmobilsoft.coffee.module.redisstream.config.IRedisStreamConstant;
+import hu.icellmobilsoft.coffee.module.redisstream.config.StreamGroupConfig;
+import hu.icellmobilsoft.coffee.se.api.exception.BaseException;
+import hu.icellmobilsoft.coffee.se.logging.Logger;
+import hu.icellmobilsoft.coffee.se.logging.mdc.MDC;
+import redis.clients.jedis.StreamEntryID;
+import redis.clients.jedis.resps.StreamEntry;
+
+/**
+ * Redis stream reclaimer executor. Instead of reading the new entries of the stream, it periodically takes over (XAUTOCLAIM) the pending
+ * entries idle longer than {@link StreamGroupConfig#getReclaimIdleMillis()}, for example the entries of a crashed consumer, and processes them
+ * on the same way as {@link RedisStreamConsumerExecutor}. The delivery count of the processed entry is available in MDC with
+ * {@value IRedisStreamConstant.Log#DELIVERY_COUNT} key.
+ * <p>
+ * In case of delayed retry ({@link StreamGroupConfig#getRetryBackoffInitialMillis()}) the failed entries stay in the pending list, and the
+ * consumer schedules their retry (see {@link RedisStreamConsumerExecutor#handleFailure(StreamEntry, Exception, int)}). The reclaimer takes over
+ * (XCLAIM) only the scheduled entries whose retry is due, so the entries under processing are never claimed by the backoff. The idle entries of
+ * crashed consumers are claimed only if {@link StreamGroupConfig#getReclaimIdleMillis()} is set, after the longer of the reclaim idle time and
+ * the max backoff time.
+ * <p>
+ * If the group has more partitions ({@link StreamGroupConfig#getStreamPartitions()}), the one reclaimer of the group scans the pending lists of
+ * the partitions one after the other, and waits the interval after every round.
+ *
+ * @author agent
+ * @since 2.13.0
+ */
+@Dependent
+public class RedisStreamReclaimExecutor extends RedisStreamConsumerExecutor {
+
+    private static final Map<String, AtomicLong> RECLAIMED_COUNTERS = new ConcurrentHashMap<>();
+
+    private static final long WAIT_STEP_MILLIS = 1000;
+
+    @Inject
+    private Logger log;
+
+    @Inject
+    private IRedisStreamMetricsHandler redisStreamMetricsHandler;
+
+    private Duration minIdle;
+
+    private long intervalMillis;
+
+    private boolean idleReclaim;
+
+    private boolean retryBatchFull;
+
+    private AtomicLong reclaimedCounter;
+
+    private int partitions;
+
+    private int partition;
+
+    private StreamEntryID cursor = new StreamEntryID();
+
+    private Map<StreamEntryID, Long> deliveryCounts = Map.of();
+
+    /**
+     * Default constructor, constructs a new object.
+     */
+    public RedisStreamReclaimExecutor() {
+        super();
+    }
+
+    @Override
+    public void init(String redisConfigKey, String group, Bean<? super IRedisStreamBaseConsumer> consumerBean) {
+        super.init(redisConfigKey, group, consumerBean);
+        idleReclaim = getStreamGroupConfig().getReclaimIdleMillis().isPresent();
+        minIdle = Duration.ofMillis(getStreamGroupConfig().getReclaimIdleMillis().orElse(Long.MAX_VALUE));
+        intervalMillis = getStreamGroupConfig().getReclaimIntervalMillis();
+        if (isDelayedRetry()) {
+            // an entry under retry backoff is not idle, it is claimed by its schedule
+            minIdle = Duration.ofMillis(Math.max(minIdle.toMillis(), getRetryBackoff().maxDelayMillis()));
+            // retries must not wait for the reclaim interval
+            intervalMillis = Math.min(intervalMillis, getStreamGroupConfig().getRetryBackoffInitialMillis().orElseThrow());
+        }
+        partitions = getStreamGroupConfig().getStreamPartitions();
+        // the first finished scan steps to the first partition
+        partition = partitions - 1;
+        if (partitions > 1) {
+            super.setPartition(partition);
+        }
+        reclaimedCounter = RECLAIMED_COUNTERS.computeIfAbsent(group, k -> new AtomicLong());
+        redisStreamMetricsHandler.addReclaimedMetric(group, reclaimedCounter::get);
+    }
+
+    /**
+     * The reclaimer is not bound to one partition, it rotates over all partitions of the group
+     */
+    @Override
+    public void setPartition(int partition) {
+        // partitions are rotated in read
+    }
+
+    /**
+     * Claims the due retries (in case of delayed retry) and the idle pending entries. If the previous call scanned the whole pending list and
+     * claimed all due retries, steps to the next partition, and waits {@link StreamGroupConfig#getReclaimIntervalMillis()} before the next round.
+     */
+    @Override
+    protected List<StreamEntry> read(int count) throws BaseException {
+        if (!retryBatchFull && isScanFinished() && nextPartition() == 0) {
+            waitInterval();
+            if (ConsumerLifeCycleManager.ENDLOOP) {
+                return List.of();
+            }
+        }
+        List<StreamEntry> entries = List.of();
+        if (isDelayedRetry()) {
+            entries = claimRetryDue(count);
+            if (!entries.isEmpty()) {
+                logReclaimed(entries, "retry due");
+            }
+        }
+        if (entries.isEmpty() && idleReclaim) {
+            entries = autoClaim(count);
+            if (!entries.isEmpty()) {
+                logReclaimed(entries, "idle over " + minIdle.toMillis() + " ms");
+            }
+        }
+        if (entries.isEmpty()) {
+            deliveryCounts = Map.of();
+            return entries;
+        }
+        deliveryCounts = getRedisStreamService().deliveryCountsInCurrentConnection(getConsumerIdentifier(), entries);
+        reclaimedCounter.addAndGet(entries.size());
+        return entries;
+    }
+
+    private void logReclaimed(List<StreamEntry> entries, String reason) {
+        log.info("Reclaimed [{0}] pending entries ({1}) in stream [{2}]", entries.size(), reason, getRedisStreamService().streamKey());
+    }
+
+    private List<StreamEntry> autoClaim(int count) throws BaseException {
+        Entry<StreamEntryID, List<StreamEntry>> claimed = getRedisStreamService().autoClaimInCurrentConnection(getConsumerIdentifier(), minIdle,
+                cursor, count);
+        cursor = claimed.getKey();
+        if (isDelayedRetry() && !claimed.getValue().isEmpty()) {
+            // the schedule of a crashed delivery is outdated, the failure of this delivery schedules it again
+            getRedisStreamService().cancelRetriesInCurrentConnection(claimed.getValue().stream().map(StreamEntry::getID).toList());
+        }
+        return claimed.getValue();
+    }
+
+    private List<StreamEntry> claimRetryDue(int count) throws BaseException {
+        List<StreamEntryID> dueIds = getRedisStreamService().takeDueRetriesInCurrentConnection(System.currentTimeMillis(), count);
+        retryBatchFull = dueIds.size() >= count;
+        if (dueIds.isEmpty()) {
+            return List.of();
+        }
+        // the idle time of a scheduled entry is at least its backoff time, entries delivered again meanwhile (idle reset) are not claimed
+        return getRedisStreamService().claimInCurrentConnection(getConsumerIdentifier(), Duration.ofMillis(getRetryBackoff().minDelayMillis()),
+                dueIds);
+    }
+
+    @Override
+    protected void handleMDC(StreamEntry streamEntry) {
+        super.handleMDC(streamEntry);
+        long deliveryCount = getDeliveryCount(streamEntry);
+        MDC.put(IRedisStreamConstant.Log.DELIVERY_COUNT, String.valueOf(deliveryCount));
+        if (isDelayedRetry() && deliveryCount > 0) {
+            // previous attempts, incremented by the consumer
+            MDC.put(IRedisStreamConstant.Log.RETRY_COUNTER, String.valueOf(deliveryCount - 1));
+        }
+    }
+
+    /**
+     * Returns how many times the reclaimed entry was delivered to consumers, including the current delivery
+     *
+     * @param streamEntry
+     *            reclaimed entry
+     * @return delivery count, 0 if unknown
+     */
+    @Override
+    protected long getDeliveryCount(StreamEntry streamEntry) {
+        return deliveryCounts.getOrDefault(streamEntry.getID(), 0L);
+    }
+
+    /**
+     * Returns the count of the reclaimed entries of the stream group since the start of the application
+     *
+     * @param group
+     *            stream group
+     * @return reclaimed entries count
+     */
+    public static long getReclaimedCount(String group) {
+        AtomicLong counter = RECLAIMED_COUNTERS.get(group);
+        return counter == null ? 0 : counter.get();
+    }
+
+    private int nextPartition() {
+        if (partitions <= 1) {
+            return 0;
+        }
+        partition = (partition + 1) % partitions;
+        super.setPartition(partition);
+        return partition;
+    }
+
+    private boolean isScanFinished() {
+        return cursor == null || (cursor.getTime() == 0 && cursor.getSequence() == 0);
+    }
+
+    private void waitInterval() {
+        long deadline = System.currentTimeMillis() + intervalMillis;
+        try {
+            // sleeping in steps, so the shut down is not delayed by the interval
+            while (!ConsumerLifeCycleManager.ENDLOOP && System.currentTimeMillis() < deadline) {
+                TimeUnit.MILLISECONDS.sleep(Math.min(WAIT_STEP_MILLIS, Math.max(1, deadline - System.currentTimeMillis())));
+            }
+        } catch (InterruptedException e) {
+            log.warn("Interrupted reclaim wait.", e);
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,99 @@
+/*-
+ * #%L
+ * Coffee
+ * %%
+ * Copyright (C) 2020 - 2026 i-Cell Mobilsoft Zrt.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package hu.icellmobilsoft.coffee.module.redisstream.consumer;
+
+import java.util.SplittableRandom;
+
+import hu.icellmobilsoft.coffee.module.redisstream.config.StreamGroupConfig;
+import redis.clients.jedis.StreamEntryID;
+
+/**
+ * Backoff time calculation of the delayed retry (see {@link StreamGroupConfig#getRetryBackoffInitialMillis()}):
+ * {@code initialMillis * multiplier^(deliveredTimes-1)}, limited by maxMillis, and modified by +/- jitter. The jitter is stable for the entry and
+ * the delivery count, so the retry of an entry is due at one point in time.
+ *
+ * @author agent
+ * @since 2.13.0
+ */
+public final class RedisStreamRetryBackoff {
+
+    private final long initialMillis;
+
+    private final double multiplier;
+
+    private final long maxMillis;
+
+    private final double jitter;
+
+    /**
+     * Creates the backoff calculation
+     *
+     * @param initialMillis
+     *            backoff before the first retry
+     * @param multiplier
+     *            growth factor between the attempts
+     * @param maxMillis
+     *            maximum backoff, without jitter
+     * @param jitter
+     *            random +/- ratio, limited between 0 and 1
+     */
+    public RedisStreamRetryBackoff(long initialMillis, double multiplier, long maxMillis, double jitter) {
+        this.initialMillis = initialMillis;
+        this.multiplier = multiplier;
+        this.maxMillis = maxMillis;
+        this.jitter = Math.min(1, Math.max(0, jitter));
+    }
+
+    /**
+     * Calculates the backoff time of the next delayed retry
+     *
+     * @param streamEntryID
+     *            failed entry id
+     * @param deliveredTimes
+     *            how many times the entry was delivered already
+     * @return backoff time in millis
+     */
+    public long delayMillis(StreamEntryID streamEntryID, long deliveredTimes) {
+        double delay = Math.min(maxMillis, initialMillis * Math.pow(multiplier, Math.max(0, deliveredTimes - 1)));
+        if (jitter > 0) {
+            double random = new SplittableRandom(streamEntryID.hashCode() * 31L + deliveredTimes).nextDouble();
+            delay = delay * (1 + jitter * (2 * random - 1));
+        }
+        return (long) delay;
+    }
+
+    /**
+     * Returns the shortest possible backoff time, the initial backoff with the full negative jitter
+     *
+     * @return min backoff time in millis
+     */
+    public long minDelayMillis() {
+        return (long) (Math.min(initialMillis, maxMillis) * (1 - jitter));
+    }
+
+    /**
+     * Returns the longest possible backoff time, the max backoff with the full positive jitter
+     *
+     * @return max backoff time in millis
+     */
+    public long maxDelayMillis() {
+        return (long) (maxMillis * (1 + jitter));
+    }
+}
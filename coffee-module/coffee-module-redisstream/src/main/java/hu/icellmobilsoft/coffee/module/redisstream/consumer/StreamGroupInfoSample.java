@@ -0,0 +1,148 @@
+/*-
+ * #%L
+ * Coffee
+ * %%
+ * Copyright (C) 2020 - 2026 i-Cell Mobilsoft Zrt.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package hu.icellmobilsoft.coffee.module.redisstream.consumer;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import redis.clients.jedis.resps.StreamGroupInfo;
+
+/**
+ * Sampled state of a consumer group (XINFO GROUPS) for the metrics. One instance belongs to a stream key and group, shared by the consumer
+ * threads of the group, so the group state is queried at most once per sample interval, whatever the thread count is. Values not reported by
+ * the Redis server (lag and entries-read before Redis 7) are {@link Double#NaN}.
+ *
+ * @author agent
+ * @since 2.13.0
+ */
+public class StreamGroupInfoSample {
+
+    private static final String KEY_LAG = "lag";
+
+    private static final String KEY_ENTRIES_READ = "entries-read";
+
+    private static final Map<String, StreamGroupInfoSample> SAMPLES = new ConcurrentHashMap<>();
+
+    private final AtomicLong nextSampleMillis = new AtomicLong();
+
+    private volatile Number lag = Double.NaN;
+
+    private volatile Number pending = Double.NaN;
+
+    private volatile Number entriesRead = Double.NaN;
+
+    /**
+     * Default constructor, constructs a new object.
+     */
+    public StreamGroupInfoSample() {
+        super();
+    }
+
+    /**
+     * Returns the sample of the stream group, creates it on first call
+     *
+     * @param stream
+     *            stream key
+     * @param group
+     *            stream group
+     * @param onCreate
+     *            called once with the new sample, for example to register the metrics
+     * @return sample of the stream group
+     */
+    public static StreamGroupInfoSample of(String stream, String group, Consumer<StreamGroupInfoSample> onCreate) {
+        return SAMPLES.computeIfAbsent(stream + "|" + group, key -> {
+            StreamGroupInfoSample sample = new StreamGroupInfoSample();
+            onCreate.accept(sample);
+            return sample;
+        });
+    }
+
+    /**
+     * Returns the sample of the stream group, if it was already created by a consumer of the group
+     *
+     * @param stream
+     *            stream key
+     * @param group
+     *            stream group
+     * @return sample of the stream group, or empty
+     */
+    public static Optional<StreamGroupInfoSample> find(String stream, String group) {
+        return Optional.ofNullable(SAMPLES.get(stream + "|" + group));
+    }
+
+    /**
+     * Reserves the next sampling for the caller if the interval has elapsed since the previous one
+     *
+     * @param intervalMillis
+     *            minimum time between two samples
+     * @return {@code true} if the caller has to sample the group state now
+     */
+    public boolean tryStartSample(long intervalMillis) {
+        long now = System.currentTimeMillis();
+        long next = nextSampleMillis.get();
+        return now >= next && nextSampleMillis.compareAndSet(next, now + intervalMillis);
+    }
+
+    /**
+     * Updates the sample by the group info
+     *
+     * @param groupInfo
+     *            XINFO GROUPS result of the group
+     */
+    public void update(StreamGroupInfo groupInfo) {
+        pending = groupInfo.getPending();
+        lag = toNumber(groupInfo.getGroupInfo().get(KEY_LAG));
+        entriesRead = toNumber(groupInfo.getGroupInfo().get(KEY_ENTRIES_READ));
+    }
+
+    private static Number toNumber(Object value) {
+        return value instanceof Number ? (Number) value : Double.NaN;
+    }
+
+    /**
+     * Count of the entries not yet delivered to the group
+     *
+     * @return lag
+     */
+    public Number getLag() {
+        return lag;
+    }
+
+    /**
+     * Count of the delivered but not ACKed entries of the group
+     *
+     * @return pending count
+     */
+    public Number getPending() {
+        return pending;
+    }
+
+    /**
+     * Count of the entries delivered to the group
+     *
+     * @return entries read
+     */
+    public Number getEntriesRead() {
+        return entriesRead;
+    }
+}
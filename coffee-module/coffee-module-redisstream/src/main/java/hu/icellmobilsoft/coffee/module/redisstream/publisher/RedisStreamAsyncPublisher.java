@@ -0,0 +1,404 @@
+/*-
+ * #%L
+ * Coffee
+ * %%
+ * Copyright (C) 2020 - 2026 i-Cell Mobilsoft Zrt.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package hu.icellmobilsoft.coffee.module.redisstream.publisher;
+
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.annotation.Resource;
+import jakarta.enterprise.concurrent.ManagedExecutorService;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.Any;
+import jakarta.enterprise.inject.Instance;
+import jakarta.inject.Inject;
+
+import org.apache.commons.lang3.StringUtils;
+import org.eclipse.microprofile.config.Config;
+
+import hu.icellmobilsoft.coffee.dto.exception.InvalidParameterException;
+import hu.icellmobilsoft.coffee.dto.exception.enums.CoffeeFaultType;
+import hu.icellmobilsoft.coffee.module.redis.annotation.RedisConnection;
+import hu.icellmobilsoft.coffee.module.redis.manager.RedisManager;
+import hu.icellmobilsoft.coffee.module.redis.manager.RedisManagerConnection;
+import hu.icellmobilsoft.coffee.module.redisstream.config.StreamGroupConfig;
+import hu.icellmobilsoft.coffee.se.api.exception.BaseException;
+import hu.icellmobilsoft.coffee.se.api.exception.TechnicalException;
+import hu.icellmobilsoft.coffee.se.logging.Logger;
+import redis.clients.jedis.AbstractPipeline;
+import redis.clients.jedis.Response;
+import redis.clients.jedis.StreamEntryID;
+
+/**
+ * Asynchronous batching redis stream publisher. The publications of many request threads are collected in a bounded queue per redis connection
+ * (config key), and a background flusher sends them with one pipeline when {@value #CONFIG_BATCH_SIZE} publications are collected or the first
+ * one waited {@value #CONFIG_LINGER_MILLIS} millis. The returned {@link CompletionStage} is completed with the stream ID assigned by redis.
+ * <p>
+ * The message structure (flow ID from MDC, parameters) is created in the calling thread, so the logging context is kept. If the queue is full
+ * the caller is blocked for at most {@value #CONFIG_OFFER_TIMEOUT_MILLIS} millis, then the returned stage is completed exceptionally. On shut
+ * down the queued publications are flushed before the application stops.
+ * <p>
+ * The flusher of a redis connection runs on one long-running thread of the {@link ManagedExecutorService} from the first publication until
+ * the shut down. These threads are not counted into the thread count validation of the redis stream consumers, the executor has to be sized
+ * for them too (one thread per used config key).
+ *
+ * <pre>
+ * &#64;Inject
+ * private RedisStreamAsyncPublisher asyncPublisher;
+ * ...
+ * asyncPublisher.publish("redisConfigKey", "streamGroup", "message").thenAccept(id -&gt; ...);
+ * </pre>
+ *
+ * @author agent
+ * @since 2.13.0
+ */
+@ApplicationScoped
+public class RedisStreamAsyncPublisher {
+
+    /**
+     * Max count of the queued publications per redis config key, default: {@value #DEFAULT_QUEUE_CAPACITY}
+     */
+    public static final String CONFIG_QUEUE_CAPACITY = "coffee.redisstream.asyncPublisher.queueCapacity";
+
+    /**
+     * Max count of the publications sent in one pipeline, default: {@value #DEFAULT_BATCH_SIZE}
+     */
+    public static final String CONFIG_BATCH_SIZE = "coffee.redisstream.asyncPublisher.batchSize";
+
+    /**
+     * Max wait time in millis of a publication for filling the batch, default: {@value #DEFAULT_LINGER_MILLIS}
+     */
+    public static final String CONFIG_LINGER_MILLIS = "coffee.redisstream.asyncPublisher.lingerMillis";
+
+    /**
+     * Max blocking time in millis of the caller if the queue is full, default: {@value #DEFAULT_OFFER_TIMEOUT_MILLIS}
+     */
+    public static final String CONFIG_OFFER_TIMEOUT_MILLIS = "coffee.redisstream.asyncPublisher.offerTimeoutMillis";
+
+    /**
+     * Max wait time in millis for flushing the queued publications on shut down, default: {@value #DEFAULT_SHUTDOWN_TIMEOUT_MILLIS}
+     */
+    public static final String CONFIG_SHUTDOWN_TIMEOUT_MILLIS = "coffee.redisstream.asyncPublisher.shutdownTimeoutMillis";
+
+    private static final int DEFAULT_QUEUE_CAPACITY = 10000;
+    private static final int DEFAULT_BATCH_SIZE = 500;
+    private static final long DEFAULT_LINGER_MILLIS = 5;
+    private static final long DEFAULT_OFFER_TIMEOUT_MILLIS = 1000;
+    private static final long DEFAULT_SHUTDOWN_TIMEOUT_MILLIS = 10000;
+    private static final long IDLE_POLL_MILLIS = 1000;
+
+    @Inject
+    private Logger log;
+
+    @Inject
+    private Config config;
+
+    @Resource
+    private ManagedExecutorService managedExecutorService;
+
+    @Inject
+    private Instance<RedisStreamPublisher> publisherInstance;
+
+    @Inject
+    @Any
+    private Instance<RedisManager> redisManagerInstance;
+
+    private final Map<String, Flusher> flushers = new ConcurrentHashMap<>();
+
+    private volatile boolean running = true;
+
+    /**
+     * Default constructor, constructs a new object.
+     */
+    public RedisStreamAsyncPublisher() {
+        super();
+    }
+
+    /**
+     * Publish (send) one message asynchronously to the stream of the group
+     *
+     * @param configKey
+     *            redis connection config key, see {@link RedisConnection#configKey()}
+     * @param streamGroup
+     *            stream group to send
+     * @param streamMessage
+     *            message in stream. Can be String or JSON
+     * @return stage completed with the ID of the published message
+     */
+    public CompletionStage<StreamEntryID> publish(String configKey, String streamGroup, String streamMessage) {
+        return publish(configKey, streamGroup, streamMessage, null);
+    }
+
+    /**
+     * Publish (send) one message asynchronously to the stream of the group
+     *
+     * @param configKey
+     *            redis connection config key, see {@link RedisConnection#configKey()}
+     * @param streamGroup
+     *            stream group to send
+     * @param streamMessage
+     *            message in stream. Can be String or JSON
+     * @param parameters
+     *            message parameters, nullable. Map key value is standardized in {@code StreamMessageParameter} enum value
+     * @return stage completed with the ID of the published message
+     */
+    public CompletionStage<StreamEntryID> publish(String configKey, String streamGroup, String streamMessage, Map<String, String> parameters) {
+        if (StringUtils.isBlank(configKey) || StringUtils.isBlank(streamGroup)) {
+            return CompletableFuture.failedFuture(new InvalidParameterException("configKey or streamGroup is blank!"));
+        }
+        Flusher flusher = getFlusher(configKey);
+        if (flusher == null) {
+            return CompletableFuture.failedFuture(shutDownException());
+        }
+        // message structure is created in the caller thread, because of the flow ID in MDC
+        Map<String, String> jedisMessage = flusher.publisher.createJedisMessage(streamMessage, parameters);
+        return flusher.offer(streamGroup, jedisMessage);
+    }
+
+    /**
+     * Publish (send) one publication asynchronously
+     *
+     * @param configKey
+     *            redis connection config key, see {@link RedisConnection#configKey()}
+     * @param publication
+     *            publication, stream group is mandatory
+     * @return stage completed with the ID of the published message
+     */
+    public CompletionStage<StreamEntryID> publishPublication(String configKey, RedisStreamPublication publication) {
+        if (publication == null) {
+            return CompletableFuture.failedFuture(new InvalidParameterException("publication is null!"));
+        }
+        return publish(configKey, publication.getStreamGroup(), publication.getStreamMessage(), publication.getParameters());
+    }
+
+    /**
+     * Stops accepting new publications and flushes the queued ones, waits at most {@value #CONFIG_SHUTDOWN_TIMEOUT_MILLIS} millis. The
+     * publications not sent until the timeout are completed exceptionally.
+     */
+    @PreDestroy
+    public void shutdown() {
+        synchronized (flushers) {
+            // no flusher is started after this point
+            running = false;
+        }
+        long deadline = System.currentTimeMillis() + config.getOptionalValue(CONFIG_SHUTDOWN_TIMEOUT_MILLIS, Long.class)
+                .orElse(DEFAULT_SHUTDOWN_TIMEOUT_MILLIS);
+        for (Flusher flusher : flushers.values()) {
+            flusher.awaitTermination(deadline);
+        }
+        flushers.clear();
+    }
+
+    private Flusher getFlusher(String configKey) {
+        Flusher flusher = flushers.get(configKey);
+        if (flusher != null) {
+            return flusher;
+        }
+        synchronized (flushers) {
+            if (!running) {
+                return null;
+            }
+            return flushers.computeIfAbsent(configKey, this::startFlusher);
+        }
+    }
+
+    private Flusher startFlusher(String configKey) {
+        RedisStreamPublisher publisher = publisherInstance.get();
+        Flusher flusher = new Flusher(configKey, publisher, config.getOptionalValue(CONFIG_QUEUE_CAPACITY, Integer.class).orElse(DEFAULT_QUEUE_CAPACITY));
+        try {
+            managedExecutorService.submit(flusher);
+        } catch (RuntimeException e) {
+            publisherInstance.destroy(publisher);
+            throw e;
+        }
+        log.info("Redis stream async publisher started for configKey [{0}]", configKey);
+        return flusher;
+    }
+
+    private static TechnicalException shutDownException() {
+        return new TechnicalException(CoffeeFaultType.OPERATION_FAILED, "Async publisher is shut down");
+    }
+
+    private static final class QueuedPublication {
+        private final String streamGroup;
+        private final Map<String, String> jedisMessage;
+        private final CompletableFuture<StreamEntryID> result = new CompletableFuture<>();
+
+        private QueuedPublication(String streamGroup, Map<String, String> jedisMessage) {
+            this.streamGroup = streamGroup;
+            this.jedisMessage = jedisMessage;
+        }
+    }
+
+    private final class Flusher implements Runnable {
+
+        private final String configKey;
+        private final RedisStreamPublisher publisher;
+        private final BlockingQueue<QueuedPublication> queue;
+        private final CountDownLatch terminated = new CountDownLatch(1);
+        /**
+         * Set before the last drain of the queue, the publications queued after it are failed by the caller
+         */
+        private volatile boolean stopped;
+        private final int batchSize = Math.max(1, config.getOptionalValue(CONFIG_BATCH_SIZE, Integer.class).orElse(DEFAULT_BATCH_SIZE));
+        private final long lingerMillis = config.getOptionalValue(CONFIG_LINGER_MILLIS, Long.class).orElse(DEFAULT_LINGER_MILLIS);
+        private final long offerTimeoutMillis = config.getOptionalValue(CONFIG_OFFER_TIMEOUT_MILLIS, Long.class).orElse(DEFAULT_OFFER_TIMEOUT_MILLIS);
+        /**
+         * {@link StreamGroupConfig} of the publisher is bound to the group, so one initialized publisher is used per group
+         */
+        private final Map<String, RedisStreamPublisher> groupPublishers = new HashMap<>();
+
+        private Flusher(String configKey, RedisStreamPublisher publisher, int queueCapacity) {
+            this.configKey = configKey;
+            this.publisher = publisher;
+            this.queue = new LinkedBlockingQueue<>(queueCapacity);
+        }
+
+        private CompletionStage<StreamEntryID> offer(String streamGroup, Map<String, String> jedisMessage) {
+            QueuedPublication publication = new QueuedPublication(streamGroup, jedisMessage);
+            try {
+                if (!queue.offer(publication, offerTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                    publication.result.completeExceptionally(new TechnicalException(CoffeeFaultType.OPERATION_FAILED,
+                            MessageFormat.format("Async publisher queue of configKey [{0}] is full", configKey)));
+                } else if (stopped && queue.remove(publication)) {
+                    // the flusher is gone, nobody would send the publication
+                    publication.result.completeExceptionally(shutDownException());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                publication.result.completeExceptionally(e);
+            }
+            return publication.result;
+        }
+
+        @Override
+        public void run() {
+            Instance<RedisManager> configRedisManagerInstance = redisManagerInstance.select(new RedisConnection.Literal(configKey));
+            RedisManager redisManager = configRedisManagerInstance.get();
+            try {
+                while (running || !queue.isEmpty()) {
+                    List<QueuedPublication> batch = nextBatch();
+                    if (!batch.isEmpty()) {
+                        flush(redisManager, batch);
+                    }
+                }
+            } catch (InterruptedException e) {
+                log.warn("Redis stream async publisher of configKey [{0}] interrupted", configKey);
+                Thread.currentThread().interrupt();
+            } finally {
+                stopped = true;
+                failRemaining();
+                groupPublishers.values().forEach(publisherInstance::destroy);
+                groupPublishers.clear();
+                publisherInstance.destroy(publisher);
+                configRedisManagerInstance.destroy(redisManager);
+                terminated.countDown();
+            }
+        }
+
+        private List<QueuedPublication> nextBatch() throws InterruptedException {
+            List<QueuedPublication> batch = new ArrayList<>(batchSize);
+            QueuedPublication first = queue.poll(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+            if (first == null) {
+                return batch;
+            }
+            batch.add(first);
+            long deadline = System.currentTimeMillis() + lingerMillis;
+            while (batch.size() < batchSize) {
+                queue.drainTo(batch, batchSize - batch.size());
+                long remaining = deadline - System.currentTimeMillis();
+                if (batch.size() >= batchSize || remaining <= 0 || !running) {
+                    break;
+                }
+                QueuedPublication next = queue.poll(remaining, TimeUnit.MILLISECONDS);
+                if (next == null) {
+                    break;
+                }
+                batch.add(next);
+            }
+            return batch;
+        }
+
+        private void flush(RedisManager redisManager, List<QueuedPublication> batch) {
+            List<Response<StreamEntryID>> responses = new ArrayList<>(batch.size());
+            try (RedisManagerConnection ignored = redisManager.initConnection();
+                    AbstractPipeline pipeline = publisher(redisManager, batch.get(0).streamGroup).initPipeline()) {
+                for (QueuedPublication publication : batch) {
+                    responses.add(publisher(redisManager, publication.streamGroup).publishThroughPipeline(pipeline, publication.streamGroup,
+                            publication.jedisMessage));
+                }
+                pipeline.sync();
+            } catch (BaseException | RuntimeException e) {
+                log.error(MessageFormat.format("Exception on flushing [{0}] async publications of configKey [{1}]: [{2}]", batch.size(), configKey,
+                        e.getLocalizedMessage()), e);
+                batch.forEach(publication -> publication.result.completeExceptionally(e));
+                return;
+            }
+            for (int i = 0; i < batch.size(); i++) {
+                try {
+                    batch.get(i).result.complete(responses.get(i).get());
+                } catch (RuntimeException e) {
+                    batch.get(i).result.completeExceptionally(e);
+                }
+            }
+        }
+
+        private RedisStreamPublisher publisher(RedisManager redisManager, String streamGroup) {
+            return groupPublishers.computeIfAbsent(streamGroup, group -> {
+                RedisStreamPublisher groupPublisher = publisherInstance.get();
+                groupPublisher.init(redisManager, group);
+                return groupPublisher;
+            });
+        }
+
+        private void failRemaining() {
+            List<QueuedPublication> remaining = new ArrayList<>();
+            queue.drainTo(remaining);
+            if (remaining.isEmpty()) {
+                return;
+            }
+            log.warn("[{0}] async publications of configKey [{1}] are not sent because of shut down", remaining.size(), configKey);
+            TechnicalException exception = shutDownException();
+            remaining.forEach(publication -> publication.result.completeExceptionally(exception));
+        }
+
+        private void awaitTermination(long deadline) {
+            try {
+                if (!terminated.await(Math.max(0, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS)) {
+                    log.warn("Redis stream async publisher of configKey [{0}] is not terminated in time", configKey);
+                    failRemaining();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failRemaining();
+            }
+        }
+    }
+}
@@ -37,6 +37,8 @@ import hu.icellmobilsoft.coffee.dto.exception.InvalidParameterException;
 import hu.icellmobilsoft.coffee.dto.exception.enums.CoffeeFaultType;
 import hu.icellmobilsoft.coffee.module.redis.manager.RedisManager;
 import hu.icellmobilsoft.coffee.module.redis.manager.RedisManagerConnection;
+import hu.icellmobilsoft.coffee.module.redisstream.codec.RedisStreamPayloadCodecService;
+import hu.icellmobilsoft.coffee.module.redisstream.common.RedisStreamBinaryUtil;
 import hu.icellmobilsoft.coffee.module.redisstream.common.RedisStreamUtil;
 import hu.icellmobilsoft.coffee.module.redisstream.config.IRedisStreamConstant;
 import hu.icellmobilsoft.coffee.module.redisstream.config.StreamGroupConfig;
@@ -47,6 +49,7 @@ import hu.icellmobilsoft.coffee.se.api.exception.TechnicalException;
 import hu.icellmobilsoft.coffee.se.logging.Logger;
 import hu.icellmobilsoft.coffee.se.logging.mdc.MDC;
 import redis.clients.jedis.AbstractPipeline;
+import redis.clients.jedis.CommandObject;
 import redis.clients.jedis.Pipeline;
 import redis.clients.jedis.Response;
 import redis.clients.jedis.StreamEntryID;
@@ -71,6 +74,15 @@ public class RedisStreamPublisher {
     @Inject
     private StreamGroupConfig config;
 
+    /**
+     * Config of the custom stream groups (not the initialized one), used for the partition routing and the payload codec
+     */
+    @Inject
+    private StreamGroupConfig customGroupConfig;
+
+    @Inject
+    private RedisStreamPayloadCodecService payloadCodecService;
+
     private RedisManager redisManager;
 
     private String streamGroup;
@@ -519,9 +531,13 @@ public class RedisStreamPublisher {
      */
     protected Optional<StreamEntryID> publishInActiveConnection(Map<String, String> values, String streamGroup) throws BaseException {
         XAddParams params = getXAddParams();
-        Optional<StreamEntryID> streamEntryID = redisManager.run(UnifiedJedis::xadd, "xadd", RedisStreamUtil.streamKey(streamGroup), values, params);
+        values = encode(streamGroup, values);
+        String streamKey = streamKey(streamGroup, values);
+        // binary XADD, the message encoded by payload codec is raw bytes
+        CommandObject<StreamEntryID> xadd = RedisStreamBinaryUtil.xadd(streamKey, params, values);
+        Optional<StreamEntryID> streamEntryID = redisManager.run(jedis -> jedis.executeCommand(xadd), "xadd");
         if (log.isTraceEnabled()) {
-            log.trace("Published streamEntryID: [{0}] into [{1}]", streamEntryID, RedisStreamUtil.streamKey(streamGroup));
+            log.trace("Published streamEntryID: [{0}] into [{1}]", streamEntryID, streamKey);
         }
         return streamEntryID;
     }
@@ -597,12 +613,17 @@ public class RedisStreamPublisher {
     }
 
     /**
-     * Returns the default XAddParams
+     * Returns the default XAddParams. The stream is trimmed by {@link StreamGroupConfig#getProducerMaxLen()} or
+     * {@link StreamGroupConfig#getProducerTTL()}, unless it is turned off by {@link StreamGroupConfig#isProducerInlineTrim()}
      * 
      * @return the default XAdd params
      */
     protected XAddParams getXAddParams() {
         XAddParams params = XAddParams.xAddParams();
+        if (!config.isProducerInlineTrim()) {
+            // trimmed in the background
+            return params;
+        }
         config.getProducerMaxLen().ifPresent(params::maxLen);
         config.getProducerTTL().ifPresent(ttl -> params.minId(new StreamEntryID(Instant.now().minusMillis(ttl).toEpochMilli(), 0).toString()));
         return params;
@@ -632,9 +653,74 @@ public class RedisStreamPublisher {
      *            Redis Stream message structure, ready to publish
      *
      * @return {@link Pipeline#xadd(String, Map, XAddParams)} response
+     * @throws BaseException
+     *             if encoding of the message failed
+     */
+    protected Response<StreamEntryID> publishThroughPipeline(AbstractPipeline pipeline, String streamGroup, Map<String, String> jedisMessage)
+            throws BaseException {
+        Map<String, String> encodedMessage = encode(streamGroup, jedisMessage);
+        // binary XADD, the message encoded by payload codec is raw bytes
+        return pipeline.executeCommand(RedisStreamBinaryUtil.xadd(streamKey(streamGroup, encodedMessage), getXAddParams(), encodedMessage));
+    }
+
+    /**
+     * Encodes the message by the payload codec of the stream group ({@code IStreamGroupConfig#getProducerCodec()}), if it is configured
+     *
+     * @param streamGroup
+     *            Stream group to send
+     * @param jedisMessage
+     *            Redis Stream message structure, ready to publish
+     * @return encoded message structure, or the original if it is not encoded
+     * @throws BaseException
+     *             if encoding of the message failed
+     * @since 2.13.0
+     */
+    protected Map<String, String> encode(String streamGroup, Map<String, String> jedisMessage) throws BaseException {
+        StreamGroupConfig groupConfig = getGroupConfig(streamGroup);
+        Optional<String> codec = groupConfig.getProducerCodec();
+        if (codec.isEmpty()) {
+            return jedisMessage;
+        }
+        return payloadCodecService.encode(jedisMessage, codec.get(), groupConfig.getProducerCodecThresholdBytes());
+    }
+
+    /**
+     * Returns the stream key where the message has to be published. If the stream group has more partitions
+     * ({@code IStreamGroupConfig#getStreamPartitions()}), the partition is selected by the {@link StreamMessageParameter#PARTITION_KEY} of the
+     * message, or round-robin if the message has no partition key.
+     *
+     * @param streamGroup
+     *            Stream group to send
+     * @param jedisMessage
+     *            Redis Stream message structure, ready to publish
+     * @return stream key
+     * @since 2.13.0
      */
-    protected Response<StreamEntryID> publishThroughPipeline(AbstractPipeline pipeline, String streamGroup, Map<String, String> jedisMessage) {
-        return pipeline.xadd(RedisStreamUtil.streamKey(streamGroup), jedisMessage, getXAddParams());
+    protected String streamKey(String streamGroup, Map<String, String> jedisMessage) {
+        return RedisStreamUtil.streamKey(
+                streamGroup,
+                jedisMessage.get(StreamMessageParameter.PARTITION_KEY.getMessageKey()),
+                getStreamPartitions(streamGroup));
+    }
+
+    /**
+     * Returns the partitions count of the stream group
+     *
+     * @param streamGroup
+     *            the redis stream group
+     * @return partitions count
+     * @since 2.13.0
+     */
+    protected int getStreamPartitions(String streamGroup) {
+        return getGroupConfig(streamGroup).getStreamPartitions();
+    }
+
+    private StreamGroupConfig getGroupConfig(String streamGroup) {
+        if (StringUtils.equals(streamGroup, this.streamGroup)) {
+            return config;
+        }
+        customGroupConfig.setConfigKey(streamGroup);
+        return customGroupConfig;
     }
 
     /**
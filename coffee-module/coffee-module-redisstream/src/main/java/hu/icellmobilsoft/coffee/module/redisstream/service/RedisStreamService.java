@@ -22,11 +22,17 @@ package hu.icellmobilsoft.coffee.module.redisstream.service;
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import jakarta.enterprise.context.Dependent;
 import jakarta.enterprise.inject.Instance;
@@ -36,23 +42,36 @@ import jakarta.inject.Inject;
 import org.apache.commons.lang3.StringUtils;
 
 import hu.icellmobilsoft.coffee.dto.exception.InvalidParameterException;
+import hu.icellmobilsoft.coffee.dto.exception.enums.CoffeeFaultType;
 import hu.icellmobilsoft.coffee.module.redis.manager.RedisManager;
 import hu.icellmobilsoft.coffee.module.redis.manager.RedisManagerConnection;
+import hu.icellmobilsoft.coffee.module.redisstream.common.RedisStreamBinaryUtil;
 import hu.icellmobilsoft.coffee.module.redisstream.common.RedisStreamUtil;
+import hu.icellmobilsoft.coffee.module.redisstream.config.IRedisStreamConstant;
 import hu.icellmobilsoft.coffee.module.redisstream.config.IStreamGroupConfig;
 import hu.icellmobilsoft.coffee.module.redisstream.config.StreamGroupConfig;
 import hu.icellmobilsoft.coffee.se.api.exception.BaseException;
 import hu.icellmobilsoft.coffee.se.api.exception.TechnicalException;
 import hu.icellmobilsoft.coffee.se.logging.Logger;
+import redis.clients.jedis.AbstractPipeline;
+import redis.clients.jedis.BuilderFactory;
 import redis.clients.jedis.Jedis;
+import redis.clients.jedis.Response;
 import redis.clients.jedis.StreamEntryID;
 import redis.clients.jedis.UnifiedJedis;
 import redis.clients.jedis.exceptions.JedisDataException;
+import redis.clients.jedis.params.SetParams;
+import redis.clients.jedis.params.XAddParams;
+import redis.clients.jedis.params.XAutoClaimParams;
+import redis.clients.jedis.params.XClaimParams;
 import redis.clients.jedis.params.XPendingParams;
 import redis.clients.jedis.params.XReadGroupParams;
+import redis.clients.jedis.params.XTrimParams;
 import redis.clients.jedis.resps.StreamEntry;
+import redis.clients.jedis.resps.StreamEntryBinary;
 import redis.clients.jedis.resps.StreamGroupInfo;
 import redis.clients.jedis.resps.StreamPendingEntry;
+import redis.clients.jedis.util.SafeEncoder;
 
 /**
  * Service class for redis stream logic
@@ -64,6 +83,10 @@ import redis.clients.jedis.resps.StreamPendingEntry;
 @Dependent
 public class RedisStreamService {
     private static final int EXPIRED_MESSAGE_CLEANUP_BLOCK_SIZE = 1000;
+    private static final String DEAD_LETTER_KEY_PREFIX = "deadLetter";
+    private static final String IDEMPOTENCY_CLAIM_PREFIX = "processing:";
+    private static final String RELEASE_IDEMPOTENCY_CLAIM_SCRIPT = "if redis.call('GET', KEYS[1]) == ARGV[1] then return redis.call('DEL', KEYS[1]) "
+            + "else return 0 end";
 
     @Inject
     private Logger log;
@@ -78,6 +101,8 @@ public class RedisStreamService {
 
     private String group;
 
+    private Integer partition;
+
     /**
      * Default constructor, constructs a new object.
      */
@@ -86,12 +111,15 @@ public class RedisStreamService {
     }
 
     /**
-     * Stream key, calculated by {@link #group}
+     * Stream key, calculated by {@link #group} and {@link #partition}
      *
      * @return Stream key
      */
     public String streamKey() {
-        return RedisStreamUtil.streamKey(getGroup());
+        if (getPartition() == null) {
+            return RedisStreamUtil.streamKey(getGroup());
+        }
+        return RedisStreamUtil.streamKey(getGroup(), getPartition());
     }
 
     /**
@@ -195,38 +223,64 @@ public class RedisStreamService {
      *             exception
      */
     public Optional<StreamEntry> consumeOne(String consumerIdentifier) throws BaseException {
+        // We requested only one item from it; there won't be more
+        return consume(consumerIdentifier, 1).stream().findFirst();
+    }
+
+    /**
+     * Consume maximum count entries from stream. Read timeout is defined in configuration. This is equivalent to redis console:
+     *
+     * <pre>
+     * XREADGROUP GROUP group consumerIdentifier BLOCK config.StreamReadTimeoutMillis COUNT count STREAMS mystream &gt;
+     * </pre>
+     *
+     * @param consumerIdentifier
+     *            unique consumer identifier
+     * @param count
+     *            maximum count of the returned entries
+     * @return stream entries in stream order, empty list if there are no new messages
+     * @throws BaseException
+     *             exception
+     * @since 2.13.0
+     */
+    public List<StreamEntry> consume(String consumerIdentifier, int count) throws BaseException {
         if (StringUtils.isBlank(consumerIdentifier)) {
             throw new InvalidParameterException("consumerIdentifier is null");
         }
-        Map<String, StreamEntryID> streamQuery = Map.of(streamKey(), StreamEntryID.UNRECEIVED_ENTRY);
-        Optional<List<Entry<String, List<StreamEntry>>>> result = getRedisManager().run(UnifiedJedis::xreadGroup, "xreadGroup", getGroup(),
-                consumerIdentifier, createXReadGroupParams(), streamQuery);
+        if (count < 1) {
+            throw new InvalidParameterException("count must be positive");
+        }
+        // binary read, the message encoded by payload codec is raw bytes
+        Map<byte[], StreamEntryID> streamQuery = Map.of(SafeEncoder.encode(streamKey()), StreamEntryID.UNRECEIVED_ENTRY);
+        Optional<List<Entry<byte[], List<StreamEntryBinary>>>> result = getRedisManager().run(UnifiedJedis::xreadGroupBinary, "xreadGroup",
+                SafeEncoder.encode(getGroup()), SafeEncoder.encode(consumerIdentifier), createXReadGroupParams(count), streamQuery);
         if (result.isEmpty() || result.get().isEmpty()) {
             // There are no new messages
             if (log.isTraceEnabled()) {
                 log.trace("No new message in [{0}] stream", streamKey());
             }
-            return Optional.empty();
+            return List.of();
         }
         // We are reading from one stream.
-        Entry<String, List<StreamEntry>> stream = result.get().get(0);
-        if (stream.getValue() == null || stream.getValue().isEmpty()) {
+        Entry<byte[], List<StreamEntryBinary>> stream = result.get().get(0);
+        List<StreamEntry> entries = RedisStreamBinaryUtil.toStreamEntries(stream.getValue());
+        if (entries.isEmpty()) {
             if (log.isTraceEnabled()) {
-                log.trace("Stream key [{0}] in stream [{1}] no have values stream", stream.getKey(), streamKey());
+                log.trace("Stream key [{0}] in stream [{1}] no have values stream", SafeEncoder.encode(stream.getKey()), streamKey());
             }
-            return Optional.empty();
+            return List.of();
         }
-        // We requested only one item from it; there won't be more
-        StreamEntry entry = stream.getValue().get(0);
         if (log.isTraceEnabled()) {
-            StringBuilder sb = new StringBuilder("Consumed one entry from:");
-            sb.append("\nStream key [" + stream.getKey() + "] ");
-            sb.append("\n  ID: [" + entry.getID() + "], values: [");
-            entry.getFields().forEach((key, value) -> sb.append("\n    Key[" + key + "]: Value[" + value + "]"));
-            sb.append("\n]");
+            StringBuilder sb = new StringBuilder("Consumed [" + entries.size() + "] entry from:");
+            sb.append("\nStream key [" + SafeEncoder.encode(stream.getKey()) + "] ");
+            for (StreamEntry entry : entries) {
+                sb.append("\n  ID: [" + entry.getID() + "], values: [");
+                entry.getFields().forEach((key, value) -> sb.append("\n    Key[" + key + "]: Value[" + value + "]"));
+                sb.append("\n]");
+            }
             log.trace(sb.toString());
         }
-        return Optional.of(entry);
+        return entries;
     }
 
     /**
@@ -235,9 +289,21 @@ public class RedisStreamService {
      * @return params for {@link Jedis#xreadGroup}
      */
     protected XReadGroupParams createXReadGroupParams() {
+        return createXReadGroupParams(1);
+    }
+
+    /**
+     * Creates the parameters for the {@link Jedis#xreadGroup}
+     *
+     * @param count
+     *            maximum count of the returned entries
+     * @return params for {@link Jedis#xreadGroup}
+     * @since 2.13.0
+     */
+    protected XReadGroupParams createXReadGroupParams(int count) {
         int readTimeoutMillis = config.getStreamReadTimeoutMillis().intValue();
         // It is capable of reading from multiple streams simultaneously, but we are using it for just one.
-        XReadGroupParams params = new XReadGroupParams().count(1).block(readTimeoutMillis);
+        XReadGroupParams params = new XReadGroupParams().count(count).block(readTimeoutMillis);
         if (!config.isManualAck()) {
             params.noAck();
         }
@@ -295,6 +361,244 @@ public class RedisStreamService {
         return successCount;
     }
 
+    /**
+     * ACK multiple stream elements with one call without opening a new connection. This is equivalent to redis console:
+     *
+     * <pre>
+     * XACK streamKey group 1526569495631-0 1526569495631-1 ...
+     * </pre>
+     *
+     * @param streamEntryIDs
+     *            stream element unique IDs. If null or empty then do nothing
+     * @return success count, number of the successfully ACKed elements
+     * @throws BaseException
+     *             Exception
+     * @since 2.13.0
+     */
+    public long ackInCurrentConnection(Collection<StreamEntryID> streamEntryIDs) throws BaseException {
+        if (streamEntryIDs == null || streamEntryIDs.isEmpty()) {
+            return 0;
+        }
+        StreamEntryID[] ids = streamEntryIDs.toArray(StreamEntryID[]::new);
+        long successCount = getRedisManager().run(UnifiedJedis::xack, "xack", streamKey(), getGroup(), ids).orElse(0L);
+        if (log.isTraceEnabled()) {
+            log.trace("[{0}] of [{1}] StreamEntryIDs successfully ACKed", successCount, ids.length);
+        }
+        return successCount;
+    }
+
+    /**
+     * Trims all partition streams of the group by {@link IStreamGroupConfig#getProducerMaxLen()} or {@link IStreamGroupConfig#getProducerTTL()}
+     * with approximate trimming, without opening a new connection. The approximate trimming removes only whole macro nodes, so it is much cheaper
+     * than the exact one, the stream can be a bit longer than the limit. This is equivalent to redis console:
+     *
+     * <pre>
+     * XTRIM streamKey MAXLEN ~ maxLen
+     * # or
+     * XTRIM streamKey MINID ~ (now - ttl)-0
+     * </pre>
+     *
+     * @return count of the removed entries, 0 if no limit is configured
+     * @throws BaseException
+     *             Exception
+     * @since 2.13.0
+     */
+    public long trimInCurrentConnection() throws BaseException {
+        Optional<XTrimParams> params = createXTrimParams();
+        if (params.isEmpty()) {
+            return 0;
+        }
+        long trimmed = 0;
+        for (String streamKey : RedisStreamUtil.streamKeys(getGroup(), config.getStreamPartitions())) {
+            trimmed += getRedisManager().run(jedis -> jedis.xtrim(streamKey, params.get()), "xtrim").orElse(0L);
+        }
+        return trimmed;
+    }
+
+    /**
+     * Creates the approximate XTRIM parameters by the producer limits of the group, {@link IStreamGroupConfig#getProducerMaxLen()} has higher
+     * priority
+     *
+     * @return trim params, or empty if no limit is configured
+     * @throws BaseException
+     *             Exception on read properties
+     * @since 2.13.0
+     */
+    protected Optional<XTrimParams> createXTrimParams() throws BaseException {
+        Optional<Long> maxLen = config.getProducerMaxLen();
+        if (maxLen.isPresent()) {
+            return Optional.of(XTrimParams.xTrimParams().maxLen(maxLen.get()).approximateTrimming());
+        }
+        return config.getProducerTTL()
+                .map(ttl -> XTrimParams.xTrimParams()
+                        .minId(new StreamEntryID(System.currentTimeMillis() - ttl, 0).toString())
+                        .approximateTrimming());
+    }
+
+    /**
+     * Tries to become the trimming leader of the group for the given time, without opening a new connection. Only one owner can hold the lock, it
+     * expires automatically. This is equivalent to redis console:
+     *
+     * <pre>
+     * SET groupTrimLock owner NX PX ttl
+     * </pre>
+     *
+     * @param owner
+     *            unique identifier of the caller
+     * @param ttl
+     *            lock time
+     * @return {@code true} if the lock is acquired
+     * @throws BaseException
+     *             Exception
+     * @since 2.13.0
+     */
+    public boolean acquireTrimLockInCurrentConnection(String owner, Duration ttl) throws BaseException {
+        if (StringUtils.isBlank(owner) || ttl == null) {
+            throw new InvalidParameterException("owner and ttl are required");
+        }
+        SetParams params = SetParams.setParams().nx().px(ttl.toMillis());
+        return getRedisManager().run(jedis -> jedis.set(RedisStreamUtil.trimLockKey(getGroup()), owner, params), "set").isPresent();
+    }
+
+    /**
+     * Returns the idempotency key of the stream entry, the {@value IRedisStreamConstant.Common#DATA_KEY_IDEMPOTENCY_KEY} field of the message if
+     * present, otherwise the stream key and the entry ID
+     *
+     * @param streamEntry
+     *            stream entry
+     * @return idempotency key
+     * @since 2.13.0
+     */
+    public String idempotencyKey(StreamEntry streamEntry) {
+        String businessKey = streamEntry.getFields().get(IRedisStreamConstant.Common.DATA_KEY_IDEMPOTENCY_KEY);
+        if (StringUtils.isNotBlank(businessKey)) {
+            return businessKey;
+        }
+        return streamKey() + "-" + streamEntry.getID();
+    }
+
+    /**
+     * Claims the idempotency keys of the entries before processing with one pipelined call without opening a new connection. The claim is atomic,
+     * of the entries sharing an idempotency key only one can be processed until the claim is released (see
+     * {@link #releaseIdempotencyInCurrentConnection(Collection)}) or expires. The claim of the own entry ID which is still in progress (the previous
+     * delivery of the entry was interrupted) is taken over. This is equivalent to redis console:
+     *
+     * <pre>
+     * SET groupProcessed:idempotencyKey1 processing:1526569495631-0 NX PX ttl
+     * GET groupProcessed:idempotencyKey1
+     * SET groupProcessed:idempotencyKey2 processing:1526569495631-1 NX PX ttl
+     * GET groupProcessed:idempotencyKey2
+     * ...
+     * </pre>
+     *
+     * @param streamEntries
+     *            stream entries to claim
+     * @param ttl
+     *            how long the claim and the processed state is kept
+     * @return IDs of the entries not claimed: already processed, or claimed by other entry with the same idempotency key
+     * @throws BaseException
+     *             Exception
+     * @since 2.13.0
+     */
+    public Set<StreamEntryID> claimIdempotencyInCurrentConnection(Collection<StreamEntry> streamEntries, Duration ttl) throws BaseException {
+        if (streamEntries == null || streamEntries.isEmpty()) {
+            return Set.of();
+        }
+        if (ttl == null) {
+            throw new InvalidParameterException("ttl is null");
+        }
+        SetParams setParams = SetParams.setParams().nx().px(ttl.toMillis());
+        Map<StreamEntryID, Response<String>> holders = new LinkedHashMap<>();
+        try (AbstractPipeline pipeline = initPipeline()) {
+            for (StreamEntry streamEntry : streamEntries) {
+                String key = RedisStreamUtil.idempotencyKey(getGroup(), idempotencyKey(streamEntry));
+                pipeline.set(key, idempotencyClaim(streamEntry.getID()), setParams);
+                holders.put(streamEntry.getID(), pipeline.get(key));
+            }
+            pipeline.sync();
+        }
+        // the entry is claimed if the key holds its own claim, either set now or left by its interrupted previous delivery
+        return holders.entrySet()
+                .stream()
+                .filter(e -> !StringUtils.equals(idempotencyClaim(e.getKey()), e.getValue().get()))
+                .map(Entry::getKey)
+                .collect(Collectors.toSet());
+    }
+
+    /**
+     * Releases the idempotency claim of the failed entries (see {@link #claimIdempotencyInCurrentConnection(Collection, Duration)}) with one
+     * pipelined call without opening a new connection, so the next delivery of the entry or other entry with the same idempotency key can be
+     * processed. Only the own claim of the entry is deleted. This is equivalent to redis console:
+     *
+     * <pre>
+     * EVAL "if GET(key) == claim then DEL(key)" 1 groupProcessed:idempotencyKey1 processing:1526569495631-0
+     * ...
+     * </pre>
+     *
+     * @param streamEntries
+     *            failed stream entries
+     * @throws BaseException
+     *             Exception
+     * @since 2.13.0
+     */
+    public void releaseIdempotencyInCurrentConnection(Collection<StreamEntry> streamEntries) throws BaseException {
+        if (streamEntries == null || streamEntries.isEmpty()) {
+            return;
+        }
+        try (AbstractPipeline pipeline = initPipeline()) {
+            for (StreamEntry streamEntry : streamEntries) {
+                String key = RedisStreamUtil.idempotencyKey(getGroup(), idempotencyKey(streamEntry));
+                pipeline.eval(RELEASE_IDEMPOTENCY_CLAIM_SCRIPT, List.of(key), List.of(idempotencyClaim(streamEntry.getID())));
+            }
+            pipeline.sync();
+        }
+    }
+
+    private static String idempotencyClaim(StreamEntryID streamEntryID) {
+        return IDEMPOTENCY_CLAIM_PREFIX + streamEntryID;
+    }
+
+    /**
+     * Records the processed state of the entries and ACKs them in the same pipeline without opening a new connection. The claim of the entries
+     * (see {@link #claimIdempotencyInCurrentConnection(Collection, Duration)}) is overwritten by the processed state, which is kept for the given
+     * ttl. This is equivalent to redis console:
+     *
+     * <pre>
+     * SET groupProcessed:idempotencyKey1 1526569495631-0 PX ttl
+     * SET groupProcessed:idempotencyKey2 1526569495631-1 PX ttl
+     * XACK streamKey group 1526569495631-0 1526569495631-1 # only if manualAck
+     * </pre>
+     *
+     * @param streamEntries
+     *            processed stream entries
+     * @param ttl
+     *            how long the processed state is kept
+     * @return success count of the ACK, 0 without manualAck
+     * @throws BaseException
+     *             Exception
+     * @since 2.13.0
+     */
+    public long ackProcessedInCurrentConnection(Collection<StreamEntry> streamEntries, Duration ttl) throws BaseException {
+        if (streamEntries == null || streamEntries.isEmpty()) {
+            return 0;
+        }
+        if (ttl == null) {
+            throw new InvalidParameterException("ttl is null");
+        }
+        SetParams setParams = SetParams.setParams().px(ttl.toMillis());
+        try (AbstractPipeline pipeline = initPipeline()) {
+            for (StreamEntry streamEntry : streamEntries) {
+                pipeline.set(RedisStreamUtil.idempotencyKey(getGroup(), idempotencyKey(streamEntry)), streamEntry.getID().toString(), setParams);
+            }
+            Response<Long> ackCount = null;
+            if (config.isManualAck()) {
+                ackCount = pipeline.xack(streamKey(), getGroup(), streamEntries.stream().map(StreamEntry::getID).toArray(StreamEntryID[]::new));
+            }
+            pipeline.sync();
+            return ackCount == null ? 0 : ackCount.get();
+        }
+    }
+
     /**
      * List stream entries in pending. This is equivalent to redis console:
      *
@@ -384,6 +688,369 @@ public class RedisStreamService {
         return removedEntries;
     }
 
+    /**
+     * Takes over the ownership of the pending entries idle longer than minIdle, without opening a new connection. The delivery count of the
+     * claimed entries is incremented. This is equivalent to redis console:
+     *
+     * <pre>
+     * XAUTOCLAIM streamKey group consumerIdentifier minIdle start COUNT count
+     * </pre>
+     *
+     * @param consumerIdentifier
+     *            unique consumer identifier, the new owner of the claimed entries
+     * @param minIdle
+     *            minimum idle time of the claimed entries
+     * @param start
+     *            scan start entry id, {@code 0-0} on first call, the cursor returned by the previous call otherwise
+     * @param count
+     *            maximum count of the claimed entries
+     * @return cursor for the next call ({@code 0-0} if the whole pending list was scanned) and the claimed entries in stream order. Entries deleted
+     *         from the stream meanwhile are not returned.
+     * @throws BaseException
+     *             Exception
+     * @since 2.13.0
+     */
+    public Entry<StreamEntryID, List<StreamEntry>> autoClaimInCurrentConnection(String consumerIdentifier, Duration minIdle, StreamEntryID start,
+            int count) throws BaseException {
+        if (StringUtils.isBlank(consumerIdentifier) || minIdle == null || start == null) {
+            throw new InvalidParameterException("consumerIdentifier, minIdle and start are required");
+        }
+        XAutoClaimParams params = new XAutoClaimParams().count(count);
+        // binary claim, the message encoded by payload codec is raw bytes; reply: [cursor, entries, deleted ids]
+        byte[] consumer = SafeEncoder.encode(consumerIdentifier);
+        List<Object> reply = getRedisManager()
+                .run(jedis -> jedis.xautoclaim(SafeEncoder.encode(streamKey()), SafeEncoder.encode(getGroup()), consumer, minIdle.toMillis(),
+                        SafeEncoder.encode(start.toString()), params), "xautoclaim")
+                .orElseGet(List::of);
+        if (reply.size() < 2) {
+            return new SimpleImmutableEntry<>(new StreamEntryID(), List.of());
+        }
+        StreamEntryID cursor = BuilderFactory.STREAM_ENTRY_ID.build(reply.get(0));
+        // deleted entries may be returned without fields
+        List<StreamEntry> entries = RedisStreamBinaryUtil.parseStreamEntries(reply.get(1));
+        if (log.isTraceEnabled()) {
+            log.trace("Claimed [{0}] entries from [{1}] stream, next cursor [{2}]", entries.size(), streamKey(), cursor);
+        }
+        return new SimpleImmutableEntry<>(cursor, entries);
+    }
+
+    /**
+     * List the pending entries idle at least minIdle, without opening a new connection. This is equivalent to redis console:
+     *
+     * <pre>
+     * XPENDING streamKey group IDLE minIdle start + count
+     * </pre>
+     *
+     * @param minIdle
+     *            minimum idle time of the returned entries
+     * @param start
+     *            first entry id of the scan (inclusive), can be null
+     * @param count
+     *            pending count limit
+     * @return pending entries in stream order
+     * @throws BaseException
+     *             Exception
+     * @since 2.13.0
+     */
+    public List<StreamPendingEntry> pendingIdleInCurrentConnection(Duration minIdle, StreamEntryID start, int count) throws BaseException {
+        if (minIdle == null) {
+            throw new InvalidParameterException("minIdle is null");
+        }
+        XPendingParams params = new XPendingParams(start, null, count).idle(minIdle.toMillis());
+        return getRedisManager().run(UnifiedJedis::xpending, "xpending", streamKey(), getGroup(), params).orElseGet(List::of);
+    }
+
+    /**
+     * Takes over the ownership of the given pending entries if they are still idle at least minIdle, without opening a new connection. The
+     * delivery count of the claimed entries is incremented. This is equivalent to redis console:
+     *
+     * <pre>
+     * XCLAIM streamKey group consumerIdentifier minIdle id1 id2 ...
+     * </pre>
+     *
+     * @param consumerIdentifier
+     *            unique consumer identifier, the new owner of the claimed entries
+     * @param minIdle
+     *            minimum idle time of the claimed entries, entries delivered again meanwhile are not claimed
+     * @param streamEntryIDs
+     *            entry ids to claim
+     * @return the claimed entries. Entries deleted from the stream meanwhile are not returned.
+     * @throws BaseException
+     *             Exception
+     * @since 2.13.0
+     */
+    public List<StreamEntry> claimInCurrentConnection(String consumerIdentifier, Duration minIdle, Collection<StreamEntryID> streamEntryIDs)
+            throws BaseException {
+        if (StringUtils.isBlank(consumerIdentifier) || minIdle == null) {
+            throw new InvalidParameterException("consumerIdentifier and minIdle are required");
+        }
+        if (streamEntryIDs == null || streamEntryIDs.isEmpty()) {
+            return List.of();
+        }
+        byte[][] ids = streamEntryIDs.stream().map(id -> SafeEncoder.encode(id.toString())).toArray(byte[][]::new);
+        // binary claim, the message encoded by payload codec is raw bytes
+        byte[] consumer = SafeEncoder.encode(consumerIdentifier);
+        Optional<List<byte[]>> reply = getRedisManager()
+                .run(jedis -> jedis.xclaim(SafeEncoder.encode(streamKey()), SafeEncoder.encode(getGroup()), consumer, minIdle.toMillis(),
+                        new XClaimParams(), ids), "xclaim");
+        // deleted entries may be returned without fields
+        return reply.map(RedisStreamBinaryUtil::parseStreamEntries).orElseGet(List::of);
+    }
+
+    /**
+     * Schedules the delayed retry of a failed entry, without opening a new connection. The entry stays in the pending list, the reclaimer claims
+     * it after the due time (see {@link #takeDueRetriesInCurrentConnection(long, int)}). This is equivalent to redis console:
+     *
+     * <pre>
+     * ZADD streamKeyRetry dueTimeMillis id
+     * </pre>
+     *
+     * @param streamEntryID
+     *            failed entry id
+     * @param dueTimeMillis
+     *            epoch millis of the retry
+     * @throws BaseException
+     *             Exception
+     * @since 2.13.0
+     */
+    public void scheduleRetryInCurrentConnection(StreamEntryID streamEntryID, long dueTimeMillis) throws BaseException {
+        if (streamEntryID == null) {
+            throw new InvalidParameterException("streamEntryID is null");
+        }
+        getRedisManager().run(jedis -> jedis.zadd(RedisStreamUtil.retryKey(streamKey()), dueTimeMillis, streamEntryID.toString()), "zadd");
+    }
+
+    /**
+     * Removes the due entries from the retry schedule and returns them, without opening a new connection. An entry is returned to only one
+     * caller, even if more reclaimers read the schedule at the same time. This is equivalent to redis console:
+     *
+     * <pre>
+     * ZRANGE streamKeyRetry -inf nowMillis BYSCORE LIMIT 0 count
+     * # in one pipeline
+     * ZREM streamKeyRetry id1
+     * ZREM streamKeyRetry id2
+     * ...
+     * </pre>
+     *
+     * @param nowMillis
+     *            current epoch millis
+     * @param count
+     *            maximum count of the returned entries
+     * @return ids of the due entries removed by this call, in due time order
+     * @throws BaseException
+     *             Exception
+     * @since 2.13.0
+     */
+    public List<StreamEntryID> takeDueRetriesInCurrentConnection(long nowMillis, int count) throws BaseException {
+        String retryKey = RedisStreamUtil.retryKey(streamKey());
+        List<String> dueIds = getRedisManager().run(jedis -> jedis.zrangeByScore(retryKey, Double.NEGATIVE_INFINITY, nowMillis, 0, count),
+                "zrangeByScore").orElseGet(List::of);
+        if (dueIds.isEmpty()) {
+            return List.of();
+        }
+        Map<String, Response<Long>> removed = new LinkedHashMap<>();
+        try (AbstractPipeline pipeline = initPipeline()) {
+            for (String id : dueIds) {
+                removed.put(id, pipeline.zrem(retryKey, id));
+            }
+            pipeline.sync();
+        }
+        return removed.entrySet().stream().filter(e -> Long.valueOf(1).equals(e.getValue().get())).map(e -> new StreamEntryID(e.getKey())).toList();
+    }
+
+    /**
+     * Removes the entries from the retry schedule, without opening a new connection. Used if the entries are claimed by other way. This is
+     * equivalent to redis console:
+     *
+     * <pre>
+     * ZREM streamKeyRetry id1 id2 ...
+     * </pre>
+     *
+     * @param streamEntryIDs
+     *            entry ids
+     * @throws BaseException
+     *             Exception
+     * @since 2.13.0
+     */
+    public void cancelRetriesInCurrentConnection(Collection<StreamEntryID> streamEntryIDs) throws BaseException {
+        if (streamEntryIDs == null || streamEntryIDs.isEmpty()) {
+            return;
+        }
+        String[] ids = streamEntryIDs.stream().map(StreamEntryID::toString).toArray(String[]::new);
+        getRedisManager().run(jedis -> jedis.zrem(RedisStreamUtil.retryKey(streamKey()), ids), "zrem");
+    }
+
+    /**
+     * Returns the delivery count of the pending entries owned by the consumer, without opening a new connection. This is equivalent to redis
+     * console:
+     *
+     * <pre>
+     * XPENDING streamKey group firstId lastId count consumerIdentifier
+     * </pre>
+     *
+     * @param consumerIdentifier
+     *            unique consumer identifier, owner of the entries
+     * @param streamEntries
+     *            pending entries in stream order
+     * @return delivery count by entry id, entries not pending on the consumer are missing
+     * @throws BaseException
+     *             Exception
+     * @since 2.13.0
+     */
+    public Map<StreamEntryID, Long> deliveryCountsInCurrentConnection(String consumerIdentifier, List<StreamEntry> streamEntries)
+            throws BaseException {
+        if (streamEntries == null || streamEntries.isEmpty()) {
+            return Map.of();
+        }
+        XPendingParams params = new XPendingParams(streamEntries.get(0).getID(), streamEntries.get(streamEntries.size() - 1).getID(),
+                streamEntries.size()).consumer(consumerIdentifier);
+        List<StreamPendingEntry> pendingEntries = getRedisManager().run(UnifiedJedis::xpending, "xpending", streamKey(), getGroup(), params)
+                .orElseGet(List::of);
+        return pendingEntries.stream().collect(Collectors.toMap(StreamPendingEntry::getID, StreamPendingEntry::getDeliveredTimes));
+    }
+
+    /**
+     * Returns the state of the consumer group, without opening a new connection. This is equivalent to redis console:
+     *
+     * <pre>
+     * XINFO GROUPS streamKey
+     * </pre>
+     *
+     * @return the consumer group info, empty if the group does not exist
+     * @throws BaseException
+     *             Exception
+     * @since 2.13.0
+     */
+    public Optional<StreamGroupInfo> groupInfoInCurrentConnection() throws BaseException {
+        return getRedisManager().run(UnifiedJedis::xinfoGroups, "xinfoGroups", streamKey())
+                .flatMap(groups -> groups.stream().filter(info -> StringUtils.equals(getGroup(), info.getName())).findFirst());
+    }
+
+    /**
+     * Adds the failed entry to the dead-letter stream ({@link IStreamGroupConfig#getDeadLetterGroup()}) and ACKs it in the same pipeline, without
+     * opening a new connection. The dead-letter entry contains the original fields extended by the original ID, group, the failure cause and the
+     * attempt count (see {@link IRedisStreamConstant.DeadLetter}). This is equivalent to redis console:
+     *
+     * <pre>
+     * # in one pipeline
+     * XADD deadLetterStreamKey * key1 value1 ... deadLetterOriginalId id deadLetterCause cause deadLetterAttempts attempts
+     * XACK streamKey group id # only if manualAck
+     * </pre>
+     *
+     * @param streamEntry
+     *            failed entry
+     * @param cause
+     *            failure cause, can be null
+     * @param attempts
+     *            count of the processing attempts
+     * @return ID of the dead-letter entry
+     * @throws BaseException
+     *             Exception, or if dead-letter group is not configured
+     * @since 2.13.0
+     */
+    public Optional<StreamEntryID> deadLetterInCurrentConnection(StreamEntry streamEntry, Throwable cause, int attempts) throws BaseException {
+        if (streamEntry == null) {
+            throw new InvalidParameterException("streamEntry is null");
+        }
+        String deadLetterGroup = config.getDeadLetterGroup()
+                .orElseThrow(() -> new InvalidParameterException("Dead-letter group is not configured for group [" + getGroup() + "]"));
+        Map<String, String> fields = new HashMap<>(streamEntry.getFields());
+        fields.put(IRedisStreamConstant.DeadLetter.DATA_KEY_ORIGINAL_ID, streamEntry.getID().toString());
+        fields.put(IRedisStreamConstant.DeadLetter.DATA_KEY_ORIGINAL_GROUP, getGroup());
+        fields.put(IRedisStreamConstant.DeadLetter.DATA_KEY_CAUSE, cause == null ? "" : StringUtils.defaultString(cause.getLocalizedMessage(),
+                cause.getClass().getName()));
+        fields.put(IRedisStreamConstant.DeadLetter.DATA_KEY_ATTEMPTS, String.valueOf(attempts));
+
+        try (AbstractPipeline pipeline = initPipeline()) {
+            Response<StreamEntryID> deadLetterId = pipeline
+                    .executeCommand(RedisStreamBinaryUtil.xadd(RedisStreamUtil.streamKey(deadLetterGroup), XAddParams.xAddParams(), fields));
+            if (config.isManualAck()) {
+                pipeline.xack(streamKey(), getGroup(), streamEntry.getID());
+            }
+            pipeline.sync();
+            log.info("Stream entry [{0}] of group [{1}] moved to dead-letter group [{2}] as [{3}] after [{4}] attempts", streamEntry.getID(),
+                    getGroup(), deadLetterGroup, deadLetterId.get(), attempts);
+            return Optional.ofNullable(deadLetterId.get());
+        }
+    }
+
+    /**
+     * Replays the dead-letter entries of this stream group: the entries originated from this group are added again to the stream (with new ID and
+     * the original fields) and deleted from the dead-letter stream in one pipeline per block. Entries of other groups in the same dead-letter
+     * stream are left untouched. This is equivalent to redis console:
+     *
+     * <pre>
+     * XRANGE deadLetterStreamKey - + COUNT 1000
+     * # loop for every entry of this group
+     * XADD streamKey * key1 value1 ...
+     * XDEL deadLetterStreamKey id
+     * # until maxCount or the end of the dead-letter stream
+     * </pre>
+     *
+     * @param maxCount
+     *            maximum count of the replayed entries
+     * @return replayed entries count
+     * @throws BaseException
+     *             Exception, or if dead-letter group is not configured
+     * @since 2.13.0
+     */
+    public long replayDeadLetters(long maxCount) throws BaseException {
+        String deadLetterGroup = config.getDeadLetterGroup()
+                .orElseThrow(() -> new InvalidParameterException("Dead-letter group is not configured for group [" + getGroup() + "]"));
+        String deadLetterStreamKey = RedisStreamUtil.streamKey(deadLetterGroup);
+        long replayed = 0;
+        StreamEntryID from = new StreamEntryID();
+        try (RedisManagerConnection ignored = getRedisManager().initConnection()) {
+            while (replayed < maxCount) {
+                byte[] start = SafeEncoder.encode(from.toString());
+                List<Object> reply = getRedisManager()
+                        .run(jedis -> jedis.xrange(SafeEncoder.encode(deadLetterStreamKey), start, SafeEncoder.encode("+"),
+                                EXPIRED_MESSAGE_CLEANUP_BLOCK_SIZE), "xrange")
+                        .orElseGet(List::of);
+                List<StreamEntry> deadLetters = RedisStreamBinaryUtil.parseStreamEntries(reply);
+                if (deadLetters.isEmpty()) {
+                    break;
+                }
+                try (AbstractPipeline pipeline = initPipeline()) {
+                    for (StreamEntry deadLetter : deadLetters) {
+                        if (replayed >= maxCount) {
+                            break;
+                        }
+                        if (!StringUtils.equals(getGroup(), deadLetter.getFields().get(IRedisStreamConstant.DeadLetter.DATA_KEY_ORIGINAL_GROUP))) {
+                            continue;
+                        }
+                        Map<String, String> fields = new HashMap<>(deadLetter.getFields());
+                        fields.keySet().removeIf(key -> key.startsWith(DEAD_LETTER_KEY_PREFIX));
+                        pipeline.executeCommand(RedisStreamBinaryUtil.xadd(replayStreamKey(fields), XAddParams.xAddParams(), fields));
+                        pipeline.xdel(deadLetterStreamKey, deadLetter.getID());
+                        replayed++;
+                    }
+                    pipeline.sync();
+                }
+                if (deadLetters.size() < EXPIRED_MESSAGE_CLEANUP_BLOCK_SIZE) {
+                    break;
+                }
+                StreamEntryID last = deadLetters.get(deadLetters.size() - 1).getID();
+                from = new StreamEntryID(last.getTime(), last.getSequence() + 1);
+            }
+        }
+        log.info("Replayed [{0}] dead-letter entries from [{1}] to group [{2}]", replayed, deadLetterStreamKey, getGroup());
+        return replayed;
+    }
+
+    private String replayStreamKey(Map<String, String> fields) {
+        if (config.getStreamPartitions() <= 1) {
+            return streamKey();
+        }
+        // partitioned group: routed again like on publish, so the entries with partition key are kept in their partition
+        return RedisStreamUtil.streamKey(getGroup(), fields.get(IRedisStreamConstant.Common.DATA_KEY_PARTITION_KEY), config.getStreamPartitions());
+    }
+
+    private AbstractPipeline initPipeline() throws BaseException {
+        return getRedisManager().run(UnifiedJedis::pipelined, "pipelined")
+                .orElseThrow(() -> new TechnicalException(CoffeeFaultType.REDIS_OPERATION_FAILED, "Error occurred while creating pipeline"));
+    }
+
     /**
      * List stream entries in pending
      *
@@ -467,6 +1134,27 @@ public class RedisStreamService {
         config.setConfigKey(group);
     }
 
+    /**
+     * Returns the partition index of the stream group, see {@link IStreamGroupConfig#getStreamPartitions()}
+     *
+     * @return the partition index, null if the stream is not partitioned
+     * @since 2.13.0
+     */
+    public Integer getPartition() {
+        return partition;
+    }
+
+    /**
+     * Sets the partition index of the stream group, the {@link #streamKey()} and all stream operations of the service are bound to this partition
+     *
+     * @param partition
+     *            the partition index, null if the stream is not partitioned
+     * @since 2.13.0
+     */
+    public void setPartition(Integer partition) {
+        this.partition = partition;
+    }
+
     /**
      * Get CDI instance
      *
@@ -0,0 +1,176 @@
+/*-
+ * #%L
+ * Coffee
+ * %%
+ * Copyright (C) 2020 - 2026 i-Cell Mobilsoft Zrt.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package hu.icellmobilsoft.coffee.module.redisstream.action;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import hu.icellmobilsoft.coffee.cdi.logger.AppLogger;
+import hu.icellmobilsoft.coffee.dto.common.common.RedisMessageTypeType;
+import hu.icellmobilsoft.coffee.module.redis.manager.RedisManager;
+import hu.icellmobilsoft.coffee.module.redisstream.publisher.RedisStreamPublisher;
+import hu.icellmobilsoft.coffee.se.function.BaseExceptionFunction;
+import redis.clients.jedis.UnifiedJedis;
+import redis.clients.jedis.exceptions.JedisNoScriptException;
+
+/**
+ * Round trip count of the {@link EventControlAction#serialStreamEvent(String, Object, long, String)}. Every command called on the
+ * {@link UnifiedJedis} is one round trip to the server, the stream publish is counted separately.
+ *
+ * @author agent
+ * @since 2.13.0
+ */
+@DisplayName("Testing EventControlAction round trips")
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class EventControlActionTest {
+
+    private static final String KEY = "fifo";
+
+    @Mock
+    private AppLogger log;
+
+    @Mock
+    private RedisManager redisManager;
+
+    @Mock
+    private UnifiedJedis jedis;
+
+    @InjectMocks
+    private TestEventControlAction underTest;
+
+    @BeforeEach
+    void init() throws Exception {
+        Mockito.when(redisManager.run(ArgumentMatchers.<BaseExceptionFunction<UnifiedJedis, Object>> any(), ArgumentMatchers.anyString()))
+                .thenAnswer(invocation -> Optional.ofNullable(invocation.<BaseExceptionFunction<UnifiedJedis, Object>> getArgument(0).apply(jedis)));
+        Mockito.when(jedis.scriptLoad(ArgumentMatchers.anyString(), ArgumentMatchers.anyString())).thenReturn("sha");
+    }
+
+    @Test
+    @DisplayName("Testing first item is pushed in one round trip and published")
+    void firstItem() throws Exception {
+        // given
+        Mockito.when(jedis.evalsha(ArgumentMatchers.anyString(), ArgumentMatchers.<List<String>> any(), ArgumentMatchers.<List<String>> any()))
+                .thenReturn(1L);
+        underTest.serialStreamEvent(KEY, "warm up", 60, null);
+        Mockito.clearInvocations(jedis);
+        underTest.published.clear();
+        // when
+        boolean published = underTest.serialStreamEvent(KEY, "message", 60, null);
+        // then
+        assertTrue(published);
+        assertEquals(1, roundTrips());
+        assertEquals(List.of(KEY), underTest.published);
+        Mockito.verify(jedis).evalsha(ArgumentMatchers.eq("sha"), ArgumentMatchers.eq(List.of(KEY, "streampipe:{fifo}:id")),
+                ArgumentMatchers.argThat(args -> args.size() == 3 && "60".equals(args.get(1))));
+    }
+
+    @Test
+    @DisplayName("Testing next item is pushed in one round trip and not published")
+    void nextItem() throws Exception {
+        // given
+        Mockito.when(jedis.evalsha(ArgumentMatchers.anyString(), ArgumentMatchers.<List<String>> any(), ArgumentMatchers.<List<String>> any()))
+                .thenReturn(2L);
+        underTest.serialStreamEvent(KEY, "warm up", 60, null);
+        Mockito.clearInvocations(jedis);
+        // when
+        boolean published = underTest.serialStreamEvent(KEY, "message", 60, null);
+        // then
+        assertFalse(published);
+        assertEquals(1, roundTrips());
+        assertTrue(underTest.published.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Testing script is loaded again on NOSCRIPT")
+    void noScript() throws Exception {
+        // given
+        Mockito.when(jedis.evalsha(ArgumentMatchers.anyString(), ArgumentMatchers.<List<String>> any(), ArgumentMatchers.<List<String>> any()))
+                .thenReturn(2L);
+        underTest.serialStreamEvent(KEY, "warm up", 60, null);
+        Mockito.clearInvocations(jedis);
+        Mockito.when(jedis.evalsha(ArgumentMatchers.anyString(), ArgumentMatchers.<List<String>> any(), ArgumentMatchers.<List<String>> any()))
+                .thenThrow(new JedisNoScriptException("NOSCRIPT No matching script"))
+                .thenReturn(2L);
+        // when
+        boolean published = underTest.serialStreamEvent(KEY, "message", 60, null);
+        // then
+        assertFalse(published);
+        assertEquals(3, roundTrips());
+        Mockito.verify(jedis).scriptLoad(ArgumentMatchers.anyString(), ArgumentMatchers.eq(KEY));
+    }
+
+    private int roundTrips() {
+        return Mockito.mockingDetails(jedis).getInvocations().size();
+    }
+
+    /**
+     * Test implementation, collects the published keys
+     */
+    static class TestEventControlAction extends EventControlAction<String> {
+
+        private RedisManager redisManager;
+
+        private final List<String> published = new ArrayList<>();
+
+        @Override
+        public RedisManager getRedisManager() {
+            return redisManager;
+        }
+
+        @Override
+        public RedisStreamPublisher getRedisStreamPublisher() {
+            return null;
+        }
+
+        @Override
+        public RedisMessageTypeType messageType() {
+            return RedisMessageTypeType.FIFO;
+        }
+
+        @Override
+        protected void publish(String key, Map<String, String> parameters) {
+            published.add(key);
+        }
+
+        @Override
+        protected Map<String, String> defaultMessageProperties() {
+            return Map.of();
+        }
+    }
+}
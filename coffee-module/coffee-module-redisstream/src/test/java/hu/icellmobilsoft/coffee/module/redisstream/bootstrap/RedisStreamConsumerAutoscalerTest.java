@@ -0,0 +1,269 @@
+/*-
+ * #%L
+ * Coffee
+ * %%
+ * Copyright (C) 2020 - 2026 i-Cell Mobilsoft Zrt.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package hu.icellmobilsoft.coffee.module.redisstream.bootstrap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+
+import jakarta.enterprise.event.Event;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import hu.icellmobilsoft.coffee.module.redisstream.common.RedisStreamUtil;
+import hu.icellmobilsoft.coffee.module.redisstream.config.StreamGroupConfig;
+import hu.icellmobilsoft.coffee.module.redisstream.consumer.IRedisStreamConsumerExecutor;
+import hu.icellmobilsoft.coffee.module.redisstream.consumer.StreamGroupInfoSample;
+import hu.icellmobilsoft.coffee.se.logging.Logger;
+import redis.clients.jedis.resps.StreamGroupInfo;
+
+/**
+ * Testing the scaling decisions of {@link RedisStreamConsumerAutoscaler}
+ *
+ * @author agent
+ * @since 2.13.0
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+@DisplayName("Testing RedisStreamConsumerAutoscaler")
+class RedisStreamConsumerAutoscalerTest {
+
+    private static final long SCALE_UP_LAG = 100;
+
+    private static final long SCALE_DOWN_LAG = 10;
+
+    @Mock
+    private Logger log;
+
+    @Mock
+    private StreamGroupConfig streamGroupConfig;
+
+    @Mock
+    private Event<RedisStreamMetricEventMessage> metricsEvent;
+
+    @InjectMocks
+    private RedisStreamConsumerAutoscaler underTest;
+
+    private final List<IRedisStreamConsumerExecutor> started = new ArrayList<>();
+
+    @BeforeEach
+    void init() {
+        Mockito.when(streamGroupConfig.getAutoscaleScaleUpLag()).thenReturn(SCALE_UP_LAG);
+        Mockito.when(streamGroupConfig.getAutoscaleScaleDownLag()).thenReturn(SCALE_DOWN_LAG);
+        Mockito.when(streamGroupConfig.getAutoscaleCooldownMillis()).thenReturn(0L);
+        Mockito.when(streamGroupConfig.getMetricsSampleIntervalMillis()).thenReturn(1000L);
+        Mockito.when(streamGroupConfig.getStreamPartitions()).thenReturn(1);
+    }
+
+    @Test
+    @DisplayName("Testing one consumer is started if the backlog per thread is above the scale up lag")
+    void scaleUp() {
+        // given
+        String group = "autoscaleUp";
+        List<IRedisStreamConsumerExecutor> executors = executors(2);
+        underTest.init(group, 1, 4, executors, this::startConsumer);
+        sample(group, RedisStreamUtil.streamKey(group), 150L, 100);
+        // when
+        underTest.scale();
+        // then
+        assertEquals(1, started.size());
+        ArgumentCaptor<RedisStreamMetricEventMessage> message = ArgumentCaptor.forClass(RedisStreamMetricEventMessage.class);
+        Mockito.verify(metricsEvent).fireAsync(message.capture());
+        assertEquals(group, message.getValue().getGroup());
+        assertEquals(3, message.getValue().getCount());
+    }
+
+    @Test
+    @DisplayName("Testing no consumer is started above the max threads")
+    void maxThreads() {
+        // given
+        String group = "autoscaleMax";
+        underTest.init(group, 1, 2, executors(2), this::startConsumer);
+        sample(group, RedisStreamUtil.streamKey(group), 10000L, 0);
+        // when
+        underTest.scale();
+        // then
+        assertTrue(started.isEmpty());
+        Mockito.verifyNoInteractions(metricsEvent);
+    }
+
+    @Test
+    @DisplayName("Testing no more consumer start is tried after a consumer could not be started")
+    void startFailure() {
+        // given
+        String group = "autoscaleStartFailure";
+        List<IRedisStreamConsumerExecutor> executors = executors(2);
+        int[] attempts = { 0 };
+        underTest.init(group, 1, 4, executors, index -> {
+            attempts[0]++;
+            throw new IllegalStateException("Virtual thread concurrency limit is reached");
+        });
+        sample(group, RedisStreamUtil.streamKey(group), 10000L, 0);
+        // when
+        underTest.scale();
+        underTest.scale();
+        // then
+        assertEquals(1, attempts[0]);
+        Mockito.verifyNoInteractions(metricsEvent);
+        Mockito.verify(executors.get(1), Mockito.never()).requestStop();
+    }
+
+    @Test
+    @DisplayName("Testing the last started consumer is stopped if the backlog per thread is below the scale down lag")
+    void scaleDown() {
+        // given
+        String group = "autoscaleDown";
+        List<IRedisStreamConsumerExecutor> executors = executors(3);
+        underTest.init(group, 1, 4, executors, this::startConsumer);
+        sample(group, RedisStreamUtil.streamKey(group), 5L, 0);
+        // when
+        underTest.scale();
+        // then
+        Mockito.verify(executors.get(2)).requestStop();
+        Mockito.verify(executors.get(0), Mockito.never()).requestStop();
+        Mockito.verify(executors.get(1), Mockito.never()).requestStop();
+        Mockito.verify(metricsEvent).fireAsync(ArgumentMatchers.any());
+    }
+
+    @Test
+    @DisplayName("Testing no consumer is stopped below the min threads")
+    void minThreads() {
+        // given
+        String group = "autoscaleMin";
+        List<IRedisStreamConsumerExecutor> executors = executors(1);
+        underTest.init(group, 1, 4, executors, this::startConsumer);
+        sample(group, RedisStreamUtil.streamKey(group), 0L, 0);
+        // when
+        underTest.scale();
+        // then
+        Mockito.verify(executors.get(0), Mockito.never()).requestStop();
+        Mockito.verifyNoInteractions(metricsEvent);
+    }
+
+    @Test
+    @DisplayName("Testing there is no other scaling in the cooldown")
+    void cooldown() {
+        // given
+        Mockito.when(streamGroupConfig.getAutoscaleCooldownMillis()).thenReturn(60000L);
+        String group = "autoscaleCooldown";
+        underTest.init(group, 1, 4, executors(1), this::startConsumer);
+        sample(group, RedisStreamUtil.streamKey(group), 1000L, 0);
+        // when
+        underTest.scale();
+        underTest.scale();
+        // then
+        assertEquals(1, started.size());
+        Mockito.verify(metricsEvent, Mockito.times(1)).fireAsync(ArgumentMatchers.any());
+    }
+
+    @Test
+    @DisplayName("Testing the backlog sums lag and pending of the partitions and skips the not reported values")
+    void backlog() {
+        // given
+        Mockito.when(streamGroupConfig.getStreamPartitions()).thenReturn(3);
+        String group = "autoscaleBacklog";
+        underTest.init(group, 1, 4, executors(1), this::startConsumer);
+        sample(group, RedisStreamUtil.streamKey(group, 0), 100L, 5);
+        // Redis 6, lag is not reported
+        sample(group, RedisStreamUtil.streamKey(group, 1), null, 7);
+        // partition 2 is not sampled yet
+        // when
+        OptionalLong backlog = underTest.getBacklog();
+        // then
+        assertEquals(OptionalLong.of(112), backlog);
+    }
+
+    @Test
+    @DisplayName("Testing the backlog is empty and no scaling happens before the first sample")
+    void notSampled() {
+        // given
+        String group = "autoscaleNotSampled";
+        underTest.init(group, 1, 4, executors(1), this::startConsumer);
+        // when
+        OptionalLong backlog = underTest.getBacklog();
+        underTest.scale();
+        // then
+        assertTrue(backlog.isEmpty());
+        assertTrue(started.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Testing the autoscaler is registered in the consumer counter and releases the shut down lock")
+    void shutDown() {
+        // given
+        String group = "autoscaleShutDown";
+        underTest.init(group, 1, 4, executors(1), this::startConsumer);
+        int consumerCount = ConsumerLifeCycleManager.CONSUMER_COUNTER.get();
+        int permits = ConsumerLifeCycleManager.SEMAPHORE.availablePermits();
+        ConsumerLifeCycleManager.ENDLOOP = true;
+        try {
+            // when
+            underTest.run();
+        } finally {
+            ConsumerLifeCycleManager.ENDLOOP = false;
+        }
+        // then
+        assertEquals(consumerCount, ConsumerLifeCycleManager.CONSUMER_COUNTER.get());
+        assertEquals(consumerCount == 0 ? permits + 1 : permits, ConsumerLifeCycleManager.SEMAPHORE.availablePermits());
+        ConsumerLifeCycleManager.SEMAPHORE.drainPermits();
+        assertTrue(started.isEmpty());
+    }
+
+    private IRedisStreamConsumerExecutor startConsumer(int index) {
+        IRedisStreamConsumerExecutor executor = Mockito.mock(IRedisStreamConsumerExecutor.class);
+        started.add(executor);
+        return executor;
+    }
+
+    private static List<IRedisStreamConsumerExecutor> executors(int count) {
+        List<IRedisStreamConsumerExecutor> executors = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            executors.add(Mockito.mock(IRedisStreamConsumerExecutor.class));
+        }
+        return executors;
+    }
+
+    private static void sample(String group, String streamKey, Long lag, long pending) {
+        Map<String, Object> map = new HashMap<>();
+        map.put(StreamGroupInfo.NAME, group);
+        map.put(StreamGroupInfo.CONSUMERS, 1L);
+        map.put(StreamGroupInfo.PENDING, pending);
+        map.put("lag", lag);
+        map.put("entries-read", lag == null ? null : 0L);
+        StreamGroupInfoSample.of(streamKey, group, s -> {
+        }).update(new StreamGroupInfo(map));
+    }
+}
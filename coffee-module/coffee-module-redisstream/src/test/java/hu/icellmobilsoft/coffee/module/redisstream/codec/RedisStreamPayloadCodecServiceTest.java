@@ -0,0 +1,152 @@
+/*-
+ * #%L
+ * Coffee
+ * %%
+ * Copyright (C) 2020 - 2026 i-Cell Mobilsoft Zrt.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package hu.icellmobilsoft.coffee.module.redisstream.codec;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import jakarta.enterprise.inject.Instance;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import hu.icellmobilsoft.coffee.module.redisstream.common.RedisStreamBinaryUtil;
+import hu.icellmobilsoft.coffee.module.redisstream.config.IRedisStreamConstant;
+import hu.icellmobilsoft.coffee.se.api.exception.TechnicalException;
+import redis.clients.jedis.StreamEntryID;
+import redis.clients.jedis.resps.StreamEntry;
+import redis.clients.jedis.resps.StreamEntryBinary;
+
+/**
+ * Testing the encode/decode round trip of {@link RedisStreamPayloadCodecService} through the binary stream fields
+ *
+ * @author agent
+ * @since 2.13.0
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+@DisplayName("Testing RedisStreamPayloadCodecService")
+class RedisStreamPayloadCodecServiceTest {
+
+    private static final StreamEntryID ID = new StreamEntryID(1, 0);
+
+    @Mock
+    private Instance<IRedisStreamPayloadCodec> codecInstances;
+
+    @InjectMocks
+    private RedisStreamPayloadCodecService codecService;
+
+    @BeforeEach
+    void init() {
+        Mockito.when(codecInstances.stream()).thenAnswer(i -> Stream.of(new GzipRedisStreamPayloadCodec(), new DeflateRedisStreamPayloadCodec()));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { GzipRedisStreamPayloadCodec.NAME, DeflateRedisStreamPayloadCodec.NAME })
+    @DisplayName("Testing encoded message is written as raw bytes and decoded to the original")
+    void roundTrip(String codecName) throws Exception {
+        // given
+        String message = "árvíztűrő tükörfúrógép ".repeat(100);
+        Map<String, String> jedisMessage = message(message);
+        // when
+        Map<String, String> encoded = codecService.encode(jedisMessage, codecName, 16);
+        Map<byte[], byte[]> binaryFields = RedisStreamBinaryUtil.toBinaryFields(encoded);
+        StreamEntry read = RedisStreamBinaryUtil.toStreamEntry(new StreamEntryBinary(ID, binaryFields));
+        StreamEntry decoded = codecService.decode(read);
+        // then
+        assertEquals(codecName, encoded.get(IRedisStreamConstant.Common.DATA_KEY_CODEC));
+        byte[] rawMessage = binaryFields.entrySet()
+                .stream()
+                .filter(e -> IRedisStreamConstant.Common.DATA_KEY_MESSAGE.equals(new String(e.getKey(), StandardCharsets.UTF_8)))
+                .findFirst()
+                .orElseThrow()
+                .getValue();
+        assertArrayEquals(codecService.getCodec(codecName).encode(message.getBytes(StandardCharsets.UTF_8)), rawMessage);
+        assertTrue(rawMessage.length < message.getBytes(StandardCharsets.UTF_8).length);
+        assertEquals(jedisMessage, decoded.getFields());
+        assertEquals(ID, decoded.getID());
+    }
+
+    @Test
+    @DisplayName("Testing legacy entry without codec field is returned unchanged")
+    void legacyEntry() throws Exception {
+        // given
+        Map<String, String> fields = message("{\"text\":\"árvíztűrő\"}");
+        StreamEntryBinary binaryEntry = new StreamEntryBinary(ID, RedisStreamBinaryUtil.toBinaryFields(fields));
+        // when
+        StreamEntry read = RedisStreamBinaryUtil.toStreamEntry(binaryEntry);
+        StreamEntry decoded = codecService.decode(read);
+        // then
+        assertSame(read, decoded);
+        assertEquals(fields, decoded.getFields());
+    }
+
+    @Test
+    @DisplayName("Testing message below the threshold or not compressible is not encoded")
+    void notEncoded() throws Exception {
+        // given
+        Map<String, String> small = message("small");
+        Map<String, String> random = message("x7Qp");
+        // when
+        Map<String, String> belowThreshold = codecService.encode(small, GzipRedisStreamPayloadCodec.NAME, 1024);
+        Map<String, String> notCompressible = codecService.encode(random, GzipRedisStreamPayloadCodec.NAME, 1);
+        // then
+        assertSame(small, belowThreshold);
+        assertSame(random, notCompressible);
+        assertFalse(RedisStreamBinaryUtil.isEncoded(notCompressible));
+    }
+
+    @Test
+    @DisplayName("Testing unknown codec fails")
+    void unknownCodec() {
+        // given
+        Map<String, String> fields = message("message");
+        fields.put(IRedisStreamConstant.Common.DATA_KEY_CODEC, "unknown");
+        StreamEntry streamEntry = new StreamEntry(ID, fields);
+        // when then
+        assertThrows(TechnicalException.class, () -> codecService.decode(streamEntry));
+    }
+
+    private static Map<String, String> message(String message) {
+        Map<String, String> fields = new HashMap<>();
+        fields.put(IRedisStreamConstant.Common.DATA_KEY_MESSAGE, message);
+        fields.put(IRedisStreamConstant.Common.DATA_KEY_FLOW_ID, "flowId");
+        return fields;
+    }
+}
@@ -0,0 +1,120 @@
+/*-
+ * #%L
+ * Coffee
+ * %%
+ * Copyright (C) 2020 - 2026 i-Cell Mobilsoft Zrt.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package hu.icellmobilsoft.coffee.module.redisstream.common;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * Testing the partition and key helpers of {@link RedisStreamUtil}
+ *
+ * @author agent
+ * @since 2.13.0
+ */
+@DisplayName("Testing RedisStreamUtil")
+class RedisStreamUtilTest {
+
+    private static final String GROUP = "sample";
+
+    @Test
+    @DisplayName("Testing keys of the stream group")
+    void keys() {
+        assertEquals("sampleStream", RedisStreamUtil.streamKey(GROUP));
+        assertEquals("sampleStream:2", RedisStreamUtil.streamKey(GROUP, 2));
+        assertEquals("sampleTrimLock", RedisStreamUtil.trimLockKey(GROUP));
+        assertEquals("sampleStream:2Retry", RedisStreamUtil.retryKey(RedisStreamUtil.streamKey(GROUP, 2)));
+        assertEquals("sampleProcessed:key", RedisStreamUtil.idempotencyKey(GROUP, "key"));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = { -1, 0, 1 })
+    @DisplayName("Testing not partitioned group has the original stream key")
+    void notPartitioned(int partitions) {
+        // when
+        List<String> streamKeys = RedisStreamUtil.streamKeys(GROUP, partitions);
+        String streamKey = RedisStreamUtil.streamKey(GROUP, "key", partitions);
+        int partition = RedisStreamUtil.partition(null, partitions);
+        // then
+        assertEquals(List.of("sampleStream"), streamKeys);
+        assertEquals("sampleStream", streamKey);
+        assertEquals(0, partition);
+    }
+
+    @Test
+    @DisplayName("Testing partition keys of the group")
+    void streamKeys() {
+        // when
+        List<String> streamKeys = RedisStreamUtil.streamKeys(GROUP, 3);
+        // then
+        assertEquals(List.of("sampleStream:0", "sampleStream:1", "sampleStream:2"), streamKeys);
+    }
+
+    @Test
+    @DisplayName("Testing same partition key always selects the same partition")
+    void partitionKeyStable() {
+        // given
+        int partitions = 5;
+        // when
+        // then
+        for (int i = 0; i < 1000; i++) {
+            String key = "key" + i;
+            int partition = RedisStreamUtil.partition(key, partitions);
+            assertTrue(partition >= 0 && partition < partitions);
+            assertEquals(partition, RedisStreamUtil.partition(key, partitions));
+            assertEquals(RedisStreamUtil.streamKey(GROUP, partition), RedisStreamUtil.streamKey(GROUP, key, partitions));
+        }
+    }
+
+    @Test
+    @DisplayName("Testing negative hash code selects valid partition")
+    void negativeHash() {
+        // given
+        // "polygenelubricants" has Integer.MIN_VALUE hash code
+        String key = "polygenelubricants";
+        // when
+        int partition = RedisStreamUtil.partition(key, 3);
+        // then
+        assertEquals(Integer.MIN_VALUE, key.hashCode());
+        assertEquals(Math.floorMod(Integer.MIN_VALUE, 3), partition);
+    }
+
+    @Test
+    @DisplayName("Testing messages without partition key are spread round-robin")
+    void roundRobin() {
+        // given
+        int partitions = 4;
+        Set<Integer> selected = new HashSet<>();
+        // when
+        for (int i = 0; i < partitions; i++) {
+            selected.add(RedisStreamUtil.partition(null, partitions));
+        }
+        // then
+        assertEquals(Set.of(0, 1, 2, 3), selected);
+    }
+}
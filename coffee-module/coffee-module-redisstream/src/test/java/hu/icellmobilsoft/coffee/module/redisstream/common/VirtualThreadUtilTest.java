@@ -0,0 +1,92 @@
+/*-
+ * #%L
+ * Coffee
+ * %%
+ * Copyright (C) 2020 - 2026 i-Cell Mobilsoft Zrt.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package hu.icellmobilsoft.coffee.module.redisstream.common;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Testing the concurrency limit of {@link VirtualThreadUtil}
+ *
+ * @author agent
+ * @since 2.13.0
+ */
+@DisplayName("Testing VirtualThreadUtil concurrency limit")
+class VirtualThreadUtilTest {
+
+    @AfterEach
+    void resetLimit() {
+        VirtualThreadUtil.setConcurrencyLimit(Integer.MAX_VALUE);
+    }
+
+    @Test
+    @DisplayName("Testing limit change keeps the available count")
+    void limitChange() {
+        // given
+        VirtualThreadUtil.setConcurrencyLimit(10);
+        // when
+        VirtualThreadUtil.setConcurrencyLimit(4);
+        int decreased = VirtualThreadUtil.getAvailableCount();
+        VirtualThreadUtil.setConcurrencyLimit(6);
+        int increased = VirtualThreadUtil.getAvailableCount();
+        // then
+        assertEquals(4, decreased);
+        assertEquals(6, increased);
+        assertThrows(IllegalArgumentException.class, () -> VirtualThreadUtil.setConcurrencyLimit(-1));
+    }
+
+    @Test
+    @DisplayName("Testing thread above the limit is not started")
+    void limitEnforced() throws Exception {
+        Assumptions.assumeTrue(VirtualThreadUtil.isSupported(), "virtual threads need JDK 21+");
+        // given
+        VirtualThreadUtil.setConcurrencyLimit(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Optional<Thread> first = VirtualThreadUtil.start("first", () -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        // when
+        Optional<Thread> second = VirtualThreadUtil.start("second", () -> {
+        });
+        release.countDown();
+        first.orElseThrow().join();
+        Optional<Thread> third = VirtualThreadUtil.start("third", () -> {
+        });
+        // then
+        assertTrue(first.isPresent());
+        assertTrue(second.isEmpty());
+        assertTrue(third.isPresent());
+        third.get().join();
+        assertEquals(1, VirtualThreadUtil.getAvailableCount());
+    }
+}
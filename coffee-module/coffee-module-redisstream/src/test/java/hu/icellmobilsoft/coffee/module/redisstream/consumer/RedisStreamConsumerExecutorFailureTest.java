@@ -0,0 +1,334 @@
+/*-
+ * #%L
+ * Coffee
+ * %%
+ * Copyright (C) 2020 - 2026 i-Cell Mobilsoft Zrt.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package hu.icellmobilsoft.coffee.module.redisstream.consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import jakarta.enterprise.inject.spi.Bean;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import hu.icellmobilsoft.coffee.cdi.metric.spi.IRedisStreamMetricsHandler;
+import hu.icellmobilsoft.coffee.dto.exception.enums.CoffeeFaultType;
+import hu.icellmobilsoft.coffee.module.redisstream.config.IRedisStreamConstant;
+import hu.icellmobilsoft.coffee.module.redisstream.config.StreamGroupConfig;
+import hu.icellmobilsoft.coffee.module.redisstream.service.RedisStreamService;
+import hu.icellmobilsoft.coffee.se.api.exception.BaseException;
+import hu.icellmobilsoft.coffee.se.api.exception.TechnicalException;
+import hu.icellmobilsoft.coffee.se.logging.Logger;
+import redis.clients.jedis.StreamEntryID;
+import redis.clients.jedis.exceptions.JedisConnectionException;
+import redis.clients.jedis.resps.StreamEntry;
+
+/**
+ * Failure handling of {@link RedisStreamConsumerExecutor} in case of delayed retry: only the failed entries are scheduled for retry, the
+ * exhausted entries do not stay in the pending list. The idempotency claim is taken before processing and released on failure. Only the connection
+ * errors of the own stream calls mark the consumer connection lost. The later entries of a failed dispatch key are left pending.
+ *
+ * @author agent
+ * @since 2.13.0
+ */
+@DisplayName("Testing RedisStreamConsumerExecutor failure handling")
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class RedisStreamConsumerExecutorFailureTest {
+
+    private static final String GROUP = "group";
+
+    private static final StreamEntry ENTRY = new StreamEntry(new StreamEntryID(1700000000000L, 0), Map.of("message", "m"));
+
+    private static final StreamEntry KEYED_ENTRY = new StreamEntry(new StreamEntryID(1700000000000L, 1),
+            Map.of("message", "m", IRedisStreamConstant.Common.DATA_KEY_IDEMPOTENCY_KEY, "order-1"));
+
+    private static final Duration IDEMPOTENCY_TTL = Duration.ofMinutes(10);
+
+    private static final Exception FAILURE = new IllegalStateException("failure");
+
+    private static final String KEY_FIELD = "partitionKey";
+
+    @Mock
+    private Logger log;
+
+    @Mock
+    private RedisStreamService redisStreamService;
+
+    @Mock
+    private StreamGroupConfig streamGroupConfig;
+
+    @Mock
+    private IRedisStreamMetricsHandler redisStreamMetricsHandler;
+
+    @Mock
+    private Bean<? super IRedisStreamBaseConsumer> consumerBean;
+
+    @InjectMocks
+    private TestConsumerExecutor underTest;
+
+    @BeforeEach
+    void init() {
+        Mockito.when(streamGroupConfig.isManualAck()).thenReturn(true);
+        Mockito.when(streamGroupConfig.getRetryCount()).thenReturn(Optional.of(3));
+        Mockito.when(streamGroupConfig.getRetryBackoffInitialMillis()).thenReturn(Optional.of(1000L));
+        Mockito.when(streamGroupConfig.getRetryBackoffMultiplier()).thenReturn(2.0);
+        Mockito.when(streamGroupConfig.getRetryBackoffMaxMillis()).thenReturn(60000L);
+        Mockito.when(streamGroupConfig.getRetryBackoffJitter()).thenReturn(0.0);
+        Mockito.when(streamGroupConfig.getDispatchWorkers()).thenReturn(1);
+        Mockito.when(streamGroupConfig.getMetricsSampleIntervalMillis()).thenReturn(1000L);
+        Mockito.doReturn(Object.class).when(consumerBean).getBeanClass();
+        Mockito.when(redisStreamService.getGroup()).thenReturn(GROUP);
+    }
+
+    @Test
+    @DisplayName("Testing failed entry with deliveries left is scheduled for retry by the backoff")
+    void scheduleRetry() throws Exception {
+        // given
+        underTest.init("redis", GROUP, consumerBean);
+        underTest.deliveryCount = 2;
+        long before = System.currentTimeMillis();
+        // when
+        boolean finished = underTest.handleFailure(ENTRY, FAILURE, 1);
+        // then
+        assertFalse(finished);
+        long after = System.currentTimeMillis();
+        Mockito.verify(redisStreamService)
+                .scheduleRetryInCurrentConnection(ArgumentMatchers.eq(ENTRY.getID()),
+                        ArgumentMatchers.longThat(due -> due >= before + 2000 && due <= after + 2000));
+        Mockito.verify(redisStreamService, Mockito.never()).ackInCurrentConnection(ArgumentMatchers.any(StreamEntryID.class));
+    }
+
+    @Test
+    @DisplayName("Testing exhausted entry without dead-letter group is ACKed")
+    void exhaustedAck() throws Exception {
+        // given
+        underTest.init("redis", GROUP, consumerBean);
+        underTest.deliveryCount = 3;
+        // when
+        boolean finished = underTest.handleFailure(ENTRY, FAILURE, 1);
+        // then
+        assertTrue(finished);
+        Mockito.verify(redisStreamService).ackInCurrentConnection(ENTRY.getID());
+        Mockito.verify(redisStreamService, Mockito.never()).scheduleRetryInCurrentConnection(ArgumentMatchers.any(), ArgumentMatchers.anyLong());
+    }
+
+    @Test
+    @DisplayName("Testing exhausted entry is moved to the dead-letter group")
+    void exhaustedDeadLetter() throws Exception {
+        // given
+        Mockito.when(streamGroupConfig.getDeadLetterGroup()).thenReturn(Optional.of("deadLetter"));
+        underTest.init("redis", GROUP, consumerBean);
+        underTest.deliveryCount = 3;
+        // when
+        boolean finished = underTest.handleFailure(ENTRY, FAILURE, 1);
+        // then
+        assertTrue(finished);
+        Mockito.verify(redisStreamService).deadLetterInCurrentConnection(ENTRY, FAILURE, 3);
+        Mockito.verify(redisStreamService, Mockito.never()).ackInCurrentConnection(ArgumentMatchers.any(StreamEntryID.class));
+    }
+
+    @Test
+    @DisplayName("Testing failed entry stays pending if the retry can not be scheduled")
+    void scheduleFailure() throws Exception {
+        // given
+        underTest.init("redis", GROUP, consumerBean);
+        underTest.deliveryCount = 1;
+        Mockito.doThrow(new IllegalStateException("redis down"))
+                .when(redisStreamService)
+                .scheduleRetryInCurrentConnection(ArgumentMatchers.any(), ArgumentMatchers.anyLong());
+        // when
+        boolean finished = underTest.handleFailure(ENTRY, FAILURE, 1);
+        // then
+        assertFalse(finished);
+        Mockito.verify(redisStreamService, Mockito.never()).ackInCurrentConnection(ArgumentMatchers.any(StreamEntryID.class));
+    }
+
+    @Test
+    @DisplayName("Testing only the possible duplicates are claimed before processing")
+    void claimIdempotency() throws Exception {
+        // given
+        Mockito.when(streamGroupConfig.getIdempotencyTtlMillis()).thenReturn(Optional.of(IDEMPOTENCY_TTL.toMillis()));
+        Mockito.when(redisStreamService.claimIdempotencyInCurrentConnection(List.of(KEYED_ENTRY), IDEMPOTENCY_TTL))
+                .thenReturn(Set.of(KEYED_ENTRY.getID()));
+        underTest.init("redis", GROUP, consumerBean);
+        // when
+        Set<StreamEntryID> duplicates = underTest.claimIdempotency(List.of(ENTRY, KEYED_ENTRY));
+        // then
+        assertEquals(Set.of(KEYED_ENTRY.getID()), duplicates);
+        Mockito.verify(redisStreamService).claimIdempotencyInCurrentConnection(List.of(KEYED_ENTRY), IDEMPOTENCY_TTL);
+    }
+
+    @Test
+    @DisplayName("Testing redelivered entry without idempotency key is claimed")
+    void claimRedelivered() throws Exception {
+        // given
+        Mockito.when(streamGroupConfig.getIdempotencyTtlMillis()).thenReturn(Optional.of(IDEMPOTENCY_TTL.toMillis()));
+        underTest.init("redis", GROUP, consumerBean);
+        underTest.deliveryCount = 2;
+        // when
+        underTest.claimIdempotency(List.of(ENTRY));
+        // then
+        Mockito.verify(redisStreamService).claimIdempotencyInCurrentConnection(List.of(ENTRY), IDEMPOTENCY_TTL);
+    }
+
+    @Test
+    @DisplayName("Testing the claim of the failed entry is released, release error is not propagated")
+    void releaseIdempotency() throws Exception {
+        // given
+        Mockito.when(streamGroupConfig.getIdempotencyTtlMillis()).thenReturn(Optional.of(IDEMPOTENCY_TTL.toMillis()));
+        Mockito.doThrow(new IllegalStateException("redis down"))
+                .when(redisStreamService)
+                .releaseIdempotencyInCurrentConnection(ArgumentMatchers.any());
+        underTest.init("redis", GROUP, consumerBean);
+        // when
+        underTest.releaseIdempotency(List.of(ENTRY, KEYED_ENTRY));
+        // then
+        Mockito.verify(redisStreamService).releaseIdempotencyInCurrentConnection(List.of(KEYED_ENTRY));
+    }
+
+    @Test
+    @DisplayName("Testing nothing is claimed if idempotency is disabled")
+    void idempotencyDisabled() throws Exception {
+        // given
+        underTest.init("redis", GROUP, consumerBean);
+        // when
+        Set<StreamEntryID> duplicates = underTest.claimIdempotency(List.of(KEYED_ENTRY));
+        underTest.releaseIdempotency(List.of(KEYED_ENTRY));
+        // then
+        assertTrue(duplicates.isEmpty());
+        Mockito.verify(redisStreamService, Mockito.never()).claimIdempotencyInCurrentConnection(ArgumentMatchers.any(), ArgumentMatchers.any());
+        Mockito.verify(redisStreamService, Mockito.never()).releaseIdempotencyInCurrentConnection(ArgumentMatchers.any());
+    }
+
+    @Test
+    @DisplayName("Testing connection error of the own ACK marks the consumer connection lost")
+    void ackConnectionLost() throws Exception {
+        // given
+        Mockito.doThrow(connectionError()).when(redisStreamService).ackInCurrentConnection(ENTRY.getID());
+        underTest.init("redis", GROUP, consumerBean);
+        // when
+        assertThrows(BaseException.class, () -> underTest.ack(ENTRY.getID()));
+        // then
+        assertTrue(underTest.isConnectionLost());
+    }
+
+    @Test
+    @DisplayName("Testing connection error of the business processing does not mark the consumer connection lost")
+    void processingConnectionError() throws Exception {
+        // given
+        underTest.init("redis", GROUP, consumerBean);
+        underTest.processingFailure = connectionError();
+        // when
+        assertThrows(BaseException.class, () -> underTest.consumeStreamEntry(ENTRY, null));
+        // then
+        assertFalse(underTest.isConnectionLost());
+        Mockito.verify(redisStreamService).scheduleRetryInCurrentConnection(ArgumentMatchers.eq(ENTRY.getID()), ArgumentMatchers.anyLong());
+    }
+
+    @Test
+    @DisplayName("Testing the later entries of a failed dispatch key are left pending, other keys are processed")
+    void laneFailedKey() throws Exception {
+        // given
+        Mockito.when(streamGroupConfig.getDispatchWorkers()).thenReturn(2);
+        Mockito.when(streamGroupConfig.getDispatchKeyField()).thenReturn(KEY_FIELD);
+        underTest.init("redis", GROUP, consumerBean);
+        StreamEntry failed = keyedEntry(1, "order-1");
+        StreamEntry skipped = keyedEntry(2, "order-1");
+        StreamEntry other = keyedEntry(3, "order-2");
+        underTest.failingEntries = Set.of(failed.getID());
+        long before = System.currentTimeMillis();
+        // when
+        underTest.consumeStreamEntriesInLanes(List.of(failed, skipped, other));
+        // then
+        assertEquals(List.of(failed.getID(), other.getID()), underTest.processedEntries.stream().sorted().toList());
+        Mockito.verify(redisStreamService).scheduleRetryInCurrentConnection(ArgumentMatchers.eq(failed.getID()), ArgumentMatchers.anyLong());
+        // not before the retry of the failed entry of the key
+        Mockito.verify(redisStreamService)
+                .scheduleRetryInCurrentConnection(ArgumentMatchers.eq(skipped.getID()), ArgumentMatchers.longThat(due -> due >= before + 60000));
+        Mockito.verify(redisStreamService).ackInCurrentConnection(List.of(other.getID()));
+    }
+
+    @Test
+    @DisplayName("Testing the reconnect wait is doubled up to the max")
+    void reconnectDelay() {
+        assertEquals(100, RedisStreamConsumerExecutor.reconnectDelayMillis(0));
+        assertEquals(200, RedisStreamConsumerExecutor.reconnectDelayMillis(1));
+        assertEquals(3200, RedisStreamConsumerExecutor.reconnectDelayMillis(5));
+        assertEquals(5000, RedisStreamConsumerExecutor.reconnectDelayMillis(6));
+        assertEquals(5000, RedisStreamConsumerExecutor.reconnectDelayMillis(Integer.MAX_VALUE));
+    }
+
+    private static StreamEntry keyedEntry(long sequence, String key) {
+        return new StreamEntry(new StreamEntryID(1700000000000L, sequence), Map.of("message", "m", KEY_FIELD, key));
+    }
+
+    private static TechnicalException connectionError() {
+        return new TechnicalException(CoffeeFaultType.REDIS_OPERATION_FAILED, "redis down", new JedisConnectionException("redis down"));
+    }
+
+    /**
+     * Consumer executor with settable delivery count, as the reclaimer
+     */
+    static class TestConsumerExecutor extends RedisStreamConsumerExecutor {
+
+        private long deliveryCount = 1;
+
+        private BaseException processingFailure;
+
+        private Set<StreamEntryID> failingEntries = Set.of();
+
+        private final List<StreamEntryID> processedEntries = new CopyOnWriteArrayList<>();
+
+        @Override
+        protected long getDeliveryCount(StreamEntry streamEntry) {
+            return deliveryCount;
+        }
+
+        @Override
+        protected Optional<Map<String, Object>> onStreamInRequestScope(StreamEntry streamEntry) throws BaseException {
+            processedEntries.add(streamEntry.getID());
+            if (processingFailure != null) {
+                throw processingFailure;
+            }
+            if (failingEntries.contains(streamEntry.getID())) {
+                throw new TechnicalException(CoffeeFaultType.OPERATION_FAILED, "failure");
+            }
+            return Optional.empty();
+        }
+    }
+}
@@ -0,0 +1,108 @@
+/*-
+ * #%L
+ * Coffee
+ * %%
+ * Copyright (C) 2020 - 2026 i-Cell Mobilsoft Zrt.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package hu.icellmobilsoft.coffee.module.redisstream.consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import redis.clients.jedis.StreamEntryID;
+import redis.clients.jedis.resps.StreamEntry;
+
+/**
+ * Testing the split of the batch into the parallel dispatch lanes of {@link RedisStreamConsumerExecutor}
+ *
+ * @author agent
+ * @since 2.13.0
+ */
+@DisplayName("Testing RedisStreamConsumerExecutor dispatch lanes")
+class RedisStreamConsumerExecutorLanesTest {
+
+    private static final String KEY_FIELD = "partitionKey";
+
+    private static final int WORKERS = 4;
+
+    @Test
+    @DisplayName("Testing entries with the same key get into the same lane in stream order")
+    void sameKeySameLaneInOrder() {
+        // given
+        List<StreamEntry> batch = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            batch.add(entry(i, "key-" + (i % 7)));
+        }
+        // when
+        List<List<StreamEntry>> lanes = RedisStreamConsumerExecutor.splitToLanes(batch, KEY_FIELD, WORKERS);
+        // then
+        assertEquals(WORKERS, lanes.size());
+        assertEquals(batch.size(), lanes.stream().mapToInt(List::size).sum());
+        Map<String, List<List<StreamEntry>>> lanesByKey = batch.stream()
+                .map(e -> e.getFields().get(KEY_FIELD))
+                .distinct()
+                .collect(Collectors.toMap(key -> key, key -> lanes.stream().filter(lane -> hasKey(lane, key)).toList()));
+        lanesByKey.forEach((key, keyLanes) -> assertEquals(1, keyLanes.size(), "key [" + key + "] is in more lanes"));
+        for (List<StreamEntry> lane : lanes) {
+            List<StreamEntry> sorted = lane.stream().sorted(Comparator.comparing(StreamEntry::getID)).toList();
+            assertEquals(sorted, lane);
+        }
+    }
+
+    @Test
+    @DisplayName("Testing entries without key are spread across the lanes")
+    void withoutKey() {
+        // given
+        List<StreamEntry> batch = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            batch.add(entry(i, null));
+        }
+        // when
+        List<List<StreamEntry>> lanes = RedisStreamConsumerExecutor.splitToLanes(batch, KEY_FIELD, WORKERS);
+        // then
+        assertEquals(batch.size(), lanes.stream().mapToInt(List::size).sum());
+        assertTrue(lanes.stream().filter(lane -> !lane.isEmpty()).count() > 1);
+    }
+
+    @Test
+    @DisplayName("Testing one worker keeps the whole batch in one lane")
+    void oneWorker() {
+        // given
+        List<StreamEntry> batch = List.of(entry(0, "a"), entry(1, "b"), entry(2, null));
+        // when
+        List<List<StreamEntry>> lanes = RedisStreamConsumerExecutor.splitToLanes(batch, KEY_FIELD, 1);
+        // then
+        assertEquals(List.of(batch), lanes);
+    }
+
+    private static boolean hasKey(List<StreamEntry> lane, String key) {
+        return lane.stream().anyMatch(e -> key.equals(e.getFields().get(KEY_FIELD)));
+    }
+
+    private static StreamEntry entry(int sequence, String key) {
+        Map<String, String> fields = key == null ? Map.of("message", "m") : Map.of("message", "m", KEY_FIELD, key);
+        return new StreamEntry(new StreamEntryID(1700000000000L, sequence), fields);
+    }
+}
@@ -0,0 +1,103 @@
+/*-
+ * #%L
+ * Coffee
+ * %%
+ * Copyright (C) 2020 - 2026 i-Cell Mobilsoft Zrt.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package hu.icellmobilsoft.coffee.module.redisstream.consumer;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import redis.clients.jedis.StreamEntryID;
+
+/**
+ * Testing {@link RedisStreamRetryBackoff}
+ *
+ * @author agent
+ * @since 2.13.0
+ */
+@DisplayName("Testing RedisStreamRetryBackoff")
+class RedisStreamRetryBackoffTest {
+
+    private static final StreamEntryID ID = new StreamEntryID(1700000000000L, 3);
+
+    @Test
+    @DisplayName("Testing exponential growth without jitter")
+    void growth() {
+        // given
+        RedisStreamRetryBackoff underTest = new RedisStreamRetryBackoff(1000, 2, 60000, 0);
+        // when
+        long[] delays = new long[5];
+        for (int delivered = 0; delivered < delays.length; delivered++) {
+            delays[delivered] = underTest.delayMillis(ID, delivered);
+        }
+        // then
+        assertArrayEquals(new long[] { 1000, 1000, 2000, 4000, 8000 }, delays);
+    }
+
+    @Test
+    @DisplayName("Testing backoff is limited by max")
+    void maxCap() {
+        // given
+        RedisStreamRetryBackoff underTest = new RedisStreamRetryBackoff(1000, 10, 5000, 0);
+        // when
+        long third = underTest.delayMillis(ID, 3);
+        long hundredth = underTest.delayMillis(ID, 100);
+        // then
+        assertEquals(5000, third);
+        assertEquals(5000, hundredth);
+        assertEquals(1000, underTest.minDelayMillis());
+        assertEquals(5000, underTest.maxDelayMillis());
+    }
+
+    @Test
+    @DisplayName("Testing jitter stays in bounds and is stable for the entry and delivery")
+    void jitter() {
+        // when
+        RedisStreamRetryBackoff underTest = new RedisStreamRetryBackoff(1000, 2, 4000, 0.2);
+        // then
+        assertEquals(800, underTest.minDelayMillis());
+        assertEquals(4800, underTest.maxDelayMillis());
+        boolean spread = false;
+        for (int sequence = 0; sequence < 100; sequence++) {
+            StreamEntryID id = new StreamEntryID(1700000000000L, sequence);
+            for (long delivered = 1; delivered <= 4; delivered++) {
+                long base = Math.min(4000, 1000L << (delivered - 1));
+                long delay = underTest.delayMillis(id, delivered);
+                assertTrue(delay >= base * 0.8 && delay <= base * 1.2, "delay out of jitter bounds: " + delay);
+                assertTrue(delay >= underTest.minDelayMillis() && delay <= underTest.maxDelayMillis());
+                assertEquals(delay, underTest.delayMillis(new StreamEntryID(id.toString()), delivered));
+                spread |= delay != base;
+            }
+        }
+        assertTrue(spread);
+    }
+
+    @Test
+    @DisplayName("Testing jitter is limited between 0 and 1")
+    void jitterLimit() {
+        // when
+        RedisStreamRetryBackoff underTest = new RedisStreamRetryBackoff(1000, 2, 4000, 5);
+        // then
+        assertEquals(0, underTest.minDelayMillis());
+        assertEquals(8000, underTest.maxDelayMillis());
+    }
+}
@@ -0,0 +1,131 @@
+/*-
+ * #%L
+ * Coffee
+ * %%
+ * Copyright (C) 2020 - 2026 i-Cell Mobilsoft Zrt.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package hu.icellmobilsoft.coffee.module.redisstream.consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import redis.clients.jedis.resps.StreamGroupInfo;
+
+/**
+ * Testing {@link StreamGroupInfoSample}
+ *
+ * @author agent
+ * @since 2.13.0
+ */
+@DisplayName("Testing StreamGroupInfoSample")
+class StreamGroupInfoSampleTest {
+
+    @Test
+    @DisplayName("Testing values of Redis 7 group info")
+    void redis7() {
+        // given
+        StreamGroupInfoSample underTest = new StreamGroupInfoSample();
+        // when
+        underTest.update(groupInfo(5L, 120L, 880L));
+        // then
+        assertEquals(5L, underTest.getPending().longValue());
+        assertEquals(120L, underTest.getLag().longValue());
+        assertEquals(880L, underTest.getEntriesRead().longValue());
+    }
+
+    @Test
+    @DisplayName("Testing lag and entries-read are NaN if the server does not report them")
+    void redis6() {
+        // given
+        StreamGroupInfoSample underTest = new StreamGroupInfoSample();
+        // when
+        underTest.update(groupInfo(5L, null, null));
+        // then
+        assertEquals(5L, underTest.getPending().longValue());
+        assertTrue(Double.isNaN(underTest.getLag().doubleValue()));
+        assertTrue(Double.isNaN(underTest.getEntriesRead().doubleValue()));
+    }
+
+    @Test
+    @DisplayName("Testing not sampled values are NaN")
+    void notSampled() {
+        // given
+        // when
+        StreamGroupInfoSample underTest = new StreamGroupInfoSample();
+        // then
+        assertTrue(Double.isNaN(underTest.getLag().doubleValue()));
+        assertTrue(Double.isNaN(underTest.getPending().doubleValue()));
+        assertTrue(Double.isNaN(underTest.getEntriesRead().doubleValue()));
+    }
+
+    @Test
+    @DisplayName("Testing only one caller samples in the interval")
+    void sampleInterval() {
+        // given
+        StreamGroupInfoSample underTest = new StreamGroupInfoSample();
+        // when
+        boolean first = underTest.tryStartSample(60000);
+        boolean second = underTest.tryStartSample(60000);
+        // then
+        assertTrue(first);
+        assertFalse(second);
+    }
+
+    @Test
+    @DisplayName("Testing the sample is shared by stream and group, created once")
+    void shared() {
+        // given
+        AtomicInteger created = new AtomicInteger();
+        // when
+        StreamGroupInfoSample first = StreamGroupInfoSample.of("sampleTestStream", "sampleTest", s -> created.incrementAndGet());
+        StreamGroupInfoSample second = StreamGroupInfoSample.of("sampleTestStream", "sampleTest", s -> created.incrementAndGet());
+        // then
+        assertSame(first, second);
+        assertSame(first, StreamGroupInfoSample.find("sampleTestStream", "sampleTest").orElseThrow());
+        assertTrue(StreamGroupInfoSample.find("sampleTestStream", "other").isEmpty());
+        assertEquals(1, created.get());
+    }
+
+    /**
+     * Creates XINFO GROUPS result of one group
+     *
+     * @param pending
+     *            pending count
+     * @param lag
+     *            lag, null if not reported
+     * @param entriesRead
+     *            entries read, null if not reported
+     * @return group info
+     */
+    static StreamGroupInfo groupInfo(long pending, Long lag, Long entriesRead) {
+        Map<String, Object> map = new HashMap<>();
+        map.put(StreamGroupInfo.NAME, "group");
+        map.put(StreamGroupInfo.CONSUMERS, 1L);
+        map.put(StreamGroupInfo.PENDING, pending);
+        map.put("lag", lag);
+        map.put("entries-read", entriesRead);
+        return new StreamGroupInfo(map);
+    }
+}
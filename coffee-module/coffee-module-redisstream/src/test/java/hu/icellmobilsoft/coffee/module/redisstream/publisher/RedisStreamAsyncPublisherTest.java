@@ -0,0 +1,231 @@
+/*-
+ * #%L
+ * Coffee
+ * %%
+ * Copyright (C) 2020 - 2026 i-Cell Mobilsoft Zrt.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package hu.icellmobilsoft.coffee.module.redisstream.publisher;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.lang.annotation.Annotation;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import jakarta.enterprise.concurrent.ManagedExecutorService;
+import jakarta.enterprise.inject.Instance;
+
+import org.eclipse.microprofile.config.Config;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import hu.icellmobilsoft.coffee.module.redis.manager.RedisManager;
+import hu.icellmobilsoft.coffee.module.redis.manager.RedisManagerConnection;
+import hu.icellmobilsoft.coffee.se.api.exception.TechnicalException;
+import hu.icellmobilsoft.coffee.se.logging.Logger;
+import redis.clients.jedis.AbstractPipeline;
+import redis.clients.jedis.Response;
+import redis.clients.jedis.StreamEntryID;
+
+/**
+ * Batching, linger and backpressure of {@link RedisStreamAsyncPublisher}. The flusher runs on a real thread, redis is mocked.
+ *
+ * @author agent
+ * @since 2.13.0
+ */
+@DisplayName("Testing RedisStreamAsyncPublisher")
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class RedisStreamAsyncPublisherTest {
+
+    private static final String CONFIG_KEY = "redis";
+
+    private static final String GROUP = "group";
+
+    private static final long TIMEOUT_SECONDS = 5;
+
+    @Mock
+    private Logger log;
+
+    @Mock
+    private Config config;
+
+    @Mock
+    private ManagedExecutorService managedExecutorService;
+
+    @Mock
+    private Instance<RedisStreamPublisher> publisherInstance;
+
+    @Mock
+    private Instance<RedisManager> redisManagerInstance;
+
+    @Mock
+    private Instance<RedisManager> configRedisManagerInstance;
+
+    @Mock
+    private RedisManager redisManager;
+
+    @Mock
+    private RedisStreamPublisher publisher;
+
+    @Mock
+    private AbstractPipeline pipeline;
+
+    @InjectMocks
+    private RedisStreamAsyncPublisher underTest;
+
+    private final Map<String, Object> configValues = new HashMap<>();
+
+    private final List<Thread> flusherThreads = new ArrayList<>();
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    @BeforeEach
+    void init() throws Exception {
+        Mockito.when(config.getOptionalValue(ArgumentMatchers.anyString(), ArgumentMatchers.any()))
+                .thenAnswer(invocation -> Optional.ofNullable(configValues.get(invocation.<String> getArgument(0))));
+        Mockito.when(managedExecutorService.submit(ArgumentMatchers.any(Runnable.class))).thenAnswer(invocation -> {
+            Thread thread = new Thread(invocation.<Runnable> getArgument(0));
+            flusherThreads.add(thread);
+            thread.start();
+            return CompletableFuture.completedFuture(null);
+        });
+        Mockito.when(publisherInstance.get()).thenReturn(publisher);
+        Mockito.when(redisManagerInstance.select(ArgumentMatchers.<Annotation> any())).thenReturn(configRedisManagerInstance);
+        Mockito.when(configRedisManagerInstance.get()).thenReturn(redisManager);
+        Mockito.when(redisManager.initConnection()).thenReturn(Mockito.mock(RedisManagerConnection.class));
+        Mockito.when(publisher.createJedisMessage(ArgumentMatchers.anyString(), ArgumentMatchers.any()))
+                .thenAnswer(invocation -> Map.of("message", invocation.getArgument(0)));
+        Mockito.when(publisher.initPipeline()).thenReturn(pipeline);
+        Mockito.when(publisher.publishThroughPipeline(ArgumentMatchers.eq(pipeline), ArgumentMatchers.anyString(), ArgumentMatchers.any()))
+                .thenAnswer(invocation -> response(new StreamEntryID(1, sequence.getAndIncrement())));
+    }
+
+    @AfterEach
+    void shutdown() throws Exception {
+        configValues.put(RedisStreamAsyncPublisher.CONFIG_SHUTDOWN_TIMEOUT_MILLIS, 1000L);
+        underTest.shutdown();
+        for (Thread thread : flusherThreads) {
+            thread.join(TimeUnit.SECONDS.toMillis(TIMEOUT_SECONDS));
+        }
+    }
+
+    @Test
+    @DisplayName("Testing full batch is sent in one pipeline without waiting for the linger time")
+    void batch() throws Exception {
+        // given
+        configValues.put(RedisStreamAsyncPublisher.CONFIG_BATCH_SIZE, 3);
+        configValues.put(RedisStreamAsyncPublisher.CONFIG_LINGER_MILLIS, TimeUnit.MINUTES.toMillis(1));
+        // when
+        List<CompletableFuture<StreamEntryID>> results = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            results.add(underTest.publish(CONFIG_KEY, GROUP, "message" + i).toCompletableFuture());
+        }
+        // then
+        for (int i = 0; i < 3; i++) {
+            assertEquals(new StreamEntryID(1, i), results.get(i).get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        }
+        Mockito.verify(pipeline).sync();
+        Mockito.verify(publisher, Mockito.times(3)).publishThroughPipeline(ArgumentMatchers.eq(pipeline), ArgumentMatchers.eq(GROUP),
+                ArgumentMatchers.any());
+        Mockito.verify(managedExecutorService).submit(ArgumentMatchers.any(Runnable.class));
+    }
+
+    @Test
+    @DisplayName("Testing not full batch is sent after the linger time")
+    void linger() throws Exception {
+        // given
+        configValues.put(RedisStreamAsyncPublisher.CONFIG_BATCH_SIZE, 100);
+        configValues.put(RedisStreamAsyncPublisher.CONFIG_LINGER_MILLIS, 50L);
+        // when
+        CompletableFuture<StreamEntryID> result = underTest.publish(CONFIG_KEY, GROUP, "message").toCompletableFuture();
+        // then
+        assertEquals(new StreamEntryID(1, 0), result.get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        Mockito.verify(pipeline).sync();
+    }
+
+    @Test
+    @DisplayName("Testing publication is rejected if the queue is full")
+    void fullQueue() throws Exception {
+        // given
+        configValues.put(RedisStreamAsyncPublisher.CONFIG_QUEUE_CAPACITY, 1);
+        configValues.put(RedisStreamAsyncPublisher.CONFIG_OFFER_TIMEOUT_MILLIS, 10L);
+        // the flusher is not started, nothing is taken from the queue
+        Mockito.when(managedExecutorService.submit(ArgumentMatchers.any(Runnable.class))).thenReturn(CompletableFuture.completedFuture(null));
+        // when
+        CompletableFuture<StreamEntryID> queued = underTest.publish(CONFIG_KEY, GROUP, "queued").toCompletableFuture();
+        CompletableFuture<StreamEntryID> rejected = underTest.publish(CONFIG_KEY, GROUP, "rejected").toCompletableFuture();
+        // then
+        assertFalse(queued.isDone());
+        ExecutionException exception = assertThrows(ExecutionException.class, () -> rejected.get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        assertInstanceOf(TechnicalException.class, exception.getCause());
+    }
+
+    @Test
+    @DisplayName("Testing no flusher is started after shut down")
+    void afterShutdown() throws Exception {
+        // given
+        underTest.shutdown();
+        // when
+        CompletableFuture<StreamEntryID> result = underTest.publish(CONFIG_KEY, GROUP, "message").toCompletableFuture();
+        // then
+        ExecutionException exception = assertThrows(ExecutionException.class, () -> result.get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        assertInstanceOf(TechnicalException.class, exception.getCause());
+        Mockito.verify(managedExecutorService, Mockito.never()).submit(ArgumentMatchers.any(Runnable.class));
+        Mockito.verify(publisherInstance, Mockito.never()).get();
+    }
+
+    @Test
+    @DisplayName("Testing publishers are destroyed when the flusher stops")
+    void destroyPublishers() throws Exception {
+        // given
+        configValues.put(RedisStreamAsyncPublisher.CONFIG_LINGER_MILLIS, 0L);
+        underTest.publish(CONFIG_KEY, GROUP, "message").toCompletableFuture().get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        // when
+        shutdown();
+        // then
+        // the message publisher and the publisher of the group
+        Mockito.verify(publisherInstance, Mockito.times(2)).destroy(publisher);
+        Mockito.verify(configRedisManagerInstance).destroy(redisManager);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Response<StreamEntryID> response(StreamEntryID id) {
+        Response<StreamEntryID> response = Mockito.mock(Response.class);
+        Mockito.when(response.get()).thenReturn(id);
+        return response;
+    }
+}